@@ -53,5 +53,29 @@ public class DMAJNI extends JNIWrapper {
   public static native long readDMA(
       int handle, double timeoutSeconds, int[] buffer, int[] sampleStore);
 
+  /**
+   * Reads up to maxSamples queued samples in one call. Only the first read waits up to the timeout;
+   * after that, only samples already in the queue are read.
+   *
+   * <p>The raw data of sample i is stored in buffer starting at i * capture size, and its timestamp
+   * in timestamps[i]. sampleStore is filled in the same way as by readDMA, using the last sample
+   * read; its read status is OK if any samples were read.
+   *
+   * @param handle the dma handle
+   * @param timeoutSeconds the time to wait for the first sample
+   * @param maxSamples the maximum number of samples to read
+   * @param timestamps array of at least maxSamples timestamps to fill, in microseconds
+   * @param buffer array of at least maxSamples * 74 ints to fill with raw sample data
+   * @param sampleStore array of at least 26 ints to fill with the sample layout and read status
+   * @return the number of samples read
+   */
+  public static native int readDMABulk(
+      int handle,
+      double timeoutSeconds,
+      int maxSamples,
+      long[] timestamps,
+      int[] buffer,
+      int[] sampleStore);
+
   public static native DMAJNISample.BaseStore getSensorReadData(int handle);
 }
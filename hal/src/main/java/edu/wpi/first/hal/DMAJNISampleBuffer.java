@@ -0,0 +1,206 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.hal;
+
+import java.util.Arrays;
+
+/**
+ * Holds a block of DMA samples read by a single {@link DMAJNI#readDMABulk} call, and decodes sensor
+ * values from all of them into primitive arrays.
+ */
+@SuppressWarnings("AbbreviationAsWordInName")
+public class DMAJNISampleBuffer {
+  // Maximum number of ints in the raw data of one sample
+  private static final int kMaxCaptureSize = 74;
+
+  private final int m_capacity;
+  private final long[] m_timeStamps;
+  private final int[] m_dataBuffer;
+  private final int[] m_storage = new int[26];
+  private int m_count;
+
+  // Read data of the sensors looked up so far, in parallel arrays. A DMA capture only has a few
+  // sensors, so a linear search is fast and avoids boxing the handle on every lookup.
+  private int[] m_sensorHandles = new int[8];
+  private DMAJNISample.BaseStore[] m_sensorData = new DMAJNISample.BaseStore[8];
+  private int m_sensorCount;
+
+  /**
+   * Constructs a sample buffer.
+   *
+   * @param capacity the maximum number of samples to read at once
+   */
+  public DMAJNISampleBuffer(int capacity) {
+    m_capacity = capacity;
+    m_timeStamps = new long[capacity];
+    m_dataBuffer = new int[capacity * kMaxCaptureSize];
+  }
+
+  /**
+   * Reads up to the capacity of queued samples, waiting up to the timeout for the first one.
+   *
+   * @param dmaHandle the dma handle
+   * @param timeoutSeconds the time to wait for the first sample
+   * @return the read status
+   */
+  public int update(int dmaHandle, double timeoutSeconds) {
+    m_count =
+        DMAJNI.readDMABulk(
+            dmaHandle, timeoutSeconds, m_capacity, m_timeStamps, m_dataBuffer, m_storage);
+    return m_storage[25];
+  }
+
+  /**
+   * Stores samples directly, for testing without DMA hardware.
+   *
+   * @param count the number of samples
+   * @param timeStamps the sample timestamps
+   * @param data the raw data of the samples, one after another
+   * @param storage the sample layout, as filled in by readDMA
+   */
+  void setSamples(int count, long[] timeStamps, int[] data, int[] storage) {
+    m_count = count;
+    System.arraycopy(timeStamps, 0, m_timeStamps, 0, count);
+    System.arraycopy(data, 0, m_dataBuffer, 0, data.length);
+    System.arraycopy(storage, 0, m_storage, 0, m_storage.length);
+  }
+
+  public int getCapacity() {
+    return m_capacity;
+  }
+
+  public int getCount() {
+    return m_count;
+  }
+
+  public int getCaptureSize() {
+    return m_storage[22];
+  }
+
+  public int getRemaining() {
+    return m_storage[24];
+  }
+
+  /**
+   * Copies the timestamps of the samples into an array.
+   *
+   * @param timeStamps array of at least getCount() elements to fill, in microseconds
+   */
+  public void getTimes(long[] timeStamps) {
+    System.arraycopy(m_timeStamps, 0, timeStamps, 0, m_count);
+  }
+
+  private DMAJNISample.BaseStore getSensor(int handle) {
+    for (int i = 0; i < m_sensorCount; i++) {
+      if (m_sensorHandles[i] == handle) {
+        return m_sensorData[i];
+      }
+    }
+    DMAJNISample.BaseStore data = DMAJNI.getSensorReadData(handle);
+    addSensor(handle, data);
+    return data;
+  }
+
+  /**
+   * Registers the read data of a sensor directly, for testing without DMA hardware.
+   *
+   * @param handle the sensor handle
+   * @param data where the sensor is stored in a sample
+   */
+  void addSensor(int handle, DMAJNISample.BaseStore data) {
+    if (m_sensorCount == m_sensorHandles.length) {
+      m_sensorHandles = Arrays.copyOf(m_sensorHandles, m_sensorCount * 2);
+      m_sensorData = Arrays.copyOf(m_sensorData, m_sensorCount * 2);
+    }
+    m_sensorHandles[m_sensorCount] = handle;
+    m_sensorData[m_sensorCount] = data;
+    m_sensorCount++;
+  }
+
+  /**
+   * Copies one int from each sample into an array.
+   *
+   * @param valueType the channel of the value
+   * @param index the index of the value within the channel
+   * @param values array of at least getCount() elements to fill
+   */
+  private void readValues(int valueType, int index, int[] values) {
+    int offset = m_storage[valueType];
+    if (offset == -1) {
+      throw new RuntimeException("Resource not found in DMA capture");
+    }
+    int captureSize = getCaptureSize();
+    for (int i = 0, pos = offset + index; i < m_count; i++, pos += captureSize) {
+      values[i] = m_dataBuffer[pos];
+    }
+  }
+
+  public void getEncoder(int encoderHandle, int[] values) {
+    DMAJNISample.BaseStore data = getSensor(encoderHandle);
+    readValues(data.m_valueType, data.m_index, values);
+  }
+
+  public void getEncoderPeriod(int encoderHandle, int[] values) {
+    DMAJNISample.BaseStore data = getSensor(encoderHandle);
+    // + 2 Hack, but needed to not have to call into JNI
+    readValues(data.m_valueType + 2, data.m_index, values);
+  }
+
+  public void getCounter(int counterHandle, int[] values) {
+    DMAJNISample.BaseStore data = getSensor(counterHandle);
+    readValues(data.m_valueType, data.m_index, values);
+  }
+
+  public void getCounterPeriod(int counterHandle, int[] values) {
+    DMAJNISample.BaseStore data = getSensor(counterHandle);
+    // Hack, but needed to not have to call into JNI
+    readValues(data.m_valueType + 2, data.m_index, values);
+  }
+
+  /**
+   * Decodes a digital source from each sample.
+   *
+   * @param digitalSourceHandle the digital source handle
+   * @param values array of at least getCount() elements to fill
+   */
+  public void getDigitalSource(int digitalSourceHandle, boolean[] values) {
+    DMAJNISample.BaseStore data = getSensor(digitalSourceHandle);
+    int offset = m_storage[data.m_valueType];
+    if (offset == -1) {
+      throw new RuntimeException("Resource not found in DMA capture");
+    }
+    int captureSize = getCaptureSize();
+    for (int i = 0, pos = offset; i < m_count; i++, pos += captureSize) {
+      values[i] = ((m_dataBuffer[pos] >> data.m_index) & 0x1) != 0;
+    }
+  }
+
+  /**
+   * Decodes the raw value of an analog input from each sample.
+   *
+   * @param analogInputHandle the analog input handle
+   * @param values array of at least getCount() elements to fill
+   */
+  public void getAnalogInput(int analogInputHandle, int[] values) {
+    DMAJNISample.BaseStore data = getSensor(analogInputHandle);
+    readValues(data.m_valueType, data.m_index / 2, values);
+    // Two 16-bit values are packed in each int
+    int shift = (data.m_index % 2) != 0 ? 16 : 0;
+    for (int i = 0; i < m_count; i++) {
+      values[i] = (values[i] >>> shift) & 0xFFFF;
+    }
+  }
+
+  public void getAnalogInputAveraged(int analogInputHandle, int[] values) {
+    DMAJNISample.BaseStore data = getSensor(analogInputHandle);
+    // + 2 Hack, but needed to not have to call into JNI
+    readValues(data.m_valueType + 2, data.m_index, values);
+  }
+
+  public void getDutyCycleOutput(int dutyCycleHandle, int[] values) {
+    DMAJNISample.BaseStore data = getSensor(dutyCycleHandle);
+    readValues(data.m_valueType, data.m_index, values);
+  }
+}
@@ -0,0 +1,26 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.hal.simulation;
+
+import edu.wpi.first.hal.JNIWrapper;
+
+public class DMADataJNI extends JNIWrapper {
+  /**
+   * Queues a sample to be read from DMA.
+   *
+   * @param handle the dma handle
+   * @param timestamp the sample timestamp, in microseconds
+   * @param data the raw sample data, at most 74 ints
+   * @param channelOffsets the offset of each of the 22 channels in data, or -1 if not captured
+   * @param triggerChannels the trigger channel bits
+   * @return true if queued; false if DMA isn't running, is paused, or its queue is full
+   */
+  public static native boolean feedSample(
+      int handle, long timestamp, int[] data, int[] channelOffsets, int triggerChannels);
+
+  public static native int getQueuedSamples(int handle);
+
+  public static native boolean getStarted(int handle);
+}
@@ -0,0 +1,22 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+#include "hal/simulation/DMAData.h"
+
+extern "C" {
+
+HAL_Bool HALSIM_FeedDMASample(HAL_DMAHandle handle,
+                              const struct HAL_DMASample* sample) {
+  return false;
+}
+
+int32_t HALSIM_GetDMAQueuedSamples(HAL_DMAHandle handle) {
+  return 0;
+}
+
+HAL_Bool HALSIM_GetDMAStarted(HAL_DMAHandle handle) {
+  return false;
+}
+
+}  // extern "C"
@@ -4,6 +4,7 @@
 
 #include <algorithm>
 #include <cstring>
+#include <utility>
 
 #include "HALUtil.h"
 #include "edu_wpi_first_hal_DMAJNI.h"
@@ -329,6 +330,101 @@ Java_edu_wpi_first_hal_DMAJNI_readDMA
   return dmaSample.timeStamp;
 }
 
+/*
+ * Class:     edu_wpi_first_hal_DMAJNI
+ * Method:    readDMABulk
+ * Signature: (IDI[J[I[I)I
+ */
+JNIEXPORT jint JNICALL
+Java_edu_wpi_first_hal_DMAJNI_readDMABulk
+  (JNIEnv* env, jclass, jint handle, jdouble timeoutSeconds, jint maxSamples,
+   jlongArray timestamps, jintArray buf, jintArray store)
+{
+  constexpr jint kMaxCaptureSize =
+      sizeof(HAL_DMASample::readBuffer) / sizeof(HAL_DMASample::readBuffer[0]);
+  constexpr jint kNumChannelOffsets =
+      sizeof(HAL_DMASample::channelOffsets) /
+      sizeof(HAL_DMASample::channelOffsets[0]);
+  // Channel offsets, capture size, trigger channels, remaining, read status
+  constexpr jint kStoreSize = kNumChannelOffsets + 4;
+  if (!timestamps || !buf || !store) {
+    ThrowIllegalArgumentException(env, "arrays must not be null");
+    return 0;
+  }
+  if (env->GetArrayLength(store) < kStoreSize) {
+    ThrowIllegalArgumentException(env, "store array too small");
+    return 0;
+  }
+  if (maxSamples < 1 || env->GetArrayLength(timestamps) < maxSamples ||
+      env->GetArrayLength(buf) / kMaxCaptureSize < maxSamples) {
+    ThrowIllegalArgumentException(env, "arrays too small for maxSamples");
+    return 0;
+  }
+
+  // Alternate between two samples so a failed read keeps the last good one
+  HAL_DMASample samples[2];
+  std::memset(samples, 0, sizeof(samples));
+  HAL_DMASample* dmaSample = &samples[0];
+  HAL_DMASample* next = &samples[1];
+
+  // Wait for the first sample before pinning the arrays, as that blocks the
+  // garbage collector
+  int32_t status = 0;
+  int32_t remaining = 0;
+  HAL_DMAReadStatus readStatus =
+      HAL_ReadDMA(handle, dmaSample, timeoutSeconds, &remaining, &status);
+  jint count = 0;
+
+  if (status == 0 && readStatus == HAL_DMA_OK) {
+    static_assert(sizeof(uint32_t) == sizeof(jint),
+                  "Java ints must be 32 bits");
+
+    jlong* times = static_cast<jlong*>(
+        env->GetPrimitiveArrayCritical(timestamps, nullptr));
+    uint32_t* data =
+        static_cast<uint32_t*>(env->GetPrimitiveArrayCritical(buf, nullptr));
+    uint32_t* dataOut = data;
+
+    // After the first sample, drain only what's already queued
+    for (;;) {
+      times[count++] = static_cast<jlong>(dmaSample->timeStamp);
+      dataOut = std::copy_n(dmaSample->readBuffer, dmaSample->captureSize,
+                            dataOut);
+      if (count == maxSamples || remaining == 0) {
+        break;
+      }
+      int32_t nextRemaining = 0;
+      HAL_DMAReadStatus nextStatus =
+          HAL_ReadDMA(handle, next, 0.0, &nextRemaining, &status);
+      if (status != 0 || nextStatus != HAL_DMA_OK) {
+        // Keep the samples already read; the error will recur on the next read
+        status = 0;
+        break;
+      }
+      std::swap(dmaSample, next);
+      remaining = nextRemaining;
+    }
+
+    env->ReleasePrimitiveArrayCritical(buf, data, 0);
+    env->ReleasePrimitiveArrayCritical(timestamps, times, 0);
+  }
+  CheckStatus(env, status);
+
+  int32_t* nativeArr =
+      static_cast<int32_t*>(env->GetPrimitiveArrayCritical(store, nullptr));
+
+  std::copy_n(dmaSample->channelOffsets, kNumChannelOffsets, nativeArr);
+  nativeArr[kNumChannelOffsets] = static_cast<int32_t>(dmaSample->captureSize);
+  nativeArr[kNumChannelOffsets + 1] =
+      static_cast<int32_t>(dmaSample->triggerChannels);
+  nativeArr[kNumChannelOffsets + 2] = remaining;
+  nativeArr[kNumChannelOffsets + 3] = readStatus;
+
+  env->ReleasePrimitiveArrayCritical(store, nativeArr, 0);
+
+  return count;
+}
+
 // TODO sync these up
 enum DMAOffsetConstants {
   kEnable_AI0_Low = 0,
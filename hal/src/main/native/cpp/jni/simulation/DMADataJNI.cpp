@@ -0,0 +1,79 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+#include <jni.h>
+
+#include <cstring>
+
+#include "../HALUtil.h"
+#include "edu_wpi_first_hal_simulation_DMADataJNI.h"
+#include "hal/simulation/DMAData.h"
+
+using namespace hal;
+
+extern "C" {
+
+/*
+ * Class:     edu_wpi_first_hal_simulation_DMADataJNI
+ * Method:    feedSample
+ * Signature: (IJ[I[II)Z
+ */
+JNIEXPORT jboolean JNICALL
+Java_edu_wpi_first_hal_simulation_DMADataJNI_feedSample
+  (JNIEnv* env, jclass, jint handle, jlong timestamp, jintArray data,
+   jintArray channelOffsets, jint triggerChannels)
+{
+  HAL_DMASample sample;
+  std::memset(&sample, 0, sizeof(sample));
+  constexpr jsize kMaxCaptureSize =
+      sizeof(sample.readBuffer) / sizeof(sample.readBuffer[0]);
+  constexpr jsize kNumChannels =
+      sizeof(sample.channelOffsets) / sizeof(sample.channelOffsets[0]);
+  if (!data || !channelOffsets) {
+    ThrowIllegalArgumentException(env, "arrays must not be null");
+    return false;
+  }
+  jsize size = env->GetArrayLength(data);
+  if (size > kMaxCaptureSize ||
+      env->GetArrayLength(channelOffsets) != kNumChannels) {
+    ThrowIllegalArgumentException(env, "invalid sample data or layout");
+    return false;
+  }
+
+  static_assert(sizeof(uint32_t) == sizeof(jint), "Java ints must be 32 bits");
+  env->GetIntArrayRegion(data, 0, size,
+                         reinterpret_cast<jint*>(sample.readBuffer));
+  env->GetIntArrayRegion(channelOffsets, 0, kNumChannels,
+                         reinterpret_cast<jint*>(sample.channelOffsets));
+  sample.timeStamp = timestamp;
+  sample.captureSize = size;
+  sample.triggerChannels = triggerChannels;
+  return HALSIM_FeedDMASample(handle, &sample);
+}
+
+/*
+ * Class:     edu_wpi_first_hal_simulation_DMADataJNI
+ * Method:    getQueuedSamples
+ * Signature: (I)I
+ */
+JNIEXPORT jint JNICALL
+Java_edu_wpi_first_hal_simulation_DMADataJNI_getQueuedSamples
+  (JNIEnv*, jclass, jint handle)
+{
+  return HALSIM_GetDMAQueuedSamples(handle);
+}
+
+/*
+ * Class:     edu_wpi_first_hal_simulation_DMADataJNI
+ * Method:    getStarted
+ * Signature: (I)Z
+ */
+JNIEXPORT jboolean JNICALL
+Java_edu_wpi_first_hal_simulation_DMADataJNI_getStarted
+  (JNIEnv*, jclass, jint handle)
+{
+  return HALSIM_GetDMAStarted(handle);
+}
+
+}  // extern "C"
@@ -0,0 +1,46 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+#pragma once
+
+#include "hal/DMA.h"
+#include "hal/Types.h"
+
+#ifdef __cplusplus
+extern "C" {
+#endif
+
+/**
+ * Queues a sample to be read by HAL_ReadDMA().
+ *
+ * The sample is returned as is, so it must be filled in with the raw data
+ * and channel layout the reader expects.
+ *
+ * @param handle the dma handle
+ * @param sample the sample to queue
+ * @return true if queued; false if DMA isn't running, is paused, or its queue
+ *         is full
+ */
+HAL_Bool HALSIM_FeedDMASample(HAL_DMAHandle handle,
+                              const struct HAL_DMASample* sample);
+
+/**
+ * Gets the number of queued samples that haven't been read yet.
+ *
+ * @param handle the dma handle
+ * @return the number of queued samples
+ */
+int32_t HALSIM_GetDMAQueuedSamples(HAL_DMAHandle handle);
+
+/**
+ * Gets whether DMA is running.
+ *
+ * @param handle the dma handle
+ * @return true if started and not stopped
+ */
+HAL_Bool HALSIM_GetDMAStarted(HAL_DMAHandle handle);
+
+#ifdef __cplusplus
+}  // extern "C"
+#endif
@@ -4,13 +4,81 @@
 
 #include "hal/DMA.h"
 
+#include <chrono>
+#include <deque>
+
+#include <wpi/condition_variable.h>
+#include <wpi/mutex.h>
+
+#include "HALInitializer.h"
+#include "hal/Errors.h"
+#include "hal/handles/LimitedHandleResource.h"
+#include "hal/simulation/DMAData.h"
+
+using namespace hal;
+
+namespace {
+// The sensors aren't simulated, so the samples are whatever the simulation
+// feeds with HALSIM_FeedDMASample().
+struct DMA {
+  wpi::mutex mutex;
+  wpi::condition_variable cond;
+  bool started = false;
+  bool paused = false;
+  size_t queueDepth = 0;
+  std::deque<HAL_DMASample> queue;
+};
+}  // namespace
+
+static LimitedHandleResource<HAL_DMAHandle, DMA, 1, HAL_HandleEnum::DMA>*
+    dmaHandles;
+
+namespace hal::init {
+void InitializeDMA() {
+  static LimitedHandleResource<HAL_DMAHandle, DMA, 1, HAL_HandleEnum::DMA> dH;
+  dmaHandles = &dH;
+}
+}  // namespace hal::init
+
 extern "C" {
 HAL_DMAHandle HAL_InitializeDMA(int32_t* status) {
-  return HAL_kInvalidHandle;
+  hal::init::CheckInit();
+  HAL_DMAHandle handle = dmaHandles->Allocate();
+  if (handle == HAL_kInvalidHandle) {
+    *status = NO_AVAILABLE_RESOURCES;
+    return HAL_kInvalidHandle;
+  }
+  return handle;
+}
+
+void HAL_FreeDMA(HAL_DMAHandle handle) {
+  auto dma = dmaHandles->Get(handle);
+  dmaHandles->Free(handle);
+  if (!dma) {
+    return;
+  }
+  {
+    std::scoped_lock lock(dma->mutex);
+    dma->started = false;
+    dma->queue.clear();
+  }
+  dma->cond.notify_all();  // wake up any waiting readers
+}
+
+void HAL_SetDMAPause(HAL_DMAHandle handle, HAL_Bool pause, int32_t* status) {
+  auto dma = dmaHandles->Get(handle);
+  if (!dma) {
+    *status = HAL_HANDLE_ERROR;
+    return;
+  }
+  std::scoped_lock lock(dma->mutex);
+  if (!dma->started) {
+    *status = HAL_INVALID_DMA_STATE;
+    return;
+  }
+  dma->paused = pause;
 }
-void HAL_FreeDMA(HAL_DMAHandle handle) {}
 
-void HAL_SetDMAPause(HAL_DMAHandle handle, HAL_Bool pause, int32_t* status) {}
 void HAL_SetDMATimedTrigger(HAL_DMAHandle handle, double periodSeconds,
                             int32_t* status) {}
 void HAL_SetDMATimedTriggerCycles(HAL_DMAHandle handle, uint32_t cycles,
@@ -54,11 +122,39 @@ int32_t HAL_SetDMAExternalTrigger(HAL_DMAHandle handle,
 void HAL_ClearDMASensors(HAL_DMAHandle handle, int32_t* status) {}
 void HAL_ClearDMAExternalTriggers(HAL_DMAHandle handle, int32_t* status) {}
 
-void HAL_StartDMA(HAL_DMAHandle handle, int32_t queueDepth, int32_t* status) {}
-void HAL_StopDMA(HAL_DMAHandle handle, int32_t* status) {}
+void HAL_StartDMA(HAL_DMAHandle handle, int32_t queueDepth, int32_t* status) {
+  auto dma = dmaHandles->Get(handle);
+  if (!dma) {
+    *status = HAL_HANDLE_ERROR;
+    return;
+  }
+  std::scoped_lock lock(dma->mutex);
+  if (dma->started) {
+    *status = HAL_INVALID_DMA_STATE;
+    return;
+  }
+  dma->started = true;
+  dma->paused = false;
+  dma->queueDepth = queueDepth > 0 ? queueDepth : 0;
+}
+
+void HAL_StopDMA(HAL_DMAHandle handle, int32_t* status) {
+  auto dma = dmaHandles->Get(handle);
+  if (!dma) {
+    *status = HAL_HANDLE_ERROR;
+    return;
+  }
+  {
+    std::scoped_lock lock(dma->mutex);
+    dma->started = false;
+    dma->queue.clear();
+  }
+  dma->cond.notify_all();
+}
 
 void* HAL_GetDMADirectPointer(HAL_DMAHandle handle) {
-  return nullptr;
+  auto dma = dmaHandles->Get(handle);
+  return dma.get();
 }
 
 enum HAL_DMAReadStatus HAL_ReadDMADirect(void* dmaPointer,
@@ -66,19 +162,50 @@ enum HAL_DMAReadStatus HAL_ReadDMADirect(void* dmaPointer,
                                          double timeoutSeconds,
                                          int32_t* remainingOut,
                                          int32_t* status) {
-  return HAL_DMA_ERROR;
+  DMA* dma = static_cast<DMA*>(dmaPointer);
+  *remainingOut = 0;
+
+  std::unique_lock lock(dma->mutex);
+  if (!dma->started) {
+    *status = HAL_INVALID_DMA_STATE;
+    return HAL_DMA_ERROR;
+  }
+
+  if (timeoutSeconds > 0) {
+    dma->cond.wait_for(lock, std::chrono::duration<double>(timeoutSeconds),
+                       [&] { return !dma->queue.empty() || !dma->started; });
+  }
+  if (!dma->started) {
+    *status = HAL_INVALID_DMA_STATE;
+    return HAL_DMA_ERROR;
+  }
+  if (dma->queue.empty()) {
+    return HAL_DMA_TIMEOUT;
+  }
+
+  *dmaSample = dma->queue.front();
+  dma->queue.pop_front();
+  *remainingOut = dma->queue.size();
+  return HAL_DMA_OK;
 }
 
 enum HAL_DMAReadStatus HAL_ReadDMA(HAL_DMAHandle handle,
                                    HAL_DMASample* dmaSample,
                                    double timeoutSeconds, int32_t* remainingOut,
                                    int32_t* status) {
-  return HAL_DMA_ERROR;
+  auto dma = dmaHandles->Get(handle);
+  if (!dma) {
+    *status = HAL_HANDLE_ERROR;
+    return HAL_DMA_ERROR;
+  }
+
+  return HAL_ReadDMADirect(dma.get(), dmaSample, timeoutSeconds, remainingOut,
+                           status);
 }
 
 // Sampling Code
 uint64_t HAL_GetDMASampleTime(const HAL_DMASample* dmaSample, int32_t* status) {
-  return 0;
+  return dmaSample->timeStamp;
 }
 
 int32_t HAL_GetDMASampleEncoderRaw(const HAL_DMASample* dmaSample,
@@ -131,4 +258,46 @@ int32_t HAL_GetDMASampleDutyCycleOutputRaw(const HAL_DMASample* dmaSample,
                                            int32_t* status) {
   return 0;
 }
+
+HAL_Bool HALSIM_FeedDMASample(HAL_DMAHandle handle,
+                              const struct HAL_DMASample* sample) {
+  auto dma = dmaHandles->Get(handle);
+  if (!dma) {
+    return false;
+  }
+  {
+    constexpr size_t kMaxCaptureSize =
+        sizeof(sample->readBuffer) / sizeof(sample->readBuffer[0]);
+    if (sample->captureSize > kMaxCaptureSize) {
+      return false;
+    }
+    std::scoped_lock lock(dma->mutex);
+    // Like the FPGA FIFO, drop samples while stopped, paused, or full
+    if (!dma->started || dma->paused ||
+        dma->queue.size() >= dma->queueDepth) {
+      return false;
+    }
+    dma->queue.push_back(*sample);
+  }
+  dma->cond.notify_all();
+  return true;
+}
+
+int32_t HALSIM_GetDMAQueuedSamples(HAL_DMAHandle handle) {
+  auto dma = dmaHandles->Get(handle);
+  if (!dma) {
+    return 0;
+  }
+  std::scoped_lock lock(dma->mutex);
+  return dma->queue.size();
+}
+
+HAL_Bool HALSIM_GetDMAStarted(HAL_DMAHandle handle) {
+  auto dma = dmaHandles->Get(handle);
+  if (!dma) {
+    return false;
+  }
+  std::scoped_lock lock(dma->mutex);
+  return dma->started;
+}
 }  // extern "C"
@@ -95,6 +95,7 @@ void InitializeHAL() {
   InitializeCounter();
   InitializeDigitalInternal();
   InitializeDIO();
+  InitializeDMA();
   InitializeDutyCycle();
   InitializeDriverStation();
   InitializeEncoder();
@@ -53,6 +53,7 @@ extern void InitializeConstants();
 extern void InitializeCounter();
 extern void InitializeDigitalInternal();
 extern void InitializeDIO();
+extern void InitializeDMA();
 extern void InitializeDriverStation();
 extern void InitializeEncoder();
 extern void InitializeExtensions();
@@ -0,0 +1,99 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.hal;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class DMAJNISampleBufferTest {
+  // Channel offsets, from DMAJNI.cpp
+  private static final int kEnable_AI0_Low = 0;
+  private static final int kEnable_DI = 10;
+  private static final int kEnable_Encoders_Low = 16;
+
+  private static final int kEncoderHandle = 1;
+  private static final int kDigitalHandle = 2;
+  private static final int kAnalogHandle = 3;
+
+  /** Three samples, each with one encoder channel, the DIO channel and one analog channel. */
+  private static DMAJNISampleBuffer createBuffer() {
+    var buffer = new DMAJNISampleBuffer(4);
+    buffer.addSensor(kEncoderHandle, new DMAJNISample.BaseStore(kEnable_Encoders_Low, 1));
+    buffer.addSensor(kDigitalHandle, new DMAJNISample.BaseStore(kEnable_DI, 3));
+    buffer.addSensor(kAnalogHandle, new DMAJNISample.BaseStore(kEnable_AI0_Low, 1));
+
+    // Encoder channel holds 4 encoders, then DIO, then 2 packed analog values
+    int captureSize = 6;
+    var storage = new int[26];
+    Arrays.fill(storage, 0, 22, -1);
+    storage[kEnable_Encoders_Low] = 0;
+    storage[kEnable_DI] = 4;
+    storage[kEnable_AI0_Low] = 5;
+    storage[22] = captureSize;
+    storage[24] = 7;
+    storage[25] = 1;
+
+    var data = new int[3 * captureSize];
+    for (int i = 0; i < 3; i++) {
+      int base = i * captureSize;
+      data[base + 1] = 100 * (i + 1);
+      data[base + 4] = (i % 2) << 3;
+      data[base + 5] = ((1000 + i) << 16) | 7;
+    }
+    buffer.setSamples(3, new long[] {10, 20, 30}, data, storage);
+    return buffer;
+  }
+
+  @Test
+  void testDecodeColumns() {
+    var buffer = createBuffer();
+    assertEquals(3, buffer.getCount());
+    assertEquals(4, buffer.getCapacity());
+    assertEquals(7, buffer.getRemaining());
+
+    var times = new long[4];
+    buffer.getTimes(times);
+    assertArrayEquals(new long[] {10, 20, 30, 0}, times);
+
+    var values = new int[4];
+    buffer.getEncoder(kEncoderHandle, values);
+    assertArrayEquals(new int[] {100, 200, 300, 0}, values);
+
+    var states = new boolean[4];
+    buffer.getDigitalSource(kDigitalHandle, states);
+    assertArrayEquals(new boolean[] {false, true, false, false}, states);
+
+    buffer.getAnalogInput(kAnalogHandle, values);
+    assertArrayEquals(new int[] {1000, 1001, 1002, 0}, values);
+  }
+
+  @Test
+  void testMissingChannel() {
+    var buffer = createBuffer();
+    buffer.addSensor(4, new DMAJNISample.BaseStore(8, 0));
+    assertThrows(RuntimeException.class, () -> buffer.getDutyCycleOutput(4, new int[4]));
+  }
+
+  @Test
+  void testManySensors() {
+    var buffer = createBuffer();
+    // More sensors than the initial lookup table holds
+    for (int handle = 10; handle < 20; handle++) {
+      buffer.addSensor(handle, new DMAJNISample.BaseStore(kEnable_DI, handle - 10));
+    }
+
+    var states = new boolean[4];
+    buffer.getDigitalSource(13, states);
+    assertArrayEquals(new boolean[] {false, true, false, false}, states);
+
+    var values = new int[4];
+    buffer.getEncoder(kEncoderHandle, values);
+    assertArrayEquals(new int[] {100, 200, 300, 0}, values);
+  }
+}
@@ -0,0 +1,73 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+#include <cstring>
+
+#include "gtest/gtest.h"
+#include "hal/DMA.h"
+#include "hal/HAL.h"
+#include "hal/simulation/DMAData.h"
+
+namespace hal {
+
+static HAL_DMASample MakeSample(uint64_t timestamp, uint32_t value) {
+  HAL_DMASample sample;
+  std::memset(&sample, 0, sizeof(sample));
+  std::fill(std::begin(sample.channelOffsets), std::end(sample.channelOffsets),
+            -1);
+  sample.channelOffsets[0] = 0;
+  sample.readBuffer[0] = value;
+  sample.captureSize = 2;
+  sample.timeStamp = timestamp;
+  return sample;
+}
+
+TEST(DMASimTest, FeedAndRead) {
+  int32_t status = 0;
+  HAL_DMAHandle handle = HAL_InitializeDMA(&status);
+  ASSERT_EQ(0, status);
+  ASSERT_NE(HAL_kInvalidHandle, handle);
+
+  // Samples are dropped until DMA is started
+  HAL_DMASample sample = MakeSample(1, 10);
+  EXPECT_FALSE(HALSIM_FeedDMASample(handle, &sample));
+
+  HAL_StartDMA(handle, 2, &status);
+  ASSERT_EQ(0, status);
+  EXPECT_TRUE(HALSIM_GetDMAStarted(handle));
+  EXPECT_TRUE(HALSIM_FeedDMASample(handle, &sample));
+  sample = MakeSample(2, 20);
+  EXPECT_TRUE(HALSIM_FeedDMASample(handle, &sample));
+  // The queue is full
+  sample = MakeSample(3, 30);
+  EXPECT_FALSE(HALSIM_FeedDMASample(handle, &sample));
+  EXPECT_EQ(2, HALSIM_GetDMAQueuedSamples(handle));
+
+  HAL_DMASample read;
+  int32_t remaining = 0;
+  EXPECT_EQ(HAL_DMA_OK, HAL_ReadDMA(handle, &read, 0.0, &remaining, &status));
+  EXPECT_EQ(0, status);
+  EXPECT_EQ(1, remaining);
+  EXPECT_EQ(1u, HAL_GetDMASampleTime(&read, &status));
+  EXPECT_EQ(10u, read.readBuffer[0]);
+  EXPECT_EQ(2u, read.captureSize);
+
+  EXPECT_EQ(HAL_DMA_OK, HAL_ReadDMA(handle, &read, 0.0, &remaining, &status));
+  EXPECT_EQ(0, remaining);
+  EXPECT_EQ(20u, read.readBuffer[0]);
+
+  EXPECT_EQ(HAL_DMA_TIMEOUT,
+            HAL_ReadDMA(handle, &read, 0.01, &remaining, &status));
+  EXPECT_EQ(0, status);
+
+  HAL_StopDMA(handle, &status);
+  EXPECT_FALSE(HALSIM_GetDMAStarted(handle));
+  EXPECT_EQ(HAL_DMA_ERROR,
+            HAL_ReadDMA(handle, &read, 0.0, &remaining, &status));
+  EXPECT_EQ(HAL_INVALID_DMA_STATE, status);
+
+  HAL_FreeDMA(handle);
+}
+
+}  // namespace hal
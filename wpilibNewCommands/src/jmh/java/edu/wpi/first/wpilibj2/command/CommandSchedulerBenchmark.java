@@ -0,0 +1,78 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj2.command;
+
+import edu.wpi.first.hal.HAL;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandSchedulerBenchmark {
+  @Param({"1", "10", "50"})
+  public int m_numCommands;
+
+  private CommandScheduler m_scheduler;
+  private long m_executeCount;
+
+  /** A subsystem that does nothing in periodic(). */
+  private static class BenchmarkSubsystem extends SubsystemBase {}
+
+  /** A never-ending command that requires its own subsystem. */
+  private class BenchmarkCommand extends CommandBase {
+    BenchmarkCommand(Subsystem requirement) {
+      addRequirements(requirement);
+    }
+
+    @Override
+    public void execute() {
+      ++m_executeCount;
+    }
+
+    @Override
+    public boolean runsWhenDisabled() {
+      return true;
+    }
+  }
+
+  /** Creates a scheduler running the requested number of commands. */
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+    m_scheduler = new CommandScheduler();
+
+    for (int i = 0; i < m_numCommands; ++i) {
+      var subsystem = new BenchmarkSubsystem();
+      m_scheduler.registerSubsystem(subsystem);
+      m_scheduler.schedule(new BenchmarkCommand(subsystem));
+    }
+  }
+
+  @TearDown
+  public void teardown() {
+    m_scheduler.close();
+  }
+
+  @Benchmark
+  public long run() {
+    m_scheduler.run();
+    return m_executeCount;
+  }
+}
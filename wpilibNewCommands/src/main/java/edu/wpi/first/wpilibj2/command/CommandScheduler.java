@@ -23,12 +23,14 @@ import edu.wpi.first.wpilibj.livewindow.LiveWindow;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.function.Consumer;
 
 /**
@@ -68,6 +70,13 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
   // as a list of currently-registered subsystems.
   private final Map<Subsystem, Command> m_subsystems = new LinkedHashMap<>();
 
+  // A map from registered subsystems to the watchdog epoch IDs of their periodic methods.
+  private final Map<Subsystem, Integer> m_subsystemEpochs = new HashMap<>();
+
+  // A map from commands that have been scheduled to the watchdog epoch IDs of their lifecycle
+  // methods. Weak, so commands that are no longer referenced elsewhere can be collected.
+  private final Map<Command, CommandState.Epochs> m_commandEpochs = new WeakHashMap<>();
+
   private final EventLoop m_defaultButtonLoop = new EventLoop();
   // The set of currently-registered buttons that will be polled every iteration.
   private EventLoop m_activeButtonLoop = m_defaultButtonLoop;
@@ -87,6 +96,7 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
   private final List<Command> m_toCancel = new ArrayList<>();
 
   private final Watchdog m_watchdog = new Watchdog(TimedRobot.kDefaultPeriod, () -> {});
+  private final int m_buttonsEpoch = m_watchdog.registerEpoch("buttons.run()");
 
   CommandScheduler() {
     HAL.report(tResourceType.kResourceType_Command, tInstances.kCommand2_Scheduler);
@@ -176,7 +186,9 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
    * @param requirements The command requirements
    */
   private void initCommand(Command command, boolean interruptible, Set<Subsystem> requirements) {
-    CommandState scheduledCommand = new CommandState(interruptible);
+    CommandState.Epochs epochs =
+        m_commandEpochs.computeIfAbsent(command, c -> new CommandState.Epochs(c, m_watchdog));
+    CommandState scheduledCommand = new CommandState(interruptible, epochs);
     m_scheduledCommands.put(command, scheduledCommand);
     for (Subsystem requirement : requirements) {
       m_requirements.put(requirement, command);
@@ -186,7 +198,7 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
       action.accept(command);
     }
 
-    m_watchdog.addEpoch(command.getName() + ".initialize()");
+    m_watchdog.addEpoch(scheduledCommand.getInitializeEpoch());
   }
 
   /**
@@ -300,7 +312,7 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
       if (RobotBase.isSimulation()) {
         subsystem.simulationPeriodic();
       }
-      m_watchdog.addEpoch(subsystem.getClass().getSimpleName() + ".periodic()");
+      m_watchdog.addEpoch(m_subsystemEpochs.get(subsystem));
     }
 
     // Cache the active instance to avoid concurrency problems if setActiveLoop() is called from
@@ -308,13 +320,16 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
     EventLoop loopCache = m_activeButtonLoop;
     // Poll buttons for new commands to add.
     loopCache.poll();
-    m_watchdog.addEpoch("buttons.run()");
+    m_watchdog.addEpoch(m_buttonsEpoch);
 
     m_inRunLoop = true;
     // Run scheduled commands, remove finished commands.
-    for (Iterator<Command> iterator = m_scheduledCommands.keySet().iterator();
+    for (Iterator<Map.Entry<Command, CommandState>> iterator =
+            m_scheduledCommands.entrySet().iterator();
         iterator.hasNext(); ) {
-      Command command = iterator.next();
+      Map.Entry<Command, CommandState> entry = iterator.next();
+      Command command = entry.getKey();
+      CommandState state = entry.getValue();
 
       if (!command.runsWhenDisabled() && RobotState.isDisabled()) {
         command.end(true);
@@ -323,7 +338,7 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
         }
         m_requirements.keySet().removeAll(command.getRequirements());
         iterator.remove();
-        m_watchdog.addEpoch(command.getName() + ".end(true)");
+        m_watchdog.addEpoch(state.getEndEpoch(true));
         continue;
       }
 
@@ -331,7 +346,7 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
       for (Consumer<Command> action : m_executeActions) {
         action.accept(command);
       }
-      m_watchdog.addEpoch(command.getName() + ".execute()");
+      m_watchdog.addEpoch(state.getExecuteEpoch());
       if (command.isFinished()) {
         command.end(false);
         for (Consumer<Command> action : m_finishActions) {
@@ -340,7 +355,7 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
         iterator.remove();
 
         m_requirements.keySet().removeAll(command.getRequirements());
-        m_watchdog.addEpoch(command.getName() + ".end(false)");
+        m_watchdog.addEpoch(state.getEndEpoch(false));
       }
     }
     m_inRunLoop = false;
@@ -386,6 +401,7 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
         continue;
       }
       m_subsystems.put(subsystem, null);
+      registerSubsystemEpoch(subsystem);
     }
   }
 
@@ -397,6 +413,20 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
    */
   public void unregisterSubsystem(Subsystem... subsystems) {
     m_subsystems.keySet().removeAll(Set.of(subsystems));
+    m_subsystemEpochs.keySet().retainAll(m_subsystems.keySet());
+  }
+
+  /**
+   * Registers the watchdog epoch for a subsystem's periodic method, so the scheduler loop doesn't
+   * have to build its name every iteration.
+   *
+   * @param subsystem the subsystem whose epoch to register
+   */
+  private void registerSubsystemEpoch(Subsystem subsystem) {
+    if (!m_subsystemEpochs.containsKey(subsystem)) {
+      String epochName = subsystem.getClass().getSimpleName() + ".periodic()";
+      m_subsystemEpochs.put(subsystem, m_watchdog.registerEpoch(epochName));
+    }
   }
 
   /**
@@ -428,6 +458,7 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
     }
 
     m_subsystems.put(subsystem, defaultCommand);
+    registerSubsystemEpoch(subsystem);
   }
 
   /**
@@ -461,17 +492,17 @@ public final class CommandScheduler implements NTSendable, AutoCloseable {
         DriverStation.reportWarning("Tried to cancel a null command", true);
         continue;
       }
-      if (!isScheduled(command)) {
+      CommandState state = m_scheduledCommands.remove(command);
+      if (state == null) {
         continue;
       }
 
-      m_scheduledCommands.remove(command);
       m_requirements.keySet().removeAll(command.getRequirements());
       command.end(true);
       for (Consumer<Command> action : m_interruptActions) {
         action.accept(command);
       }
-      m_watchdog.addEpoch(command.getName() + ".end(true)");
+      m_watchdog.addEpoch(state.getEndEpoch(true));
     }
   }
 
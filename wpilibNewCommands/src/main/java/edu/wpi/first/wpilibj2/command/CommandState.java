@@ -5,6 +5,7 @@
 package edu.wpi.first.wpilibj2.command;
 
 import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.Watchdog;
 
 /**
  * Class that holds scheduling state for a command. Used internally by the {@link CommandScheduler}.
@@ -18,8 +19,31 @@ class CommandState {
   // Whether or not it is interruptible.
   private final boolean m_interruptible;
 
-  CommandState(boolean interruptible) {
+  // Watchdog epoch IDs for the command's lifecycle methods.
+  private final Epochs m_epochs;
+
+  /**
+   * Watchdog epoch IDs for a command's lifecycle methods. The scheduler registers these once per
+   * command, so scheduling a command again doesn't build epoch name strings.
+   */
+  static final class Epochs {
+    private final int m_initialize;
+    private final int m_execute;
+    private final int m_endInterrupted;
+    private final int m_endFinished;
+
+    Epochs(Command command, Watchdog watchdog) {
+      String name = command.getName();
+      m_initialize = watchdog.registerEpoch(name + ".initialize()");
+      m_execute = watchdog.registerEpoch(name + ".execute()");
+      m_endInterrupted = watchdog.registerEpoch(name + ".end(true)");
+      m_endFinished = watchdog.registerEpoch(name + ".end(false)");
+    }
+  }
+
+  CommandState(boolean interruptible, Epochs epochs) {
     m_interruptible = interruptible;
+    m_epochs = epochs;
     startTiming();
     startRunning();
   }
@@ -36,6 +60,18 @@ class CommandState {
     return m_interruptible;
   }
 
+  int getInitializeEpoch() {
+    return m_epochs.m_initialize;
+  }
+
+  int getExecuteEpoch() {
+    return m_epochs.m_execute;
+  }
+
+  int getEndEpoch(boolean interrupted) {
+    return interrupted ? m_epochs.m_endInterrupted : m_epochs.m_endFinished;
+  }
+
   double timeSinceInitialized() {
     return m_startTime != -1 ? Timer.getFPGATimestamp() - m_startTime : -1;
   }
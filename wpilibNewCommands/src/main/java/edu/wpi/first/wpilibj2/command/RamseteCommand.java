@@ -13,6 +13,7 @@ import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
 import edu.wpi.first.math.kinematics.DifferentialDriveWheelSpeeds;
+import edu.wpi.first.math.trajectory.CompactTrajectory;
 import edu.wpi.first.math.trajectory.Trajectory;
 import edu.wpi.first.wpilibj.Timer;
 import java.util.function.BiConsumer;
@@ -36,6 +37,9 @@ public class RamseteCommand extends CommandBase {
   private final Timer m_timer = new Timer();
   private final boolean m_usePID;
   private final Trajectory m_trajectory;
+  // Null for empty trajectories, which fall back to sampling m_trajectory
+  private final CompactTrajectory m_compactTrajectory;
+  private final CompactTrajectory.Sample m_desiredState = new CompactTrajectory.Sample();
   private final Supplier<Pose2d> m_pose;
   private final RamseteController m_follower;
   private final SimpleMotorFeedforward m_feedforward;
@@ -81,6 +85,7 @@ public class RamseteCommand extends CommandBase {
       BiConsumer<Double, Double> outputVolts,
       Subsystem... requirements) {
     m_trajectory = requireNonNullParam(trajectory, "trajectory", "RamseteCommand");
+    m_compactTrajectory = compact(m_trajectory);
     m_pose = requireNonNullParam(pose, "pose", "RamseteCommand");
     m_follower = requireNonNullParam(controller, "controller", "RamseteCommand");
     m_feedforward = feedforward;
@@ -116,6 +121,7 @@ public class RamseteCommand extends CommandBase {
       BiConsumer<Double, Double> outputMetersPerSecond,
       Subsystem... requirements) {
     m_trajectory = requireNonNullParam(trajectory, "trajectory", "RamseteCommand");
+    m_compactTrajectory = compact(m_trajectory);
     m_pose = requireNonNullParam(pose, "pose", "RamseteCommand");
     m_follower = requireNonNullParam(follower, "follower", "RamseteCommand");
     m_kinematics = requireNonNullParam(kinematics, "kinematics", "RamseteCommand");
@@ -135,13 +141,13 @@ public class RamseteCommand extends CommandBase {
   @Override
   public void initialize() {
     m_prevTime = -1;
-    var initialState = m_trajectory.sample(0);
+    sampleDesiredState(0);
     m_prevSpeeds =
         m_kinematics.toWheelSpeeds(
             new ChassisSpeeds(
-                initialState.velocityMetersPerSecond,
+                m_desiredState.velocityMetersPerSecond,
                 0,
-                initialState.curvatureRadPerMeter * initialState.velocityMetersPerSecond));
+                m_desiredState.curvatureRadPerMeter * m_desiredState.velocityMetersPerSecond));
     m_timer.reset();
     m_timer.start();
     if (m_usePID) {
@@ -161,9 +167,14 @@ public class RamseteCommand extends CommandBase {
       return;
     }
 
+    sampleDesiredState(curTime);
     var targetWheelSpeeds =
         m_kinematics.toWheelSpeeds(
-            m_follower.calculate(m_pose.get(), m_trajectory.sample(curTime)));
+            m_follower.calculate(
+                m_pose.get(),
+                m_desiredState.getPose(),
+                m_desiredState.velocityMetersPerSecond,
+                m_desiredState.velocityMetersPerSecond * m_desiredState.curvatureRadPerMeter));
 
     var leftSpeedSetpoint = targetWheelSpeeds.leftMetersPerSecond;
     var rightSpeedSetpoint = targetWheelSpeeds.rightMetersPerSecond;
@@ -211,4 +222,27 @@ public class RamseteCommand extends CommandBase {
   public boolean isFinished() {
     return m_timer.hasElapsed(m_trajectory.getTotalTimeSeconds());
   }
+
+  /**
+   * Samples the trajectory into m_desiredState.
+   *
+   * @param timeSeconds The time to sample at.
+   */
+  private void sampleDesiredState(double timeSeconds) {
+    if (m_compactTrajectory != null) {
+      m_compactTrajectory.sampleInto(timeSeconds, m_desiredState);
+    } else {
+      m_desiredState.set(m_trajectory.sample(timeSeconds));
+    }
+  }
+
+  /**
+   * Compacts a trajectory for allocation-free sampling.
+   *
+   * @param trajectory The trajectory to compact.
+   * @return The compacted trajectory, or null if it is empty and can't be compacted.
+   */
+  private static CompactTrajectory compact(Trajectory trajectory) {
+    return trajectory.getStates().isEmpty() ? null : new CompactTrajectory(trajectory);
+  }
 }
@@ -13,6 +13,7 @@ import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.trajectory.CompactTrajectory;
 import edu.wpi.first.math.trajectory.Trajectory;
 import edu.wpi.first.wpilibj.Timer;
 import java.util.function.Consumer;
@@ -35,6 +36,9 @@ import java.util.function.Supplier;
 public class SwerveControllerCommand extends CommandBase {
   private final Timer m_timer = new Timer();
   private final Trajectory m_trajectory;
+  // Null for empty trajectories, which fall back to sampling m_trajectory
+  private final CompactTrajectory m_compactTrajectory;
+  private final CompactTrajectory.Sample m_desiredState = new CompactTrajectory.Sample();
   private final Supplier<Pose2d> m_pose;
   private final SwerveDriveKinematics m_kinematics;
   private final HolonomicDriveController m_controller;
@@ -73,6 +77,7 @@ public class SwerveControllerCommand extends CommandBase {
       Consumer<SwerveModuleState[]> outputModuleStates,
       Subsystem... requirements) {
     m_trajectory = requireNonNullParam(trajectory, "trajectory", "SwerveControllerCommand");
+    m_compactTrajectory = compact(m_trajectory);
     m_pose = requireNonNullParam(pose, "pose", "SwerveControllerCommand");
     m_kinematics = requireNonNullParam(kinematics, "kinematics", "SwerveControllerCommand");
 
@@ -147,10 +152,14 @@ public class SwerveControllerCommand extends CommandBase {
   @SuppressWarnings("LocalVariableName")
   public void execute() {
     double curTime = m_timer.get();
-    var desiredState = m_trajectory.sample(curTime);
+    sampleDesiredState(curTime);
 
     var targetChassisSpeeds =
-        m_controller.calculate(m_pose.get(), desiredState, m_desiredRotation.get());
+        m_controller.calculate(
+            m_pose.get(),
+            m_desiredState.getPose(),
+            m_desiredState.velocityMetersPerSecond,
+            m_desiredRotation.get());
     var targetModuleStates = m_kinematics.toSwerveModuleStates(targetChassisSpeeds);
 
     m_outputModuleStates.accept(targetModuleStates);
@@ -165,4 +174,27 @@ public class SwerveControllerCommand extends CommandBase {
   public boolean isFinished() {
     return m_timer.hasElapsed(m_trajectory.getTotalTimeSeconds());
   }
+
+  /**
+   * Samples the trajectory into m_desiredState.
+   *
+   * @param timeSeconds The time to sample at.
+   */
+  private void sampleDesiredState(double timeSeconds) {
+    if (m_compactTrajectory != null) {
+      m_compactTrajectory.sampleInto(timeSeconds, m_desiredState);
+    } else {
+      m_desiredState.set(m_trajectory.sample(timeSeconds));
+    }
+  }
+
+  /**
+   * Compacts a trajectory for allocation-free sampling.
+   *
+   * @param trajectory The trajectory to compact.
+   * @return The compacted trajectory, or null if it is empty and can't be compacted.
+   */
+  private static CompactTrajectory compact(Trajectory trajectory) {
+    return trajectory.getStates().isEmpty() ? null : new CompactTrajectory(trajectory);
+  }
 }
@@ -0,0 +1,240 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj;
+
+import edu.wpi.first.hal.AnalogJNI;
+import edu.wpi.first.hal.DMAJNISampleBuffer;
+import edu.wpi.first.wpilibj.DMASample.DMAReadStatus;
+
+/**
+ * Reads many queued DMA samples at once, for capturing sensors at high rates.
+ *
+ * <p>Unlike {@link DMASample}, which reads one sample per native call, {@link #update(DMA, double)}
+ * drains up to the capacity of this buffer from the DMA queue in a single native call. The getters
+ * then decode one sensor from every sample read into a caller-provided array, without any further
+ * native calls. Each getter fills the first {@link #getCount()} elements of its array, so arrays
+ * should be at least {@link #getCapacity()} long.
+ *
+ * <pre><code>
+ * DMASampleBuffer samples = new DMASampleBuffer(256);
+ * long[] times = new long[256];
+ * int[] counts = new int[256];
+ *
+ * samples.update(dma, 0.01);
+ * samples.getTimes(times);
+ * samples.getEncoderRaw(encoder, counts);
+ * for (int i = 0; i &lt; samples.getCount(); i++) { ... }
+ * </code></pre>
+ */
+public class DMASampleBuffer {
+  private final DMAJNISampleBuffer m_buffer;
+
+  /**
+   * Constructs a sample buffer.
+   *
+   * @param capacity the maximum number of samples to read per update
+   */
+  public DMASampleBuffer(int capacity) {
+    m_buffer = new DMAJNISampleBuffer(capacity);
+  }
+
+  /**
+   * Reads queued samples from the DMA, up to the capacity of this buffer. Waits up to the timeout
+   * for the first sample, then reads only samples that are already queued.
+   *
+   * @param dma the DMA to read from
+   * @param timeoutSeconds the time to wait for the first sample
+   * @return kOk if any samples were read, or the status of the failed read otherwise
+   */
+  public DMAReadStatus update(DMA dma, double timeoutSeconds) {
+    return DMAReadStatus.getValue(m_buffer.update(dma.m_dmaHandle, timeoutSeconds));
+  }
+
+  /**
+   * Gets the maximum number of samples read per update.
+   *
+   * @return the capacity
+   */
+  public int getCapacity() {
+    return m_buffer.getCapacity();
+  }
+
+  /**
+   * Gets the number of samples read by the last update.
+   *
+   * @return the number of samples
+   */
+  public int getCount() {
+    return m_buffer.getCount();
+  }
+
+  /**
+   * Gets the number of samples left in the DMA queue after the last update.
+   *
+   * @return the number of remaining samples
+   */
+  public int getRemaining() {
+    return m_buffer.getRemaining();
+  }
+
+  /**
+   * Gets the FPGA timestamps of the samples.
+   *
+   * @param timesMicros array to fill with the timestamps in microseconds
+   */
+  public void getTimes(long[] timesMicros) {
+    m_buffer.getTimes(timesMicros);
+  }
+
+  /**
+   * Gets the raw counts of an encoder.
+   *
+   * @param encoder the encoder to read
+   * @param values array to fill with the raw counts
+   */
+  public void getEncoderRaw(Encoder encoder, int[] values) {
+    m_buffer.getEncoder(encoder.m_encoder, values);
+  }
+
+  /**
+   * Gets the scaled distances of an encoder.
+   *
+   * @param encoder the encoder to read
+   * @param raw scratch array for the raw counts
+   * @param distances array to fill with the distances
+   */
+  public void getEncoderDistance(Encoder encoder, int[] raw, double[] distances) {
+    getEncoderRaw(encoder, raw);
+    double scale = encoder.getDecodingScaleFactor() * encoder.getDistancePerPulse();
+    for (int i = 0; i < getCount(); i++) {
+      distances[i] = raw[i] * scale;
+    }
+  }
+
+  /**
+   * Gets the raw periods of an encoder.
+   *
+   * @param encoder the encoder to read
+   * @param values array to fill with the raw periods
+   */
+  public void getEncoderPeriodRaw(Encoder encoder, int[] values) {
+    m_buffer.getEncoderPeriod(encoder.m_encoder, values);
+  }
+
+  /**
+   * Gets the counts of a counter.
+   *
+   * @param counter the counter to read
+   * @param values array to fill with the counts
+   */
+  public void getCounter(Counter counter, int[] values) {
+    m_buffer.getCounter(counter.m_counter, values);
+  }
+
+  /**
+   * Gets the periods of a counter.
+   *
+   * @param counter the counter to read
+   * @param values array to fill with the periods
+   */
+  public void getCounterPeriod(Counter counter, int[] values) {
+    m_buffer.getCounterPeriod(counter.m_counter, values);
+  }
+
+  /**
+   * Gets the states of a digital source.
+   *
+   * @param digitalSource the digital source to read
+   * @param values array to fill with the states
+   */
+  public void getDigitalSource(DigitalSource digitalSource, boolean[] values) {
+    m_buffer.getDigitalSource(digitalSource.getPortHandleForRouting(), values);
+  }
+
+  /**
+   * Gets the raw values of an analog input.
+   *
+   * @param analogInput the analog input to read
+   * @param values array to fill with the raw values
+   */
+  public void getAnalogInputRaw(AnalogInput analogInput, int[] values) {
+    m_buffer.getAnalogInput(analogInput.m_port, values);
+  }
+
+  /**
+   * Gets the voltages of an analog input.
+   *
+   * @param analogInput the analog input to read
+   * @param raw scratch array for the raw values
+   * @param volts array to fill with the voltages
+   */
+  public void getAnalogInputVoltage(AnalogInput analogInput, int[] raw, double[] volts) {
+    getAnalogInputRaw(analogInput, raw);
+    toVolts(analogInput, raw, volts);
+  }
+
+  /**
+   * Gets the raw averaged values of an analog input.
+   *
+   * @param analogInput the analog input to read
+   * @param values array to fill with the raw averaged values
+   */
+  public void getAveragedAnalogInputRaw(AnalogInput analogInput, int[] values) {
+    m_buffer.getAnalogInputAveraged(analogInput.m_port, values);
+  }
+
+  /**
+   * Gets the averaged voltages of an analog input.
+   *
+   * @param analogInput the analog input to read
+   * @param raw scratch array for the raw averaged values
+   * @param volts array to fill with the averaged voltages
+   */
+  public void getAveragedAnalogInputVoltage(AnalogInput analogInput, int[] raw, double[] volts) {
+    getAveragedAnalogInputRaw(analogInput, raw);
+    toVolts(analogInput, raw, volts);
+  }
+
+  /**
+   * Gets the raw outputs of a duty cycle input.
+   *
+   * @param dutyCycle the duty cycle input to read
+   * @param values array to fill with the raw outputs
+   */
+  public void getDutyCycleOutputRaw(DutyCycle dutyCycle, int[] values) {
+    m_buffer.getDutyCycleOutput(dutyCycle.m_handle, values);
+  }
+
+  /**
+   * Gets the outputs of a duty cycle input, from 0 to 1.
+   *
+   * @param dutyCycle the duty cycle input to read
+   * @param raw scratch array for the raw outputs
+   * @param outputs array to fill with the outputs
+   */
+  public void getDutyCycleOutput(DutyCycle dutyCycle, int[] raw, double[] outputs) {
+    getDutyCycleOutputRaw(dutyCycle, raw);
+    double scale = dutyCycle.getOutputScaleFactor();
+    for (int i = 0; i < getCount(); i++) {
+      outputs[i] = raw[i] / scale;
+    }
+  }
+
+  /**
+   * Converts raw analog values to volts, the same way as {@link
+   * AnalogJNI#getAnalogValueToVolts(int, int)}, but with only two native calls for all samples.
+   *
+   * @param analogInput the analog input the values were read from
+   * @param raw the raw values
+   * @param volts array to fill with the voltages
+   */
+  private void toVolts(AnalogInput analogInput, int[] raw, double[] volts) {
+    double lsbWeight = AnalogJNI.getAnalogLSBWeight(analogInput.m_port) * 1.0e-9;
+    double offset = AnalogJNI.getAnalogOffset(analogInput.m_port) * 1.0e-9;
+    for (int i = 0; i < getCount(); i++) {
+      volts[i] = lsbWeight * raw[i] - offset;
+    }
+  }
+}
@@ -8,6 +8,7 @@ import edu.wpi.first.hal.HAL;
 import edu.wpi.first.networktables.NetworkTableInstance;
 import edu.wpi.first.wpilibj.livewindow.LiveWindow;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
+import edu.wpi.first.wpilibj.smartdashboard.SendableBuilderImpl;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 
 /**
@@ -65,7 +66,8 @@ public abstract class IterativeRobotBase extends RobotBase {
   private Mode m_lastMode = Mode.kNone;
   private final double m_period;
   private final Watchdog m_watchdog;
-  private boolean m_ntFlushEnabled;
+  private volatile boolean m_ntFlushEnabled;
+  private NotifierExecutor m_telemetryExecutor;
 
   /**
    * Constructor for IterativeRobotBase.
@@ -246,6 +248,53 @@ public abstract class IterativeRobotBase extends RobotBase {
     m_ntFlushEnabled = enabled;
   }
 
+  /**
+   * Enables publishing SmartDashboard, LiveWindow, and Shuffleboard telemetry on a background
+   * thread.
+   *
+   * <p>The main loop still calls the getters of all sendables, so their values are sampled
+   * consistently at the end of each loop iteration and the getters don't need to be thread-safe.
+   * Writing the sampled values to NetworkTables, which takes most of the time, is done by a
+   * "Telemetry" thread at the given period instead. The thread runs at standard priority, so a main
+   * thread set to real-time priority preempts it. If NetworkTables flushing is enabled, the thread
+   * flushes after publishing.
+   *
+   * @param periodSeconds The period at which to publish telemetry in seconds.
+   * @throws IllegalArgumentException if the period isn't positive.
+   */
+  public void enableBackgroundTelemetry(double periodSeconds) {
+    if (!(periodSeconds > 0.0)) {
+      throw new IllegalArgumentException("Period must be positive, got " + periodSeconds);
+    }
+    disableBackgroundTelemetry();
+    m_telemetryExecutor = new NotifierExecutor("Telemetry");
+    SendableBuilderImpl.setPublishDeferred(true);
+    m_telemetryExecutor.schedulePeriodic(
+        () -> {
+          SendableBuilderImpl.publishDeferred();
+          if (m_ntFlushEnabled) {
+            NetworkTableInstance.getDefault().flush();
+          }
+        },
+        periodSeconds);
+  }
+
+  /**
+   * Disables publishing telemetry on a background thread, so it's published by the main loop again.
+   */
+  public void disableBackgroundTelemetry() {
+    if (m_telemetryExecutor != null) {
+      m_telemetryExecutor.close();
+      m_telemetryExecutor = null;
+      SendableBuilderImpl.setPublishDeferred(false);
+    }
+  }
+
+  @Override
+  public void close() {
+    disableBackgroundTelemetry();
+  }
+
   /**
    * Gets time period between calls to Periodic() functions.
    *
@@ -344,8 +393,8 @@ public abstract class IterativeRobotBase extends RobotBase {
 
     m_watchdog.disable();
 
-    // Flush NetworkTables
-    if (m_ntFlushEnabled) {
+    // Flush NetworkTables, unless the telemetry thread flushes after publishing
+    if (m_ntFlushEnabled && m_telemetryExecutor == null) {
       NetworkTableInstance.getDefault().flush();
     }
 
@@ -0,0 +1,340 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj;
+
+import static java.util.Objects.requireNonNull;
+
+import edu.wpi.first.hal.NotifierJNI;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs many periodic callbacks on a single thread, woken by a single HAL notifier.
+ *
+ * <p>Each {@link Notifier} has its own thread and HAL notifier. A robot program with many of them,
+ * e.g. for odometry, LEDs, logging, and vision polling, ends up with many threads competing for the
+ * roboRIO's two cores. A NotifierExecutor instead keeps its callbacks in a priority queue ordered
+ * by expiration time, the same way {@link TimedRobot#addPeriodic(Runnable, double)} does, and runs
+ * each one on its thread when it's due. To spread callbacks across threads, e.g. to keep slow
+ * logging away from fast odometry, create more than one executor.
+ *
+ * <p>Callbacks on the same executor run one after another, so a slow callback delays the others. If
+ * a callback is still running when its next expiration comes, that's counted as an overrun and the
+ * missed expirations are skipped instead of running the callback back to back. Each {@link
+ * ScheduledCallback} keeps statistics on its run times and overruns.
+ *
+ * <p>Exceptions thrown by a callback are reported to the driver station, and don't stop the
+ * executor or the callback.
+ */
+public class NotifierExecutor implements AutoCloseable {
+  /** A callback scheduled on a {@link NotifierExecutor}, and its run statistics. */
+  public static final class ScheduledCallback implements Comparable<ScheduledCallback> {
+    private final Runnable m_func;
+    private final double m_periodSeconds;
+
+    // The time, in seconds, at which the callback should next run. Has the same zero as
+    // RobotController.getFPGATime(). Guarded by the executor's lock.
+    private double m_expirationTimeSeconds;
+    private boolean m_cancelled;
+    private NotifierExecutor m_executor;
+
+    // Written only by the executor thread
+    private volatile long m_runCount;
+    private volatile long m_overrunCount;
+    private volatile double m_lastRunTimeSeconds;
+    private volatile double m_maxRunTimeSeconds;
+
+    ScheduledCallback(Runnable func, double periodSeconds, double expirationTimeSeconds) {
+      m_func = func;
+      m_periodSeconds = periodSeconds;
+      m_expirationTimeSeconds = expirationTimeSeconds;
+    }
+
+    /**
+     * Stops running the callback. If the callback is running, it finishes but isn't run again. This
+     * doesn't block, so it may be called from the callback itself.
+     */
+    public void cancel() {
+      var executor = m_executor;
+      if (executor != null) {
+        executor.cancel(this);
+      }
+    }
+
+    /**
+     * Returns the period the callback runs at.
+     *
+     * @return The period in seconds.
+     */
+    public double getPeriod() {
+      return m_periodSeconds;
+    }
+
+    /**
+     * Returns the number of times the callback has run.
+     *
+     * @return The number of runs.
+     */
+    public long getRunCount() {
+      return m_runCount;
+    }
+
+    /**
+     * Returns the number of times the callback finished after its next expiration, so one or more
+     * runs were skipped.
+     *
+     * @return The number of overruns.
+     */
+    public long getOverrunCount() {
+      return m_overrunCount;
+    }
+
+    /**
+     * Returns how long the last run of the callback took.
+     *
+     * @return The run time in seconds.
+     */
+    public double getLastRunTime() {
+      return m_lastRunTimeSeconds;
+    }
+
+    /**
+     * Returns how long the longest run of the callback took.
+     *
+     * @return The run time in seconds.
+     */
+    public double getMaxRunTime() {
+      return m_maxRunTimeSeconds;
+    }
+
+    /**
+     * Records a run of the callback, and advances its expiration time to the first one after the
+     * run finished.
+     *
+     * @param startTimeSeconds The time the run started.
+     * @param endTimeSeconds The time the run finished.
+     */
+    void finishRun(double startTimeSeconds, double endTimeSeconds) {
+      double runTime = endTimeSeconds - startTimeSeconds;
+      m_lastRunTimeSeconds = runTime;
+      if (runTime > m_maxRunTimeSeconds) {
+        m_maxRunTimeSeconds = runTime;
+      }
+      m_runCount++;
+
+      m_expirationTimeSeconds += m_periodSeconds;
+      if (m_expirationTimeSeconds <= endTimeSeconds) {
+        // Skip the missed expirations, keeping the callback's phase
+        m_overrunCount++;
+        m_expirationTimeSeconds +=
+            (Math.floor((endTimeSeconds - m_expirationTimeSeconds) / m_periodSeconds) + 1)
+                * m_periodSeconds;
+      }
+    }
+
+    double getExpirationTime() {
+      return m_expirationTimeSeconds;
+    }
+
+    @Override
+    public int compareTo(ScheduledCallback rhs) {
+      // Elements with sooner expiration times are sorted as lesser. The head of
+      // Java's PriorityQueue is the least element.
+      return Double.compare(m_expirationTimeSeconds, rhs.m_expirationTimeSeconds);
+    }
+  }
+
+  // The C pointer to the notifier object. We don't use it directly, it is
+  // just passed to the JNI bindings.
+  private final int m_notifier = NotifierJNI.initializeNotifier();
+
+  private final double m_startTime = Timer.getFPGATimestamp();
+
+  // Guards m_callbacks and the expiration times and cancellation of the callbacks
+  private final ReentrantLock m_lock = new ReentrantLock();
+  private final PriorityQueue<ScheduledCallback> m_callbacks = new PriorityQueue<>();
+
+  private final Thread m_thread;
+
+  /**
+   * Creates an executor whose thread runs at standard priority.
+   *
+   * @param name The name of the executor's thread and notifier, for debugging.
+   */
+  public NotifierExecutor(String name) {
+    this(name, false, 0);
+  }
+
+  /**
+   * Creates an executor.
+   *
+   * @param name The name of the executor's thread and notifier, for debugging.
+   * @param realTime Set to true to run the executor's thread at a real-time priority, false for
+   *     standard priority. The HAL notifier thread, which wakes the executor's thread, is then set
+   *     to the same priority, like {@link Notifier#setHALThreadPriority(boolean, int)} does.
+   * @param priority Priority to run the executor's thread at. For real-time, this is 1-99 with 99
+   *     being highest. For non-real-time, this is forced to 0. See "man 7 sched" for more details.
+   */
+  public NotifierExecutor(String name, boolean realTime, int priority) {
+    NotifierJNI.setNotifierName(m_notifier, name);
+
+    // A real-time executor thread doesn't help if the thread waking it isn't real-time too
+    if (realTime && !NotifierJNI.setHALThreadPriority(true, priority)) {
+      DriverStation.reportWarning(
+          "Could not set HAL notifier thread to real-time priority " + priority, false);
+    }
+
+    m_thread =
+        new Thread(
+            () -> {
+              if (realTime && !Threads.setCurrentThreadPriority(true, priority)) {
+                DriverStation.reportWarning(
+                    "Could not set " + name + " thread to real-time priority " + priority, false);
+              }
+              run();
+            });
+    m_thread.setName(name);
+    m_thread.setDaemon(true);
+    m_thread.start();
+  }
+
+  @Override
+  public void close() {
+    NotifierJNI.stopNotifier(m_notifier);
+    // Join the thread to ensure the callbacks have exited.
+    if (m_thread.isAlive()) {
+      try {
+        m_thread.interrupt();
+        m_thread.join();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    NotifierJNI.cleanNotifier(m_notifier);
+  }
+
+  /**
+   * Schedules a callback to run periodically, starting one period after the executor was created.
+   *
+   * @param callback The callback to run.
+   * @param periodSeconds The period at which to run the callback in seconds.
+   * @return The scheduled callback, to cancel it or read its statistics.
+   */
+  public ScheduledCallback schedulePeriodic(Runnable callback, double periodSeconds) {
+    return schedulePeriodic(callback, periodSeconds, 0.0);
+  }
+
+  /**
+   * Schedules a callback to run periodically with a starting time offset.
+   *
+   * @param callback The callback to run.
+   * @param periodSeconds The period at which to run the callback in seconds.
+   * @param offsetSeconds The offset from the executor's starting time in seconds. This is useful
+   *     for scheduling callbacks with the same period in different timeslots.
+   * @return The scheduled callback, to cancel it or read its statistics.
+   */
+  public ScheduledCallback schedulePeriodic(
+      Runnable callback, double periodSeconds, double offsetSeconds) {
+    requireNonNull(callback);
+    if (!(periodSeconds > 0.0)) {
+      throw new IllegalArgumentException("Period must be positive, got " + periodSeconds);
+    }
+
+    var scheduled =
+        new ScheduledCallback(
+            callback,
+            periodSeconds,
+            m_startTime
+                + offsetSeconds
+                + Math.floor((Timer.getFPGATimestamp() - m_startTime) / periodSeconds)
+                    * periodSeconds
+                + periodSeconds);
+
+    m_lock.lock();
+    try {
+      scheduled.m_executor = this;
+      m_callbacks.add(scheduled);
+      updateAlarm();
+    } finally {
+      m_lock.unlock();
+    }
+    return scheduled;
+  }
+
+  private void cancel(ScheduledCallback callback) {
+    m_lock.lock();
+    try {
+      callback.m_cancelled = true;
+      m_callbacks.remove(callback);
+      updateAlarm();
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /** Update the alarm hardware to reflect the earliest expiration. Must hold m_lock. */
+  private void updateAlarm() {
+    var next = m_callbacks.peek();
+    if (next == null) {
+      NotifierJNI.cancelNotifierAlarm(m_notifier);
+    } else {
+      NotifierJNI.updateNotifierAlarm(m_notifier, (long) (next.m_expirationTimeSeconds * 1e6));
+    }
+  }
+
+  /**
+   * Removes and returns the earliest callback if it's due.
+   *
+   * @param curTime The current time in microseconds.
+   * @return The callback, or null if none are due.
+   */
+  private ScheduledCallback pollDue(long curTime) {
+    m_lock.lock();
+    try {
+      var next = m_callbacks.peek();
+      if (next == null || (long) (next.m_expirationTimeSeconds * 1e6) > curTime) {
+        updateAlarm();
+        return null;
+      }
+      return m_callbacks.poll();
+    } finally {
+      m_lock.unlock();
+    }
+  }
+
+  /** The executor thread's loop. */
+  private void run() {
+    while (!Thread.interrupted()) {
+      long curTime = NotifierJNI.waitForNotifierAlarm(m_notifier);
+      if (curTime == 0) {
+        break;
+      }
+
+      // Run all callbacks that are due, including ones that became due while running others
+      ScheduledCallback callback;
+      while ((callback = pollDue(RobotController.getFPGATime())) != null) {
+        double startTime = Timer.getFPGATimestamp();
+        try {
+          callback.m_func.run();
+        } catch (RuntimeException ex) {
+          DriverStation.reportError(
+              "Unhandled exception in " + m_thread.getName() + " callback: " + ex.toString(),
+              ex.getStackTrace());
+        }
+        double endTime = Timer.getFPGATimestamp();
+
+        m_lock.lock();
+        try {
+          callback.finishRun(startTime, endTime);
+          if (!callback.m_cancelled) {
+            m_callbacks.add(callback);
+          }
+        } finally {
+          m_lock.unlock();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,201 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj;
+
+import static java.util.Objects.requireNonNull;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs a {@link SwerveDrivePoseEstimator} on its own {@link Notifier} thread, so odometry can be
+ * updated faster than the main robot loop without locking.
+ *
+ * <p>Every period, the odometry thread samples the gyro and module states from the given suppliers,
+ * updates the estimator, and publishes the new pose. Only the odometry thread touches the
+ * estimator; other threads read the latest pose with {@link #getEstimatedPosition()}, which never
+ * blocks, and submit vision measurements and resets through a lock-free queue that the odometry
+ * thread drains after each update.
+ *
+ * <p>The suppliers are called from the odometry thread, so they must be safe to call concurrently
+ * with the rest of the robot program. The estimator should be constructed with a nominal dt equal
+ * to the period of this thread, and must not be used directly once this thread has started. Its
+ * {@link edu.wpi.first.math.kinematics.SwerveDriveKinematics} may be shared with the drive code:
+ * the estimator only uses forward kinematics, which is safe to run concurrently with the inverse
+ * kinematics the drive code uses.
+ */
+public class SwerveDriveOdometryThread implements AutoCloseable {
+  /** An immutable pose and the time it was estimated at. */
+  private static final class Snapshot {
+    final Pose2d m_pose;
+    final double m_timestampSeconds;
+
+    Snapshot(Pose2d pose, double timestampSeconds) {
+      m_pose = pose;
+      m_timestampSeconds = timestampSeconds;
+    }
+  }
+
+  private final SwerveDrivePoseEstimator m_estimator;
+  private final Supplier<Rotation2d> m_gyroAngle;
+  private final Supplier<SwerveModuleState[]> m_moduleStates;
+  private final DoubleSupplier m_clock;
+  private final double m_periodSeconds;
+
+  // Work submitted by other threads, run on the odometry thread in submission order
+  private final Queue<Consumer<SwerveDrivePoseEstimator>> m_requests =
+      new ConcurrentLinkedQueue<>();
+
+  // The latest pose; written only by the odometry thread
+  private volatile Snapshot m_snapshot;
+
+  // The gyro angle of the current update, for resets; only used on the odometry thread
+  private Rotation2d m_lastGyroAngle;
+
+  private Notifier m_notifier;
+
+  /**
+   * Constructs an odometry thread. Call {@link #start()} to start it.
+   *
+   * @param estimator The pose estimator to update.
+   * @param gyroAngle Supplier of the current gyro angle.
+   * @param moduleStates Supplier of the current states of the swerve modules, in the same order as
+   *     the estimator's kinematics.
+   * @param periodSeconds The period to update odometry at, e.g. 0.004 for 250 Hz.
+   */
+  public SwerveDriveOdometryThread(
+      SwerveDrivePoseEstimator estimator,
+      Supplier<Rotation2d> gyroAngle,
+      Supplier<SwerveModuleState[]> moduleStates,
+      double periodSeconds) {
+    this(estimator, gyroAngle, moduleStates, periodSeconds, Timer::getFPGATimestamp);
+  }
+
+  SwerveDriveOdometryThread(
+      SwerveDrivePoseEstimator estimator,
+      Supplier<Rotation2d> gyroAngle,
+      Supplier<SwerveModuleState[]> moduleStates,
+      double periodSeconds,
+      DoubleSupplier clock) {
+    m_estimator = requireNonNull(estimator);
+    m_gyroAngle = requireNonNull(gyroAngle);
+    m_moduleStates = requireNonNull(moduleStates);
+    m_periodSeconds = periodSeconds;
+    m_clock = clock;
+    m_snapshot = new Snapshot(estimator.getEstimatedPosition(), 0.0);
+  }
+
+  @Override
+  public void close() {
+    stop();
+  }
+
+  /** Starts updating odometry periodically. */
+  public synchronized void start() {
+    if (m_notifier == null) {
+      m_notifier = new Notifier(this::poll);
+      m_notifier.setName("SwerveDriveOdometryThread");
+      m_notifier.startPeriodic(m_periodSeconds);
+    }
+  }
+
+  /** Stops updating odometry. Blocks until any update in progress has finished. */
+  public synchronized void stop() {
+    if (m_notifier != null) {
+      m_notifier.close();
+      m_notifier = null;
+    }
+  }
+
+  /**
+   * Returns the latest estimated pose. This never blocks.
+   *
+   * @return The estimated robot pose in meters.
+   */
+  public Pose2d getEstimatedPosition() {
+    return m_snapshot.m_pose;
+  }
+
+  /**
+   * Returns the time at which the latest estimated pose was computed.
+   *
+   * @return The timestamp of the latest pose in seconds, or 0 if odometry hasn't been updated yet.
+   */
+  public double getTimestampSeconds() {
+    return m_snapshot.m_timestampSeconds;
+  }
+
+  /**
+   * Queues a vision measurement to be added to the estimator on the odometry thread. See {@link
+   * SwerveDrivePoseEstimator#addVisionMeasurement(Pose2d, double)}. This may be called from any
+   * thread and never blocks.
+   *
+   * @param visionRobotPoseMeters The pose of the robot as measured by the vision camera.
+   * @param timestampSeconds The timestamp of the vision measurement in seconds, with the same epoch
+   *     as Timer.getFPGATimestamp().
+   */
+  public void addVisionMeasurement(Pose2d visionRobotPoseMeters, double timestampSeconds) {
+    m_requests.add(
+        estimator -> estimator.addVisionMeasurement(visionRobotPoseMeters, timestampSeconds));
+  }
+
+  /**
+   * Queues a vision measurement to be added to the estimator on the odometry thread. See {@link
+   * SwerveDrivePoseEstimator#addVisionMeasurement(Pose2d, double, Matrix)}. This may be called from
+   * any thread and never blocks.
+   *
+   * @param visionRobotPoseMeters The pose of the robot as measured by the vision camera.
+   * @param timestampSeconds The timestamp of the vision measurement in seconds, with the same epoch
+   *     as Timer.getFPGATimestamp().
+   * @param visionMeasurementStdDevs Standard deviations of the vision measurements.
+   */
+  public void addVisionMeasurement(
+      Pose2d visionRobotPoseMeters,
+      double timestampSeconds,
+      Matrix<N3, N1> visionMeasurementStdDevs) {
+    m_requests.add(
+        estimator ->
+            estimator.addVisionMeasurement(
+                visionRobotPoseMeters, timestampSeconds, visionMeasurementStdDevs));
+  }
+
+  /**
+   * Queues a reset of the robot's position on the field. The reset is applied on the odometry
+   * thread at the next update, using the gyro angle sampled for that update. This may be called
+   * from any thread and never blocks.
+   *
+   * @param poseMeters The position on the field that the robot is at.
+   */
+  public void resetPosition(Pose2d poseMeters) {
+    m_requests.add(estimator -> estimator.resetPosition(poseMeters, m_lastGyroAngle));
+  }
+
+  /**
+   * Runs one odometry update: samples the sensors, updates the estimator, applies queued requests,
+   * and publishes the new pose. Called periodically on the odometry thread once started.
+   */
+  void poll() {
+    double timestampSeconds = m_clock.getAsDouble();
+    m_lastGyroAngle = m_gyroAngle.get();
+    m_estimator.updateWithTime(timestampSeconds, m_lastGyroAngle, m_moduleStates.get());
+
+    Consumer<SwerveDrivePoseEstimator> request;
+    while ((request = m_requests.poll()) != null) {
+      request.accept(m_estimator);
+    }
+
+    m_snapshot = new Snapshot(m_estimator.getEstimatedPosition(), timestampSeconds);
+  }
+}
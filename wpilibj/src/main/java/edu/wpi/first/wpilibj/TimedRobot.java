@@ -8,6 +8,12 @@ import edu.wpi.first.hal.FRCNetComm.tInstances;
 import edu.wpi.first.hal.FRCNetComm.tResourceType;
 import edu.wpi.first.hal.HAL;
 import edu.wpi.first.hal.NotifierJNI;
+import edu.wpi.first.util.LatencyHistogram;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.PriorityQueue;
 
 /**
@@ -16,24 +22,151 @@ import java.util.PriorityQueue;
  * <p>The TimedRobot class is intended to be subclassed by a user creating a robot program.
  *
  * <p>periodic() functions from the base class are called on an interval by a Notifier instance.
+ *
+ * <p>The scheduling latency and run time of each callback are recorded in histograms, which can be
+ * read with {@link #getCallbackStats()} or logged with {@link #startCallbackStatsLogging(double)}.
  */
 public class TimedRobot extends IterativeRobotBase {
+  /**
+   * Timing statistics of a periodic callback, recorded since the callback was added or the
+   * statistics were last reset. Times are in microseconds.
+   */
+  public static final class CallbackStats {
+    private final int m_index;
+    private double m_period;
+    private final LatencyHistogram m_latency = new LatencyHistogram();
+    private final LatencyHistogram m_runTime = new LatencyHistogram();
+    private long m_missedPeriodCount;
+
+    // DataLog entries, created when the statistics are first logged
+    private DoubleLogEntry m_latencyP50Entry;
+    private DoubleLogEntry m_latencyP99Entry;
+    private DoubleLogEntry m_latencyMaxEntry;
+    private DoubleLogEntry m_runTimeP50Entry;
+    private DoubleLogEntry m_runTimeP99Entry;
+    private DoubleLogEntry m_runTimeMaxEntry;
+    private IntegerLogEntry m_missedPeriodsEntry;
+
+    private CallbackStats(int index, double periodSeconds) {
+      m_index = index;
+      m_period = periodSeconds;
+    }
+
+    /**
+     * Returns the index of the callback, in the order callbacks were added. The callback that runs
+     * the robot's periodic functions is 0.
+     *
+     * @return The index of the callback.
+     */
+    public int getIndex() {
+      return m_index;
+    }
+
+    /**
+     * Returns the period the callback runs at.
+     *
+     * @return The period in seconds.
+     */
+    public double getPeriod() {
+      return m_period;
+    }
+
+    /**
+     * Returns the histogram of how late the callback started after its scheduled time.
+     *
+     * @return The scheduling latency histogram in microseconds.
+     */
+    public LatencyHistogram getLatency() {
+      return m_latency;
+    }
+
+    /**
+     * Returns the histogram of how long the callback ran.
+     *
+     * @return The run time histogram in microseconds.
+     */
+    public LatencyHistogram getRunTime() {
+      return m_runTime;
+    }
+
+    /**
+     * Returns the number of times the callback was still running when its next run was due.
+     *
+     * @return The number of missed periods.
+     */
+    public long getMissedPeriodCount() {
+      return m_missedPeriodCount;
+    }
+
+    /** Clears the statistics. */
+    public void reset() {
+      m_latency.reset();
+      m_runTime.reset();
+      m_missedPeriodCount = 0;
+    }
+
+    /**
+     * Records a run of the callback.
+     *
+     * @param expirationTime The time the run was scheduled for in microseconds.
+     * @param startTime The time the run started in microseconds.
+     * @param endTime The time the run finished in microseconds.
+     */
+    void record(long expirationTime, long startTime, long endTime) {
+      m_latency.record(startTime - expirationTime);
+      m_runTime.record(endTime - startTime);
+      if (endTime > expirationTime + (long) (m_period * 1e6)) {
+        m_missedPeriodCount++;
+      }
+    }
+
+    /** Appends the statistics to the DataLog, creating the entries on the first call. */
+    private void log() {
+      if (m_latencyP50Entry == null) {
+        var log = DataLogManager.getLog();
+        String prefix = "TimedRobot/Callback" + m_index + "/";
+        m_latencyP50Entry = new DoubleLogEntry(log, prefix + "LatencyP50");
+        m_latencyP99Entry = new DoubleLogEntry(log, prefix + "LatencyP99");
+        m_latencyMaxEntry = new DoubleLogEntry(log, prefix + "LatencyMax");
+        m_runTimeP50Entry = new DoubleLogEntry(log, prefix + "RunTimeP50");
+        m_runTimeP99Entry = new DoubleLogEntry(log, prefix + "RunTimeP99");
+        m_runTimeMaxEntry = new DoubleLogEntry(log, prefix + "RunTimeMax");
+        m_missedPeriodsEntry = new IntegerLogEntry(log, prefix + "MissedPeriods");
+      }
+      m_latencyP50Entry.append(m_latency.getValueAtPercentile(50.0) * 1e-6);
+      m_latencyP99Entry.append(m_latency.getValueAtPercentile(99.0) * 1e-6);
+      m_latencyMaxEntry.append(m_latency.getMax() * 1e-6);
+      m_runTimeP50Entry.append(m_runTime.getValueAtPercentile(50.0) * 1e-6);
+      m_runTimeP99Entry.append(m_runTime.getValueAtPercentile(99.0) * 1e-6);
+      m_runTimeMaxEntry.append(m_runTime.getMax() * 1e-6);
+      m_missedPeriodsEntry.append(m_missedPeriodCount);
+    }
+  }
+
   @SuppressWarnings("MemberName")
   static class Callback implements Comparable<Callback> {
     public Runnable func;
     public double period;
     public double expirationTime;
+    public final CallbackStats stats;
 
     /**
      * Construct a callback container.
      *
      * @param func The callback to run.
+     * @param stats The timing statistics of the callback.
      * @param startTimeSeconds The common starting point for all callback scheduling in seconds.
      * @param periodSeconds The period at which to run the callback in seconds.
      * @param offsetSeconds The offset from the common starting time in seconds.
      */
-    Callback(Runnable func, double startTimeSeconds, double periodSeconds, double offsetSeconds) {
+    Callback(
+        Runnable func,
+        CallbackStats stats,
+        double startTimeSeconds,
+        double periodSeconds,
+        double offsetSeconds) {
       this.func = func;
+      this.stats = stats;
       this.period = periodSeconds;
       this.expirationTime =
           startTimeSeconds
@@ -62,6 +195,16 @@ public class TimedRobot extends IterativeRobotBase {
       // Java's PriorityQueue is the least element.
       return Double.compare(expirationTime, rhs.expirationTime);
     }
+
+    /** Runs the callback, records its timing, and advances its expiration time. */
+    void run() {
+      long expiration = (long) (expirationTime * 1e6);
+      long startTime = RobotController.getFPGATime();
+      func.run();
+      stats.record(expiration, startTime, RobotController.getFPGATime());
+
+      expirationTime += period;
+    }
   }
 
   public static final double kDefaultPeriod = 0.02;
@@ -74,6 +217,9 @@ public class TimedRobot extends IterativeRobotBase {
 
   private final PriorityQueue<Callback> m_callbacks = new PriorityQueue<>();
 
+  private final List<CallbackStats> m_callbackStats = new ArrayList<>();
+  private Callback m_statsLogCallback;
+
   /** Constructor for TimedRobot. */
   protected TimedRobot() {
     this(kDefaultPeriod);
@@ -95,6 +241,7 @@ public class TimedRobot extends IterativeRobotBase {
 
   @Override
   public void close() {
+    super.close();
     NotifierJNI.stopNotifier(m_notifier);
     NotifierJNI.cleanNotifier(m_notifier);
   }
@@ -127,18 +274,13 @@ public class TimedRobot extends IterativeRobotBase {
         break;
       }
 
-      callback.func.run();
-
-      callback.expirationTime += callback.period;
+      callback.run();
       m_callbacks.add(callback);
 
       // Process all other callbacks that are ready to run
       while ((long) (m_callbacks.peek().expirationTime * 1e6) <= curTime) {
         callback = m_callbacks.poll();
-
-        callback.func.run();
-
-        callback.expirationTime += callback.period;
+        callback.run();
         m_callbacks.add(callback);
       }
     }
@@ -160,7 +302,7 @@ public class TimedRobot extends IterativeRobotBase {
    * @param periodSeconds The period at which to run the callback in seconds.
    */
   public void addPeriodic(Runnable callback, double periodSeconds) {
-    m_callbacks.add(new Callback(callback, m_startTime, periodSeconds, 0.0));
+    addPeriodic(callback, periodSeconds, 0.0);
   }
 
   /**
@@ -175,6 +317,57 @@ public class TimedRobot extends IterativeRobotBase {
    *     scheduling a callback in a different timeslot relative to TimedRobot.
    */
   public void addPeriodic(Runnable callback, double periodSeconds, double offsetSeconds) {
-    m_callbacks.add(new Callback(callback, m_startTime, periodSeconds, offsetSeconds));
+    m_callbacks.add(createCallback(callback, periodSeconds, offsetSeconds));
+  }
+
+  /**
+   * Returns the timing statistics of all periodic callbacks, in the order they were added. The
+   * callback that runs the robot's periodic functions is first.
+   *
+   * <p>The statistics are updated by the main loop, so they should only be read from it, e.g. from
+   * robotPeriodic() or another periodic callback.
+   *
+   * @return The timing statistics of the callbacks.
+   */
+  public List<CallbackStats> getCallbackStats() {
+    return Collections.unmodifiableList(m_callbackStats);
+  }
+
+  /** Clears the timing statistics of all periodic callbacks. */
+  public void resetCallbackStats() {
+    for (CallbackStats stats : m_callbackStats) {
+      stats.reset();
+    }
+  }
+
+  /**
+   * Periodically log the timing statistics of all periodic callbacks to the {@link DataLogManager}
+   * log. For each callback, the 50th and 99th percentile and maximum of the scheduling latency and
+   * run time in seconds, and the number of missed periods, are logged under
+   * "TimedRobot/Callback&lt;index&gt;/". Logging runs as a periodic callback, so its statistics are
+   * logged too. Calling this again changes the period.
+   *
+   * @param periodSeconds The period at which to log the statistics in seconds.
+   */
+  public void startCallbackStatsLogging(double periodSeconds) {
+    if (m_statsLogCallback == null) {
+      m_statsLogCallback = createCallback(this::logCallbackStats, periodSeconds, 0.0);
+      m_callbacks.add(m_statsLogCallback);
+    } else {
+      m_statsLogCallback.period = periodSeconds;
+      m_statsLogCallback.stats.m_period = periodSeconds;
+    }
+  }
+
+  private Callback createCallback(Runnable callback, double periodSeconds, double offsetSeconds) {
+    var stats = new CallbackStats(m_callbackStats.size(), periodSeconds);
+    m_callbackStats.add(stats);
+    return new Callback(callback, stats, m_startTime, periodSeconds, offsetSeconds);
+  }
+
+  private void logCallbackStats() {
+    for (CallbackStats stats : m_callbackStats) {
+      stats.log();
+    }
   }
 }
@@ -4,6 +4,7 @@
 
 package edu.wpi.first.wpilibj;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -15,15 +16,34 @@ import java.util.function.Consumer;
  *
  * <p>Epochs are a way to partition the time elapsed so that when overruns occur, one can determine
  * which parts of an operation consumed the most time.
+ *
+ * <p>Code that adds the same epochs every loop iteration can register each epoch name once with
+ * {@link #registerEpoch(String)} and then call {@link #addEpoch(int)} with the returned ID, which
+ * records the epoch without allocating.
  */
 public class Tracer {
   private static final long kMinPrintPeriod = 1000000; // microseconds
+  private static final int kInitialCapacity = 16;
 
   private long m_lastEpochsPrintTime; // microseconds
   private long m_startTime; // microseconds
 
+  // Map from epoch name to epoch ID. Names are never unregistered, so IDs stay valid for the
+  // lifetime of the tracer.
   @SuppressWarnings("PMD.UseConcurrentHashMap")
-  private final Map<String, Long> m_epochs = new HashMap<>(); // microseconds
+  private final Map<String, Integer> m_epochIds = new HashMap<>();
+
+  private String[] m_epochNames = new String[kInitialCapacity];
+  private long[] m_epochTimes = new long[kInitialCapacity]; // microseconds
+
+  // The generation in which each epoch was last added. An epoch is only printed if it was added
+  // since the last call to clearEpochs().
+  private int[] m_epochGenerations = new int[kInitialCapacity];
+  private int m_generation = 1;
+
+  // IDs of the epochs added in the current generation, in the order they were first added
+  private int[] m_epochOrder = new int[kInitialCapacity];
+  private int m_epochOrderSize;
 
   /** Tracer constructor. */
   public Tracer() {
@@ -32,7 +52,8 @@ public class Tracer {
 
   /** Clears all epochs. */
   public void clearEpochs() {
-    m_epochs.clear();
+    m_generation++;
+    m_epochOrderSize = 0;
     resetTimer();
   }
 
@@ -41,6 +62,32 @@ public class Tracer {
     m_startTime = RobotController.getFPGATime();
   }
 
+  /**
+   * Registers an epoch name and returns an ID that can be passed to {@link #addEpoch(int)}.
+   * Registering the same name more than once returns the same ID.
+   *
+   * @param epochName The name to associate with the epoch.
+   * @return The epoch ID.
+   */
+  public int registerEpoch(String epochName) {
+    Integer id = m_epochIds.get(epochName);
+    if (id != null) {
+      return id;
+    }
+
+    int newId = m_epochIds.size();
+    if (newId == m_epochNames.length) {
+      int capacity = m_epochNames.length * 2;
+      m_epochNames = Arrays.copyOf(m_epochNames, capacity);
+      m_epochTimes = Arrays.copyOf(m_epochTimes, capacity);
+      m_epochGenerations = Arrays.copyOf(m_epochGenerations, capacity);
+      m_epochOrder = Arrays.copyOf(m_epochOrder, capacity);
+    }
+    m_epochNames[newId] = epochName;
+    m_epochIds.put(epochName, newId);
+    return newId;
+  }
+
   /**
    * Adds time since last epoch to the list printed by printEpochs().
    *
@@ -53,8 +100,29 @@ public class Tracer {
    * @param epochName The name to associate with the epoch.
    */
   public void addEpoch(String epochName) {
+    addEpoch(registerEpoch(epochName));
+  }
+
+  /**
+   * Adds time since last epoch to the list printed by printEpochs().
+   *
+   * <p>Unlike {@link #addEpoch(String)}, this doesn't look up or allocate anything, so it's
+   * suitable for code that runs every loop iteration.
+   *
+   * @param epochId The epoch ID returned by {@link #registerEpoch(String)}.
+   * @throws IndexOutOfBoundsException if the ID wasn't returned by this tracer.
+   */
+  public void addEpoch(int epochId) {
+    if (epochId < 0 || epochId >= m_epochIds.size()) {
+      throw new IndexOutOfBoundsException("Unknown epoch ID " + epochId);
+    }
+
     long currentTime = RobotController.getFPGATime();
-    m_epochs.put(epochName, currentTime - m_startTime);
+    if (m_epochGenerations[epochId] != m_generation) {
+      m_epochGenerations[epochId] = m_generation;
+      m_epochOrder[m_epochOrderSize++] = epochId;
+    }
+    m_epochTimes[epochId] = currentTime - m_startTime;
     m_startTime = currentTime;
   }
 
@@ -75,10 +143,10 @@ public class Tracer {
     if (now - m_lastEpochsPrintTime > kMinPrintPeriod) {
       StringBuilder sb = new StringBuilder();
       m_lastEpochsPrintTime = now;
-      m_epochs.forEach(
-          (key, value) -> {
-            sb.append(String.format("\t%s: %.6fs\n", key, value / 1.0e6));
-          });
+      for (int i = 0; i < m_epochOrderSize; i++) {
+        int id = m_epochOrder[i];
+        sb.append(String.format("\t%s: %.6fs\n", m_epochNames[id], m_epochTimes[id] / 1.0e6));
+      }
       if (sb.length() > 0) {
         output.accept(sb.toString());
       }
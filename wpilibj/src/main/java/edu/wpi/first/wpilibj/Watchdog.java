@@ -150,6 +150,27 @@ public class Watchdog implements Closeable, Comparable<Watchdog> {
     m_tracer.addEpoch(epochName);
   }
 
+  /**
+   * Registers an epoch name for use with {@link #addEpoch(int)}.
+   *
+   * @see Tracer#registerEpoch(String)
+   * @param epochName The name to associate with the epoch.
+   * @return The epoch ID.
+   */
+  public int registerEpoch(String epochName) {
+    return m_tracer.registerEpoch(epochName);
+  }
+
+  /**
+   * Adds time since last epoch to the list printed by printEpochs().
+   *
+   * @see Tracer#addEpoch(int)
+   * @param epochId The epoch ID returned by {@link #registerEpoch(String)}.
+   */
+  public void addEpoch(int epochId) {
+    m_tracer.addEpoch(epochId);
+  }
+
   /**
    * Prints list of epochs added so far and their times.
    *
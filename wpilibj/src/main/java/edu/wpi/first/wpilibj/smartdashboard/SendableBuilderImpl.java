@@ -5,21 +5,49 @@
 package edu.wpi.first.wpilibj.smartdashboard;
 
 import edu.wpi.first.networktables.EntryListenerFlags;
+import edu.wpi.first.networktables.EntryNotification;
 import edu.wpi.first.networktables.NTSendableBuilder;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableValue;
 import edu.wpi.first.util.function.BooleanConsumer;
+import edu.wpi.first.wpilibj.Timer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.DoubleConsumer;
 import java.util.function.DoubleSupplier;
-import java.util.function.Function;
 import java.util.function.Supplier;
 
+/**
+ * Implementation of {@link NTSendableBuilder} that publishes properties to NetworkTables.
+ *
+ * <p>{@link #update()} only writes a property to NetworkTables when its getter returns a different
+ * value than it last published, so unchanged properties don't cost a native call. While listeners
+ * are started, a property whose entry is changed or deleted from elsewhere (e.g. by a dashboard) is
+ * published again by the next update even if the getter's value hasn't changed, so the entry always
+ * ends up holding the getter's value. Array and raw properties can additionally be rate limited
+ * with {@link #setArrayPublishPeriod(double)}.
+ *
+ * <p>{@link #update()} first samples all getters, then publishes the sampled values. With {@link
+ * #setPublishDeferred(boolean)}, publishing is instead left to {@link #publishDeferred()}, which
+ * can be called from a background thread. The getters still run on the thread calling {@link
+ * #update()}, so each sendable's published values are a consistent snapshot from one call, and the
+ * getters don't need to be thread-safe.
+ */
 public class SendableBuilderImpl implements NTSendableBuilder {
+  private static double s_defaultArrayPublishPeriod;
+
+  // Builders with samples waiting for publishDeferred(). The lists are swapped on each call, so
+  // builders can be queued while the previous ones are published.
+  private static final Object s_pendingLock = new Object();
+  private static boolean s_publishDeferred;
+  private static List<SendableBuilderImpl> s_pending = new ArrayList<>();
+  private static List<SendableBuilderImpl> s_publishing = new ArrayList<>();
+
   private static class Property implements AutoCloseable {
     Property(NetworkTable table, String key) {
       m_entry = table.getEntry(key);
@@ -31,8 +59,28 @@ public class SendableBuilderImpl implements NTSendableBuilder {
     }
 
     void startListener() {
-      if (m_entry.isValid() && m_listener == 0 && m_createListener != null) {
-        m_listener = m_createListener.apply(m_entry);
+      if (m_entry.isValid() && m_listener == 0 && (m_publish != null || m_setter != null)) {
+        m_listener =
+            m_entry.addListener(
+                this::onRemoteChange,
+                EntryListenerFlags.kImmediate
+                    | EntryListenerFlags.kNew
+                    | EntryListenerFlags.kUpdate
+                    | EntryListenerFlags.kDelete);
+      }
+    }
+
+    /**
+     * Called when the entry is changed or deleted by someone else, e.g. a dashboard. The entry no
+     * longer holds the last published value, so the getter's value is published again by the next
+     * update, even if it hasn't changed.
+     *
+     * @param event The entry notification.
+     */
+    private void onRemoteChange(EntryNotification event) {
+      m_remoteChanges++;
+      if (m_setter != null && (event.flags & EntryListenerFlags.kDelete) == 0) {
+        m_setter.accept(event.value);
       }
     }
 
@@ -43,18 +91,214 @@ public class SendableBuilderImpl implements NTSendableBuilder {
       }
     }
 
+    /**
+     * Returns whether a primitive value differs from the last published one.
+     *
+     * @param bits The value, as raw bits.
+     * @return True if the value hasn't been published.
+     */
+    boolean isChanged(long bits) {
+      return isRemoteChanged() || bits != m_lastBits;
+    }
+
+    /**
+     * Returns whether a sampled object or array value differs from the last published one. A new
+     * sample is only stored when its value changes, so comparing references is enough.
+     *
+     * @param value The sampled value.
+     * @return True if the value hasn't been published.
+     */
+    boolean isChanged(Object value) {
+      return isRemoteChanged() || value != m_lastValue;
+    }
+
+    /**
+     * Returns whether the property hasn't been published, or the entry was changed by someone else
+     * since it was. The number of remote changes is remembered, so changes that arrive while the
+     * value is being published aren't lost.
+     *
+     * @return True if the value must be published even if it hasn't changed.
+     */
+    private boolean isRemoteChanged() {
+      m_checkedRemoteChanges = m_remoteChanges;
+      return !m_published || m_checkedRemoteChanges != m_publishedRemoteChanges;
+    }
+
+    /**
+     * Returns whether an object or array value from the getter differs from the last sampled one.
+     *
+     * @param value The value.
+     * @return True if the value should be sampled.
+     */
+    boolean isSampleChanged(Object value) {
+      return !Objects.deepEquals(value, m_sampleValue);
+    }
+
+    void setPublished(long bits) {
+      m_published = true;
+      m_publishedRemoteChanges = m_checkedRemoteChanges;
+      m_lastBits = bits;
+    }
+
+    void setPublished(Object value, double timeSeconds) {
+      m_published = true;
+      m_publishedRemoteChanges = m_checkedRemoteChanges;
+      m_lastValue = value;
+      m_lastPublishTime = timeSeconds;
+    }
+
     final NetworkTableEntry m_entry;
     int m_listener;
-    Consumer<NetworkTableEntry> m_update;
-    Function<NetworkTableEntry, Integer> m_createListener;
+    Runnable m_sample;
+    Consumer<NetworkTableEntry> m_publish;
+    Consumer<NetworkTableValue> m_setter;
+
+    // The number of times the entry was changed by someone else. Only written by the listener
+    // thread.
+    volatile int m_remoteChanges;
+    int m_checkedRemoteChanges;
+    int m_publishedRemoteChanges;
+
+    // The last value sampled from the getter. Arrays are copied, so they can be published after the
+    // getter's array has changed. Only used by the thread calling update().
+    long m_sampleBits;
+    Object m_sampleValue;
+
+    // The sample handed over to publishDeferred(). Guarded by s_pendingLock.
+    boolean m_hasPendingSample;
+    long m_pendingBits;
+    Object m_pendingValue;
+
+    // The sample being published. Only used by the publishing thread. Properties added after the
+    // last update() have no sample yet, and aren't published until they do.
+    boolean m_hasPublishSample;
+    long m_publishBits;
+    Object m_publishValue;
+
+    /** Hand the last sample over to publishDeferred(). Must hold s_pendingLock. */
+    void handOverSample() {
+      m_hasPendingSample = true;
+      m_pendingBits = m_sampleBits;
+      m_pendingValue = m_sampleValue;
+    }
+
+    /** Take the sample handed over by update(). Must hold s_pendingLock. */
+    void takePendingSample() {
+      m_hasPublishSample = m_hasPendingSample;
+      m_publishBits = m_pendingBits;
+      m_publishValue = m_pendingValue;
+    }
+
+    // The last value published from the getter
+    boolean m_published;
+    long m_lastBits;
+    Object m_lastValue;
+    double m_lastPublishTime;
   }
 
-  private final List<Property> m_properties = new ArrayList<>();
+  // Copy on write, so publishDeferred() can iterate the properties while they're changed
+  private final List<Property> m_properties = new CopyOnWriteArrayList<>();
   private Runnable m_safeState;
   private final List<Runnable> m_updateTables = new ArrayList<>();
   private NetworkTable m_table;
   private NetworkTableEntry m_controllableEntry;
   private boolean m_actuator;
+  private final DoubleSupplier m_clock;
+  private double m_arrayPublishPeriod = s_defaultArrayPublishPeriod;
+
+  // Whether this builder is in s_pending. Guarded by s_pendingLock.
+  private boolean m_pending;
+
+  /** Constructs a builder. */
+  public SendableBuilderImpl() {
+    this(Timer::getFPGATimestamp);
+  }
+
+  /**
+   * Constructs a builder with a custom clock for rate limiting array properties.
+   *
+   * @param clock Returns the current time in seconds.
+   */
+  SendableBuilderImpl(DoubleSupplier clock) {
+    m_clock = clock;
+  }
+
+  /**
+   * Set the minimum period between publishing new values of array and raw properties for builders
+   * constructed after this call. Defaults to 0, which publishes every change.
+   *
+   * @param periodSeconds Minimum publish period in seconds.
+   */
+  public static void setDefaultArrayPublishPeriod(double periodSeconds) {
+    s_defaultArrayPublishPeriod = periodSeconds;
+  }
+
+  /**
+   * Set whether {@link #update()} leaves publishing the sampled values to {@link
+   * #publishDeferred()}. Disabling this publishes the values that are still waiting.
+   *
+   * @param deferred True to defer publishing, false to publish from {@link #update()}.
+   */
+  public static void setPublishDeferred(boolean deferred) {
+    synchronized (s_pendingLock) {
+      s_publishDeferred = deferred;
+    }
+    if (!deferred) {
+      publishDeferred();
+    }
+  }
+
+  /**
+   * Publish the values sampled by {@link #update()} calls since the last call, for all builders.
+   * This is meant to be called periodically from a background thread while {@link
+   * #setPublishDeferred(boolean)} is enabled. Only the latest sample of each property is published.
+   */
+  public static synchronized void publishDeferred() {
+    synchronized (s_pendingLock) {
+      var pending = s_pending;
+      s_pending = s_publishing;
+      s_publishing = pending;
+      for (SendableBuilderImpl builder : pending) {
+        builder.m_pending = false;
+        for (Property property : builder.m_properties) {
+          property.takePendingSample();
+        }
+      }
+    }
+    for (SendableBuilderImpl builder : s_publishing) {
+      builder.publish();
+    }
+    s_publishing.clear();
+  }
+
+  /**
+   * Set the minimum period between publishing new values of array and raw properties. Changes
+   * within the period are published once it has elapsed. Defaults to the value set with {@link
+   * #setDefaultArrayPublishPeriod(double)}.
+   *
+   * @param periodSeconds Minimum publish period in seconds.
+   */
+  public void setArrayPublishPeriod(double periodSeconds) {
+    m_arrayPublishPeriod = periodSeconds;
+  }
+
+  /**
+   * Returns the current time if an array property may be published now, or NaN if it was published
+   * less than the array publish period ago. The clock isn't read if there's no period.
+   *
+   * @param property The array property to publish.
+   * @return The publish time in seconds, or NaN.
+   */
+  private double getArrayPublishTime(Property property) {
+    if (m_arrayPublishPeriod <= 0.0) {
+      return 0.0;
+    }
+    double now = m_clock.getAsDouble();
+    if (property.m_published && now - property.m_lastPublishTime < m_arrayPublishPeriod) {
+      return Double.NaN;
+    }
+    return now;
+  }
 
   /**
    * Set the network table. Must be called prior to any Add* functions being called.
@@ -95,17 +339,60 @@ public class SendableBuilderImpl implements NTSendableBuilder {
     return m_actuator;
   }
 
-  /** Update the network table values by calling the getters for all properties. */
+  /**
+   * Update the network table values by calling the getters for all properties. Only values that
+   * changed since they were last published are written. If publishing is deferred, the values are
+   * written by the next {@link #publishDeferred()} call instead.
+   */
   @Override
   public void update() {
     for (Property property : m_properties) {
-      if (property.m_update != null) {
-        property.m_update.accept(property.m_entry);
+      if (property.m_sample != null) {
+        property.m_sample.run();
       }
     }
     for (Runnable updateTable : m_updateTables) {
       updateTable.run();
     }
+
+    // Only the samples are handed over under the lock, so this never waits for NetworkTables writes
+    // on the publishing thread
+    synchronized (s_pendingLock) {
+      if (s_publishDeferred) {
+        for (Property property : m_properties) {
+          property.handOverSample();
+        }
+        if (!m_pending) {
+          m_pending = true;
+          s_pending.add(this);
+        }
+        return;
+      }
+    }
+    for (Property property : m_properties) {
+      property.m_hasPublishSample = true;
+      property.m_publishBits = property.m_sampleBits;
+      property.m_publishValue = property.m_sampleValue;
+    }
+    publish();
+  }
+
+  /** Publish the taken samples of all properties. */
+  private void publish() {
+    for (Property property : m_properties) {
+      if (property.m_publish != null && property.m_hasPublishSample) {
+        property.m_publish.accept(property.m_entry);
+      }
+    }
+  }
+
+  /**
+   * Add a property to the list of properties.
+   *
+   * @param property The property.
+   */
+  private void addProperty(Property property) {
+    m_properties.add(property);
   }
 
   /** Hook setters for all properties. */
@@ -226,23 +513,24 @@ public class SendableBuilderImpl implements NTSendableBuilder {
   public void addBooleanProperty(String key, BooleanSupplier getter, BooleanConsumer setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setBoolean(getter.getAsBoolean());
+      property.m_sample = () -> property.m_sampleBits = getter.getAsBoolean() ? 1 : 0;
+      property.m_publish =
+          entry -> {
+            long value = property.m_publishBits;
+            if (property.isChanged(value) && entry.setBoolean(value != 0)) {
+              property.setPublished(value);
+            }
+          };
     }
     if (setter != null) {
-      property.m_createListener =
-          entry ->
-              entry.addListener(
-                  event -> {
-                    if (event.value.isBoolean()) {
-                      SmartDashboard.postListenerTask(
-                          () -> setter.accept(event.value.getBoolean()));
-                    }
-                  },
-                  EntryListenerFlags.kImmediate
-                      | EntryListenerFlags.kNew
-                      | EntryListenerFlags.kUpdate);
+      property.m_setter =
+          value -> {
+            if (value.isBoolean()) {
+              SmartDashboard.postListenerTask(() -> setter.accept(value.getBoolean()));
+            }
+          };
     }
-    m_properties.add(property);
+    addProperty(property);
   }
 
   /**
@@ -256,22 +544,25 @@ public class SendableBuilderImpl implements NTSendableBuilder {
   public void addDoubleProperty(String key, DoubleSupplier getter, DoubleConsumer setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setDouble(getter.getAsDouble());
+      property.m_sample =
+          () -> property.m_sampleBits = Double.doubleToLongBits(getter.getAsDouble());
+      property.m_publish =
+          entry -> {
+            long bits = property.m_publishBits;
+            if (property.isChanged(bits) && entry.setDouble(Double.longBitsToDouble(bits))) {
+              property.setPublished(bits);
+            }
+          };
     }
     if (setter != null) {
-      property.m_createListener =
-          entry ->
-              entry.addListener(
-                  event -> {
-                    if (event.value.isDouble()) {
-                      SmartDashboard.postListenerTask(() -> setter.accept(event.value.getDouble()));
-                    }
-                  },
-                  EntryListenerFlags.kImmediate
-                      | EntryListenerFlags.kNew
-                      | EntryListenerFlags.kUpdate);
+      property.m_setter =
+          value -> {
+            if (value.isDouble()) {
+              SmartDashboard.postListenerTask(() -> setter.accept(value.getDouble()));
+            }
+          };
     }
-    m_properties.add(property);
+    addProperty(property);
   }
 
   /**
@@ -285,22 +576,30 @@ public class SendableBuilderImpl implements NTSendableBuilder {
   public void addStringProperty(String key, Supplier<String> getter, Consumer<String> setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setString(getter.get());
+      property.m_sample =
+          () -> {
+            String value = getter.get();
+            if (property.isSampleChanged(value)) {
+              property.m_sampleValue = value;
+            }
+          };
+      property.m_publish =
+          entry -> {
+            String value = (String) property.m_publishValue;
+            if (property.isChanged(value) && entry.setString(value)) {
+              property.setPublished(value, 0.0);
+            }
+          };
     }
     if (setter != null) {
-      property.m_createListener =
-          entry ->
-              entry.addListener(
-                  event -> {
-                    if (event.value.isString()) {
-                      SmartDashboard.postListenerTask(() -> setter.accept(event.value.getString()));
-                    }
-                  },
-                  EntryListenerFlags.kImmediate
-                      | EntryListenerFlags.kNew
-                      | EntryListenerFlags.kUpdate);
+      property.m_setter =
+          value -> {
+            if (value.isString()) {
+              SmartDashboard.postListenerTask(() -> setter.accept(value.getString()));
+            }
+          };
     }
-    m_properties.add(property);
+    addProperty(property);
   }
 
   /**
@@ -315,23 +614,33 @@ public class SendableBuilderImpl implements NTSendableBuilder {
       String key, Supplier<boolean[]> getter, Consumer<boolean[]> setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setBooleanArray(getter.get());
+      property.m_sample =
+          () -> {
+            var value = getter.get();
+            if (property.isSampleChanged(value)) {
+              property.m_sampleValue = value.clone();
+            }
+          };
+      property.m_publish =
+          entry -> {
+            var value = (boolean[]) property.m_publishValue;
+            if (property.isChanged(value)) {
+              double time = getArrayPublishTime(property);
+              if (!Double.isNaN(time) && entry.setBooleanArray(value)) {
+                property.setPublished(value, time);
+              }
+            }
+          };
     }
     if (setter != null) {
-      property.m_createListener =
-          entry ->
-              entry.addListener(
-                  event -> {
-                    if (event.value.isBooleanArray()) {
-                      SmartDashboard.postListenerTask(
-                          () -> setter.accept(event.value.getBooleanArray()));
-                    }
-                  },
-                  EntryListenerFlags.kImmediate
-                      | EntryListenerFlags.kNew
-                      | EntryListenerFlags.kUpdate);
+      property.m_setter =
+          value -> {
+            if (value.isBooleanArray()) {
+              SmartDashboard.postListenerTask(() -> setter.accept(value.getBooleanArray()));
+            }
+          };
     }
-    m_properties.add(property);
+    addProperty(property);
   }
 
   /**
@@ -346,23 +655,33 @@ public class SendableBuilderImpl implements NTSendableBuilder {
       String key, Supplier<double[]> getter, Consumer<double[]> setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setDoubleArray(getter.get());
+      property.m_sample =
+          () -> {
+            var value = getter.get();
+            if (property.isSampleChanged(value)) {
+              property.m_sampleValue = value.clone();
+            }
+          };
+      property.m_publish =
+          entry -> {
+            var value = (double[]) property.m_publishValue;
+            if (property.isChanged(value)) {
+              double time = getArrayPublishTime(property);
+              if (!Double.isNaN(time) && entry.setDoubleArray(value)) {
+                property.setPublished(value, time);
+              }
+            }
+          };
     }
     if (setter != null) {
-      property.m_createListener =
-          entry ->
-              entry.addListener(
-                  event -> {
-                    if (event.value.isDoubleArray()) {
-                      SmartDashboard.postListenerTask(
-                          () -> setter.accept(event.value.getDoubleArray()));
-                    }
-                  },
-                  EntryListenerFlags.kImmediate
-                      | EntryListenerFlags.kNew
-                      | EntryListenerFlags.kUpdate);
+      property.m_setter =
+          value -> {
+            if (value.isDoubleArray()) {
+              SmartDashboard.postListenerTask(() -> setter.accept(value.getDoubleArray()));
+            }
+          };
     }
-    m_properties.add(property);
+    addProperty(property);
   }
 
   /**
@@ -377,23 +696,33 @@ public class SendableBuilderImpl implements NTSendableBuilder {
       String key, Supplier<String[]> getter, Consumer<String[]> setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setStringArray(getter.get());
+      property.m_sample =
+          () -> {
+            var value = getter.get();
+            if (property.isSampleChanged(value)) {
+              property.m_sampleValue = value.clone();
+            }
+          };
+      property.m_publish =
+          entry -> {
+            var value = (String[]) property.m_publishValue;
+            if (property.isChanged(value)) {
+              double time = getArrayPublishTime(property);
+              if (!Double.isNaN(time) && entry.setStringArray(value)) {
+                property.setPublished(value, time);
+              }
+            }
+          };
     }
     if (setter != null) {
-      property.m_createListener =
-          entry ->
-              entry.addListener(
-                  event -> {
-                    if (event.value.isStringArray()) {
-                      SmartDashboard.postListenerTask(
-                          () -> setter.accept(event.value.getStringArray()));
-                    }
-                  },
-                  EntryListenerFlags.kImmediate
-                      | EntryListenerFlags.kNew
-                      | EntryListenerFlags.kUpdate);
+      property.m_setter =
+          value -> {
+            if (value.isStringArray()) {
+              SmartDashboard.postListenerTask(() -> setter.accept(value.getStringArray()));
+            }
+          };
     }
-    m_properties.add(property);
+    addProperty(property);
   }
 
   /**
@@ -407,22 +736,33 @@ public class SendableBuilderImpl implements NTSendableBuilder {
   public void addRawProperty(String key, Supplier<byte[]> getter, Consumer<byte[]> setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setRaw(getter.get());
+      property.m_sample =
+          () -> {
+            var value = getter.get();
+            if (property.isSampleChanged(value)) {
+              property.m_sampleValue = value.clone();
+            }
+          };
+      property.m_publish =
+          entry -> {
+            var value = (byte[]) property.m_publishValue;
+            if (property.isChanged(value)) {
+              double time = getArrayPublishTime(property);
+              if (!Double.isNaN(time) && entry.setRaw(value)) {
+                property.setPublished(value, time);
+              }
+            }
+          };
     }
     if (setter != null) {
-      property.m_createListener =
-          entry ->
-              entry.addListener(
-                  event -> {
-                    if (event.value.isRaw()) {
-                      SmartDashboard.postListenerTask(() -> setter.accept(event.value.getRaw()));
-                    }
-                  },
-                  EntryListenerFlags.kImmediate
-                      | EntryListenerFlags.kNew
-                      | EntryListenerFlags.kUpdate);
+      property.m_setter =
+          value -> {
+            if (value.isRaw()) {
+              SmartDashboard.postListenerTask(() -> setter.accept(value.getRaw()));
+            }
+          };
     }
-    m_properties.add(property);
+    addProperty(property);
   }
 
   /**
@@ -437,19 +777,27 @@ public class SendableBuilderImpl implements NTSendableBuilder {
       String key, Supplier<NetworkTableValue> getter, Consumer<NetworkTableValue> setter) {
     Property property = new Property(m_table, key);
     if (getter != null) {
-      property.m_update = entry -> entry.setValue(getter.get());
+      property.m_sample =
+          () -> {
+            NetworkTableValue value = getter.get();
+            if (property.isSampleChanged(value)) {
+              property.m_sampleValue = value;
+            }
+          };
+      property.m_publish =
+          entry -> {
+            var value = (NetworkTableValue) property.m_publishValue;
+            if (property.isChanged(value) && entry.setValue(value)) {
+              property.setPublished(value, 0.0);
+            }
+          };
     }
     if (setter != null) {
-      property.m_createListener =
-          entry ->
-              entry.addListener(
-                  event -> {
-                    SmartDashboard.postListenerTask(() -> setter.accept(event.value));
-                  },
-                  EntryListenerFlags.kImmediate
-                      | EntryListenerFlags.kNew
-                      | EntryListenerFlags.kUpdate);
+      property.m_setter =
+          value -> {
+            SmartDashboard.postListenerTask(() -> setter.accept(value));
+          };
     }
-    m_properties.add(property);
+    addProperty(property);
   }
 }
@@ -0,0 +1,123 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+class NotifierExecutorTest {
+  @BeforeEach
+  void setup() {
+    SimHooks.pauseTiming();
+  }
+
+  @AfterEach
+  void cleanup() {
+    SimHooks.resumeTiming();
+  }
+
+  @Test
+  void testFinishRunStatistics() {
+    var callback = new NotifierExecutor.ScheduledCallback(() -> {}, 0.01, 1.0);
+
+    callback.finishRun(1.0, 1.002);
+    assertEquals(1, callback.getRunCount());
+    assertEquals(0, callback.getOverrunCount());
+    assertEquals(0.002, callback.getLastRunTime(), 1e-9);
+    assertEquals(1.01, callback.getExpirationTime(), 1e-9);
+
+    // Finishing after the next expiration skips the missed ones
+    callback.finishRun(1.01, 1.035);
+    assertEquals(2, callback.getRunCount());
+    assertEquals(1, callback.getOverrunCount());
+    assertEquals(0.025, callback.getMaxRunTime(), 1e-9);
+    assertEquals(1.04, callback.getExpirationTime(), 1e-9);
+
+    callback.finishRun(1.04, 1.041);
+    assertEquals(0.001, callback.getLastRunTime(), 1e-9);
+    assertEquals(0.025, callback.getMaxRunTime(), 1e-9);
+    assertEquals(1.05, callback.getExpirationTime(), 1e-9);
+  }
+
+  @Test
+  @ResourceLock("timing")
+  void testSchedulePeriodic() {
+    try (var executor = new NotifierExecutor("Test")) {
+      var fastCount = new AtomicInteger(0);
+      var slowCount = new AtomicInteger(0);
+      var fast = executor.schedulePeriodic(fastCount::incrementAndGet, 0.01);
+      executor.schedulePeriodic(slowCount::incrementAndGet, 0.02, 0.005);
+
+      SimHooks.stepTiming(0.0); // Wait for Notifiers
+      assertEquals(0, fastCount.get());
+      assertEquals(0, slowCount.get());
+
+      SimHooks.stepTiming(0.01);
+      assertEquals(1, fastCount.get());
+      assertEquals(0, slowCount.get());
+
+      SimHooks.stepTiming(0.01);
+      assertEquals(2, fastCount.get());
+      assertEquals(0, slowCount.get());
+
+      SimHooks.stepTiming(0.01);
+      assertEquals(3, fastCount.get());
+      assertEquals(1, slowCount.get());
+
+      assertEquals(3, fast.getRunCount());
+      assertEquals(0, fast.getOverrunCount());
+    }
+  }
+
+  @Test
+  @ResourceLock("timing")
+  void testCancel() {
+    try (var executor = new NotifierExecutor("Test")) {
+      var count = new AtomicInteger(0);
+      var callback = executor.schedulePeriodic(count::incrementAndGet, 0.01);
+
+      SimHooks.stepTiming(0.0); // Wait for Notifiers
+      SimHooks.stepTiming(0.01);
+      assertEquals(1, count.get());
+
+      callback.cancel();
+      SimHooks.stepTiming(0.02);
+      assertEquals(1, count.get());
+    }
+  }
+
+  @Test
+  @ResourceLock("timing")
+  void testExceptionDoesNotStopExecutor() {
+    try (var executor = new NotifierExecutor("Test")) {
+      var count = new AtomicInteger(0);
+      executor.schedulePeriodic(
+          () -> {
+            count.incrementAndGet();
+            throw new IllegalStateException("Test exception");
+          },
+          0.01);
+
+      SimHooks.stepTiming(0.0); // Wait for Notifiers
+      SimHooks.stepTiming(0.01);
+      SimHooks.stepTiming(0.01);
+      assertEquals(2, count.get());
+    }
+  }
+
+  @Test
+  void testInvalidPeriod() {
+    try (var executor = new NotifierExecutor("Test")) {
+      assertThrows(IllegalArgumentException.class, () -> executor.schedulePeriodic(() -> {}, 0.0));
+    }
+  }
+}
@@ -0,0 +1,133 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SwerveDriveOdometryThreadTest {
+  private static final double kPeriod = 0.004;
+
+  private final SwerveModuleState[] m_moduleStates = new SwerveModuleState[4];
+  private double m_time;
+  private SwerveDriveOdometryThread m_thread;
+
+  private static SwerveDrivePoseEstimator createEstimator() {
+    var kinematics =
+        new SwerveDriveKinematics(
+            new Translation2d(1, 1),
+            new Translation2d(1, -1),
+            new Translation2d(-1, -1),
+            new Translation2d(-1, 1));
+    return new SwerveDrivePoseEstimator(
+        new Rotation2d(),
+        new Pose2d(),
+        kinematics,
+        VecBuilder.fill(0.1, 0.1, 0.1),
+        VecBuilder.fill(0.005),
+        VecBuilder.fill(0.1, 0.1, 0.1),
+        kPeriod);
+  }
+
+  @BeforeEach
+  void setup() {
+    for (int i = 0; i < m_moduleStates.length; i++) {
+      m_moduleStates[i] = new SwerveModuleState(1.0, new Rotation2d());
+    }
+    m_time = 0.0;
+    m_thread =
+        new SwerveDriveOdometryThread(
+            createEstimator(), Rotation2d::new, () -> m_moduleStates, kPeriod, () -> m_time);
+  }
+
+  private void run(int iterations) {
+    for (int i = 0; i < iterations; i++) {
+      m_time += kPeriod;
+      m_thread.poll();
+    }
+  }
+
+  @Test
+  void testPublishesPose() {
+    assertEquals(new Pose2d(), m_thread.getEstimatedPosition());
+
+    run(250);
+    var pose = m_thread.getEstimatedPosition();
+    assertEquals(1.0, pose.getX(), 0.05);
+    assertEquals(0.0, pose.getY(), 0.01);
+    assertEquals(m_time, m_thread.getTimestampSeconds());
+  }
+
+  @Test
+  void testResetPosition() {
+    run(10);
+    var reset = new Pose2d(5.0, 3.0, new Rotation2d());
+    m_thread.resetPosition(reset);
+
+    // Queued requests aren't visible until the odometry thread runs
+    assertNotEquals(reset, m_thread.getEstimatedPosition());
+
+    run(1);
+    assertEquals(5.0, m_thread.getEstimatedPosition().getX(), 1e-9);
+    assertEquals(3.0, m_thread.getEstimatedPosition().getY(), 1e-9);
+  }
+
+  @Test
+  void testVisionMeasurementsFromManyThreads() throws InterruptedException {
+    // Run a reference estimator in lockstep on this thread
+    var reference = createEstimator();
+    for (int i = 0; i < 50; i++) {
+      m_time += kPeriod;
+      m_thread.poll();
+      reference.updateWithTime(m_time, new Rotation2d(), m_moduleStates);
+    }
+
+    // Every producer reports the robot 0.5 m to the left of where odometry puts it
+    double timestamp = m_time;
+    var measured =
+        m_thread
+            .getEstimatedPosition()
+            .plus(new Transform2d(new Translation2d(0.0, 0.5), new Rotation2d()));
+    var producers = new Thread[4];
+    for (int i = 0; i < producers.length; i++) {
+      producers[i] =
+          new Thread(
+              () -> {
+                for (int j = 0; j < 25; j++) {
+                  m_thread.addVisionMeasurement(measured, timestamp);
+                }
+              });
+      producers[i].start();
+    }
+    for (var producer : producers) {
+      producer.join();
+    }
+
+    double yBefore = m_thread.getEstimatedPosition().getY();
+    m_time += kPeriod;
+    m_thread.poll();
+    reference.updateWithTime(m_time, new Rotation2d(), m_moduleStates);
+    for (int i = 0; i < 100; i++) {
+      reference.addVisionMeasurement(measured, timestamp);
+    }
+
+    var pose = m_thread.getEstimatedPosition();
+    assertTrue(pose.getY() > yBefore);
+    assertEquals(reference.getEstimatedPosition().getX(), pose.getX(), 1e-9);
+    assertEquals(reference.getEstimatedPosition().getY(), pose.getY(), 1e-9);
+  }
+}
@@ -652,6 +652,53 @@ class TimedRobotTest {
     robot.close();
   }
 
+  @Test
+  @ResourceLock("timing")
+  void callbackStatsTest() {
+    MockRobot robot = new MockRobot();
+    robot.addPeriodic(() -> {}, 0.01);
+
+    Thread robotThread =
+        new Thread(
+            () -> {
+              robot.startCompetition();
+            });
+    robotThread.start();
+
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.notifyNewData();
+    SimHooks.stepTiming(0.0); // Wait for Notifiers
+
+    SimHooks.stepTiming(0.01);
+    SimHooks.stepTiming(0.01);
+
+    var stats = robot.getCallbackStats();
+    assertEquals(2, stats.size());
+    assertEquals(0, stats.get(0).getIndex());
+    assertEquals(TimedRobot.kDefaultPeriod, stats.get(0).getPeriod());
+    assertEquals(1, stats.get(0).getLatency().getCount());
+    assertEquals(1, stats.get(0).getRunTime().getCount());
+    assertEquals(0.01, stats.get(1).getPeriod());
+    assertEquals(2, stats.get(1).getLatency().getCount());
+
+    // Simulated time is paused, so the callbacks run exactly on time
+    assertEquals(0, stats.get(1).getLatency().getMax());
+    assertEquals(0, stats.get(1).getMissedPeriodCount());
+
+    robot.resetCallbackStats();
+    assertEquals(0, stats.get(0).getLatency().getCount());
+    assertEquals(0, stats.get(1).getRunTime().getCount());
+
+    robot.endCompetition();
+    try {
+      robotThread.interrupt();
+      robotThread.join();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    robot.close();
+  }
+
   @Test
   @ResourceLock("timing")
   void addPeriodicWithOffsetTest() {
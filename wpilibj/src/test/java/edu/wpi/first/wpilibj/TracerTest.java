@@ -0,0 +1,68 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+class TracerTest {
+  @BeforeEach
+  void setup() {
+    HAL.initialize(500, 0);
+    SimHooks.pauseTiming();
+  }
+
+  @AfterEach
+  void cleanup() {
+    SimHooks.resumeTiming();
+  }
+
+  @Test
+  void registerEpochTest() {
+    Tracer tracer = new Tracer();
+    int epoch1 = tracer.registerEpoch("Epoch 1");
+    int epoch2 = tracer.registerEpoch("Epoch 2");
+
+    assertEquals(epoch1, tracer.registerEpoch("Epoch 1"));
+    assertEquals(epoch2, tracer.registerEpoch("Epoch 2"));
+    assertThrows(IndexOutOfBoundsException.class, () -> tracer.addEpoch(epoch2 + 1));
+  }
+
+  @Test
+  @ResourceLock("timing")
+  void printEpochsTest() {
+    Tracer tracer = new Tracer();
+    int epoch1 = tracer.registerEpoch("Epoch 1");
+    int epoch2 = tracer.registerEpoch("Epoch 2");
+    tracer.registerEpoch("Epoch 3");
+
+    SimHooks.stepTiming(1.5);
+    tracer.resetTimer();
+    SimHooks.stepTiming(0.5);
+    tracer.addEpoch(epoch2);
+    SimHooks.stepTiming(0.25);
+    tracer.addEpoch(epoch1);
+
+    AtomicReference<String> output = new AtomicReference<>("");
+    tracer.printEpochs(output::set);
+
+    // Epochs are printed in the order they were added, and unused epochs aren't printed
+    assertEquals("\tEpoch 2: 0.500000s\n\tEpoch 1: 0.250000s\n", output.get());
+
+    tracer.clearEpochs();
+    SimHooks.stepTiming(1.5);
+    tracer.addEpoch("Epoch 3");
+    tracer.printEpochs(output::set);
+    assertEquals("\tEpoch 3: 1.500000s\n", output.get());
+  }
+}
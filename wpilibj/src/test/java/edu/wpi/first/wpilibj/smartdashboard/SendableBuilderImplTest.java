@@ -0,0 +1,220 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.wpilibj.smartdashboard;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.NetworkTablesJNI;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SendableBuilderImplTest {
+  private NetworkTableInstance m_inst;
+  private NetworkTable m_table;
+  private double m_time;
+  private SendableBuilderImpl m_builder;
+
+  @BeforeEach
+  void setup() {
+    m_inst = NetworkTableInstance.create();
+    m_table = m_inst.getTable("Test");
+    m_time = 0.0;
+    m_builder = new SendableBuilderImpl(() -> m_time);
+    m_builder.setTable(m_table);
+  }
+
+  @AfterEach
+  void tearDown() {
+    SendableBuilderImpl.setPublishDeferred(false);
+    m_inst.close();
+  }
+
+  @Test
+  void testUnchangedDoubleNotPublished() {
+    double[] value = {1.0};
+    m_builder.addDoubleProperty("x", () -> value[0], null);
+    var entry = m_table.getEntry("x");
+
+    m_builder.update();
+    assertEquals(1.0, entry.getDouble(0.0));
+
+    // An unchanged value isn't written again, so a value set elsewhere stays
+    entry.setDouble(5.0);
+    m_builder.update();
+    assertEquals(5.0, entry.getDouble(0.0));
+
+    value[0] = 2.0;
+    m_builder.update();
+    assertEquals(2.0, entry.getDouble(0.0));
+  }
+
+  @Test
+  void testBooleanAndString() {
+    boolean[] flag = {false};
+    String[] str = {"a"};
+    m_builder.addBooleanProperty("flag", () -> flag[0], null);
+    m_builder.addStringProperty("str", () -> str[0], null);
+
+    m_builder.update();
+    assertEquals(false, m_table.getEntry("flag").getBoolean(true));
+    assertEquals("a", m_table.getEntry("str").getString(""));
+
+    flag[0] = true;
+    str[0] = "b";
+    m_builder.update();
+    assertEquals(true, m_table.getEntry("flag").getBoolean(false));
+    assertEquals("b", m_table.getEntry("str").getString(""));
+  }
+
+  @Test
+  void testArrayMutatedInPlace() {
+    double[] values = {1.0, 2.0};
+    m_builder.addDoubleArrayProperty("arr", () -> values, null);
+    var entry = m_table.getEntry("arr");
+
+    m_builder.update();
+    assertArrayEquals(new double[] {1.0, 2.0}, entry.getDoubleArray(new double[0]));
+
+    // The getter returns the same array, so the builder must compare against a copy
+    values[1] = 3.0;
+    m_builder.update();
+    assertArrayEquals(new double[] {1.0, 3.0}, entry.getDoubleArray(new double[0]));
+  }
+
+  @Test
+  void testArrayPublishPeriod() {
+    m_builder.setArrayPublishPeriod(0.1);
+    double[] values = {1.0};
+    m_builder.addDoubleArrayProperty("arr", () -> values, null);
+    var entry = m_table.getEntry("arr");
+
+    m_builder.update();
+    assertArrayEquals(new double[] {1.0}, entry.getDoubleArray(new double[0]));
+
+    // Changes within the period are held back until it elapses
+    values[0] = 2.0;
+    m_time = 0.05;
+    m_builder.update();
+    assertArrayEquals(new double[] {1.0}, entry.getDoubleArray(new double[0]));
+
+    m_time = 0.1;
+    m_builder.update();
+    assertArrayEquals(new double[] {2.0}, entry.getDoubleArray(new double[0]));
+  }
+
+  @Test
+  void testPublishDeferred() {
+    double[] values = {1.0, 2.0};
+    m_builder.addDoubleArrayProperty("arr", () -> values, null);
+    var entry = m_table.getEntry("arr");
+
+    SendableBuilderImpl.setPublishDeferred(true);
+    m_builder.update();
+    assertArrayEquals(new double[0], entry.getDoubleArray(new double[0]));
+
+    // The sample taken by update() is published, even though the array has changed since
+    values[1] = 3.0;
+    SendableBuilderImpl.publishDeferred();
+    assertArrayEquals(new double[] {1.0, 2.0}, entry.getDoubleArray(new double[0]));
+
+    // Disabling deferred publishing publishes the remaining samples
+    m_builder.update();
+    SendableBuilderImpl.setPublishDeferred(false);
+    assertArrayEquals(new double[] {1.0, 3.0}, entry.getDoubleArray(new double[0]));
+  }
+
+  @Test
+  void testPublishDeferredSkipsUnsampledProperty() {
+    m_builder.addDoubleProperty("x", () -> 1.0, null);
+    SendableBuilderImpl.setPublishDeferred(true);
+    m_builder.update();
+
+    // Added after the last update(), so it has no sample to publish yet
+    m_builder.addDoubleProperty("y", () -> 2.0, null);
+    SendableBuilderImpl.publishDeferred();
+    assertEquals(1.0, m_table.getEntry("x").getDouble(0.0));
+    assertFalse(m_table.getEntry("y").exists());
+
+    m_builder.update();
+    SendableBuilderImpl.publishDeferred();
+    assertEquals(2.0, m_table.getEntry("y").getDouble(0.0));
+  }
+
+  /**
+   * Connects a client instance to m_inst, so the client's writes are remote changes.
+   *
+   * @return The client instance.
+   */
+  private NetworkTableInstance connectClient() {
+    m_inst.startServer("sendablebuilderimpltest.ini", "127.0.0.1", 10011);
+    var client = NetworkTableInstance.create();
+    client.startClient("127.0.0.1", 10011);
+
+    // Use connection listener to ensure we've connected
+    int poller = NetworkTablesJNI.createConnectionListenerPoller(client.getHandle());
+    NetworkTablesJNI.addPolledConnectionListener(poller, false);
+    try {
+      if (NetworkTablesJNI.pollConnectionListenerTimeout(client, poller, 1.0).length == 0) {
+        fail("client didn't connect to server");
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      fail("interrupted while waiting for server connection");
+    }
+    return client;
+  }
+
+  private void waitForRemoteChange(NetworkTableInstance client) {
+    client.flush();
+    try {
+      Thread.sleep(100);
+    } catch (InterruptedException ex) {
+      fail("interrupted while waiting for entries to update");
+    }
+    assertTrue(m_inst.waitForEntryListenerQueue(1.0));
+  }
+
+  @Test
+  void testSetterRepublishesUnchangedValue() {
+    var client = connectClient();
+    try {
+      // Like a command's "running" property, where the command finishes in the same loop
+      var setterCount = new AtomicInteger();
+      m_builder.addBooleanProperty("running", () -> false, value -> setterCount.incrementAndGet());
+      m_builder.startListeners();
+      m_builder.update();
+      var entry = m_table.getEntry("running");
+      assertEquals(false, entry.getBoolean(true));
+
+      // The dashboard sets the entry, but the getter's value stays the same, so it's written back
+      client.getEntry("/Test/running").setBoolean(true);
+      waitForRemoteChange(client);
+      assertEquals(true, entry.getBoolean(false));
+      SmartDashboard.updateValues();
+      m_builder.update();
+      assertEquals(1, setterCount.get());
+      assertEquals(false, entry.getBoolean(true));
+
+      // A deleted entry is recreated
+      client.getEntry("/Test/running").delete();
+      waitForRemoteChange(client);
+      assertEquals(false, entry.exists());
+      m_builder.update();
+      assertEquals(false, entry.getBoolean(true));
+
+      m_builder.stopListeners();
+    } finally {
+      client.close();
+    }
+  }
+}
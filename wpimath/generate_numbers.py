@@ -25,6 +25,7 @@ def output(outPath, outfn, contents):
 
 def main():
     MAX_NUM = 20
+    MAX_KERNEL_DIM = 6
 
     dirname, _ = os.path.split(os.path.abspath(__file__))
     cmake_binary_dir = sys.argv[1]
@@ -45,6 +46,10 @@ def main():
     contents = template.render(nums=range(MAX_NUM + 1))
     output(rootPath, "Nat.java", contents)
 
+    template = env.get_template("SmallMatrixKernels.java.jinja")
+    contents = template.render(dims=range(1, MAX_KERNEL_DIM + 1))
+    output(rootPath, "SmallMatrixKernels.java", contents)
+
 
 if __name__ == "__main__":
     main()
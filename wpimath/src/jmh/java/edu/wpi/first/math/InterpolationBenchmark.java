@@ -0,0 +1,89 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math;
+
+import edu.wpi.first.math.numbers.N2;
+import edu.wpi.first.math.numbers.N5;
+import edu.wpi.first.util.InterpolatingDoubleMap;
+import edu.wpi.first.util.InterpolatingTreeMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InterpolationBenchmark {
+  private static final int kNumQueries = 1024;
+
+  private final double[] m_queries = new double[kNumQueries];
+  private int m_index;
+
+  private final InterpolatingTreeMap<Double, Double> m_treeMap = new InterpolatingTreeMap<>();
+  private final InterpolatingDoubleMap m_doubleMap = new InterpolatingDoubleMap();
+  private final InterpolatingMatrixTreeMap<Double, N2, N5> m_matrixTreeMap =
+      new InterpolatingMatrixTreeMap<>();
+  private final InterpolatingDoubleMatrixMap<N2, N5> m_matrixMap =
+      new InterpolatingDoubleMatrixMap<>();
+  private final Matrix<N2, N5> m_dest = new Matrix<>(Nat.N2(), Nat.N5());
+
+  /** Fills the tables like a gain schedule, and picks reproducible random queries. */
+  @Setup
+  public void setup() {
+    var rand = new Random(4915);
+    for (double velocity = -4.0; velocity < 4.0; velocity += 0.01) {
+      var gain = new Matrix<>(Nat.N2(), Nat.N5());
+      for (int row = 0; row < 2; ++row) {
+        for (int col = 0; col < 5; ++col) {
+          gain.set(row, col, rand.nextGaussian());
+        }
+      }
+      m_treeMap.put(velocity, gain.get(0, 0));
+      m_doubleMap.put(velocity, gain.get(0, 0));
+      m_matrixTreeMap.put(velocity, gain);
+      m_matrixMap.put(velocity, gain);
+    }
+    for (int i = 0; i < kNumQueries; ++i) {
+      m_queries[i] = rand.nextDouble() * 8.0 - 4.0;
+    }
+  }
+
+  private double nextQuery() {
+    m_index = (m_index + 1) % kNumQueries;
+    return m_queries[m_index];
+  }
+
+  @Benchmark
+  public Double treeMap() {
+    return m_treeMap.get(nextQuery());
+  }
+
+  @Benchmark
+  public double doubleMap() {
+    return m_doubleMap.get(nextQuery());
+  }
+
+  @Benchmark
+  public Matrix<N2, N5> matrixTreeMap() {
+    return m_matrixTreeMap.get(nextQuery());
+  }
+
+  @Benchmark
+  public Matrix<N2, N5> matrixMapInto() {
+    return m_matrixMap.getInto(nextQuery(), m_dest);
+  }
+}
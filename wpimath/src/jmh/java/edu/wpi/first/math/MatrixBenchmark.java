@@ -0,0 +1,82 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math;
+
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N6;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MatrixBenchmark {
+  private Matrix<N6, N6> m_a;
+  private Matrix<N6, N6> m_b;
+  private Matrix<N6, N1> m_x;
+  private Matrix<N6, N6> m_spd;
+
+  /** Fills the operands with reproducible random values. */
+  @Setup
+  public void setup() {
+    var rand = new Random(4915);
+    m_a = new Matrix<>(Nat.N6(), Nat.N6());
+    m_b = new Matrix<>(Nat.N6(), Nat.N6());
+    m_x = new Matrix<>(Nat.N6(), Nat.N1());
+    for (int row = 0; row < 6; ++row) {
+      for (int col = 0; col < 6; ++col) {
+        m_a.set(row, col, rand.nextGaussian());
+        m_b.set(row, col, rand.nextGaussian());
+      }
+      // Keep A diagonally dominant so it's well-conditioned for solve()
+      m_a.set(row, row, m_a.get(row, row) + 10.0);
+      m_x.set(row, 0, rand.nextGaussian());
+    }
+    m_spd = m_a.times(m_a.transpose());
+  }
+
+  @Benchmark
+  public Matrix<N6, N6> times() {
+    return m_a.times(m_b);
+  }
+
+  @Benchmark
+  public Matrix<N6, N1> timesVector() {
+    return m_a.times(m_x);
+  }
+
+  @Benchmark
+  public Matrix<N6, N6> transpose() {
+    return m_b.transpose();
+  }
+
+  @Benchmark
+  public Matrix<N6, N6> lltDecompose() {
+    return m_spd.lltDecompose(true);
+  }
+
+  @Benchmark
+  public Matrix<N6, N1> solve() {
+    return m_a.solve(m_x);
+  }
+
+  @Benchmark
+  public Matrix<N6, N6> exp() {
+    return m_b.times(0.02).exp();
+  }
+}
@@ -0,0 +1,103 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.estimator;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N2;
+import edu.wpi.first.math.numbers.N3;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EstimatorBenchmark {
+  private static final double kDt = 0.02;
+
+  private UnscentedKalmanFilter<N3, N2, N3> m_ukf;
+  private final Matrix<N2, N1> m_u = VecBuilder.fill(1.0, 0.5);
+  private final Matrix<N3, N1> m_y = VecBuilder.fill(1.0, 2.0, 0.5);
+
+  private SwerveDrivePoseEstimator m_poseEstimator;
+  private final SwerveModuleState[] m_moduleStates = new SwerveModuleState[4];
+  private final Rotation2d m_gyroAngle = Rotation2d.fromDegrees(10.0);
+  private double m_time;
+
+  @SuppressWarnings("ParameterName")
+  private static Matrix<N3, N1> unicycleDynamics(Matrix<N3, N1> x, Matrix<N2, N1> u) {
+    return VecBuilder.fill(
+        u.get(0, 0) * Math.cos(x.get(2, 0)), u.get(0, 0) * Math.sin(x.get(2, 0)), u.get(1, 0));
+  }
+
+  /** Creates the estimators. */
+  @Setup
+  public void setup() {
+    m_ukf =
+        new UnscentedKalmanFilter<>(
+            Nat.N3(),
+            Nat.N3(),
+            EstimatorBenchmark::unicycleDynamics,
+            (x, u) -> x,
+            VecBuilder.fill(0.05, 0.05, 0.01),
+            VecBuilder.fill(0.1, 0.1, 0.05),
+            kDt);
+
+    var kinematics =
+        new SwerveDriveKinematics(
+            new Translation2d(1, 1),
+            new Translation2d(1, -1),
+            new Translation2d(-1, -1),
+            new Translation2d(-1, 1));
+    m_poseEstimator =
+        new SwerveDrivePoseEstimator(
+            new Rotation2d(),
+            new Pose2d(),
+            kinematics,
+            VecBuilder.fill(0.1, 0.1, 0.1),
+            VecBuilder.fill(0.005),
+            VecBuilder.fill(0.1, 0.1, 0.1));
+    for (int i = 0; i < m_moduleStates.length; ++i) {
+      m_moduleStates[i] = new SwerveModuleState(1.0, Rotation2d.fromDegrees(45.0));
+    }
+  }
+
+  @Benchmark
+  public Matrix<N3, N1> ukfPredict() {
+    m_ukf.predict(m_u, kDt);
+    return m_ukf.getXhat();
+  }
+
+  @Benchmark
+  public Matrix<N3, N1> ukfCorrect() {
+    m_ukf.correct(m_u, m_y);
+    return m_ukf.getXhat();
+  }
+
+  @Benchmark
+  public Pose2d swerveDrivePoseEstimatorUpdateWithTime() {
+    m_time += kDt;
+    return m_poseEstimator.updateWithTime(m_time, m_gyroAngle, m_moduleStates);
+  }
+}
@@ -0,0 +1,94 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.filter;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FilterBenchmark {
+  private static final int kNumSamples = 1024;
+
+  @Param({"5", "50"})
+  public int m_taps;
+
+  private final double[] m_samples = new double[kNumSamples];
+  private final double[] m_output = new double[kNumSamples];
+  private int m_index;
+
+  private LinearFilter m_movingAverage;
+  private LinearFilter m_singlePoleIIR;
+  private MedianFilter m_median;
+
+  /** Creates the filters and a reproducible noisy input signal. */
+  @Setup
+  public void setup() {
+    var rand = new Random(4915);
+    for (int i = 0; i < kNumSamples; ++i) {
+      m_samples[i] = Math.sin(i * 0.01) + rand.nextGaussian() * 0.1;
+    }
+
+    m_movingAverage = LinearFilter.movingAverage(m_taps);
+    m_singlePoleIIR = LinearFilter.singlePoleIIR(0.1, 0.02);
+    m_median = new MedianFilter(m_taps);
+  }
+
+  private double nextSample() {
+    m_index = (m_index + 1) % kNumSamples;
+    return m_samples[m_index];
+  }
+
+  @Benchmark
+  public double linearFilterMovingAverage() {
+    return m_movingAverage.calculate(nextSample());
+  }
+
+  @Benchmark
+  public double linearFilterSinglePoleIIR() {
+    return m_singlePoleIIR.calculate(nextSample());
+  }
+
+  /** Filters all the samples at once. */
+  @Benchmark
+  public double[] linearFilterMovingAverageBlock() {
+    m_movingAverage.calculate(m_samples, m_output, 0, kNumSamples);
+    return m_output;
+  }
+
+  /** Filters all the samples at once. */
+  @Benchmark
+  public double[] linearFilterSinglePoleIIRBlock() {
+    m_singlePoleIIR.calculate(m_samples, m_output, 0, kNumSamples);
+    return m_output;
+  }
+
+  @Benchmark
+  public double medianFilter() {
+    return m_median.calculate(nextSample());
+  }
+
+  /** Filters all the samples at once. */
+  @Benchmark
+  public double[] medianFilterBatch() {
+    m_median.calculate(m_samples, m_output);
+    return m_output;
+  }
+}
@@ -0,0 +1,80 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.kinematics;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KinematicsBenchmark {
+  private static final double kDt = 0.004;
+
+  private SwerveDriveKinematics m_kinematics;
+  private SwerveDriveOdometry m_odometry;
+  private final ChassisSpeeds m_chassisSpeeds = new ChassisSpeeds(1.0, 0.5, 0.3);
+  private final SwerveModuleState[] m_moduleStates = new SwerveModuleState[4];
+  private final double[] m_moduleSpeeds = new double[4];
+  private final double[] m_moduleAngles = new double[4];
+  private final Rotation2d m_gyroAngle = Rotation2d.fromDegrees(10.0);
+  private double m_time;
+
+  /** Creates the kinematics and odometry. */
+  @Setup
+  public void setup() {
+    m_kinematics =
+        new SwerveDriveKinematics(
+            new Translation2d(1, 1),
+            new Translation2d(1, -1),
+            new Translation2d(-1, -1),
+            new Translation2d(-1, 1));
+    m_odometry = new SwerveDriveOdometry(m_kinematics, new Rotation2d());
+    for (int i = 0; i < m_moduleStates.length; ++i) {
+      m_moduleStates[i] = new SwerveModuleState(1.0, Rotation2d.fromDegrees(45.0));
+      m_moduleSpeeds[i] = 1.0;
+      m_moduleAngles[i] = Math.toRadians(45.0);
+    }
+  }
+
+  @Benchmark
+  public SwerveModuleState[] toSwerveModuleStates() {
+    return m_kinematics.toSwerveModuleStates(m_chassisSpeeds);
+  }
+
+  @Benchmark
+  public double[] toSwerveModuleStatesInto() {
+    m_kinematics.toSwerveModuleStatesInto(m_chassisSpeeds, m_moduleSpeeds, m_moduleAngles);
+    return m_moduleAngles;
+  }
+
+  @Benchmark
+  public Pose2d odometryUpdateWithTime() {
+    m_time += kDt;
+    return m_odometry.updateWithTime(m_time, m_gyroAngle, m_moduleStates);
+  }
+
+  @Benchmark
+  public double odometryUpdateWithTimeInto() {
+    m_time += kDt;
+    m_odometry.updateWithTimeInto(m_time, m_gyroAngle.getRadians(), m_moduleSpeeds, m_moduleAngles);
+    return m_odometry.getXMeters();
+  }
+}
@@ -0,0 +1,91 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.trajectory;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TrajectoryBenchmark {
+  private static final int kBatchSize = 16;
+
+  private final Pose2d m_start = new Pose2d();
+  private final List<Translation2d> m_interiorWaypoints =
+      List.of(new Translation2d(2.0, 1.0), new Translation2d(4.0, -1.0));
+  private final Pose2d m_end = new Pose2d(6.0, 0.0, Rotation2d.fromDegrees(90.0));
+  private final TrajectoryConfig m_config = new TrajectoryConfig(3.0, 2.0);
+
+  private final List<Transform2d> m_offsets = new ArrayList<>();
+
+  private Trajectory m_trajectory;
+  private CompactTrajectory m_compactTrajectory;
+  private final CompactTrajectory.Sample m_sample = new CompactTrajectory.Sample();
+  private double m_time;
+
+  /** Generates the trajectory to sample. */
+  @Setup
+  public void setup() {
+    m_trajectory = generateTrajectory();
+    m_compactTrajectory = new CompactTrajectory(m_trajectory);
+    for (int i = 0; i < kBatchSize; i++) {
+      m_offsets.add(new Transform2d(new Translation2d(0.1 * i, 0.0), new Rotation2d()));
+    }
+  }
+
+  @Benchmark
+  public Trajectory generateTrajectory() {
+    return TrajectoryGenerator.generateTrajectory(m_start, m_interiorWaypoints, m_end, m_config);
+  }
+
+  /** Generates a set of routes in parallel, without caching. */
+  @Benchmark
+  public List<Trajectory> generateBatch() {
+    var generator = new TrajectoryBatchGenerator();
+    for (int i = 0; i < kBatchSize; i++) {
+      generator.add(m_start, m_interiorWaypoints, m_end.plus(m_offsets.get(i)), m_config);
+    }
+    return generator.generate();
+  }
+
+  /** Steps through the trajectory like a 20 ms control loop would. */
+  private double nextTime() {
+    m_time += 0.02;
+    if (m_time > m_trajectory.getTotalTimeSeconds()) {
+      m_time = 0.0;
+    }
+    return m_time;
+  }
+
+  @Benchmark
+  public Trajectory.State sample() {
+    return m_trajectory.sample(nextTime());
+  }
+
+  @Benchmark
+  public CompactTrajectory.Sample sampleInto() {
+    m_compactTrajectory.sampleInto(nextTime(), m_sample);
+    return m_sample;
+  }
+}
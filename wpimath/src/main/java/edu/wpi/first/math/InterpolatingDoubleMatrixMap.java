@@ -0,0 +1,156 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math;
+
+import edu.wpi.first.util.SortedDoubleKeys;
+import java.util.Arrays;
+import org.ejml.simple.SimpleMatrix;
+
+/**
+ * A primitive double-keyed version of {@link InterpolatingMatrixTreeMap}, for lookup tables that
+ * are queried every loop, such as gain schedules. Values at keys that aren't in the map are
+ * linearly interpolated from the keys before and after them, and keys outside the map give the
+ * value of the nearest key.
+ *
+ * <p>Keys are kept in a sorted array and the matrices in one flat array, so looking up a key does a
+ * single binary search without boxing. If the keys are evenly spaced, the search is replaced by
+ * computing the index directly from the key. {@link #getInto(double, Matrix)} writes the result
+ * into a preallocated matrix, so lookups don't allocate at all.
+ *
+ * @param <R> The number of rows of the values.
+ * @param <C> The number of columns of the values.
+ */
+public class InterpolatingDoubleMatrixMap<R extends Num, C extends Num> {
+  private final SortedDoubleKeys m_keys = new SortedDoubleKeys();
+  private int m_rows;
+  private int m_cols;
+  // Row-major values, one after another in key order
+  private double[] m_values = new double[0];
+
+  /**
+   * Inserts a key-value pair, replacing the value if the key is already in the map. The value is
+   * copied.
+   *
+   * @param key The key.
+   * @param value The value.
+   * @throws IllegalArgumentException if the value's dimensions don't match the other values.
+   */
+  public void put(double key, Matrix<R, C> value) {
+    if (m_keys.size() == 0) {
+      m_rows = value.getNumRows();
+      m_cols = value.getNumCols();
+    } else {
+      checkDimensions(value, "Value");
+    }
+    int length = m_rows * m_cols;
+
+    int index = m_keys.add(key);
+    if (index >= 0) {
+      System.arraycopy(value.getData(), 0, m_values, index * length, length);
+      return;
+    }
+
+    index = -index - 1;
+    int size = m_keys.size();
+    if (size * length > m_values.length) {
+      m_values = Arrays.copyOf(m_values, m_keys.capacity() * length);
+    }
+    System.arraycopy(
+        m_values, index * length, m_values, (index + 1) * length, (size - 1 - index) * length);
+    System.arraycopy(value.getData(), 0, m_values, index * length, length);
+  }
+
+  /**
+   * Returns the value associated with a given key.
+   *
+   * <p>If there's no matching key, the value returned will be a linear interpolation between the
+   * keys before and after the provided one.
+   *
+   * @param key The key.
+   * @return The value associated with the given key, or null if the map is empty.
+   */
+  public Matrix<R, C> get(double key) {
+    if (m_keys.size() == 0) {
+      return null;
+    }
+    return getInto(key, new Matrix<>(new SimpleMatrix(m_rows, m_cols)));
+  }
+
+  /**
+   * Stores the value associated with a given key in dest, without allocating.
+   *
+   * <p>If there's no matching key, the value stored will be a linear interpolation between the keys
+   * before and after the provided one.
+   *
+   * @param key The key.
+   * @param dest The matrix to store the value in.
+   * @return dest, which is filled with NaN if the map is empty.
+   * @throws IllegalArgumentException if dest's dimensions don't match the values.
+   */
+  public Matrix<R, C> getInto(double key, Matrix<R, C> dest) {
+    int size = m_keys.size();
+    if (size == 0) {
+      dest.fill(Double.NaN);
+      return dest;
+    }
+    checkDimensions(dest, "Destination");
+
+    int length = m_rows * m_cols;
+    double[] result = dest.getData();
+    if (key <= m_keys.get(0)) {
+      System.arraycopy(m_values, 0, result, 0, length);
+      return dest;
+    }
+    if (!(key < m_keys.get(size - 1))) {
+      System.arraycopy(m_values, (size - 1) * length, result, 0, length);
+      return dest;
+    }
+
+    int index = m_keys.floorIndex(key);
+    double floorKey = m_keys.get(index);
+    if (floorKey == key) {
+      System.arraycopy(m_values, index * length, result, 0, length);
+      return dest;
+    }
+    double t = (key - floorKey) / (m_keys.get(index + 1) - floorKey);
+    int floor = index * length;
+    int ceiling = floor + length;
+    for (int i = 0; i < length; i++) {
+      double a = m_values[floor + i];
+      result[i] = (m_values[ceiling + i] - a) * t + a;
+    }
+    return dest;
+  }
+
+  /**
+   * Returns the number of keys in the map.
+   *
+   * @return The number of keys.
+   */
+  public int size() {
+    return m_keys.size();
+  }
+
+  /** Clears the contents. */
+  public void clear() {
+    m_keys.clear();
+  }
+
+  private void checkDimensions(Matrix<R, C> matrix, String name) {
+    if (matrix.getNumRows() != m_rows || matrix.getNumCols() != m_cols) {
+      throw new IllegalArgumentException(
+          name
+              + " is "
+              + matrix.getNumRows()
+              + "x"
+              + matrix.getNumCols()
+              + ", but the map holds "
+              + m_rows
+              + "x"
+              + m_cols
+              + " values");
+    }
+  }
+}
@@ -5,6 +5,7 @@
 package edu.wpi.first.math;
 
 import java.util.TreeMap;
+import org.ejml.simple.SimpleMatrix;
 
 /**
  * Interpolating Tree Maps are used to get values at points that are not defined by making a guess
@@ -65,8 +66,30 @@ public class InterpolatingMatrixTreeMap<K extends Number, R extends Num, C exten
    * @return The interpolated value.
    */
   public Matrix<R, C> interpolate(Matrix<R, C> val1, Matrix<R, C> val2, double d) {
-    var dydx = val2.minus(val1);
-    return dydx.times(d).plus(val1);
+    return interpolateInto(
+        val1, val2, d, new Matrix<>(new SimpleMatrix(val1.getNumRows(), val1.getNumCols())));
+  }
+
+  /**
+   * Stores the value interpolated between val1 and val2 by the interpolant d in dest, without
+   * allocating.
+   *
+   * @param val1 The lower part of the interpolation range.
+   * @param val2 The upper part of the interpolation range.
+   * @param d The interpolant in the range [0, 1].
+   * @param dest The matrix to store the interpolated value in. This may be val1 or val2.
+   * @return dest.
+   */
+  public Matrix<R, C> interpolateInto(
+      Matrix<R, C> val1, Matrix<R, C> val2, double d, Matrix<R, C> dest) {
+    double[] a = val1.getData();
+    double[] b = val2.getData();
+    double[] result = dest.getData();
+    int length = dest.getNumRows() * dest.getNumCols();
+    for (int i = 0; i < length; i++) {
+      result[i] = (b[i] - a[i]) * d + a[i];
+    }
+    return dest;
   }
 
   /**
@@ -8,6 +8,7 @@ import edu.wpi.first.math.numbers.N1;
 import java.util.Objects;
 import org.ejml.MatrixDimensionException;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.SingularMatrixException;
 import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.ejml.dense.row.NormOps_DDRM;
@@ -203,7 +204,40 @@ public class Matrix<R extends Num, C extends Num> {
    * @return The result of the matrix multiplication between "this" and the given matrix.
    */
   public final <C2 extends Num> Matrix<R, C2> times(Matrix<C, C2> other) {
-    return new Matrix<>(this.m_storage.mult(Objects.requireNonNull(other).m_storage));
+    return timesInto(
+        other,
+        new Matrix<>(new SimpleMatrix(getNumRows(), Objects.requireNonNull(other).getNumCols())));
+  }
+
+  /**
+   * Multiplies this matrix with another that has C rows and stores the result in dest, without
+   * allocating.
+   *
+   * @param other The other matrix to multiply by.
+   * @param dest The matrix to store the result in. This must not be "this" or other.
+   * @param <C2> The number of columns in the second matrix.
+   * @return dest.
+   * @throws IllegalArgumentException If dest is "this" or other.
+   */
+  public final <C2 extends Num> Matrix<R, C2> timesInto(Matrix<C, C2> other, Matrix<R, C2> dest) {
+    var a = this.m_storage.getDDRM();
+    var b = Objects.requireNonNull(other).m_storage.getDDRM();
+    var c = Objects.requireNonNull(dest).m_storage.getDDRM();
+    if (!SmallMatrixKernels.mult(a, b, c)) {
+      CommonOps_DDRM.mult(a, b, c);
+    }
+    return dest;
+  }
+
+  /**
+   * Multiplies all the elements of this matrix by the given scalar in place.
+   *
+   * @param value The scalar value to multiply by.
+   * @return "this" matrix.
+   */
+  public final Matrix<R, C> timesEquals(double value) {
+    CommonOps_DDRM.scale(value, this.m_storage.getDDRM());
+    return this;
   }
 
   /**
@@ -249,6 +283,18 @@ public class Matrix<R extends Num, C extends Num> {
     return new Matrix<>(this.m_storage.minus(Objects.requireNonNull(value).m_storage));
   }
 
+  /**
+   * Subtracts the given matrix from this matrix in place.
+   *
+   * @param value The matrix to subtract.
+   * @return "this" matrix.
+   */
+  public final Matrix<R, C> minusEquals(Matrix<R, C> value) {
+    CommonOps_DDRM.subtractEquals(
+        this.m_storage.getDDRM(), Objects.requireNonNull(value).m_storage.getDDRM());
+    return this;
+  }
+
   /**
    * Adds the given value to all the elements of this matrix.
    *
@@ -269,6 +315,18 @@ public class Matrix<R extends Num, C extends Num> {
     return new Matrix<>(this.m_storage.plus(Objects.requireNonNull(value).m_storage));
   }
 
+  /**
+   * Adds the given matrix to this matrix in place.
+   *
+   * @param value The matrix to add.
+   * @return "this" matrix.
+   */
+  public final Matrix<R, C> plusEquals(Matrix<R, C> value) {
+    CommonOps_DDRM.addEquals(
+        this.m_storage.getDDRM(), Objects.requireNonNull(value).m_storage.getDDRM());
+    return this;
+  }
+
   /**
    * Divides all elements of this matrix by the given value.
    *
@@ -295,7 +353,22 @@ public class Matrix<R extends Num, C extends Num> {
    * @return The transpose matrix.
    */
   public final Matrix<C, R> transpose() {
-    return new Matrix<>(this.m_storage.transpose());
+    return transposeInto(new Matrix<>(new SimpleMatrix(getNumCols(), getNumRows())));
+  }
+
+  /**
+   * Calculates the transpose, Mᵀ of this matrix and stores it in dest, without allocating.
+   *
+   * @param dest The matrix to store the transpose in. This must not be "this" matrix.
+   * @return dest.
+   */
+  public final Matrix<C, R> transposeInto(Matrix<C, R> dest) {
+    var a = this.m_storage.getDDRM();
+    var b = Objects.requireNonNull(dest).m_storage.getDDRM();
+    if (!SmallMatrixKernels.transpose(a, b)) {
+      CommonOps_DDRM.transpose(a, b);
+    }
+    return dest;
   }
 
   /**
@@ -336,6 +409,29 @@ public class Matrix<R extends Num, C extends Num> {
     return new Matrix<>(this.m_storage.solve(Objects.requireNonNull(b).m_storage));
   }
 
+  /**
+   * Solves the equation Ax = b, where A is "this" matrix, and stores x in dest.
+   *
+   * <p>The result is stored without allocating a new matrix, but the solver's decomposition is
+   * still allocated on every call. Use {@link MatrixWorkspace#solveInto} to reuse it as well.
+   *
+   * @param <C2> Columns in b.
+   * @param b The right-hand side of the equation to solve.
+   * @param dest The matrix to store the solution in.
+   * @return dest.
+   * @throws SingularMatrixException If "this" matrix is non-invertable.
+   */
+  @SuppressWarnings("ParameterName")
+  public final <C2 extends Num> Matrix<C, C2> solveInto(Matrix<R, C2> b, Matrix<C, C2> dest) {
+    var x = Objects.requireNonNull(dest).m_storage.getDDRM();
+    if (!CommonOps_DDRM.solve(
+            this.m_storage.getDDRM(), Objects.requireNonNull(b).m_storage.getDDRM(), x)
+        || MatrixFeatures_DDRM.hasUncountable(x)) {
+      throw new SingularMatrixException("Solution contains uncountable numbers");
+    }
+    return dest;
+  }
+
   /**
    * Solves the least-squares problem Ax=B using a QR decomposition with full pivoting, where this
    * matrix is A.
@@ -583,6 +679,14 @@ public class Matrix<R extends Num, C extends Num> {
    *     semidefinite).
    */
   public Matrix<R, C> lltDecompose(boolean lowerTriangular) {
+    if (getNumRows() == getNumCols() && getNumRows() <= SmallMatrixKernels.kMaxDim) {
+      var result = new SimpleMatrix(getNumRows(), getNumCols());
+      if (SmallMatrixKernels.cholesky(m_storage.getDDRM(), result.getDDRM(), lowerTriangular)) {
+        return new Matrix<>(result);
+      }
+    }
+
+    // The kernels also fail on matrices that aren't positive definite, so EJML handles those too
     SimpleMatrix temp = m_storage.copy();
 
     CholeskyDecomposition_F64<DMatrixRMaj> chol =
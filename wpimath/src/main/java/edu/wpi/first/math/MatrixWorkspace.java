@@ -0,0 +1,133 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.SingularMatrixException;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
+import org.ejml.interfaces.linsol.LinearSolverDense;
+import org.ejml.simple.SimpleMatrix;
+
+/**
+ * A pool of scratch matrices for use with the in-place {@link Matrix} operations, such as {@link
+ * Matrix#timesInto(Matrix, Matrix)} and {@link Matrix#plusEquals(Matrix)}.
+ *
+ * <p>Matrices handed out by {@link #get(Nat, Nat)} stay reserved until the next call to {@link
+ * #reset()}, after which they are handed out again. Code that runs every loop iteration should
+ * reset the workspace at the start of each iteration, so that after the first iteration no new
+ * matrices are allocated.
+ *
+ * <p>The contents of a matrix returned by {@link #get(Nat, Nat)} are unspecified. This class is not
+ * thread safe.
+ */
+public final class MatrixWorkspace {
+  private final List<Pool> m_pools = new ArrayList<>();
+
+  /** Scratch matrices of one shape, and a solver for square systems of that shape. */
+  private static class Pool {
+    final int m_rows;
+    final int m_cols;
+    final List<Matrix<?, ?>> m_matrices = new ArrayList<>();
+    int m_used;
+    LinearSolverDense<DMatrixRMaj> m_solver;
+
+    Pool(int rows, int cols) {
+      m_rows = rows;
+      m_cols = cols;
+    }
+  }
+
+  /**
+   * Returns a scratch matrix with the given dimensions. The matrix is reserved until the next call
+   * to {@link #reset()}.
+   *
+   * @param <R> The number of rows of the matrix.
+   * @param <C> The number of columns of the matrix.
+   * @param rows The number of rows of the matrix.
+   * @param cols The number of columns of the matrix.
+   * @return A scratch matrix with unspecified contents.
+   */
+  public <R extends Num, C extends Num> Matrix<R, C> get(Nat<R> rows, Nat<C> cols) {
+    return get(Objects.requireNonNull(rows).getNum(), Objects.requireNonNull(cols).getNum());
+  }
+
+  /**
+   * Returns a scratch matrix with the given dimensions. The matrix is reserved until the next call
+   * to {@link #reset()}.
+   *
+   * <p>This overload is for matrices with wildcard dimensions. Caller should make sure that the
+   * generic bounds match the given dimensions.
+   *
+   * @param <R> The number of rows of the matrix.
+   * @param <C> The number of columns of the matrix.
+   * @param rows The number of rows of the matrix.
+   * @param cols The number of columns of the matrix.
+   * @return A scratch matrix with unspecified contents.
+   */
+  @SuppressWarnings("unchecked")
+  public <R extends Num, C extends Num> Matrix<R, C> get(int rows, int cols) {
+    var pool = getPool(rows, cols);
+    if (pool.m_used == pool.m_matrices.size()) {
+      pool.m_matrices.add(new Matrix<>(new SimpleMatrix(rows, cols)));
+    }
+    return (Matrix<R, C>) pool.m_matrices.get(pool.m_used++);
+  }
+
+  /**
+   * Solves the equation Ax = b for square A and stores x in dest. The LU decomposition used to
+   * solve the system is reused between calls with the same dimensions of A.
+   *
+   * @param <R> The dimension of A.
+   * @param <C> Columns in b.
+   * @param A The left-hand side of the equation to solve.
+   * @param b The right-hand side of the equation to solve.
+   * @param dest The matrix to store the solution in. This must not be b.
+   * @return dest.
+   * @throws SingularMatrixException If A is non-invertable.
+   */
+  @SuppressWarnings("ParameterName")
+  public <R extends Num, C extends Num> Matrix<R, C> solveInto(
+      Matrix<R, R> A, Matrix<R, C> b, Matrix<R, C> dest) {
+    var pool = getPool(A.getNumRows(), A.getNumCols());
+    if (pool.m_solver == null) {
+      pool.m_solver = LinearSolverFactory_DDRM.lu(A.getNumRows());
+    }
+
+    var x = Objects.requireNonNull(dest).getStorage().getDDRM();
+    if (!pool.m_solver.setA(A.getStorage().getDDRM())) {
+      throw new SingularMatrixException();
+    }
+    pool.m_solver.solve(Objects.requireNonNull(b).getStorage().getDDRM(), x);
+    if (MatrixFeatures_DDRM.hasUncountable(x)) {
+      throw new SingularMatrixException("Solution contains uncountable numbers");
+    }
+    return dest;
+  }
+
+  /** Releases all scratch matrices so they can be handed out again. */
+  public void reset() {
+    for (int i = 0; i < m_pools.size(); ++i) {
+      m_pools.get(i).m_used = 0;
+    }
+  }
+
+  private Pool getPool(int rows, int cols) {
+    // Loops only use a handful of shapes, so a linear search is cheaper than hashing them
+    for (int i = 0; i < m_pools.size(); ++i) {
+      var pool = m_pools.get(i);
+      if (pool.m_rows == rows && pool.m_cols == cols) {
+        return pool;
+      }
+    }
+
+    var pool = new Pool(rows, cols);
+    m_pools.add(pool);
+    return pool;
+  }
+}
@@ -4,7 +4,6 @@
 
 package edu.wpi.first.math.controller;
 
-import edu.wpi.first.math.InterpolatingMatrixTreeMap;
 import edu.wpi.first.math.MatBuilder;
 import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.Matrix;
@@ -17,6 +16,7 @@ import edu.wpi.first.math.numbers.N2;
 import edu.wpi.first.math.numbers.N5;
 import edu.wpi.first.math.system.LinearSystem;
 import edu.wpi.first.math.trajectory.Trajectory;
+import java.nio.file.Path;
 
 /**
  * The linear time-varying differential drive controller has a similar form to the LQR, but the
@@ -26,13 +26,17 @@ import edu.wpi.first.math.trajectory.Trajectory;
  *
  * <p>See section 8.7 in Controls Engineering in FRC for a derivation of the control law we used
  * shown in theorem 8.7.4.
+ *
+ * <p>The controller gains are computed for a grid of velocities when the controller is constructed,
+ * which takes a while. To skip that on later runs, pass a cache file to the constructor; the gains
+ * are saved there and loaded again as long as the plant, trackwidth, tolerances, control effort,
+ * and timestep are unchanged.
  */
 public class LTVDifferentialDriveController {
   private final double m_trackwidth;
 
   // LUT from drivetrain linear velocity to LQR gain
-  private final InterpolatingMatrixTreeMap<Double, N2, N5> m_table =
-      new InterpolatingMatrixTreeMap<>();
+  private final LTVGainSchedule<N5, N2> m_table;
 
   private Matrix<N5, N1> m_error = new Matrix<>(Nat.N5(), Nat.N1());
   private Matrix<N5, N1> m_tolerance = new Matrix<>(Nat.N5(), Nat.N1());
@@ -63,13 +67,37 @@ public class LTVDifferentialDriveController {
    * @param relems The maximum desired control effort for each input.
    * @param dt Discretization timestep in seconds.
    */
-  @SuppressWarnings("LocalVariableName")
   public LTVDifferentialDriveController(
       LinearSystem<N2, N2, N2> plant,
       double trackwidth,
       Vector<N5> qelems,
       Vector<N2> relems,
       double dt) {
+    this(plant, trackwidth, qelems, relems, dt, null);
+  }
+
+  /**
+   * Constructs a linear time-varying differential drive controller, caching the controller gains in
+   * a file.
+   *
+   * <p>If the cache file holds gains computed with the same parameters, they're loaded from it.
+   * Otherwise, the gains are computed and written to the cache file.
+   *
+   * @param plant The drivetrain velocity plant.
+   * @param trackwidth The drivetrain's trackwidth in meters.
+   * @param qelems The maximum desired error tolerance for each state.
+   * @param relems The maximum desired control effort for each input.
+   * @param dt Discretization timestep in seconds.
+   * @param gainCacheFile The file to cache the controller gains in, or null to not cache them.
+   */
+  @SuppressWarnings("LocalVariableName")
+  public LTVDifferentialDriveController(
+      LinearSystem<N2, N2, N2> plant,
+      double trackwidth,
+      Vector<N5> qelems,
+      Vector<N2> relems,
+      double dt,
+      Path gainCacheFile) {
     m_trackwidth = trackwidth;
 
     var A =
@@ -127,16 +155,24 @@ public class LTVDifferentialDriveController {
             .times(-1.0)
             .get(0, 0);
 
-    for (double velocity = -maxV; velocity < maxV; velocity += 0.01) {
-      // The DARE is ill-conditioned if the velocity is close to zero, so don't
-      // let the system stop.
-      if (Math.abs(velocity) < 1e-4) {
-        m_table.put(velocity, new Matrix<>(Nat.N2(), Nat.N5()));
-      } else {
-        A.set(State.kY.value, State.kHeading.value, velocity);
-        m_table.put(velocity, new LinearQuadraticRegulator<N5, N2, N5>(A, B, Q, R, dt).getK());
-      }
-    }
+    // Negating the velocity is the same as negating x, the heading, and both wheel velocities and
+    // voltages
+    m_table =
+        LTVGainSchedule.loadOrCompute(
+            gainCacheFile,
+            LTVGainSchedule.getKey("LTVDifferentialDriveController", maxV, dt, A, B, Q, R),
+            Nat.N5(),
+            Nat.N2(),
+            maxV,
+            new double[] {-1.0, 1.0, -1.0, -1.0, -1.0},
+            new double[] {-1.0, -1.0},
+            velocity -> {
+              // The DARE is ill-conditioned if the velocity is close to zero, so linearize
+              // slightly above zero instead to keep the controller active at rest
+              var linearizedA = A.copy();
+              linearizedA.set(State.kY.value, State.kHeading.value, Math.max(velocity, 1e-4));
+              return new LinearQuadraticRegulator<N5, N2, N5>(linearizedA, B, Q, R, dt).getK();
+            });
   }
 
   /**
@@ -0,0 +1,299 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.controller;
+
+import edu.wpi.first.math.MathSharedStore;
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.Num;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.function.DoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * A table of controller gains for a drivetrain linearized at evenly spaced velocities, from
+ * -gridSize * kVelocityStep to gridSize * kVelocityStep. Gains between grid points are linearly
+ * interpolated, and velocities outside the grid use the gain at the nearest end.
+ *
+ * <p>The drivetrain models are symmetric in velocity: negating the velocity is the same as negating
+ * some of the states and inputs. So only the gains for positive velocities are computed, in
+ * parallel, and the gains for negative velocities are mirrored from them. The gain at zero velocity
+ * is zero, since the DARE is ill-conditioned there.
+ *
+ * @param <States> Number of states.
+ * @param <Inputs> Number of inputs.
+ */
+final class LTVGainSchedule<States extends Num, Inputs extends Num> {
+  /** The spacing between grid points in meters per second. */
+  static final double kVelocityStep = 0.01;
+
+  // Binary gain schedule header: magic "WLTG", format version, grid size, rows, columns, then the
+  // SHA-256 key of the system the gains were computed for
+  private static final int kBinaryMagic = 0x574C5447;
+  private static final int kBinaryVersion = 1;
+  private static final int kKeySize = 32;
+  private static final int kBinaryHeaderSize = 20 + kKeySize;
+
+  private final Nat<States> m_states;
+  private final Nat<Inputs> m_inputs;
+  private final int m_gridSize;
+  private final int m_gainSize;
+
+  // Row-major gains of each grid point, from the most negative velocity to the most positive
+  private final double[] m_gains;
+
+  private LTVGainSchedule(Nat<States> states, Nat<Inputs> inputs, int gridSize, double[] gains) {
+    m_states = states;
+    m_inputs = inputs;
+    m_gridSize = gridSize;
+    m_gainSize = states.getNum() * inputs.getNum();
+    m_gains = gains;
+  }
+
+  /**
+   * Computes a gain schedule.
+   *
+   * @param states Number of states.
+   * @param inputs Number of inputs.
+   * @param maxVelocity The maximum velocity in meters per second covered by the grid.
+   * @param stateSigns The sign each state is multiplied by when the velocity is negated.
+   * @param inputSigns The sign each input is multiplied by when the velocity is negated.
+   * @param gain Computes the gain at a positive velocity. It's called from several threads at once.
+   * @param <States> Number of states.
+   * @param <Inputs> Number of inputs.
+   * @return The gain schedule.
+   */
+  @SuppressWarnings("LocalVariableName")
+  static <States extends Num, Inputs extends Num> LTVGainSchedule<States, Inputs> compute(
+      Nat<States> states,
+      Nat<Inputs> inputs,
+      double maxVelocity,
+      double[] stateSigns,
+      double[] inputSigns,
+      DoubleFunction<Matrix<Inputs, States>> gain) {
+    int gridSize = getGridSize(maxVelocity);
+    int rows = inputs.getNum();
+    int cols = states.getNum();
+    int gainSize = rows * cols;
+    var gains = new double[(2 * gridSize + 1) * gainSize];
+
+    IntStream.rangeClosed(0, gridSize)
+        .parallel()
+        .forEach(
+            i -> {
+              var K = gain.apply(i * kVelocityStep);
+              int positive = (gridSize + i) * gainSize;
+              int negative = (gridSize - i) * gainSize;
+              for (int row = 0; row < rows; ++row) {
+                for (int col = 0; col < cols; ++col) {
+                  double value = K.get(row, col);
+                  if (i > 0) {
+                    gains[negative + row * cols + col] = inputSigns[row] * stateSigns[col] * value;
+                  }
+                  gains[positive + row * cols + col] = value;
+                }
+              }
+            });
+
+    return new LTVGainSchedule<>(states, inputs, gridSize, gains);
+  }
+
+  /**
+   * Returns the number of grid points on each side of zero velocity.
+   *
+   * @param maxVelocity The maximum velocity in meters per second covered by the grid.
+   * @return The number of grid points on each side of zero velocity.
+   */
+  static int getGridSize(double maxVelocity) {
+    return (int) Math.max(Math.round(maxVelocity / kVelocityStep), 0);
+  }
+
+  /**
+   * Returns the interpolated gain at a velocity.
+   *
+   * @param velocity The velocity in meters per second.
+   * @return The gain.
+   */
+  @SuppressWarnings("LocalVariableName")
+  Matrix<Inputs, States> get(double velocity) {
+    var K = new Matrix<>(m_inputs, m_states);
+    int cols = m_states.getNum();
+
+    double position = velocity / kVelocityStep + m_gridSize;
+    if (!(position > 0.0)) {
+      position = 0.0;
+    } else if (position > 2 * m_gridSize) {
+      position = 2 * m_gridSize;
+    }
+    int floor = Math.min((int) position, Math.max(2 * m_gridSize - 1, 0));
+    double t = position - floor;
+
+    int lower = floor * m_gainSize;
+    int upper = Math.min(floor + 1, 2 * m_gridSize) * m_gainSize;
+    for (int i = 0; i < m_gainSize; ++i) {
+      double a = m_gains[lower + i];
+      K.set(i / cols, i % cols, (m_gains[upper + i] - a) * t + a);
+    }
+    return K;
+  }
+
+  /**
+   * Returns the cache key of a gain schedule: a SHA-256 hash of everything the gains depend on.
+   *
+   * @param name The name of the controller, so different controllers never share a key.
+   * @param maxVelocity The maximum velocity in meters per second covered by the grid.
+   * @param dt Discretization timestep in seconds.
+   * @param matrices The system and cost matrices.
+   * @return The cache key.
+   */
+  static byte[] getKey(String name, double maxVelocity, double dt, Matrix<?, ?>... matrices) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+
+    var buf = ByteBuffer.allocate(Long.BYTES);
+    digest.update(name.getBytes(StandardCharsets.UTF_8));
+    digest.update(buf.clear().putInt(getGridSize(maxVelocity)).putInt(kBinaryVersion).array());
+    digest.update(buf.clear().putDouble(kVelocityStep).array());
+    digest.update(buf.clear().putDouble(dt).array());
+    for (var matrix : matrices) {
+      digest.update(buf.clear().putInt(matrix.getNumRows()).putInt(matrix.getNumCols()).array());
+      for (int row = 0; row < matrix.getNumRows(); ++row) {
+        for (int col = 0; col < matrix.getNumCols(); ++col) {
+          digest.update(buf.clear().putDouble(matrix.get(row, col)).array());
+        }
+      }
+    }
+    return digest.digest();
+  }
+
+  /**
+   * Loads a gain schedule from a file written by {@link #toBinary(Path, byte[])}.
+   *
+   * @param path The path of the file.
+   * @param key The cache key the gains must have been computed for.
+   * @param states Number of states.
+   * @param inputs Number of inputs.
+   * @param <States> Number of states.
+   * @param <Inputs> Number of inputs.
+   * @return The gain schedule, or null if the file holds gains for a different key.
+   * @throws IOException if reading from the file fails or it isn't a valid gain schedule file.
+   */
+  static <States extends Num, Inputs extends Num> LTVGainSchedule<States, Inputs> fromBinary(
+      Path path, byte[] key, Nat<States> states, Nat<Inputs> inputs) throws IOException {
+    var buf = ByteBuffer.wrap(Files.readAllBytes(path));
+    if (buf.remaining() < kBinaryHeaderSize
+        || buf.getInt() != kBinaryMagic
+        || buf.getInt() != kBinaryVersion) {
+      throw new IOException("Not a binary gain schedule file: " + path);
+    }
+    int gridSize = buf.getInt();
+    int rows = buf.getInt();
+    int cols = buf.getInt();
+    var fileKey = new byte[kKeySize];
+    buf.get(fileKey);
+    if (!Arrays.equals(key, fileKey) || rows != inputs.getNum() || cols != states.getNum()) {
+      return null;
+    }
+
+    int length = (2 * gridSize + 1) * rows * cols;
+    if (gridSize < 0 || buf.remaining() != length * Double.BYTES) {
+      throw new IOException("Truncated binary gain schedule file: " + path);
+    }
+    var gains = new double[length];
+    buf.asDoubleBuffer().get(gains);
+    return new LTVGainSchedule<>(states, inputs, gridSize, gains);
+  }
+
+  /**
+   * Writes this gain schedule to a compact binary file, which can be loaded with {@link
+   * #fromBinary(Path, byte[], Nat, Nat)}. The file is written to a temporary file first and then
+   * moved into place, so a partially written file is never loaded.
+   *
+   * @param path The path of the file.
+   * @param key The cache key the gains were computed for.
+   * @throws IOException if writing to the file fails.
+   */
+  void toBinary(Path path, byte[] key) throws IOException {
+    var buf = ByteBuffer.allocate(kBinaryHeaderSize + m_gains.length * Double.BYTES);
+    buf.putInt(kBinaryMagic)
+        .putInt(kBinaryVersion)
+        .putInt(m_gridSize)
+        .putInt(m_inputs.getNum())
+        .putInt(m_states.getNum())
+        .put(key);
+    buf.asDoubleBuffer().put(m_gains);
+
+    var directory = path.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    var tempPath = Files.createTempFile(directory, null, ".tmp");
+    try {
+      Files.write(tempPath, buf.array());
+      Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tempPath);
+    }
+  }
+
+  /**
+   * Loads a gain schedule from a cache file if it holds gains for the same key, or computes it and
+   * writes it to the cache file otherwise.
+   *
+   * @param cacheFile The cache file, or null to always compute the gain schedule.
+   * @param key The cache key of the gain schedule.
+   * @param states Number of states.
+   * @param inputs Number of inputs.
+   * @param maxVelocity The maximum velocity in meters per second covered by the grid.
+   * @param stateSigns The sign each state is multiplied by when the velocity is negated.
+   * @param inputSigns The sign each input is multiplied by when the velocity is negated.
+   * @param gain Computes the gain at a positive velocity. It's called from several threads at once.
+   * @param <States> Number of states.
+   * @param <Inputs> Number of inputs.
+   * @return The gain schedule.
+   */
+  static <States extends Num, Inputs extends Num> LTVGainSchedule<States, Inputs> loadOrCompute(
+      Path cacheFile,
+      byte[] key,
+      Nat<States> states,
+      Nat<Inputs> inputs,
+      double maxVelocity,
+      double[] stateSigns,
+      double[] inputSigns,
+      DoubleFunction<Matrix<Inputs, States>> gain) {
+    if (cacheFile != null && Files.isRegularFile(cacheFile)) {
+      try {
+        var schedule = fromBinary(cacheFile, key, states, inputs);
+        if (schedule != null) {
+          return schedule;
+        }
+      } catch (IOException ex) {
+        // Fall through and recompute the gains, which overwrites the bad file
+      }
+    }
+
+    var schedule = compute(states, inputs, maxVelocity, stateSigns, inputSigns, gain);
+
+    if (cacheFile != null) {
+      try {
+        schedule.toBinary(cacheFile, key);
+      } catch (IOException ex) {
+        MathSharedStore.reportError(
+            "Could not cache LTV controller gains: " + ex.getMessage(), ex.getStackTrace());
+      }
+    }
+    return schedule;
+  }
+}
@@ -4,7 +4,6 @@
 
 package edu.wpi.first.math.controller;
 
-import edu.wpi.first.math.InterpolatingMatrixTreeMap;
 import edu.wpi.first.math.MatBuilder;
 import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.Nat;
@@ -16,6 +15,7 @@ import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.numbers.N2;
 import edu.wpi.first.math.numbers.N3;
 import edu.wpi.first.math.trajectory.Trajectory;
+import java.nio.file.Path;
 
 /**
  * The linear time-varying unicycle controller has a similar form to the LQR, but the model used to
@@ -24,12 +24,16 @@ import edu.wpi.first.math.trajectory.Trajectory;
  *
  * <p>See section 8.9 in Controls Engineering in FRC for a derivation of the control law we used
  * shown in theorem 8.9.1.
+ *
+ * <p>The controller gains are computed for a grid of velocities when the controller is constructed,
+ * which takes a while. To skip that on later runs, pass a cache file to the constructor; the gains
+ * are saved there and loaded again as long as the tolerances, control effort, timestep, and maximum
+ * velocity are unchanged.
  */
 @SuppressWarnings("MemberName")
 public class LTVUnicycleController {
   // LUT from drivetrain linear velocity to LQR gain
-  private final InterpolatingMatrixTreeMap<Double, N2, N3> m_table =
-      new InterpolatingMatrixTreeMap<>();
+  private final LTVGainSchedule<N3, N2> m_table;
 
   private Pose2d m_poseError;
   private Pose2d m_poseTolerance;
@@ -108,24 +112,52 @@ public class LTVUnicycleController {
    * @param maxVelocity The maximum velocity in meters per second for the controller gain lookup
    *     table. The default is 9 m/s.
    */
-  @SuppressWarnings("LocalVariableName")
   public LTVUnicycleController(
       Vector<N3> qelems, Vector<N2> relems, double dt, double maxVelocity) {
+    this(qelems, relems, dt, maxVelocity, null);
+  }
+
+  /**
+   * Constructs a linear time-varying unicycle controller, caching the controller gains in a file.
+   *
+   * <p>If the cache file holds gains computed with the same parameters, they're loaded from it.
+   * Otherwise, the gains are computed and written to the cache file.
+   *
+   * @param qelems The maximum desired error tolerance for each state.
+   * @param relems The maximum desired control effort for each input.
+   * @param dt Discretization timestep in seconds.
+   * @param maxVelocity The maximum velocity in meters per second for the controller gain lookup
+   *     table. The default is 9 m/s.
+   * @param gainCacheFile The file to cache the controller gains in, or null to not cache them.
+   */
+  @SuppressWarnings("LocalVariableName")
+  public LTVUnicycleController(
+      Vector<N3> qelems, Vector<N2> relems, double dt, double maxVelocity, Path gainCacheFile) {
     var A = new Matrix<>(Nat.N3(), Nat.N3());
     var B = new MatBuilder<>(Nat.N3(), Nat.N2()).fill(1.0, 0.0, 0.0, 0.0, 0.0, 1.0);
     var Q = StateSpaceUtil.makeCostMatrix(qelems);
     var R = StateSpaceUtil.makeCostMatrix(relems);
 
-    for (double velocity = -maxVelocity; velocity < maxVelocity; velocity += 0.01) {
-      // The DARE is ill-conditioned if the velocity is close to zero, so don't
-      // let the system stop.
-      if (Math.abs(velocity) < 1e-4) {
-        m_table.put(velocity, new Matrix<>(Nat.N2(), Nat.N3()));
-      } else {
-        A.set(State.kY.value, State.kHeading.value, velocity);
-        m_table.put(velocity, new LinearQuadraticRegulator<N3, N2, N3>(A, B, Q, R, dt).getK());
-      }
-    }
+    // Negating the velocity is the same as negating the heading and angular velocity
+    m_table =
+        LTVGainSchedule.loadOrCompute(
+            gainCacheFile,
+            LTVGainSchedule.getKey("LTVUnicycleController", maxVelocity, dt, A, B, Q, R),
+            Nat.N3(),
+            Nat.N2(),
+            maxVelocity,
+            new double[] {1.0, 1.0, -1.0},
+            new double[] {1.0, -1.0},
+            velocity -> {
+              // The DARE is ill-conditioned if the velocity is close to zero, so don't
+              // let the system stop.
+              if (Math.abs(velocity) < 1e-4) {
+                return new Matrix<>(Nat.N2(), Nat.N3());
+              }
+              var linearizedA = A.copy();
+              linearizedA.set(State.kY.value, State.kHeading.value, velocity);
+              return new LinearQuadraticRegulator<N3, N2, N3>(linearizedA, B, Q, R, dt).getK();
+            });
   }
 
   /**
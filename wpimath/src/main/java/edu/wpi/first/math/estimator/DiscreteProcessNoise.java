@@ -0,0 +1,93 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.estimator;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Num;
+import edu.wpi.first.math.system.Discretization;
+
+/**
+ * Caches the discretization of a continuous process noise covariance matrix.
+ *
+ * <p>The discrete A and Q only depend on the continuous A and the timestep, so they're only
+ * recomputed when the timestep changes by more than a tolerance or the continuous A changes. For
+ * models whose Jacobian doesn't depend on the state or input (e.g. the pose estimators) with a
+ * fixed loop period, this skips the matrix exponential and Cholesky decomposition on every predict.
+ */
+@SuppressWarnings("ClassTypeParameterName")
+class DiscreteProcessNoise<States extends Num> {
+  /** Timesteps within this many seconds of the cached one reuse the cached discretization. */
+  static final double kDtToleranceSeconds = 1e-6;
+
+  private final Matrix<States, States> m_contQ;
+
+  private Matrix<States, States> m_contA;
+  private double m_dtSeconds = Double.NaN;
+  private Matrix<States, States> m_discA;
+  private Matrix<States, States> m_discQ;
+  private Matrix<States, States> m_squareRootDiscQ;
+
+  /**
+   * Constructs a cache for the given continuous process noise covariance.
+   *
+   * @param contQ Continuous process noise covariance matrix.
+   */
+  DiscreteProcessNoise(Matrix<States, States> contQ) {
+    m_contQ = contQ;
+  }
+
+  /**
+   * Discretizes A and Q for the given continuous A and timestep, unless they match the cached ones.
+   *
+   * @param contA Continuous system matrix.
+   * @param dtSeconds Discretization timestep.
+   */
+  @SuppressWarnings("ParameterName")
+  void update(Matrix<States, States> contA, double dtSeconds) {
+    if (m_contA != null
+        && Math.abs(dtSeconds - m_dtSeconds) <= kDtToleranceSeconds
+        && contA.isEqual(m_contA, 0.0)) {
+      return;
+    }
+
+    var discPair = Discretization.discretizeAQTaylor(contA, m_contQ, dtSeconds);
+    m_contA = contA.copy();
+    m_dtSeconds = dtSeconds;
+    m_discA = discPair.getFirst();
+    m_discQ = discPair.getSecond();
+    m_squareRootDiscQ = null;
+  }
+
+  /**
+   * Returns the discrete system matrix from the last update.
+   *
+   * @return Discrete system matrix.
+   */
+  Matrix<States, States> getDiscA() {
+    return m_discA;
+  }
+
+  /**
+   * Returns the discrete process noise covariance from the last update.
+   *
+   * @return Discrete process noise covariance matrix.
+   */
+  Matrix<States, States> getDiscQ() {
+    return m_discQ;
+  }
+
+  /**
+   * Returns the lower-triangular square root of the discrete process noise covariance from the last
+   * update. It's computed on first use after each update.
+   *
+   * @return Square root of the discrete process noise covariance matrix.
+   */
+  Matrix<States, States> getSquareRootDiscQ() {
+    if (m_squareRootDiscQ == null) {
+      m_squareRootDiscQ = m_discQ.lltDecompose(true);
+    }
+    return m_squareRootDiscQ;
+  }
+}
@@ -6,6 +6,7 @@ package edu.wpi.first.math.estimator;
 
 import edu.wpi.first.math.Drake;
 import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.MatrixWorkspace;
 import edu.wpi.first.math.Nat;
 import edu.wpi.first.math.Num;
 import edu.wpi.first.math.StateSpaceUtil;
@@ -46,10 +47,13 @@ public class ExtendedKalmanFilter<States extends Num, Inputs extends Num, Output
   @SuppressWarnings("MemberName")
   private final BiFunction<Matrix<States, N1>, Matrix<Inputs, N1>, Matrix<Outputs, N1>> m_h;
 
+  private BiFunction<Matrix<States, N1>, Matrix<Inputs, N1>, Matrix<States, States>> m_jacobianX;
+
   private BiFunction<Matrix<Outputs, N1>, Matrix<Outputs, N1>, Matrix<Outputs, N1>> m_residualFuncY;
   private BiFunction<Matrix<States, N1>, Matrix<States, N1>, Matrix<States, N1>> m_addFuncX;
 
   private final Matrix<States, States> m_contQ;
+  private final DiscreteProcessNoise<States> m_processNoise;
   private final Matrix<States, States> m_initP;
   private final Matrix<Outputs, Outputs> m_contR;
 
@@ -57,7 +61,10 @@ public class ExtendedKalmanFilter<States extends Num, Inputs extends Num, Output
   private Matrix<States, N1> m_xHat;
 
   @SuppressWarnings("MemberName")
-  private Matrix<States, States> m_P;
+  private final Matrix<States, States> m_P;
+
+  private final Matrix<States, States> m_identity;
+  private final MatrixWorkspace m_workspace = new MatrixWorkspace();
 
   private double m_dtSeconds;
 
@@ -136,7 +143,8 @@ public class ExtendedKalmanFilter<States extends Num, Inputs extends Num, Output
     m_contR = StateSpaceUtil.makeCovarianceMatrix(outputs, measurementStdDevs);
     m_dtSeconds = dtSeconds;
 
-    reset();
+    m_xHat = new Matrix<>(states, Nat.N1());
+    m_identity = Matrix.eye(states);
 
     final var contA =
         NumericalJacobian.numericalJacobianX(
@@ -145,9 +153,10 @@ public class ExtendedKalmanFilter<States extends Num, Inputs extends Num, Output
         NumericalJacobian.numericalJacobianX(
             outputs, states, h, m_xHat, new Matrix<>(inputs, Nat.N1()));
 
-    final var discPair = Discretization.discretizeAQTaylor(contA, m_contQ, dtSeconds);
-    final var discA = discPair.getFirst();
-    final var discQ = discPair.getSecond();
+    m_processNoise = new DiscreteProcessNoise<>(m_contQ);
+    m_processNoise.update(contA, dtSeconds);
+    final var discA = m_processNoise.getDiscA();
+    final var discQ = m_processNoise.getDiscQ();
 
     final var discR = Discretization.discretizeR(m_contR, dtSeconds);
 
@@ -158,17 +167,30 @@ public class ExtendedKalmanFilter<States extends Num, Inputs extends Num, Output
       m_initP = new Matrix<>(states, states);
     }
 
-    m_P = m_initP;
+    m_P = m_initP.copy();
   }
 
   /**
-   * Returns the error covariance matrix P.
+   * Returns a copy of the error covariance matrix P.
    *
    * @return the error covariance matrix P.
    */
   @Override
   public Matrix<States, States> getP() {
-    return m_P;
+    return m_P.copy();
+  }
+
+  /**
+   * Copies the error covariance matrix P into a preallocated matrix, so callers that read it every
+   * loop don't allocate a copy.
+   *
+   * @param result The matrix to store P in.
+   * @return The result matrix.
+   */
+  @Override
+  public Matrix<States, States> getPInto(Matrix<States, States> result) {
+    result.assignBlock(0, 0, m_P);
+    return result;
   }
 
   /**
@@ -190,17 +212,30 @@ public class ExtendedKalmanFilter<States extends Num, Inputs extends Num, Output
    */
   @Override
   public void setP(Matrix<States, States> newP) {
-    m_P = newP;
+    m_P.assignBlock(0, 0, newP);
   }
 
   /**
-   * Returns the state estimate x-hat.
+   * Returns a copy of the state estimate x-hat.
    *
    * @return the state estimate x-hat.
    */
   @Override
   public Matrix<States, N1> getXhat() {
-    return m_xHat;
+    return m_xHat.copy();
+  }
+
+  /**
+   * Copies the state estimate x-hat into a preallocated matrix, so callers that read it every loop
+   * don't allocate a copy.
+   *
+   * @param result The matrix to store x-hat in.
+   * @return The result matrix.
+   */
+  @Override
+  public Matrix<States, N1> getXhatInto(Matrix<States, N1> result) {
+    result.assignBlock(0, 0, m_xHat);
+    return result;
   }
 
   /**
@@ -222,7 +257,7 @@ public class ExtendedKalmanFilter<States extends Num, Inputs extends Num, Output
   @SuppressWarnings("ParameterName")
   @Override
   public void setXhat(Matrix<States, N1> xHat) {
-    m_xHat = xHat;
+    m_xHat.assignBlock(0, 0, xHat);
   }
 
   /**
@@ -239,7 +274,20 @@ public class ExtendedKalmanFilter<States extends Num, Inputs extends Num, Output
   @Override
   public void reset() {
     m_xHat = new Matrix<>(m_states, Nat.N1());
-    m_P = m_initP;
+    m_P.assignBlock(0, 0, m_initP);
+  }
+
+  /**
+   * Sets an analytic Jacobian of f with respect to x, used to linearize the model in {@link
+   * #predict(Matrix, double)}. By default, the Jacobian is found numerically, which takes 2 *
+   * States evaluations of f.
+   *
+   * @param jacobianX A function of x and u that returns the Jacobian of f with respect to x, or
+   *     null to use the numerical Jacobian.
+   */
+  public void setJacobianX(
+      BiFunction<Matrix<States, N1>, Matrix<Inputs, N1>, Matrix<States, States>> jacobianX) {
+    m_jacobianX = jacobianX;
   }
 
   /**
@@ -266,18 +314,25 @@ public class ExtendedKalmanFilter<States extends Num, Inputs extends Num, Output
       Matrix<Inputs, N1> u,
       BiFunction<Matrix<States, N1>, Matrix<Inputs, N1>, Matrix<States, N1>> f,
       double dtSeconds) {
-    // Find continuous A
-    final var contA = NumericalJacobian.numericalJacobianX(m_states, m_states, f, m_xHat, u);
+    // Find continuous A. The analytic Jacobian only applies to the filter's own model.
+    final var contA =
+        m_jacobianX != null && f == m_f
+            ? m_jacobianX.apply(m_xHat, u)
+            : NumericalJacobian.numericalJacobianX(m_states, m_states, f, m_xHat, u);
 
-    // Find discrete A and Q
-    final var discPair = Discretization.discretizeAQTaylor(contA, m_contQ, dtSeconds);
-    final var discA = discPair.getFirst();
-    final var discQ = discPair.getSecond();
+    // Find discrete A and Q, reusing the last discretization if dt and A haven't changed
+    m_processNoise.update(contA, dtSeconds);
+    final var discA = m_processNoise.getDiscA();
+    final var discQ = m_processNoise.getDiscQ();
 
     m_xHat = NumericalIntegration.rk4(f, m_xHat, u, dtSeconds);
 
+    m_workspace.reset();
+
     // Pₖ₊₁⁻ = APₖ⁻Aᵀ + Q
-    m_P = discA.times(m_P).times(discA.transpose()).plus(discQ);
+    final var AP = discA.timesInto(m_P, m_workspace.get(m_states, m_states));
+    AP.timesInto(discA.transposeInto(m_workspace.get(m_states, m_states)), m_P);
+    m_P.plusEquals(discQ);
 
     m_dtSeconds = dtSeconds;
   }
@@ -345,9 +400,20 @@ public class ExtendedKalmanFilter<States extends Num, Inputs extends Num, Output
       BiFunction<Matrix<Rows, N1>, Matrix<Rows, N1>, Matrix<Rows, N1>> residualFuncY,
       BiFunction<Matrix<States, N1>, Matrix<States, N1>, Matrix<States, N1>> addFuncX) {
     final var C = NumericalJacobian.numericalJacobianX(rows, m_states, h, m_xHat, u);
-    final var discR = Discretization.discretizeR(R, m_dtSeconds);
 
-    final var S = C.times(m_P).times(C.transpose()).plus(discR);
+    m_workspace.reset();
+
+    // Discretize R in place of Discretization.discretizeR()
+    final var discR = m_workspace.get(rows, rows);
+    discR.assignBlock(0, 0, R);
+    discR.timesEquals(1.0 / m_dtSeconds);
+
+    final var Ct = C.transposeInto(m_workspace.get(m_states, rows));
+
+    // S = CPCᵀ + R
+    final var S = m_workspace.get(rows, rows);
+    C.timesInto(m_P, m_workspace.get(rows, m_states)).timesInto(Ct, S);
+    S.plusEquals(discR);
 
     // We want to put K = PCᵀS⁻¹ into Ax = b form so we can solve it more
     // efficiently.
@@ -361,18 +427,32 @@ public class ExtendedKalmanFilter<States extends Num, Inputs extends Num, Output
     //
     // Kᵀ = Sᵀ.solve(CPᵀ)
     // K = (Sᵀ.solve(CPᵀ))ᵀ
-    final Matrix<States, Rows> K = S.transpose().solve(C.times(m_P.transpose())).transpose();
+    final var CPt =
+        C.timesInto(
+            m_P.transposeInto(m_workspace.get(m_states, m_states)),
+            m_workspace.get(rows, m_states));
+    final Matrix<Rows, States> Kt =
+        m_workspace.solveInto(
+            S.transposeInto(m_workspace.get(rows, rows)), CPt, m_workspace.get(rows, m_states));
+    final Matrix<States, Rows> K = Kt.transposeInto(m_workspace.get(m_states, rows));
 
     // x̂ₖ₊₁⁺ = x̂ₖ₊₁⁻ + K(y − h(x̂ₖ₊₁⁻, uₖ₊₁))
-    m_xHat = addFuncX.apply(m_xHat, K.times(residualFuncY.apply(y, h.apply(m_xHat, u))));
+    m_xHat =
+        addFuncX.apply(
+            m_xHat,
+            K.timesInto(
+                residualFuncY.apply(y, h.apply(m_xHat, u)), m_workspace.get(m_states, Nat.N1())));
 
     // Pₖ₊₁⁺ = (I−Kₖ₊₁C)Pₖ₊₁⁻(I−Kₖ₊₁C)ᵀ + Kₖ₊₁RKₖ₊₁ᵀ
     // Use Joseph form for numerical stability
-    m_P =
-        Matrix.eye(m_states)
-            .minus(K.times(C))
-            .times(m_P)
-            .times(Matrix.eye(m_states).minus(K.times(C)).transpose())
-            .plus(K.times(discR).times(K.transpose()));
+    final var IminusKC = m_workspace.get(m_states, m_states);
+    IminusKC.assignBlock(0, 0, m_identity);
+    IminusKC.minusEquals(K.timesInto(C, m_workspace.get(m_states, m_states)));
+
+    IminusKC.timesInto(m_P, m_workspace.get(m_states, m_states))
+        .timesInto(IminusKC.transposeInto(m_workspace.get(m_states, m_states)), m_P);
+    m_P.plusEquals(
+        K.timesInto(discR, m_workspace.get(m_states, rows))
+            .timesInto(Kt, m_workspace.get(m_states, m_states)));
   }
 }
@@ -7,6 +7,7 @@ package edu.wpi.first.math.estimator;
 import edu.wpi.first.math.Drake;
 import edu.wpi.first.math.MathSharedStore;
 import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.MatrixWorkspace;
 import edu.wpi.first.math.Nat;
 import edu.wpi.first.math.Num;
 import edu.wpi.first.math.StateSpaceUtil;
@@ -32,6 +33,7 @@ import edu.wpi.first.math.system.LinearSystem;
 @SuppressWarnings("ClassTypeParameterName")
 public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extends Num> {
   private final Nat<States> m_states;
+  private final Nat<Outputs> m_outputs;
 
   private final LinearSystem<States, Inputs, Outputs> m_plant;
 
@@ -41,7 +43,14 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
 
   /** The state estimate. */
   @SuppressWarnings("MemberName")
-  private Matrix<States, N1> m_xHat;
+  private final Matrix<States, N1> m_xHat;
+
+  // Discrete A and B matrices for the timestep of the last prediction
+  private final Matrix<States, States> m_discA;
+  private final Matrix<States, Inputs> m_discB;
+  private double m_dtSeconds = Double.NaN;
+
+  private final MatrixWorkspace m_workspace = new MatrixWorkspace();
 
   /**
    * Constructs a state-space observer with the given plant.
@@ -62,6 +71,7 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
       Matrix<Outputs, N1> measurementStdDevs,
       double dtSeconds) {
     this.m_states = states;
+    this.m_outputs = outputs;
 
     this.m_plant = plant;
 
@@ -113,11 +123,13 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
         new Matrix<>(
             S.transpose().getStorage().solve((C.times(P.transpose())).getStorage()).transpose());
 
-    reset();
+    m_discA = new Matrix<>(states, states);
+    m_discB = new Matrix<>(plant.getB().getStorage().createLike());
+    m_xHat = new Matrix<>(states, Nat.N1());
   }
 
   public void reset() {
-    m_xHat = new Matrix<>(m_states, Nat.N1());
+    m_xHat.fill(0.0);
   }
 
   /**
@@ -146,7 +158,7 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
    * @param xhat The state estimate x-hat.
    */
   public void setXhat(Matrix<States, N1> xhat) {
-    this.m_xHat = xhat;
+    m_xHat.assignBlock(0, 0, xhat);
   }
 
   /**
@@ -160,12 +172,24 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
   }
 
   /**
-   * Returns the state estimate x-hat.
+   * Returns a copy of the state estimate x-hat.
    *
    * @return The state estimate x-hat.
    */
   public Matrix<States, N1> getXhat() {
-    return m_xHat;
+    return m_xHat.copy();
+  }
+
+  /**
+   * Copies the state estimate x-hat into a preallocated matrix, so callers that read it every loop
+   * don't allocate a copy.
+   *
+   * @param result The matrix to store x-hat in.
+   * @return The result matrix.
+   */
+  public Matrix<States, N1> getXhatInto(Matrix<States, N1> result) {
+    result.assignBlock(0, 0, m_xHat);
+    return result;
   }
 
   /**
@@ -186,7 +210,21 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
    */
   @SuppressWarnings("ParameterName")
   public void predict(Matrix<Inputs, N1> u, double dtSeconds) {
-    this.m_xHat = m_plant.calculateX(m_xHat, u, dtSeconds);
+    // The timestep rarely changes between loop iterations, so only rediscretize A and B when it
+    // does
+    if (dtSeconds != m_dtSeconds) {
+      var discABPair = Discretization.discretizeAB(m_plant.getA(), m_plant.getB(), dtSeconds);
+      m_discA.assignBlock(0, 0, discABPair.getFirst());
+      m_discB.assignBlock(0, 0, discABPair.getSecond());
+      m_dtSeconds = dtSeconds;
+    }
+
+    m_workspace.reset();
+
+    // x̂ₖ₊₁⁻ = Ax̂ₖ⁺ + Buₖ
+    var x = m_discA.timesInto(m_xHat, m_workspace.get(m_states, Nat.N1()));
+    x.plusEquals(m_discB.timesInto(u, m_workspace.get(m_states, Nat.N1())));
+    m_xHat.assignBlock(0, 0, x);
   }
 
   /**
@@ -199,7 +237,15 @@ public class KalmanFilter<States extends Num, Inputs extends Num, Outputs extend
   public void correct(Matrix<Inputs, N1> u, Matrix<Outputs, N1> y) {
     final var C = m_plant.getC();
     final var D = m_plant.getD();
+
+    m_workspace.reset();
+
     // x̂ₖ₊₁⁺ = x̂ₖ₊₁⁻ + K(y − (Cx̂ₖ₊₁⁻ + Duₖ₊₁))
-    m_xHat = m_xHat.plus(m_K.times(y.minus(C.times(m_xHat).plus(D.times(u)))));
+    var yHat = C.timesInto(m_xHat, m_workspace.get(m_outputs, Nat.N1()));
+    yHat.plusEquals(D.timesInto(u, m_workspace.get(m_outputs, Nat.N1())));
+    var residual = m_workspace.get(m_outputs, Nat.N1());
+    residual.assignBlock(0, 0, y);
+    residual.minusEquals(yHat);
+    m_xHat.plusEquals(m_K.timesInto(residual, m_workspace.get(m_states, Nat.N1())));
   }
 }
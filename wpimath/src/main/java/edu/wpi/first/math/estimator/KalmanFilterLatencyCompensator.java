@@ -9,22 +9,40 @@ import edu.wpi.first.math.Nat;
 import edu.wpi.first.math.Num;
 import edu.wpi.first.math.numbers.N1;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.function.BiConsumer;
 
 public class KalmanFilterLatencyCompensator<S extends Num, I extends Num, O extends Num> {
   private static final int kMaxPastObserverStates = 300;
 
-  private final List<Map.Entry<Double, ObserverSnapshot>> m_pastObserverSnapshots;
+  // Replay measurements in snapshot order, and in time order within a snapshot. List.sort() is
+  // stable, so measurements with equal timestamps are applied in the order they were added.
+  private static final Comparator<KalmanFilterLatencyCompensator<?, ?, ?>.PastGlobalMeasurement<?>>
+      kReplayOrder =
+          Comparator.comparingInt(
+                  (KalmanFilterLatencyCompensator<?, ?, ?>.PastGlobalMeasurement<?> m) ->
+                      m.m_snapshotIdx)
+              .thenComparingDouble(m -> m.m_timestampSeconds);
 
-  KalmanFilterLatencyCompensator() {
-    m_pastObserverSnapshots = new ArrayList<>();
-  }
+  // Ring buffer of observer snapshots sorted by timestamp. Snapshots are allocated the first time
+  // their slot is used and are overwritten in place afterward.
+  private final double[] m_timestamps = new double[kMaxPastObserverStates];
+  private final List<ObserverSnapshot> m_snapshots = new ArrayList<>(kMaxPastObserverStates);
+
+  private int m_front;
+  private int m_length;
+
+  // Global measurements waiting to be applied by the next replay
+  private final List<PastGlobalMeasurement<?>> m_pendingMeasurements = new ArrayList<>();
+
+  KalmanFilterLatencyCompensator() {}
 
   /** Clears the observer snapshot buffer. */
   public void reset() {
-    m_pastObserverSnapshots.clear();
+    m_front = 0;
+    m_length = 0;
+    m_pendingMeasurements.clear();
   }
 
   /**
@@ -41,17 +59,30 @@ public class KalmanFilterLatencyCompensator<S extends Num, I extends Num, O exte
       Matrix<I, N1> u,
       Matrix<O, N1> localY,
       double timestampSeconds) {
-    m_pastObserverSnapshots.add(
-        Map.entry(timestampSeconds, new ObserverSnapshot(observer, u, localY)));
+    // Overwrite the oldest snapshot if the buffer is full
+    if (m_length == kMaxPastObserverStates) {
+      m_front = index(1);
+      --m_length;
+    }
+
+    int i = index(m_length);
+    ++m_length;
 
-    if (m_pastObserverSnapshots.size() > kMaxPastObserverStates) {
-      m_pastObserverSnapshots.remove(0);
+    m_timestamps[i] = timestampSeconds;
+    if (i < m_snapshots.size()) {
+      m_snapshots.get(i).update(observer, u, localY);
+    } else {
+      m_snapshots.add(new ObserverSnapshot(observer, u, localY));
     }
   }
 
   /**
    * Add past global measurements (such as from vision)to the estimator.
    *
+   * <p>This replays the observer from the time of the measurement to the present. If several
+   * measurements arrive in the same loop, queue them with {@link #addPastGlobalMeasurement} and
+   * apply them with one replay through {@link #applyPastGlobalMeasurements} instead.
+   *
    * @param <R> The rows in the global measurement vector.
    * @param rows The rows in the global measurement vector.
    * @param observer The observer to apply the past global measurement.
@@ -68,16 +99,119 @@ public class KalmanFilterLatencyCompensator<S extends Num, I extends Num, O exte
       Matrix<R, N1> y,
       BiConsumer<Matrix<I, N1>, Matrix<R, N1>> globalMeasurementCorrect,
       double timestampSeconds) {
-    if (m_pastObserverSnapshots.isEmpty()) {
+    addPastGlobalMeasurement(y, globalMeasurementCorrect, timestampSeconds);
+    applyPastGlobalMeasurements(observer, nominalDtSeconds);
+  }
+
+  /**
+   * Queues a past global measurement (such as from vision) to be applied by the next call to {@link
+   * #applyPastGlobalMeasurements}.
+   *
+   * @param <R> The rows in the global measurement vector.
+   * @param y The measurement.
+   * @param globalMeasurementCorrect The function take calls correct() on the observer.
+   * @param timestampSeconds The timestamp of the measurement.
+   */
+  @SuppressWarnings("ParameterName")
+  public <R extends Num> void addPastGlobalMeasurement(
+      Matrix<R, N1> y,
+      BiConsumer<Matrix<I, N1>, Matrix<R, N1>> globalMeasurementCorrect,
+      double timestampSeconds) {
+    m_pendingMeasurements.add(
+        new PastGlobalMeasurement<>(y, globalMeasurementCorrect, timestampSeconds));
+  }
+
+  /**
+   * Applies all queued past global measurements to the observer. The observer is rewound to the
+   * snapshot closest to the oldest measurement, then replayed to the present once, applying each
+   * measurement at the snapshot closest to its timestamp.
+   *
+   * @param observer The observer to apply the past global measurements.
+   * @param nominalDtSeconds The nominal timestep.
+   */
+  public void applyPastGlobalMeasurements(
+      KalmanTypeFilter<S, I, O> observer, double nominalDtSeconds) {
+    if (m_pendingMeasurements.isEmpty()) {
+      return;
+    }
+
+    if (m_length == 0) {
       // State map was empty, which means that we got a past measurement right at startup. The only
       // thing we can really do is ignore the measurement.
+      m_pendingMeasurements.clear();
+      return;
+    }
+
+    // Find the snapshot for each measurement, discarding measurements older than every snapshot
+    // since there's no state estimate into which to incorporate them
+    int startIdx = m_length;
+    for (var measurement : m_pendingMeasurements) {
+      measurement.m_snapshotIdx = closestSnapshot(measurement.m_timestampSeconds);
+      if (measurement.m_snapshotIdx >= 0) {
+        startIdx = Math.min(startIdx, measurement.m_snapshotIdx);
+      }
+    }
+    if (startIdx == m_length) {
+      m_pendingMeasurements.clear();
       return;
     }
+    m_pendingMeasurements.sort(kReplayOrder);
+
+    double lastTimestamp = m_timestamps[index(startIdx)] - nominalDtSeconds;
+    int nextMeasurement = 0;
+    while (m_pendingMeasurements.get(nextMeasurement).m_snapshotIdx < 0) {
+      ++nextMeasurement;
+    }
 
-    // Use a less verbose name for timestamp
-    double timestamp = timestampSeconds;
+    // We will now go back in time to the state of the system at the time when
+    // the oldest measurement was captured. We will reset the observer to that
+    // state, and apply correction based on the measurement. Then, we will go
+    // back through all observer states until the present and apply past inputs
+    // (and any newer measurements) to get the present estimated state.
+    for (int i = startIdx; i < m_length; i++) {
+      double key = m_timestamps[index(i)];
+      var snapshot = m_snapshots.get(index(i));
 
-    int maxIdx = m_pastObserverSnapshots.size() - 1;
+      if (i == startIdx) {
+        // setP() and setXhat() copy their arguments, so the snapshot stays intact
+        observer.setP(snapshot.errorCovariances);
+        observer.setXhat(snapshot.xHat);
+      }
+
+      observer.predict(snapshot.inputs, key - lastTimestamp);
+      observer.correct(snapshot.inputs, snapshot.localMeasurements);
+
+      // Note that the measurement is at a timestep close but probably not exactly equal to the
+      // timestep for which we called predict.
+      // This makes the assumption that the dt is small enough that the difference between the
+      // measurement time and the time that the inputs were captured at is very small.
+      while (nextMeasurement < m_pendingMeasurements.size()
+          && m_pendingMeasurements.get(nextMeasurement).m_snapshotIdx == i) {
+        m_pendingMeasurements.get(nextMeasurement).correct(snapshot.inputs);
+        ++nextMeasurement;
+      }
+      lastTimestamp = key;
+
+      snapshot.update(observer, snapshot.inputs, snapshot.localMeasurements);
+    }
+
+    m_pendingMeasurements.clear();
+  }
+
+  /**
+   * Returns the physical array index of the snapshot at the given position, where position 0 is the
+   * oldest snapshot.
+   */
+  private int index(int pos) {
+    return (m_front + pos) % kMaxPastObserverStates;
+  }
+
+  /**
+   * Returns the position of the snapshot closest in time to the given timestamp, or -1 if the
+   * timestamp is older than every snapshot.
+   */
+  private int closestSnapshot(double timestamp) {
+    int maxIdx = m_length - 1;
     int low = 0;
     int high = maxIdx;
 
@@ -85,7 +219,7 @@ public class KalmanFilterLatencyCompensator<S extends Num, I extends Num, O exte
     // timestamp is greater than or equal to the global measurement timestamp
     while (low != high) {
       int mid = (low + high) / 2;
-      if (m_pastObserverSnapshots.get(mid).getKey() < timestamp) {
+      if (m_timestamps[index(mid)] < timestamp) {
         // This index and everything under it are less than the requested timestamp. Therefore, we
         // can discard them.
         low = mid + 1;
@@ -96,23 +230,15 @@ public class KalmanFilterLatencyCompensator<S extends Num, I extends Num, O exte
       }
     }
 
-    int indexOfClosestEntry;
-
     if (low == 0) {
       // If the global measurement is older than any snapshot, throw out the
-      // measurement because there's no state estimate into which to incorporate
-      // the measurement
-      if (timestamp < m_pastObserverSnapshots.get(low).getKey()) {
-        return;
-      }
-
-      // If the first snapshot has same timestamp as the global measurement, use
-      // that snapshot
-      indexOfClosestEntry = 0;
-    } else if (low == maxIdx && m_pastObserverSnapshots.get(low).getKey() < timestamp) {
+      // measurement. If the first snapshot has same timestamp as the global
+      // measurement, use that snapshot
+      return timestamp < m_timestamps[index(low)] ? -1 : 0;
+    } else if (low == maxIdx && m_timestamps[index(low)] < timestamp) {
       // If all snapshots are older than the global measurement, use the newest
       // snapshot
-      indexOfClosestEntry = maxIdx;
+      return maxIdx;
     } else {
       // Index of snapshot taken after the global measurement
       int nextIdx = low;
@@ -123,44 +249,30 @@ public class KalmanFilterLatencyCompensator<S extends Num, I extends Num, O exte
       int prevIdx = nextIdx - 1;
 
       // Find the snapshot closest in time to global measurement
-      double prevTimeDiff = Math.abs(timestamp - m_pastObserverSnapshots.get(prevIdx).getKey());
-      double nextTimeDiff = Math.abs(timestamp - m_pastObserverSnapshots.get(nextIdx).getKey());
-      indexOfClosestEntry = prevTimeDiff <= nextTimeDiff ? prevIdx : nextIdx;
+      double prevTimeDiff = Math.abs(timestamp - m_timestamps[index(prevIdx)]);
+      double nextTimeDiff = Math.abs(timestamp - m_timestamps[index(nextIdx)]);
+      return prevTimeDiff <= nextTimeDiff ? prevIdx : nextIdx;
     }
+  }
 
-    double lastTimestamp =
-        m_pastObserverSnapshots.get(indexOfClosestEntry).getKey() - nominalDtSeconds;
-
-    // We will now go back in time to the state of the system at the time when
-    // the measurement was captured. We will reset the observer to that state,
-    // and apply correction based on the measurement. Then, we will go back
-    // through all observer states until the present and apply past inputs to
-    // get the present estimated state.
-    for (int i = indexOfClosestEntry; i < m_pastObserverSnapshots.size(); i++) {
-      var key = m_pastObserverSnapshots.get(i).getKey();
-      var snapshot = m_pastObserverSnapshots.get(i).getValue();
-
-      if (i == indexOfClosestEntry) {
-        observer.setP(snapshot.errorCovariances);
-        observer.setXhat(snapshot.xHat);
-      }
-
-      observer.predict(snapshot.inputs, key - lastTimestamp);
-      observer.correct(snapshot.inputs, snapshot.localMeasurements);
+  /** A global measurement waiting to be applied by a replay. */
+  private final class PastGlobalMeasurement<R extends Num> {
+    final Matrix<R, N1> m_y;
+    final BiConsumer<Matrix<I, N1>, Matrix<R, N1>> m_correct;
+    final double m_timestampSeconds;
+    int m_snapshotIdx;
 
-      if (i == indexOfClosestEntry) {
-        // Note that the measurement is at a timestep close but probably not exactly equal to the
-        // timestep for which we called predict.
-        // This makes the assumption that the dt is small enough that the difference between the
-        // measurement time and the time that the inputs were captured at is very small.
-        globalMeasurementCorrect.accept(snapshot.inputs, y);
-      }
-      lastTimestamp = key;
+    @SuppressWarnings("ParameterName")
+    PastGlobalMeasurement(
+        Matrix<R, N1> y, BiConsumer<Matrix<I, N1>, Matrix<R, N1>> correct, double timestamp) {
+      m_y = y;
+      m_correct = correct;
+      m_timestampSeconds = timestamp;
+    }
 
-      m_pastObserverSnapshots.set(
-          i,
-          Map.entry(
-              key, new ObserverSnapshot(observer, snapshot.inputs, snapshot.localMeasurements)));
+    @SuppressWarnings("ParameterName")
+    void correct(Matrix<I, N1> u) {
+      m_correct.accept(u, m_y);
     }
   }
 
@@ -178,8 +290,22 @@ public class KalmanFilterLatencyCompensator<S extends Num, I extends Num, O exte
       this.xHat = observer.getXhat();
       this.errorCovariances = observer.getP();
 
-      inputs = u;
-      localMeasurements = localY;
+      inputs = u.copy();
+      localMeasurements = localY.copy();
+    }
+
+    /** Overwrites this snapshot in place with the observer's current state. */
+    @SuppressWarnings("ParameterName")
+    private void update(KalmanTypeFilter<S, I, O> observer, Matrix<I, N1> u, Matrix<O, N1> localY) {
+      observer.getXhatInto(xHat);
+      observer.getPInto(errorCovariances);
+
+      if (u != inputs) {
+        inputs.assignBlock(0, 0, u);
+      }
+      if (localY != localMeasurements) {
+        localMeasurements.assignBlock(0, 0, localY);
+      }
     }
   }
 }
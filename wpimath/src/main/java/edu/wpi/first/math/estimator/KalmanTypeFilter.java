@@ -12,12 +12,22 @@ import edu.wpi.first.math.numbers.N1;
 interface KalmanTypeFilter<States extends Num, Inputs extends Num, Outputs extends Num> {
   Matrix<States, States> getP();
 
+  default Matrix<States, States> getPInto(Matrix<States, States> result) {
+    result.assignBlock(0, 0, getP());
+    return result;
+  }
+
   double getP(int i, int j);
 
   void setP(Matrix<States, States> newP);
 
   Matrix<States, N1> getXhat();
 
+  default Matrix<States, N1> getXhatInto(Matrix<States, N1> result) {
+    result.assignBlock(0, 0, getXhat());
+    return result;
+  }
+
   double getXhat(int i);
 
   void setXhat(Matrix<States, N1> xHat);
@@ -12,7 +12,7 @@ import edu.wpi.first.math.VecBuilder;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.math.interpolation.TimeInterpolatableBuffer;
+import edu.wpi.first.math.interpolation.TimeInterpolatablePose2dBuffer;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.math.numbers.N1;
@@ -50,7 +50,7 @@ public class SwerveDrivePoseEstimator {
   private final UnscentedKalmanFilter<N3, N3, N1> m_observer;
   private final SwerveDriveKinematics m_kinematics;
   private final BiConsumer<Matrix<N3, N1>, Matrix<N3, N1>> m_visionCorrect;
-  private final TimeInterpolatableBuffer<Pose2d> m_poseBuffer;
+  private final TimeInterpolatablePose2dBuffer m_poseBuffer;
 
   private final double m_nominalDt; // Seconds
   private double m_prevTimeSeconds = -1.0;
@@ -135,8 +135,11 @@ public class SwerveDrivePoseEstimator {
             AngleStatistics.angleResidual(0),
             AngleStatistics.angleAdd(2),
             m_nominalDt);
+    // f(x, u) = u, so ∂f/∂x is always zero and the discretized Q stays cached between predicts
+    final var jacobianX = new Matrix<>(Nat.N3(), Nat.N3());
+    m_observer.setJacobianX((x, u) -> jacobianX);
     m_kinematics = kinematics;
-    m_poseBuffer = TimeInterpolatableBuffer.createBuffer(1.5);
+    m_poseBuffer = new TimeInterpolatablePose2dBuffer(1.5);
 
     // Initialize vision R
     setVisionMeasurementStdDevs(visionMeasurementStdDevs);
@@ -5,6 +5,7 @@
 package edu.wpi.first.math.estimator;
 
 import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.MatrixWorkspace;
 import edu.wpi.first.math.Nat;
 import edu.wpi.first.math.Num;
 import edu.wpi.first.math.Pair;
@@ -46,6 +47,7 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
 
   private final BiFunction<Matrix<States, N1>, Matrix<Inputs, N1>, Matrix<States, N1>> m_f;
   private final BiFunction<Matrix<States, N1>, Matrix<Inputs, N1>, Matrix<Outputs, N1>> m_h;
+  private BiFunction<Matrix<States, N1>, Matrix<Inputs, N1>, Matrix<States, States>> m_jacobianX;
 
   private BiFunction<Matrix<States, ?>, Matrix<?, N1>, Matrix<States, N1>> m_meanFuncX;
   private BiFunction<Matrix<Outputs, ?>, Matrix<?, N1>, Matrix<Outputs, N1>> m_meanFuncY;
@@ -57,10 +59,12 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
   private Matrix<States, States> m_S;
   private final Matrix<States, States> m_contQ;
   private final Matrix<Outputs, Outputs> m_contR;
+  private final DiscreteProcessNoise<States> m_processNoise;
   private Matrix<States, ?> m_sigmasF;
   private double m_dtSeconds;
 
   private final MerweScaledSigmaPoints<States> m_pts;
+  private final MatrixWorkspace m_workspace = new MatrixWorkspace();
 
   /**
    * Constructs an Unscented Kalman Filter.
@@ -149,6 +153,7 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
 
     m_contQ = StateSpaceUtil.makeCovarianceMatrix(states, stateStdDevs);
     m_contR = StateSpaceUtil.makeCovarianceMatrix(outputs, measurementStdDevs);
+    m_processNoise = new DiscreteProcessNoise<>(m_contQ);
 
     m_pts = new MerweScaledSigmaPoints<>(states);
 
@@ -165,7 +170,8 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
           Matrix<?, N1> Wc,
           BiFunction<Matrix<C, ?>, Matrix<?, N1>, Matrix<C, N1>> meanFunc,
           BiFunction<Matrix<C, N1>, Matrix<C, N1>, Matrix<C, N1>> residualFunc,
-          Matrix<C, C> squareRootR) {
+          Matrix<C, C> squareRootR,
+          MatrixWorkspace workspace) {
     if (sigmas.getNumRows() != dim.getNum() || sigmas.getNumCols() != 2 * s.getNum() + 1) {
       throw new IllegalArgumentException(
           "Sigmas must be covDim by 2 * states + 1! Got "
@@ -190,23 +196,26 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
     //      k=1
     Matrix<C, N1> x = meanFunc.apply(sigmas, Wm);
 
-    Matrix<C, ?> Sbar = new Matrix<>(new SimpleMatrix(dim.getNum(), 2 * s.getNum() + dim.getNum()));
+    Matrix<C, N1> sigma = workspace.get(dim, Nat.N1());
+    Matrix<C, Num> Sbar = workspace.get(dim.getNum(), 2 * s.getNum() + dim.getNum());
     for (int i = 0; i < 2 * s.getNum(); i++) {
-      Sbar.setColumn(
-          i,
-          residualFunc.apply(sigmas.extractColumnVector(1 + i), x).times(Math.sqrt(Wc.get(1, 0))));
+      sigma.extractFrom(0, 1 + i, sigmas);
+      Sbar.setColumn(i, residualFunc.apply(sigma, x));
     }
+    Sbar.timesEquals(Math.sqrt(Wc.get(1, 0)));
     Sbar.assignBlock(0, 2 * s.getNum(), squareRootR);
 
     QRDecompositionHouseholder_DDRM qr = new QRDecompositionHouseholder_DDRM();
-    var qrStorage = Sbar.transpose().getStorage();
+    Matrix<Num, C> SbarT = workspace.get(2 * s.getNum() + dim.getNum(), dim.getNum());
+    var qrStorage = Sbar.transposeInto(SbarT).getStorage();
 
     if (!qr.decompose(qrStorage.getDDRM())) {
       throw new RuntimeException("QR decomposition failed! Input matrix:\n" + qrStorage.toString());
     }
 
     Matrix<C, C> newS = new Matrix<>(new SimpleMatrix(qr.getR(null, true)));
-    newS.rankUpdate(residualFunc.apply(sigmas.extractColumnVector(0), x), Wc.get(0, 0), false);
+    sigma.extractFrom(0, 0, sigmas);
+    newS.rankUpdate(residualFunc.apply(sigma, x), Wc.get(0, 0), false);
 
     return new Pair<>(x, newS);
   }
@@ -275,13 +284,26 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
   }
 
   /**
-   * Returns the state estimate x-hat.
+   * Returns a copy of the state estimate x-hat.
    *
    * @return the state estimate x-hat.
    */
   @Override
   public Matrix<States, N1> getXhat() {
-    return m_xHat;
+    return m_xHat.copy();
+  }
+
+  /**
+   * Copies the state estimate x-hat into a preallocated matrix, so callers that read it every loop
+   * don't allocate a copy.
+   *
+   * @param result The matrix to store x-hat in.
+   * @return The result matrix.
+   */
+  @Override
+  public Matrix<States, N1> getXhatInto(Matrix<States, N1> result) {
+    result.assignBlock(0, 0, m_xHat);
+    return result;
   }
 
   /**
@@ -303,7 +325,7 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
   @SuppressWarnings("ParameterName")
   @Override
   public void setXhat(Matrix<States, N1> xHat) {
-    m_xHat = xHat;
+    m_xHat.assignBlock(0, 0, xHat);
   }
 
   /**
@@ -325,6 +347,19 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
     m_sigmasF = new Matrix<>(new SimpleMatrix(m_states.getNum(), 2 * m_states.getNum() + 1));
   }
 
+  /**
+   * Sets an analytic Jacobian of f with respect to x, used to discretize the process noise in
+   * {@link #predict}. By default, the Jacobian is found numerically, which takes 2 * States
+   * evaluations of f.
+   *
+   * @param jacobianX A function of x and u that returns the Jacobian of f with respect to x, or
+   *     null to use the numerical Jacobian.
+   */
+  public void setJacobianX(
+      BiFunction<Matrix<States, N1>, Matrix<Inputs, N1>, Matrix<States, States>> jacobianX) {
+    m_jacobianX = jacobianX;
+  }
+
   /**
    * Project the model into the future with a new control input u.
    *
@@ -334,16 +369,22 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
   @SuppressWarnings({"LocalVariableName", "ParameterName"})
   @Override
   public void predict(Matrix<Inputs, N1> u, double dtSeconds) {
-    // Discretize Q before projecting mean and covariance forward
+    // Discretize Q before projecting mean and covariance forward. The discretization is cached,
+    // so this is only expensive when dt or the Jacobian changes.
     Matrix<States, States> contA =
-        NumericalJacobian.numericalJacobianX(m_states, m_states, m_f, m_xHat, u);
-    var discQ = Discretization.discretizeAQTaylor(contA, m_contQ, dtSeconds).getSecond();
-    var squareRootDiscQ = discQ.lltDecompose(true);
+        m_jacobianX != null
+            ? m_jacobianX.apply(m_xHat, u)
+            : NumericalJacobian.numericalJacobianX(m_states, m_states, m_f, m_xHat, u);
+    m_processNoise.update(contA, dtSeconds);
+    var squareRootDiscQ = m_processNoise.getSquareRootDiscQ();
 
     var sigmas = m_pts.squareRootSigmaPoints(m_xHat, m_S);
 
+    m_workspace.reset();
+
+    Matrix<States, N1> x = m_workspace.get(m_states, Nat.N1());
     for (int i = 0; i < m_pts.getNumSigmas(); ++i) {
-      Matrix<States, N1> x = sigmas.extractColumnVector(i);
+      x.extractFrom(0, i, sigmas);
 
       m_sigmasF.setColumn(i, NumericalIntegration.rk4(m_f, x, u, dtSeconds));
     }
@@ -357,7 +398,8 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
             m_pts.getWc(),
             m_meanFuncX,
             m_residualFuncX,
-            squareRootDiscQ);
+            squareRootDiscQ,
+            m_workspace);
 
     m_xHat = ret.getFirst();
     m_S = ret.getSecond();
@@ -442,11 +484,15 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
     final var discR = Discretization.discretizeR(R, m_dtSeconds);
     final var squareRootDiscR = discR.lltDecompose(true);
 
+    m_workspace.reset();
+
     // Transform sigma points into measurement space
-    Matrix<R, ?> sigmasH = new Matrix<>(new SimpleMatrix(rows.getNum(), 2 * m_states.getNum() + 1));
+    Matrix<R, ?> sigmasH = m_workspace.get(rows.getNum(), 2 * m_states.getNum() + 1);
     var sigmas = m_pts.squareRootSigmaPoints(m_xHat, m_S);
+    Matrix<States, N1> sigmaX = m_workspace.get(m_states, Nat.N1());
     for (int i = 0; i < m_pts.getNumSigmas(); i++) {
-      Matrix<R, N1> hRet = h.apply(sigmas.extractColumnVector(i), u);
+      sigmaX.extractFrom(0, i, sigmas);
+      Matrix<R, N1> hRet = h.apply(sigmaX, u);
       sigmasH.setColumn(i, hRet);
     }
 
@@ -460,18 +506,25 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
             m_pts.getWc(),
             meanFuncY,
             residualFuncY,
-            squareRootDiscR);
+            squareRootDiscR,
+            m_workspace);
     var yHat = transRet.getFirst();
     var Sy = transRet.getSecond();
 
     // Compute cross covariance of the state and the measurements
-    Matrix<States, R> Pxy = new Matrix<>(m_states, rows);
+    Matrix<States, R> Pxy = m_workspace.get(m_states, rows);
+    Pxy.fill(0.0);
+    Matrix<R, N1> sigmaY = m_workspace.get(rows, Nat.N1());
+    Matrix<N1, R> dyT = m_workspace.get(Nat.N1(), rows);
+    Matrix<States, R> dxdyT = m_workspace.get(m_states, rows);
     for (int i = 0; i < m_pts.getNumSigmas(); i++) {
       // Pxy += (sigmas_f[:, i] - x̂)(sigmas_h[:, i] - ŷ)ᵀ W_c[i]
-      var dx = residualFuncX.apply(m_sigmasF.extractColumnVector(i), m_xHat);
-      var dy = residualFuncY.apply(sigmasH.extractColumnVector(i), yHat).transpose();
+      sigmaX.extractFrom(0, i, m_sigmasF);
+      sigmaY.extractFrom(0, i, sigmasH);
+      var dx = residualFuncX.apply(sigmaX, m_xHat);
+      residualFuncY.apply(sigmaY, yHat).transposeInto(dyT);
 
-      Pxy = Pxy.plus(dx.times(dy).times(m_pts.getWc(i)));
+      Pxy.plusEquals(dx.timesInto(dyT, dxdyT).timesEquals(m_pts.getWc(i)));
     }
 
     // K = (P_{xy} / S_yᵀ) / S_y
@@ -483,11 +536,14 @@ public class UnscentedKalmanFilter<States extends Num, Inputs extends Num, Outpu
             .transpose();
 
     // x̂ₖ₊₁⁺ = x̂ₖ₊₁⁻ + K(y − ŷ)
-    m_xHat = addFuncX.apply(m_xHat, K.times(residualFuncY.apply(y, yHat)));
+    m_xHat =
+        addFuncX.apply(
+            m_xHat, K.timesInto(residualFuncY.apply(y, yHat), m_workspace.get(m_states, Nat.N1())));
 
-    Matrix<States, R> U = K.times(Sy);
+    Matrix<States, R> U = K.timesInto(Sy, m_workspace.get(m_states, rows));
     for (int i = 0; i < rows.getNum(); i++) {
-      m_S.rankUpdate(U.extractColumnVector(i), -1, false);
+      sigmaX.extractFrom(0, i, U);
+      m_S.rankUpdate(sigmaX, -1, false);
     }
   }
 }
@@ -53,6 +53,10 @@ public class LinearFilter {
   private final double[] m_inputGains;
   private final double[] m_outputGains;
 
+  // Scratch space for block processing, grown as needed
+  private double[] m_inputHistory = new double[0];
+  private double[] m_outputHistory = new double[0];
+
   private static int instances;
 
   /**
@@ -275,6 +279,92 @@ public class LinearFilter {
     return retVal;
   }
 
+  /**
+   * Calculates the filter over a block of samples, as if {@link #calculate(double)} were called on
+   * each of them in order. The results are bit-for-bit identical to the per-sample calls, and the
+   * two may be mixed freely.
+   *
+   * <p>The input history is laid out in a contiguous array, so the feedforward taps run as simple
+   * loops over the whole block instead of indexing a circular buffer per sample. This is much
+   * faster for offline processing of logs or bulk sensor reads.
+   *
+   * <p>The input and output arrays may be the same array.
+   *
+   * @param input Array of input values.
+   * @param output Array to fill with the filtered values.
+   * @param offset Index of the first sample in both arrays.
+   * @param len Number of samples to filter.
+   * @throws IllegalArgumentException if the range is out of bounds for either array.
+   */
+  public void calculate(double[] input, double[] output, int offset, int len) {
+    if (offset < 0 || len < 0 || offset + len > input.length || offset + len > output.length) {
+      throw new IllegalArgumentException(
+          "Range ["
+              + offset
+              + ", "
+              + offset
+              + " + "
+              + len
+              + ") is out of bounds for input length "
+              + input.length
+              + " and output length "
+              + output.length);
+    }
+
+    final int numInputs = m_inputGains.length;
+    final int numOutputs = m_outputGains.length;
+
+    // x holds the previous inputs oldest first, then the block. y holds the previous outputs
+    // oldest first, then the block's outputs.
+    final int inputStart = Math.max(numInputs - 1, 0);
+    if (m_inputHistory.length < inputStart + len) {
+      m_inputHistory = new double[inputStart + len];
+    }
+    if (m_outputHistory.length < numOutputs + len) {
+      m_outputHistory = new double[numOutputs + len];
+    }
+    final double[] x = m_inputHistory;
+    final double[] y = m_outputHistory;
+
+    for (int i = 1; i < numInputs; i++) {
+      x[inputStart - i] = m_inputs.get(i - 1);
+    }
+    System.arraycopy(input, offset, x, inputStart, len);
+    for (int i = 1; i <= numOutputs; i++) {
+      y[numOutputs - i] = m_outputs.get(i - 1);
+    }
+
+    // Feedforward taps, one tap at a time across the block. Each sample still sums its taps in the
+    // same order as calculate(double), so the results match exactly.
+    Arrays.fill(y, numOutputs, numOutputs + len, 0.0);
+    for (int i = 0; i < numInputs; i++) {
+      final double gain = m_inputGains[i];
+      final int base = inputStart - i;
+      for (int k = 0; k < len; k++) {
+        y[numOutputs + k] += x[base + k] * gain;
+      }
+    }
+
+    // Feedback taps depend on the previous outputs, so they run sample by sample
+    for (int k = numOutputs; k < numOutputs + len; k++) {
+      double retVal = y[k];
+      for (int i = 0; i < numOutputs; i++) {
+        retVal -= y[k - 1 - i] * m_outputGains[i];
+      }
+      y[k] = retVal;
+    }
+
+    System.arraycopy(y, numOutputs, output, offset, len);
+
+    // Rotate the last samples of the block into the history
+    for (int k = Math.max(len - numInputs, 0); k < len; k++) {
+      m_inputs.addFirst(x[inputStart + k]);
+    }
+    for (int k = Math.max(len - numOutputs, 0); k < len; k++) {
+      m_outputs.addFirst(y[numOutputs + k]);
+    }
+  }
+
   /**
    * Factorial of n.
    *
@@ -5,18 +5,20 @@
 package edu.wpi.first.math.filter;
 
 import edu.wpi.first.util.CircularBuffer;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * A class that implements a moving-window median filter. Useful for reducing measurement noise,
  * especially with processes that generate occasional, extreme outliers (such as values from vision
  * processing, LIDAR, or ultrasonic sensors).
+ *
+ * <p>The window is kept sorted in a primitive array, so each new value costs a binary search and a
+ * shift of part of the window, without allocating.
  */
 public class MedianFilter {
   private final CircularBuffer m_valueBuffer;
-  private final List<Double> m_orderedValues;
+  private final double[] m_orderedValues;
+  private int m_numValues;
   private final int m_size;
 
   /**
@@ -27,8 +29,8 @@ public class MedianFilter {
   public MedianFilter(int size) {
     // Circular buffer of values currently in the window, ordered by time
     m_valueBuffer = new CircularBuffer(size);
-    // List of values currently in the window, ordered by value
-    m_orderedValues = new ArrayList<>(size);
+    // Values currently in the window, ordered by value; only the first m_numValues are used
+    m_orderedValues = new double[size];
     // Size of rolling window
     m_size = size;
   }
@@ -40,41 +42,62 @@ public class MedianFilter {
    * @return The median of the moving window, updated to include the next value.
    */
   public double calculate(double next) {
+    // If buffer is at max size, pop element off of end of circular buffer
+    // and remove from ordered values
+    if (m_numValues == m_size) {
+      int index = Arrays.binarySearch(m_orderedValues, 0, m_numValues, m_valueBuffer.removeLast());
+      System.arraycopy(m_orderedValues, index + 1, m_orderedValues, index, m_numValues - index - 1);
+      --m_numValues;
+    }
+
     // Find insertion point for next value
-    int index = Collections.binarySearch(m_orderedValues, next);
+    int index = Arrays.binarySearch(m_orderedValues, 0, m_numValues, next);
 
     // Deal with binarySearch behavior for element not found
     if (index < 0) {
-      index = Math.abs(index + 1);
+      index = -(index + 1);
     }
 
     // Place value at proper insertion point
-    m_orderedValues.add(index, next);
-
-    int curSize = m_orderedValues.size();
-
-    // If buffer is at max size, pop element off of end of circular buffer
-    // and remove from ordered list
-    if (curSize > m_size) {
-      m_orderedValues.remove(m_valueBuffer.removeLast());
-      --curSize;
-    }
+    System.arraycopy(m_orderedValues, index, m_orderedValues, index + 1, m_numValues - index);
+    m_orderedValues[index] = next;
+    ++m_numValues;
 
     // Add next value to circular buffer
     m_valueBuffer.addFirst(next);
 
+    int curSize = m_numValues;
     if (curSize % 2 != 0) {
       // If size is odd, return middle element of sorted list
-      return m_orderedValues.get(curSize / 2);
+      return m_orderedValues[curSize / 2];
     } else {
       // If size is even, return average of middle elements
-      return (m_orderedValues.get(curSize / 2 - 1) + m_orderedValues.get(curSize / 2)) / 2.0;
+      return (m_orderedValues[curSize / 2 - 1] + m_orderedValues[curSize / 2]) / 2.0;
+    }
+  }
+
+  /**
+   * Calculates the moving-window median for each value of an input sequence, as if {@link
+   * #calculate(double)} were called for each one in order. The window carries over from previous
+   * calls and into later ones.
+   *
+   * @param input The next input values.
+   * @param output The array to store the medians in, which must be at least as long as the input.
+   *     It may be the same array as the input.
+   */
+  public void calculate(double[] input, double[] output) {
+    if (output.length < input.length) {
+      throw new IllegalArgumentException(
+          "Output length " + output.length + " is less than input length " + input.length);
+    }
+    for (int i = 0; i < input.length; i++) {
+      output[i] = calculate(input[i]);
     }
   }
 
   /** Resets the filter, clearing the window of all elements. */
   public void reset() {
-    m_orderedValues.clear();
+    m_numValues = 0;
     m_valueBuffer.clear();
   }
 }
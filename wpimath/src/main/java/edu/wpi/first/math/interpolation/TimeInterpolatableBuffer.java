@@ -5,9 +5,8 @@
 package edu.wpi.first.math.interpolation;
 
 import edu.wpi.first.math.MathUtil;
-import java.util.NavigableMap;
+import java.util.Arrays;
 import java.util.Optional;
-import java.util.TreeMap;
 
 /**
  * The TimeInterpolatableBuffer provides an easy way to estimate past measurements. One application
@@ -15,12 +14,23 @@ import java.util.TreeMap;
  * pose at the time when vision or other global measurement were recorded is necessary, or for
  * recording the past angles of mechanisms as measured by encoders.
  *
+ * <p>Samples are stored in a ring buffer sorted by timestamp. Adding samples in time order is O(1)
+ * amortized, and sampling the buffer is a binary search.
+ *
  * @param <T> The type stored in this buffer.
  */
 public final class TimeInterpolatableBuffer<T> {
+  private static final int kInitialCapacity = 16;
+
   private final double m_historySize;
   private final InterpolateFunction<T> m_interpolatingFunc;
-  private final NavigableMap<Double, T> m_pastSnapshots = new TreeMap<>();
+
+  // Ring buffer of samples sorted by timestamp. The capacity is always a power of two so indices
+  // can be wrapped with a mask.
+  private double[] m_times = new double[kInitialCapacity];
+  private Object[] m_samples = new Object[kInitialCapacity];
+  private int m_front;
+  private int m_length;
 
   private TimeInterpolatableBuffer(
       InterpolateFunction<T> interpolateFunction, double historySizeSeconds) {
@@ -71,7 +81,36 @@ public final class TimeInterpolatableBuffer<T> {
    */
   public void addSample(double timeSeconds, T sample) {
     cleanUp(timeSeconds);
-    m_pastSnapshots.put(timeSeconds, sample);
+
+    // Fast path for samples added in time order
+    if (m_length == 0 || timeSeconds > m_times[index(m_length - 1)]) {
+      if (m_length == m_times.length) {
+        grow();
+      }
+      m_times[index(m_length)] = timeSeconds;
+      m_samples[index(m_length)] = sample;
+      ++m_length;
+      return;
+    }
+
+    // Replace the sample if one already exists at this time
+    int pos = lowerBound(timeSeconds);
+    if (m_times[index(pos)] == timeSeconds) {
+      m_samples[index(pos)] = sample;
+      return;
+    }
+
+    // Otherwise, shift newer samples up to insert it in order
+    if (m_length == m_times.length) {
+      grow();
+    }
+    for (int i = m_length; i > pos; --i) {
+      m_times[index(i)] = m_times[index(i - 1)];
+      m_samples[index(i)] = m_samples[index(i - 1)];
+    }
+    m_times[index(pos)] = timeSeconds;
+    m_samples[index(pos)] = sample;
+    ++m_length;
   }
 
   /**
@@ -80,19 +119,59 @@ public final class TimeInterpolatableBuffer<T> {
    * @param time The current timestamp.
    */
   private void cleanUp(double time) {
-    while (!m_pastSnapshots.isEmpty()) {
-      var entry = m_pastSnapshots.firstEntry();
-      if (time - entry.getKey() >= m_historySize) {
-        m_pastSnapshots.remove(entry.getKey());
-      } else {
-        return;
-      }
+    while (m_length > 0 && time - m_times[m_front] >= m_historySize) {
+      m_samples[m_front] = null;
+      m_front = index(1);
+      --m_length;
     }
   }
 
   /** Clear all old samples. */
   public void clear() {
-    m_pastSnapshots.clear();
+    Arrays.fill(m_samples, null);
+    m_front = 0;
+    m_length = 0;
+  }
+
+  /**
+   * Returns the physical array index of the sample at the given position, where position 0 is the
+   * oldest sample.
+   */
+  private int index(int pos) {
+    return (m_front + pos) & (m_times.length - 1);
+  }
+
+  /** Returns the position of the oldest sample at or after the given time. */
+  private int lowerBound(double timeSeconds) {
+    int low = 0;
+    int high = m_length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (m_times[index(mid)] < timeSeconds) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** Doubles the capacity of the ring buffer, moving the oldest sample to the start. */
+  private void grow() {
+    double[] times = new double[m_times.length * 2];
+    Object[] samples = new Object[m_samples.length * 2];
+    for (int i = 0; i < m_length; ++i) {
+      times[i] = m_times[index(i)];
+      samples[i] = m_samples[index(i)];
+    }
+    m_times = times;
+    m_samples = samples;
+    m_front = 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  private T sampleAt(int pos) {
+    return (T) m_samples[index(pos)];
   }
 
   /**
@@ -103,35 +182,35 @@ public final class TimeInterpolatableBuffer<T> {
    */
   @SuppressWarnings("UnnecessaryParentheses")
   public Optional<T> getSample(double timeSeconds) {
-    if (m_pastSnapshots.isEmpty()) {
+    if (m_length == 0) {
       return Optional.empty();
     }
 
+    // The top bound is the oldest sample at or after the requested time
+    int topBound = lowerBound(timeSeconds);
+
     // Special case for when the requested time is the same as a sample
-    var nowEntry = m_pastSnapshots.get(timeSeconds);
-    if (nowEntry != null) {
-      return Optional.of(nowEntry);
+    if (topBound < m_length && m_times[index(topBound)] == timeSeconds) {
+      return Optional.of(sampleAt(topBound));
     }
 
-    var topBound = m_pastSnapshots.ceilingEntry(timeSeconds);
-    var bottomBound = m_pastSnapshots.floorEntry(timeSeconds);
-
-    // Return null if neither sample exists, and the opposite bound if the other is null
-    if (topBound == null && bottomBound == null) {
-      return Optional.empty();
-    } else if (topBound == null) {
-      return Optional.of(bottomBound.getValue());
-    } else if (bottomBound == null) {
-      return Optional.of(topBound.getValue());
+    // Return the opposite bound if one of them doesn't exist
+    if (topBound == m_length) {
+      return Optional.of(sampleAt(m_length - 1));
+    } else if (topBound == 0) {
+      return Optional.of(sampleAt(0));
     } else {
       // Otherwise, interpolate. Because T is between [0, 1], we want the ratio of (the difference
       // between the current time and bottom bound) and (the difference between top and bottom
       // bounds).
+      int bottomBound = topBound - 1;
+      double bottomTime = m_times[index(bottomBound)];
+      double topTime = m_times[index(topBound)];
       return Optional.of(
           m_interpolatingFunc.interpolate(
-              bottomBound.getValue(),
-              topBound.getValue(),
-              ((timeSeconds - bottomBound.getKey()) / (topBound.getKey() - bottomBound.getKey()))));
+              sampleAt(bottomBound),
+              sampleAt(topBound),
+              ((timeSeconds - bottomTime) / (topTime - bottomTime))));
     }
   }
 
@@ -0,0 +1,263 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.interpolation;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import java.util.Optional;
+
+/**
+ * A {@link TimeInterpolatableBuffer} specialized for {@link Pose2d}. Poses are stored as x, y, and
+ * heading in parallel primitive arrays, so adding a sample doesn't retain the Pose2d or any of its
+ * members, and interpolating between samples only allocates the returned pose.
+ *
+ * <p>Poses are interpolated along the twist between them, so samples match {@link
+ * Pose2d#interpolate(Pose2d, double)}.
+ */
+public final class TimeInterpolatablePose2dBuffer {
+  private static final int kInitialCapacity = 16;
+
+  private final double m_historySize;
+
+  // Ring buffer of samples sorted by timestamp. The capacity is always a power of two so indices
+  // can be wrapped with a mask.
+  private double[] m_times = new double[kInitialCapacity];
+  private double[] m_xs = new double[kInitialCapacity];
+  private double[] m_ys = new double[kInitialCapacity];
+  private double[] m_thetas = new double[kInitialCapacity];
+  private int m_front;
+  private int m_length;
+
+  /**
+   * Create a new TimeInterpolatablePose2dBuffer.
+   *
+   * @param historySizeSeconds The history size of the buffer.
+   */
+  public TimeInterpolatablePose2dBuffer(double historySizeSeconds) {
+    m_historySize = historySizeSeconds;
+  }
+
+  /**
+   * Add a sample to the buffer.
+   *
+   * @param timeSeconds The timestamp of the sample.
+   * @param pose The sample pose.
+   */
+  public void addSample(double timeSeconds, Pose2d pose) {
+    addSample(timeSeconds, pose.getX(), pose.getY(), pose.getRotation().getRadians());
+  }
+
+  /**
+   * Add a sample to the buffer.
+   *
+   * @param timeSeconds The timestamp of the sample.
+   * @param x The x component of the sample pose in meters.
+   * @param y The y component of the sample pose in meters.
+   * @param theta The heading of the sample pose in radians.
+   */
+  public void addSample(double timeSeconds, double x, double y, double theta) {
+    cleanUp(timeSeconds);
+
+    int pos;
+    if (m_length == 0 || timeSeconds > m_times[index(m_length - 1)]) {
+      // Fast path for samples added in time order
+      pos = m_length;
+    } else {
+      pos = lowerBound(timeSeconds);
+      if (m_times[index(pos)] != timeSeconds) {
+        // Shift newer samples up to insert this one in order
+        insertAt(pos);
+      }
+    }
+
+    if (pos == m_length) {
+      if (m_length == m_times.length) {
+        grow();
+      }
+      ++m_length;
+    }
+
+    int i = index(pos);
+    m_times[i] = timeSeconds;
+    m_xs[i] = x;
+    m_ys[i] = y;
+    m_thetas[i] = theta;
+  }
+
+  /** Clear all old samples. */
+  public void clear() {
+    m_front = 0;
+    m_length = 0;
+  }
+
+  /**
+   * Sample the buffer at the given time. If the buffer is empty, an empty Optional is returned.
+   *
+   * @param timeSeconds The time at which to sample.
+   * @return The interpolated pose at that timestamp or an empty Optional.
+   */
+  public Optional<Pose2d> getSample(double timeSeconds) {
+    if (m_length == 0) {
+      return Optional.empty();
+    }
+
+    // The top bound is the oldest sample at or after the requested time
+    int topBound = lowerBound(timeSeconds);
+
+    // Special case for when the requested time is the same as a sample, and return the opposite
+    // bound if one of them doesn't exist
+    if (topBound < m_length && m_times[index(topBound)] == timeSeconds) {
+      return Optional.of(poseAt(topBound));
+    } else if (topBound == m_length) {
+      return Optional.of(poseAt(m_length - 1));
+    } else if (topBound == 0) {
+      return Optional.of(poseAt(0));
+    }
+
+    int start = index(topBound - 1);
+    int end = index(topBound);
+    double t = (timeSeconds - m_times[start]) / (m_times[end] - m_times[start]);
+    return Optional.of(interpolate(start, end, t));
+  }
+
+  /**
+   * Removes samples older than our current history size.
+   *
+   * @param time The current timestamp.
+   */
+  private void cleanUp(double time) {
+    while (m_length > 0 && time - m_times[m_front] >= m_historySize) {
+      m_front = index(1);
+      --m_length;
+    }
+  }
+
+  /**
+   * Returns the physical array index of the sample at the given position, where position 0 is the
+   * oldest sample.
+   */
+  private int index(int pos) {
+    return (m_front + pos) & (m_times.length - 1);
+  }
+
+  /** Returns the position of the oldest sample at or after the given time. */
+  private int lowerBound(double timeSeconds) {
+    int low = 0;
+    int high = m_length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (m_times[index(mid)] < timeSeconds) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** Opens a slot at the given position by shifting newer samples up by one. */
+  private void insertAt(int pos) {
+    if (m_length == m_times.length) {
+      grow();
+    }
+    for (int i = m_length; i > pos; --i) {
+      int to = index(i);
+      int from = index(i - 1);
+      m_times[to] = m_times[from];
+      m_xs[to] = m_xs[from];
+      m_ys[to] = m_ys[from];
+      m_thetas[to] = m_thetas[from];
+    }
+    ++m_length;
+  }
+
+  /** Doubles the capacity of the ring buffer, moving the oldest sample to the start. */
+  private void grow() {
+    int capacity = m_times.length * 2;
+    double[] times = new double[capacity];
+    double[] xs = new double[capacity];
+    double[] ys = new double[capacity];
+    double[] thetas = new double[capacity];
+    for (int i = 0; i < m_length; ++i) {
+      int from = index(i);
+      times[i] = m_times[from];
+      xs[i] = m_xs[from];
+      ys[i] = m_ys[from];
+      thetas[i] = m_thetas[from];
+    }
+    m_times = times;
+    m_xs = xs;
+    m_ys = ys;
+    m_thetas = thetas;
+    m_front = 0;
+  }
+
+  private Pose2d poseAt(int pos) {
+    int i = index(pos);
+    return new Pose2d(m_xs[i], m_ys[i], new Rotation2d(m_thetas[i]));
+  }
+
+  /**
+   * Interpolates along the twist between two samples. This is {@link Pose2d#interpolate(Pose2d,
+   * double)} with the intermediate transforms and twists expanded into primitives.
+   *
+   * @param start The physical index of the start sample.
+   * @param end The physical index of the end sample.
+   * @param t How far between the start and end samples to interpolate, in (0, 1).
+   */
+  @SuppressWarnings("LocalVariableName")
+  private Pose2d interpolate(int start, int end, double t) {
+    double startCos = Math.cos(m_thetas[start]);
+    double startSin = Math.sin(m_thetas[start]);
+    double endCos = Math.cos(m_thetas[end]);
+    double endSin = Math.sin(m_thetas[end]);
+
+    // Transform from start to end, in the start pose's frame
+    double dx = m_xs[end] - m_xs[start];
+    double dy = m_ys[end] - m_ys[start];
+    double transformX = dx * startCos + dy * startSin;
+    double transformY = -dx * startSin + dy * startCos;
+    double transformCos = endCos * startCos + endSin * startSin;
+    double transformSin = endSin * startCos - endCos * startSin;
+
+    // Pose2d.log()
+    double dtheta = Math.atan2(transformSin, transformCos);
+    double halfDtheta = dtheta / 2.0;
+    double cosMinusOne = transformCos - 1;
+    double halfThetaByTanOfHalfDtheta;
+    if (Math.abs(cosMinusOne) < 1E-9) {
+      halfThetaByTanOfHalfDtheta = 1.0 - 1.0 / 12.0 * dtheta * dtheta;
+    } else {
+      halfThetaByTanOfHalfDtheta = -(halfDtheta * transformSin) / cosMinusOne;
+    }
+    double twistX = transformX * halfThetaByTanOfHalfDtheta + transformY * halfDtheta;
+    double twistY = -transformX * halfDtheta + transformY * halfThetaByTanOfHalfDtheta;
+
+    // Scale the twist, then Pose2d.exp()
+    twistX *= t;
+    twistY *= t;
+    double twistTheta = dtheta * t;
+
+    double sinTheta = Math.sin(twistTheta);
+    double cosTheta = Math.cos(twistTheta);
+    double s;
+    double c;
+    if (Math.abs(twistTheta) < 1E-9) {
+      s = 1.0 - 1.0 / 6.0 * twistTheta * twistTheta;
+      c = 0.5 * twistTheta;
+    } else {
+      s = sinTheta / twistTheta;
+      c = (1 - cosTheta) / twistTheta;
+    }
+    double stepX = twistX * s - twistY * c;
+    double stepY = twistX * c + twistY * s;
+
+    return new Pose2d(
+        m_xs[start] + stepX * startCos - stepY * startSin,
+        m_ys[start] + stepX * startSin + stepY * startCos,
+        new Rotation2d(
+            startCos * cosTheta - startSin * sinTheta, startSin * cosTheta + startCos * sinTheta));
+  }
+}
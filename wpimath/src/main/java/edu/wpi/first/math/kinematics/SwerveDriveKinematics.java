@@ -10,6 +10,8 @@ import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import java.util.Arrays;
 import java.util.Collections;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.simple.SimpleMatrix;
 
 /**
@@ -31,15 +33,33 @@ import org.ejml.simple.SimpleMatrix;
  *
  * <p>Forward kinematics is also used for odometry -- determining the position of the robot on the
  * field using encoders and a gyro.
+ *
+ * <p>The "Into" variants of the kinematics methods write their results into caller-provided objects
+ * and arrays and don't allocate, so they're suitable for high-rate odometry loops. Forward
+ * kinematics only reads state that never changes, so it may run on another thread, e.g. odometry on
+ * a Notifier, while the drive code uses inverse kinematics on the same object. Inverse kinematics
+ * isn't thread-safe.
  */
 public class SwerveDriveKinematics {
-  private final SimpleMatrix m_inverseKinematics;
-  private final SimpleMatrix m_forwardKinematics;
+  private static final Translation2d kOrigin = new Translation2d();
+
+  // Fields that change as the object is used are transient, so they're left out of
+  // TrajectoryBatchGenerator's cache keys. The module locations fully determine the rest.
+
+  // Rebuilt for each new center of rotation
+  private final transient SimpleMatrix m_inverseKinematics;
+  // Row-major 3 x 2n pseudoinverse of the inverse kinematics matrix. Never modified.
+  private final double[] m_forwardKinematics;
 
   private final int m_numModules;
   private final Translation2d[] m_modules;
-  private final SwerveModuleState[] m_moduleStates;
-  private Translation2d m_prevCoR = new Translation2d();
+  private final transient SwerveModuleState[] m_moduleStates;
+  private transient Translation2d m_prevCoR = new Translation2d();
+
+  // Preallocated storage for the inverse kinematics matrix multiplication. Forward kinematics must
+  // not use these, so it can run concurrently with inverse kinematics.
+  private final transient DMatrixRMaj m_chassisSpeedsVector = new DMatrixRMaj(3, 1);
+  private final transient DMatrixRMaj m_moduleVelocitiesVector;
 
   /**
    * Constructs a swerve drive kinematics object. This takes in a variable number of wheel locations
@@ -57,13 +77,14 @@ public class SwerveDriveKinematics {
     m_modules = Arrays.copyOf(wheelsMeters, m_numModules);
     m_moduleStates = new SwerveModuleState[m_numModules];
     Arrays.fill(m_moduleStates, new SwerveModuleState());
+    m_moduleVelocitiesVector = new DMatrixRMaj(m_numModules * 2, 1);
     m_inverseKinematics = new SimpleMatrix(m_numModules * 2, 3);
 
     for (int i = 0; i < m_numModules; i++) {
       m_inverseKinematics.setRow(i * 2 + 0, 0, /* Start Data */ 1, 0, -m_modules[i].getY());
       m_inverseKinematics.setRow(i * 2 + 1, 0, /* Start Data */ 0, 1, +m_modules[i].getX());
     }
-    m_forwardKinematics = m_inverseKinematics.pseudoInverse();
+    m_forwardKinematics = m_inverseKinematics.pseudoInverse().getDDRM().getData();
 
     MathSharedStore.reportUsage(MathUsageId.kKinematics_SwerveDrive, 1);
   }
@@ -102,6 +123,84 @@ public class SwerveDriveKinematics {
       return m_moduleStates;
     }
 
+    computeModuleVelocities(chassisSpeeds, centerOfRotationMeters);
+
+    for (int i = 0; i < m_numModules; i++) {
+      double x = m_moduleVelocitiesVector.get(i * 2, 0);
+      double y = m_moduleVelocitiesVector.get(i * 2 + 1, 0);
+
+      double speed = Math.hypot(x, y);
+      Rotation2d angle = new Rotation2d(x, y);
+
+      m_moduleStates[i] = new SwerveModuleState(speed, angle);
+    }
+
+    return m_moduleStates;
+  }
+
+  /**
+   * Performs inverse kinematics like {@link #toSwerveModuleStates(ChassisSpeeds, Translation2d)},
+   * but writes the module speeds and angles into the given arrays instead of allocating module
+   * states.
+   *
+   * <p>In the case that the desired chassis speeds are zero, the speeds are set to zero and the
+   * angles in the array are left unchanged, so the previously calculated module angles are
+   * maintained.
+   *
+   * @param chassisSpeeds The desired chassis speed.
+   * @param centerOfRotationMeters The center of rotation.
+   * @param speedsMetersPerSecond Array to store the module speeds in, in the same order as the
+   *     wheel locations passed into the constructor.
+   * @param anglesRadians Array to store the module angles in, in the same order as the wheel
+   *     locations passed into the constructor.
+   */
+  public void toSwerveModuleStatesInto(
+      ChassisSpeeds chassisSpeeds,
+      Translation2d centerOfRotationMeters,
+      double[] speedsMetersPerSecond,
+      double[] anglesRadians) {
+    checkModuleCount(speedsMetersPerSecond.length);
+    checkModuleCount(anglesRadians.length);
+
+    if (chassisSpeeds.vxMetersPerSecond == 0.0
+        && chassisSpeeds.vyMetersPerSecond == 0.0
+        && chassisSpeeds.omegaRadiansPerSecond == 0.0) {
+      Arrays.fill(speedsMetersPerSecond, 0.0);
+      return;
+    }
+
+    computeModuleVelocities(chassisSpeeds, centerOfRotationMeters);
+
+    for (int i = 0; i < m_numModules; i++) {
+      double x = m_moduleVelocitiesVector.get(i * 2, 0);
+      double y = m_moduleVelocitiesVector.get(i * 2 + 1, 0);
+
+      speedsMetersPerSecond[i] = Math.hypot(x, y);
+      anglesRadians[i] = Math.atan2(y, x);
+    }
+  }
+
+  /**
+   * Performs inverse kinematics into arrays. See {@link #toSwerveModuleStatesInto(ChassisSpeeds,
+   * Translation2d, double[], double[])} for more information.
+   *
+   * @param chassisSpeeds The desired chassis speed.
+   * @param speedsMetersPerSecond Array to store the module speeds in.
+   * @param anglesRadians Array to store the module angles in.
+   */
+  public void toSwerveModuleStatesInto(
+      ChassisSpeeds chassisSpeeds, double[] speedsMetersPerSecond, double[] anglesRadians) {
+    toSwerveModuleStatesInto(chassisSpeeds, kOrigin, speedsMetersPerSecond, anglesRadians);
+  }
+
+  /**
+   * Computes the x and y velocity of each module into m_moduleVelocitiesVector.
+   *
+   * @param chassisSpeeds The desired chassis speed.
+   * @param centerOfRotationMeters The center of rotation.
+   */
+  private void computeModuleVelocities(
+      ChassisSpeeds chassisSpeeds, Translation2d centerOfRotationMeters) {
     if (!centerOfRotationMeters.equals(m_prevCoR)) {
       for (int i = 0; i < m_numModules; i++) {
         m_inverseKinematics.setRow(
@@ -120,27 +219,12 @@ public class SwerveDriveKinematics {
       m_prevCoR = centerOfRotationMeters;
     }
 
-    var chassisSpeedsVector = new SimpleMatrix(3, 1);
-    chassisSpeedsVector.setColumn(
-        0,
-        0,
-        chassisSpeeds.vxMetersPerSecond,
-        chassisSpeeds.vyMetersPerSecond,
-        chassisSpeeds.omegaRadiansPerSecond);
-
-    var moduleStatesMatrix = m_inverseKinematics.mult(chassisSpeedsVector);
-
-    for (int i = 0; i < m_numModules; i++) {
-      double x = moduleStatesMatrix.get(i * 2, 0);
-      double y = moduleStatesMatrix.get(i * 2 + 1, 0);
+    m_chassisSpeedsVector.set(0, 0, chassisSpeeds.vxMetersPerSecond);
+    m_chassisSpeedsVector.set(1, 0, chassisSpeeds.vyMetersPerSecond);
+    m_chassisSpeedsVector.set(2, 0, chassisSpeeds.omegaRadiansPerSecond);
 
-      double speed = Math.hypot(x, y);
-      Rotation2d angle = new Rotation2d(x, y);
-
-      m_moduleStates[i] = new SwerveModuleState(speed, angle);
-    }
-
-    return m_moduleStates;
+    CommonOps_DDRM.mult(
+        m_inverseKinematics.getDDRM(), m_chassisSpeedsVector, m_moduleVelocitiesVector);
   }
 
   /**
@@ -165,24 +249,101 @@ public class SwerveDriveKinematics {
    * @return The resulting chassis speed.
    */
   public ChassisSpeeds toChassisSpeeds(SwerveModuleState... wheelStates) {
-    if (wheelStates.length != m_numModules) {
+    var chassisSpeeds = new ChassisSpeeds();
+    toChassisSpeedsInto(wheelStates, chassisSpeeds);
+    return chassisSpeeds;
+  }
+
+  /**
+   * Performs forward kinematics like {@link #toChassisSpeeds(SwerveModuleState...)}, but writes the
+   * resulting chassis speed into an existing object.
+   *
+   * @param wheelStates The state of the modules as measured from respective encoders and gyros. The
+   *     order of the swerve module states should be same as passed into the constructor of this
+   *     class.
+   * @param chassisSpeeds The object to store the resulting chassis speed in.
+   */
+  public void toChassisSpeedsInto(SwerveModuleState[] wheelStates, ChassisSpeeds chassisSpeeds) {
+    checkModuleCount(wheelStates.length);
+    computeChassisSpeeds(wheelStates, null, null, chassisSpeeds);
+  }
+
+  /**
+   * Performs forward kinematics from module speeds and angles stored in arrays, writing the
+   * resulting chassis speed into an existing object.
+   *
+   * @param speedsMetersPerSecond The speeds of the modules, in the same order as the wheel
+   *     locations passed into the constructor.
+   * @param anglesRadians The angles of the modules, in the same order as the wheel locations passed
+   *     into the constructor.
+   * @param chassisSpeeds The object to store the resulting chassis speed in.
+   */
+  public void toChassisSpeedsInto(
+      double[] speedsMetersPerSecond, double[] anglesRadians, ChassisSpeeds chassisSpeeds) {
+    checkModuleCount(speedsMetersPerSecond.length);
+    checkModuleCount(anglesRadians.length);
+    computeChassisSpeeds(null, speedsMetersPerSecond, anglesRadians, chassisSpeeds);
+  }
+
+  /**
+   * Multiplies the forward kinematics matrix by the module velocities, from either module states or
+   * arrays. The products are accumulated in locals rather than fields, so this can run concurrently
+   * with inverse kinematics.
+   *
+   * @param wheelStates The module states, or null to use the arrays.
+   * @param speedsMetersPerSecond The module speeds, if wheelStates is null.
+   * @param anglesRadians The module angles, if wheelStates is null.
+   * @param chassisSpeeds The object to store the resulting chassis speed in.
+   */
+  private void computeChassisSpeeds(
+      SwerveModuleState[] wheelStates,
+      double[] speedsMetersPerSecond,
+      double[] anglesRadians,
+      ChassisSpeeds chassisSpeeds) {
+    final int cols = m_numModules * 2;
+    double vx = 0.0;
+    double vy = 0.0;
+    double omega = 0.0;
+    for (int i = 0; i < m_numModules; i++) {
+      double x;
+      double y;
+      if (wheelStates != null) {
+        var module = wheelStates[i];
+        x = module.speedMetersPerSecond * module.angle.getCos();
+        y = module.speedMetersPerSecond * module.angle.getSin();
+      } else {
+        x = speedsMetersPerSecond[i] * Math.cos(anglesRadians[i]);
+        y = speedsMetersPerSecond[i] * Math.sin(anglesRadians[i]);
+      }
+
+      int col = i * 2;
+      vx += m_forwardKinematics[col] * x;
+      vx += m_forwardKinematics[col + 1] * y;
+      vy += m_forwardKinematics[cols + col] * x;
+      vy += m_forwardKinematics[cols + col + 1] * y;
+      omega += m_forwardKinematics[2 * cols + col] * x;
+      omega += m_forwardKinematics[2 * cols + col + 1] * y;
+    }
+    chassisSpeeds.vxMetersPerSecond = vx;
+    chassisSpeeds.vyMetersPerSecond = vy;
+    chassisSpeeds.omegaRadiansPerSecond = omega;
+  }
+
+  private void checkModuleCount(int count) {
+    if (count != m_numModules) {
       throw new IllegalArgumentException(
           "Number of modules is not consistent with number of wheel locations provided in "
               + "constructor");
     }
-    var moduleStatesMatrix = new SimpleMatrix(m_numModules * 2, 1);
-
-    for (int i = 0; i < m_numModules; i++) {
-      var module = wheelStates[i];
-      moduleStatesMatrix.set(i * 2, 0, module.speedMetersPerSecond * module.angle.getCos());
-      moduleStatesMatrix.set(i * 2 + 1, module.speedMetersPerSecond * module.angle.getSin());
-    }
+  }
 
-    var chassisSpeedsVector = m_forwardKinematics.mult(moduleStatesMatrix);
-    return new ChassisSpeeds(
-        chassisSpeedsVector.get(0, 0),
-        chassisSpeedsVector.get(1, 0),
-        chassisSpeedsVector.get(2, 0));
+  /**
+   * Returns the number of modules.
+   *
+   * @return The number of modules.
+   */
+  public int getNumModules() {
+    return m_numModules;
   }
 
   /**
@@ -6,9 +6,9 @@ package edu.wpi.first.math.kinematics;
 
 import edu.wpi.first.math.MathSharedStore;
 import edu.wpi.first.math.MathUsageId;
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Twist2d;
 import edu.wpi.first.util.WPIUtilJNI;
 
 /**
@@ -21,11 +21,17 @@ import edu.wpi.first.util.WPIUtilJNI;
  */
 public class SwerveDriveOdometry {
   private final SwerveDriveKinematics m_kinematics;
-  private Pose2d m_poseMeters;
+  private final ChassisSpeeds m_chassisSpeeds = new ChassisSpeeds();
   private double m_prevTimeSeconds = -1;
 
-  private Rotation2d m_gyroOffset;
-  private Rotation2d m_previousAngle;
+  // The pose is stored as primitives so updates don't allocate; m_poseMeters caches the Pose2d
+  // built from them and is null after an update until it's requested.
+  private double m_xMeters;
+  private double m_yMeters;
+  private double m_angleRadians;
+  private Pose2d m_poseMeters;
+
+  private double m_gyroOffsetRadians;
 
   /**
    * Constructs a SwerveDriveOdometry object.
@@ -37,9 +43,7 @@ public class SwerveDriveOdometry {
   public SwerveDriveOdometry(
       SwerveDriveKinematics kinematics, Rotation2d gyroAngle, Pose2d initialPose) {
     m_kinematics = kinematics;
-    m_poseMeters = initialPose;
-    m_gyroOffset = m_poseMeters.getRotation().minus(gyroAngle);
-    m_previousAngle = initialPose.getRotation();
+    resetPosition(initialPose, gyroAngle);
     MathSharedStore.reportUsage(MathUsageId.kOdometry_SwerveDrive, 1);
   }
 
@@ -64,8 +68,10 @@ public class SwerveDriveOdometry {
    */
   public void resetPosition(Pose2d pose, Rotation2d gyroAngle) {
     m_poseMeters = pose;
-    m_previousAngle = pose.getRotation();
-    m_gyroOffset = m_poseMeters.getRotation().minus(gyroAngle);
+    m_xMeters = pose.getX();
+    m_yMeters = pose.getY();
+    m_angleRadians = pose.getRotation().getRadians();
+    m_gyroOffsetRadians = pose.getRotation().minus(gyroAngle).getRadians();
   }
 
   /**
@@ -74,9 +80,39 @@ public class SwerveDriveOdometry {
    * @return The pose of the robot (x and y are in meters).
    */
   public Pose2d getPoseMeters() {
+    if (m_poseMeters == null) {
+      m_poseMeters = new Pose2d(m_xMeters, m_yMeters, new Rotation2d(m_angleRadians));
+    }
     return m_poseMeters;
   }
 
+  /**
+   * Returns the x position of the robot on the field without allocating a pose.
+   *
+   * @return The x position of the robot in meters.
+   */
+  public double getXMeters() {
+    return m_xMeters;
+  }
+
+  /**
+   * Returns the y position of the robot on the field without allocating a pose.
+   *
+   * @return The y position of the robot in meters.
+   */
+  public double getYMeters() {
+    return m_yMeters;
+  }
+
+  /**
+   * Returns the heading of the robot on the field without allocating a pose.
+   *
+   * @return The heading of the robot in radians, within [-π, π].
+   */
+  public double getAngleRadians() {
+    return m_angleRadians;
+  }
+
   /**
    * Updates the robot's position on the field using forward kinematics and integration of the pose
    * over time. This method takes in the current time as a parameter to calculate period (difference
@@ -92,23 +128,70 @@ public class SwerveDriveOdometry {
    */
   public Pose2d updateWithTime(
       double currentTimeSeconds, Rotation2d gyroAngle, SwerveModuleState... moduleStates) {
+    m_kinematics.toChassisSpeedsInto(moduleStates, m_chassisSpeeds);
+    integrate(currentTimeSeconds, gyroAngle.getRadians());
+    return getPoseMeters();
+  }
+
+  /**
+   * Updates the robot's position on the field like {@link #updateWithTime(double, Rotation2d,
+   * SwerveModuleState...)}, but takes the gyro angle and module states as primitives and doesn't
+   * allocate. Use {@link #getXMeters()}, {@link #getYMeters()}, and {@link #getAngleRadians()} to
+   * read the new pose without allocating.
+   *
+   * @param currentTimeSeconds The current time in seconds.
+   * @param gyroAngleRadians The angle reported by the gyroscope in radians.
+   * @param moduleSpeedsMetersPerSecond The current speeds of all swerve modules, in the same order
+   *     in which you instantiated your SwerveDriveKinematics.
+   * @param moduleAnglesRadians The current angles of all swerve modules, in the same order in which
+   *     you instantiated your SwerveDriveKinematics.
+   */
+  public void updateWithTimeInto(
+      double currentTimeSeconds,
+      double gyroAngleRadians,
+      double[] moduleSpeedsMetersPerSecond,
+      double[] moduleAnglesRadians) {
+    m_kinematics.toChassisSpeedsInto(
+        moduleSpeedsMetersPerSecond, moduleAnglesRadians, m_chassisSpeeds);
+    integrate(currentTimeSeconds, gyroAngleRadians);
+  }
+
+  /**
+   * Integrates m_chassisSpeeds over the time since the last update. This is {@link Pose2d#exp}
+   * expanded in terms of primitives.
+   *
+   * @param currentTimeSeconds The current time in seconds.
+   * @param gyroAngleRadians The angle reported by the gyroscope in radians.
+   */
+  private void integrate(double currentTimeSeconds, double gyroAngleRadians) {
     double period = m_prevTimeSeconds >= 0 ? currentTimeSeconds - m_prevTimeSeconds : 0.0;
     m_prevTimeSeconds = currentTimeSeconds;
 
-    var angle = gyroAngle.plus(m_gyroOffset);
+    double angle = MathUtil.angleModulus(gyroAngleRadians + m_gyroOffsetRadians);
 
-    var chassisState = m_kinematics.toChassisSpeeds(moduleStates);
-    var newPose =
-        m_poseMeters.exp(
-            new Twist2d(
-                chassisState.vxMetersPerSecond * period,
-                chassisState.vyMetersPerSecond * period,
-                angle.minus(m_previousAngle).getRadians()));
+    double dx = m_chassisSpeeds.vxMetersPerSecond * period;
+    double dy = m_chassisSpeeds.vyMetersPerSecond * period;
+    double dtheta = MathUtil.angleModulus(angle - m_angleRadians);
 
-    m_previousAngle = angle;
-    m_poseMeters = new Pose2d(newPose.getTranslation(), angle);
+    double s;
+    double c;
+    if (Math.abs(dtheta) < 1E-9) {
+      s = 1.0 - 1.0 / 6.0 * dtheta * dtheta;
+      c = 0.5 * dtheta;
+    } else {
+      s = Math.sin(dtheta) / dtheta;
+      c = (1 - Math.cos(dtheta)) / dtheta;
+    }
 
-    return m_poseMeters;
+    // Rotate the robot-relative displacement into the field frame
+    double localX = dx * s - dy * c;
+    double localY = dx * c + dy * s;
+    double cos = Math.cos(m_angleRadians);
+    double sin = Math.sin(m_angleRadians);
+    m_xMeters += localX * cos - localY * sin;
+    m_yMeters += localX * sin + localY * cos;
+    m_angleRadians = angle;
+    m_poseMeters = null;
   }
 
   /**
@@ -0,0 +1,321 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.trajectory;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A time-parameterized trajectory stored as parallel primitive arrays rather than a list of {@link
+ * Trajectory.State} objects.
+ *
+ * <p>Sampling with {@link #sampleInto(double, Sample)} produces the same states as {@link
+ * Trajectory#sample(double)} without allocating. The index of the last sample is remembered, so
+ * sampling at increasing times, as when following the trajectory, finds the surrounding states in
+ * constant time; other times fall back to a binary search. Because of this cursor, sampling isn't
+ * thread-safe.
+ */
+public class CompactTrajectory {
+  // Number of states to scan forward from the cursor before falling back to a binary search
+  private static final int kMaxLinearScan = 8;
+
+  private final double[] m_times;
+  private final double[] m_x;
+  private final double[] m_y;
+  private final double[] m_cos;
+  private final double[] m_sin;
+  private final double[] m_velocities;
+  private final double[] m_accelerations;
+  private final double[] m_curvatures;
+
+  // Index of the state at or after the last sample time
+  private int m_cursor = 1;
+
+  /** A mutable trajectory state, filled in by {@link CompactTrajectory#sampleInto}. */
+  @SuppressWarnings("MemberName")
+  public static class Sample {
+    /** The time elapsed since the beginning of the trajectory. */
+    public double timeSeconds;
+
+    /** The speed at that point of the trajectory. */
+    public double velocityMetersPerSecond;
+
+    /** The acceleration at that point of the trajectory. */
+    public double accelerationMetersPerSecondSq;
+
+    /** The x position at that point of the trajectory. */
+    public double xMeters;
+
+    /** The y position at that point of the trajectory. */
+    public double yMeters;
+
+    /** The cosine of the heading at that point of the trajectory. */
+    public double cos = 1.0;
+
+    /** The sine of the heading at that point of the trajectory. */
+    public double sin;
+
+    /** The curvature at that point of the trajectory. */
+    public double curvatureRadPerMeter;
+
+    /**
+     * Returns the pose at this point of the trajectory. This allocates a new pose.
+     *
+     * @return The pose.
+     */
+    public Pose2d getPose() {
+      return new Pose2d(xMeters, yMeters, new Rotation2d(cos, sin));
+    }
+
+    /**
+     * Returns this sample as a trajectory state. This allocates a new state and pose.
+     *
+     * @return The trajectory state.
+     */
+    public Trajectory.State toState() {
+      return new Trajectory.State(
+          timeSeconds,
+          velocityMetersPerSecond,
+          accelerationMetersPerSecondSq,
+          getPose(),
+          curvatureRadPerMeter);
+    }
+
+    /**
+     * Sets this sample to a trajectory state.
+     *
+     * @param state The trajectory state.
+     */
+    public void set(Trajectory.State state) {
+      timeSeconds = state.timeSeconds;
+      velocityMetersPerSecond = state.velocityMetersPerSecond;
+      accelerationMetersPerSecondSq = state.accelerationMetersPerSecondSq;
+      xMeters = state.poseMeters.getX();
+      yMeters = state.poseMeters.getY();
+      cos = state.poseMeters.getRotation().getCos();
+      sin = state.poseMeters.getRotation().getSin();
+      curvatureRadPerMeter = state.curvatureRadPerMeter;
+    }
+  }
+
+  /**
+   * Constructs a compact trajectory from the states of a trajectory.
+   *
+   * @param trajectory The trajectory to copy the states of. It must have at least one state.
+   */
+  public CompactTrajectory(Trajectory trajectory) {
+    var states = trajectory.getStates();
+    if (states.isEmpty()) {
+      throw new IllegalArgumentException("Trajectory must have at least one state");
+    }
+
+    int size = states.size();
+    m_times = new double[size];
+    m_x = new double[size];
+    m_y = new double[size];
+    m_cos = new double[size];
+    m_sin = new double[size];
+    m_velocities = new double[size];
+    m_accelerations = new double[size];
+    m_curvatures = new double[size];
+
+    for (int i = 0; i < size; i++) {
+      var state = states.get(i);
+      m_times[i] = state.timeSeconds;
+      m_x[i] = state.poseMeters.getX();
+      m_y[i] = state.poseMeters.getY();
+      m_cos[i] = state.poseMeters.getRotation().getCos();
+      m_sin[i] = state.poseMeters.getRotation().getSin();
+      m_velocities[i] = state.velocityMetersPerSecond;
+      m_accelerations[i] = state.accelerationMetersPerSecondSq;
+      m_curvatures[i] = state.curvatureRadPerMeter;
+    }
+  }
+
+  /**
+   * Converts this back into a {@link Trajectory}.
+   *
+   * @return A trajectory with the same states.
+   */
+  public Trajectory toTrajectory() {
+    List<Trajectory.State> states = new ArrayList<>(m_times.length);
+    for (int i = 0; i < m_times.length; i++) {
+      states.add(
+          new Trajectory.State(
+              m_times[i],
+              m_velocities[i],
+              m_accelerations[i],
+              new Pose2d(m_x[i], m_y[i], new Rotation2d(m_cos[i], m_sin[i])),
+              m_curvatures[i]));
+    }
+    return new Trajectory(states);
+  }
+
+  /**
+   * Returns the number of states in the trajectory.
+   *
+   * @return The number of states.
+   */
+  public int size() {
+    return m_times.length;
+  }
+
+  /**
+   * Returns the overall duration of the trajectory.
+   *
+   * @return The duration of the trajectory.
+   */
+  public double getTotalTimeSeconds() {
+    return m_times[m_times.length - 1];
+  }
+
+  /**
+   * Samples the trajectory at a point in time, writing the result into the given sample.
+   *
+   * @param timeSeconds The point in time since the beginning of the trajectory to sample.
+   * @param sample The sample to store the state at that point in time in.
+   */
+  public void sampleInto(double timeSeconds, Sample sample) {
+    int last = m_times.length - 1;
+    if (timeSeconds <= m_times[0]) {
+      copyState(0, sample);
+      return;
+    }
+    if (timeSeconds >= m_times[last]) {
+      copyState(last, sample);
+      return;
+    }
+
+    int index = findIndex(timeSeconds);
+    int prev = index - 1;
+
+    // If the difference in states is negligible, then we are spot on!
+    if (Math.abs(m_times[index] - m_times[prev]) < 1E-9) {
+      copyState(index, sample);
+      return;
+    }
+
+    interpolate(
+        prev, index, (timeSeconds - m_times[prev]) / (m_times[index] - m_times[prev]), sample);
+  }
+
+  /**
+   * Samples the trajectory at a point in time. This allocates a new state; see {@link
+   * #sampleInto(double, Sample)} for an allocation-free version.
+   *
+   * @param timeSeconds The point in time since the beginning of the trajectory to sample.
+   * @return The state at that point in time.
+   */
+  public Trajectory.State sample(double timeSeconds) {
+    var sample = new Sample();
+    sampleInto(timeSeconds, sample);
+    return sample.toState();
+  }
+
+  /**
+   * Returns the index of the first state at or after the given time. The time must be strictly
+   * between the first and last state times.
+   *
+   * @param timeSeconds The time to search for.
+   * @return The index, which is at least 1.
+   */
+  private int findIndex(double timeSeconds) {
+    int low = 1;
+    int high = m_times.length - 1;
+
+    // Scan forward from the cursor for the common case of monotonically increasing times
+    if (m_times[m_cursor - 1] < timeSeconds) {
+      int end = Math.min(m_cursor + kMaxLinearScan, high);
+      for (int i = m_cursor; i <= end; i++) {
+        if (m_times[i] >= timeSeconds) {
+          m_cursor = i;
+          return i;
+        }
+      }
+      low = end + 1;
+    } else {
+      high = m_cursor - 1;
+    }
+
+    while (low != high) {
+      int mid = (low + high) / 2;
+      if (m_times[mid] < timeSeconds) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    m_cursor = low;
+    return low;
+  }
+
+  private void copyState(int index, Sample sample) {
+    sample.timeSeconds = m_times[index];
+    sample.velocityMetersPerSecond = m_velocities[index];
+    sample.accelerationMetersPerSecondSq = m_accelerations[index];
+    sample.xMeters = m_x[index];
+    sample.yMeters = m_y[index];
+    sample.cos = m_cos[index];
+    sample.sin = m_sin[index];
+    sample.curvatureRadPerMeter = m_curvatures[index];
+  }
+
+  /**
+   * Interpolates between two states the same way as {@link Trajectory.State}, with the pose
+   * interpolation expanded in terms of primitives.
+   *
+   * @param start The index of the start state.
+   * @param end The index of the end state.
+   * @param i The interpolant (fraction).
+   * @param sample The sample to store the interpolated state in.
+   */
+  @SuppressWarnings("ParameterName")
+  private void interpolate(int start, int end, double i, Sample sample) {
+    final double velocity = m_velocities[start];
+    final double acceleration = m_accelerations[start];
+
+    // Find the new t value.
+    final double newT = m_times[start] + (m_times[end] - m_times[start]) * i;
+
+    // Find the delta time between the current state and the interpolated state.
+    final double deltaT = newT - m_times[start];
+
+    // Check whether the robot is reversing at this stage.
+    final boolean reversing = velocity < 0 || Math.abs(velocity) < 1E-9 && acceleration < 0;
+
+    // Calculate the new velocity
+    // v_f = v_0 + at
+    final double newV = velocity + (acceleration * deltaT);
+
+    // Calculate the change in position.
+    // delta_s = v_0 t + 0.5at²
+    final double newS =
+        (velocity * deltaT + 0.5 * acceleration * deltaT * deltaT) * (reversing ? -1.0 : 1.0);
+
+    final double dx = m_x[end] - m_x[start];
+    final double dy = m_y[end] - m_y[start];
+    final double interpolationFrac = newS / Math.hypot(dx, dy);
+
+    // Interpolate the heading by scaling the angle between the two states
+    final double cos = m_cos[start];
+    final double sin = m_sin[start];
+    final double deltaAngle =
+        Math.atan2(m_sin[end] * cos - m_cos[end] * sin, m_cos[end] * cos + m_sin[end] * sin);
+    final double deltaCos = Math.cos(deltaAngle * interpolationFrac);
+    final double deltaSin = Math.sin(deltaAngle * interpolationFrac);
+
+    sample.timeSeconds = newT;
+    sample.velocityMetersPerSecond = newV;
+    sample.accelerationMetersPerSecondSq = acceleration;
+    sample.xMeters = m_x[start] + dx * interpolationFrac;
+    sample.yMeters = m_y[start] + dy * interpolationFrac;
+    sample.cos = cos * deltaCos - sin * deltaSin;
+    sample.sin = cos * deltaSin + sin * deltaCos;
+    sample.curvatureRadPerMeter =
+        m_curvatures[start] + (m_curvatures[end] - m_curvatures[start]) * interpolationFrac;
+  }
+}
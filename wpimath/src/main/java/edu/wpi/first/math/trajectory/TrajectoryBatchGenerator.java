@@ -0,0 +1,375 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.trajectory;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.simple.SimpleMatrix;
+
+/**
+ * Generates many trajectories at once in parallel, optionally caching them on disk.
+ *
+ * <p>Trajectories are added with the same arguments as {@link TrajectoryGenerator}, then generated
+ * together by {@link #generate()}. Each trajectory is generated as a separate task on a {@link
+ * ForkJoinPool}, and the splines of each trajectory are also parameterized in parallel.
+ *
+ * <p>If a cache directory is given, each generated trajectory is saved there in the binary format
+ * of {@link TrajectoryUtil#toBinary(Trajectory, Path)}, named after a hash of its waypoints and
+ * config. Later runs with the same waypoints and config load the saved trajectory instead of
+ * generating it again. Constraints are hashed by their class and the values of all their instance
+ * fields except transient ones, recursing into the objects they reference, lists and arrays, and
+ * including the data of matrices. If a constraint references anything else that can't be hashed by
+ * value, such as a lambda or a thread, its trajectory is generated every time instead of cached.
+ */
+public class TrajectoryBatchGenerator {
+  // Bump this when trajectory generation changes so stale cache files are ignored
+  private static final int kCacheVersion = 2;
+  private static final String kCacheFileExtension = ".wtraj";
+
+  /** The arguments to generate a single trajectory with. */
+  private static final class Request {
+    final List<Pose2d> m_waypoints;
+    final Pose2d m_start;
+    final List<Translation2d> m_interiorWaypoints;
+    final Pose2d m_end;
+    final TrajectoryConfig m_config;
+
+    Request(
+        List<Pose2d> waypoints,
+        Pose2d start,
+        List<Translation2d> interiorWaypoints,
+        Pose2d end,
+        TrajectoryConfig config) {
+      m_waypoints = waypoints;
+      m_start = start;
+      m_interiorWaypoints = interiorWaypoints;
+      m_end = end;
+      m_config = config;
+    }
+
+    Trajectory generate() {
+      if (m_waypoints != null) {
+        return TrajectoryGenerator.generateTrajectory(m_waypoints, m_config);
+      } else {
+        return TrajectoryGenerator.generateTrajectory(
+            m_start, m_interiorWaypoints, m_end, m_config);
+      }
+    }
+  }
+
+  private final ForkJoinPool m_pool;
+  private final Path m_cacheDirectory;
+  private final List<Request> m_requests = new ArrayList<>();
+
+  /** Constructs a batch generator that runs on the common pool and doesn't cache trajectories. */
+  public TrajectoryBatchGenerator() {
+    this(ForkJoinPool.commonPool(), null);
+  }
+
+  /**
+   * Constructs a batch generator.
+   *
+   * @param pool The pool to generate trajectories on.
+   * @param cacheDirectory The directory to cache generated trajectories in, or null to disable
+   *     caching. It's created if it doesn't exist.
+   */
+  public TrajectoryBatchGenerator(ForkJoinPool pool, Path cacheDirectory) {
+    m_pool = pool;
+    m_cacheDirectory = cacheDirectory;
+  }
+
+  /**
+   * Adds a trajectory through the given waypoints, using quintic hermite splines. See {@link
+   * TrajectoryGenerator#generateTrajectory(List, TrajectoryConfig)}.
+   *
+   * @param waypoints List of waypoints.
+   * @param config The configuration for the trajectory.
+   * @return The index of the trajectory in the list returned by {@link #generate()}.
+   */
+  public int add(List<Pose2d> waypoints, TrajectoryConfig config) {
+    m_requests.add(new Request(List.copyOf(waypoints), null, null, null, config));
+    return m_requests.size() - 1;
+  }
+
+  /**
+   * Adds a trajectory through the given waypoints, using clamped cubic splines. See {@link
+   * TrajectoryGenerator#generateTrajectory(Pose2d, List, Pose2d, TrajectoryConfig)}.
+   *
+   * @param start The starting pose.
+   * @param interiorWaypoints The interior waypoints.
+   * @param end The ending pose.
+   * @param config The configuration for the trajectory.
+   * @return The index of the trajectory in the list returned by {@link #generate()}.
+   */
+  public int add(
+      Pose2d start, List<Translation2d> interiorWaypoints, Pose2d end, TrajectoryConfig config) {
+    m_requests.add(new Request(null, start, List.copyOf(interiorWaypoints), end, config));
+    return m_requests.size() - 1;
+  }
+
+  /**
+   * Generates all the added trajectories, or loads them from the cache, and waits for them to
+   * finish.
+   *
+   * @return The trajectories, in the order they were added.
+   */
+  public List<Trajectory> generate() {
+    if (m_cacheDirectory != null) {
+      try {
+        Files.createDirectories(m_cacheDirectory);
+      } catch (IOException ex) {
+        TrajectoryGenerator.reportError(
+            "Could not create trajectory cache directory: " + ex.getMessage(), ex.getStackTrace());
+      }
+    }
+
+    var tasks = new ArrayList<ForkJoinTask<Trajectory>>(m_requests.size());
+    for (var request : m_requests) {
+      tasks.add(m_pool.submit(() -> loadOrGenerate(request)));
+    }
+
+    var trajectories = new ArrayList<Trajectory>(tasks.size());
+    for (var task : tasks) {
+      trajectories.add(task.join());
+    }
+    return trajectories;
+  }
+
+  /**
+   * Loads a trajectory from the cache, or generates it and saves it to the cache if it isn't there.
+   *
+   * @param request The trajectory to load or generate.
+   * @return The trajectory.
+   */
+  private Trajectory loadOrGenerate(Request request) {
+    if (m_cacheDirectory == null) {
+      return request.generate();
+    }
+
+    var key = getCacheKey(request);
+    if (key == null) {
+      return request.generate();
+    }
+
+    var path = m_cacheDirectory.resolve(key + kCacheFileExtension);
+    if (Files.isRegularFile(path)) {
+      try {
+        return TrajectoryUtil.fromBinary(path);
+      } catch (IOException ex) {
+        // Fall through and regenerate the trajectory, which overwrites the bad file
+      }
+    }
+
+    var trajectory = request.generate();
+
+    // Don't cache the placeholder returned for malformed splines
+    if (trajectory != TrajectoryGenerator.kDoNothingTrajectory) {
+      try {
+        // Write to a temporary file first so a partially written file is never loaded
+        var tempPath = Files.createTempFile(m_cacheDirectory, null, ".tmp");
+        try {
+          TrajectoryUtil.toBinary(trajectory, tempPath);
+          Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+          Files.deleteIfExists(tempPath);
+        }
+      } catch (IOException ex) {
+        TrajectoryGenerator.reportError(
+            "Could not cache trajectory: " + ex.getMessage(), ex.getStackTrace());
+      }
+    }
+    return trajectory;
+  }
+
+  /**
+   * Returns the cache key for a trajectory: a hex-encoded SHA-256 hash of its waypoints and config.
+   *
+   * @param request The trajectory to get the key of.
+   * @return The cache key, or null if the config couldn't be hashed.
+   */
+  private static String getCacheKey(Request request) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+
+    try (var out =
+        new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+      out.writeInt(kCacheVersion);
+      if (request.m_waypoints != null) {
+        out.writeByte('Q');
+        out.writeInt(request.m_waypoints.size());
+        for (var waypoint : request.m_waypoints) {
+          writePose(out, waypoint);
+        }
+      } else {
+        out.writeByte('C');
+        writePose(out, request.m_start);
+        out.writeInt(request.m_interiorWaypoints.size());
+        for (var waypoint : request.m_interiorWaypoints) {
+          out.writeDouble(waypoint.getX());
+          out.writeDouble(waypoint.getY());
+        }
+        writePose(out, request.m_end);
+      }
+
+      var config = request.m_config;
+      out.writeDouble(config.getStartVelocity());
+      out.writeDouble(config.getEndVelocity());
+      out.writeDouble(config.getMaxVelocity());
+      out.writeDouble(config.getMaxAcceleration());
+      out.writeBoolean(config.isReversed());
+      out.writeInt(config.getConstraints().size());
+      var visited = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (var constraint : config.getConstraints()) {
+        out.writeUTF(constraint.getClass().getName());
+        writeFields(out, constraint, visited);
+      }
+    } catch (IOException | IllegalAccessException | RuntimeException ex) {
+      // Don't cache trajectories whose constraints can't be hashed, since hits could be stale
+      return null;
+    }
+
+    var key = new StringBuilder();
+    for (byte b : digest.digest()) {
+      key.append(String.format("%02x", b));
+    }
+    return key.toString();
+  }
+
+  private static void writePose(DataOutputStream out, Pose2d pose) throws IOException {
+    out.writeDouble(pose.getX());
+    out.writeDouble(pose.getY());
+    out.writeDouble(pose.getRotation().getCos());
+    out.writeDouble(pose.getRotation().getSin());
+  }
+
+  /**
+   * Writes the values of an object's instance fields, sorted by name. Transient fields are skipped,
+   * so classes can exclude scratch storage and caches that change as the object is used.
+   *
+   * @param out The stream to write to.
+   * @param obj The object to write the fields of.
+   * @param visited The objects already written, to avoid infinite recursion.
+   * @throws IllegalArgumentException if a value can't be hashed.
+   */
+  private static void writeFields(DataOutputStream out, Object obj, Set<Object> visited)
+      throws IOException, IllegalAccessException {
+    if (!visited.add(obj)) {
+      out.writeByte('V');
+      return;
+    }
+
+    for (Class<?> cls = obj.getClass(); cls != null; cls = cls.getSuperclass()) {
+      if (cls.isSynthetic() || isPlatformClass(cls)) {
+        // Lambdas and JDK internals can't be hashed by value
+        throw new IllegalArgumentException("Can't hash " + cls.getName());
+      }
+      var fields = cls.getDeclaredFields();
+      Arrays.sort(fields, Comparator.comparing(Field::getName));
+      for (var field : fields) {
+        int modifiers = field.getModifiers();
+        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+          continue;
+        }
+        field.setAccessible(true);
+        out.writeUTF(field.getName());
+        writeValue(out, field.get(obj), visited);
+      }
+      if (cls.getSuperclass() == Object.class) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Writes a field value.
+   *
+   * @param out The stream to write to.
+   * @param value The value to write.
+   * @param visited The objects already written, to avoid infinite recursion.
+   * @throws IllegalArgumentException if the value can't be hashed.
+   */
+  private static void writeValue(DataOutputStream out, Object value, Set<Object> visited)
+      throws IOException, IllegalAccessException {
+    if (value == null) {
+      out.writeByte('N');
+    } else if (value instanceof Number
+        || value instanceof Boolean
+        || value instanceof Character
+        || value instanceof String
+        || value instanceof Enum) {
+      out.writeByte('P');
+      out.writeUTF(value.getClass().getName());
+      out.writeUTF(value.toString());
+    } else if (value instanceof Matrix) {
+      writeMatrix(out, ((Matrix<?, ?>) value).getStorage().getDDRM());
+    } else if (value instanceof SimpleMatrix) {
+      writeMatrix(out, ((SimpleMatrix) value).getDDRM());
+    } else if (value instanceof DMatrixRMaj) {
+      writeMatrix(out, (DMatrixRMaj) value);
+    } else if (value.getClass().isArray()) {
+      out.writeByte('A');
+      int length = Array.getLength(value);
+      out.writeInt(length);
+      for (int i = 0; i < length; i++) {
+        writeValue(out, Array.get(value, i), visited);
+      }
+    } else if (value instanceof List) {
+      out.writeByte('L');
+      var list = (List<?>) value;
+      out.writeInt(list.size());
+      for (var element : list) {
+        writeValue(out, element, visited);
+      }
+    } else {
+      out.writeByte('O');
+      out.writeUTF(value.getClass().getName());
+      writeFields(out, value, visited);
+    }
+  }
+
+  private static void writeMatrix(DataOutputStream out, DMatrixRMaj matrix) throws IOException {
+    out.writeByte('M');
+    out.writeInt(matrix.getNumRows());
+    out.writeInt(matrix.getNumCols());
+    for (int i = 0; i < matrix.getNumElements(); i++) {
+      out.writeDouble(matrix.data[i]);
+    }
+  }
+
+  private static boolean isPlatformClass(Class<?> cls) {
+    String name = cls.getName();
+    return name.startsWith("java.")
+        || name.startsWith("javax.")
+        || name.startsWith("jdk.")
+        || name.startsWith("sun.");
+  }
+}
@@ -18,17 +18,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.BiConsumer;
 
 public final class TrajectoryGenerator {
-  private static final Trajectory kDoNothingTrajectory =
+  static final Trajectory kDoNothingTrajectory =
       new Trajectory(Arrays.asList(new Trajectory.State()));
   private static BiConsumer<String, StackTraceElement[]> errorFunc;
 
   /** Private constructor because this is a utility class. */
   private TrajectoryGenerator() {}
 
-  private static void reportError(String error, StackTraceElement[] stackTrace) {
+  static void reportError(String error, StackTraceElement[] stackTrace) {
     if (errorFunc != null) {
       errorFunc.accept(error, stackTrace);
     } else {
@@ -237,6 +238,9 @@ public final class TrajectoryGenerator {
   /**
    * Generate spline points from a vector of splines by parameterizing the splines.
    *
+   * <p>When called from within a {@link java.util.concurrent.ForkJoinPool}, e.g. by {@link
+   * TrajectoryBatchGenerator}, the splines are parameterized in parallel on that pool.
+   *
    * @param splines The splines to parameterize.
    * @return The spline points for use in time parameterization of a trajectory.
    * @throws MalformedSplineException When the spline is malformed (e.g. has close adjacent points
@@ -249,10 +253,20 @@ public final class TrajectoryGenerator {
     // Add the first point to the vector.
     splinePoints.add(splines[0].getPoint(0.0));
 
+    // Parameterize the splines in parallel if we're already running on a fork-join pool
+    List<ForkJoinTask<List<PoseWithCurvature>>> tasks = null;
+    if (splines.length > 1 && ForkJoinTask.inForkJoinPool()) {
+      tasks = new ArrayList<>(splines.length);
+      for (final var spline : splines) {
+        tasks.add(ForkJoinTask.adapt(() -> SplineParameterizer.parameterize(spline)).fork());
+      }
+    }
+
     // Iterate through the vector and parameterize each spline, adding the
     // parameterized points to the final vector.
-    for (final var spline : splines) {
-      var points = SplineParameterizer.parameterize(spline);
+    for (int i = 0; i < splines.length; i++) {
+      var points =
+          tasks != null ? tasks.get(i).join() : SplineParameterizer.parameterize(splines[i]);
 
       // Append the array of poses to the vector. We are removing the first
       // point because it's a duplicate of the last point from the previous
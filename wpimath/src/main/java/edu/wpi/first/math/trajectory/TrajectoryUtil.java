@@ -8,11 +8,18 @@ import edu.wpi.first.math.WPIMathJNI;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
 public final class TrajectoryUtil {
+  // Binary trajectory header: magic "WTRJ", format version, and number of elements
+  private static final int kBinaryMagic = 0x5754524A;
+  private static final int kBinaryVersion = 1;
+  private static final int kBinaryHeaderSize = 12;
+
   private TrajectoryUtil() {
     throw new UnsupportedOperationException("This is a utility class!");
   }
@@ -89,6 +96,47 @@ public final class TrajectoryUtil {
     WPIMathJNI.toPathweaverJson(getElementsFromTrajectory(trajectory), path.toString());
   }
 
+  /**
+   * Imports a Trajectory from a binary file written by {@link #toBinary(Trajectory, Path)}. This is
+   * much faster to load than PathWeaver-style JSON and doesn't go through JNI.
+   *
+   * @param path The path of the binary file to import from
+   * @return The trajectory represented by the file.
+   * @throws IOException if reading from the file fails or it isn't a valid trajectory file.
+   */
+  public static Trajectory fromBinary(Path path) throws IOException {
+    var buf = ByteBuffer.wrap(Files.readAllBytes(path));
+    if (buf.remaining() < kBinaryHeaderSize
+        || buf.getInt() != kBinaryMagic
+        || buf.getInt() != kBinaryVersion) {
+      throw new IOException("Not a binary trajectory file: " + path);
+    }
+    int length = buf.getInt();
+    if (length < 0 || length % 7 != 0 || buf.remaining() != length * Double.BYTES) {
+      throw new IOException("Truncated binary trajectory file: " + path);
+    }
+
+    double[] elements = new double[length];
+    buf.asDoubleBuffer().get(elements);
+    return createTrajectoryFromElements(elements);
+  }
+
+  /**
+   * Exports a Trajectory to a compact binary file, which can be imported with {@link
+   * #fromBinary(Path)}.
+   *
+   * @param trajectory The trajectory to export
+   * @param path The path of the file to export to
+   * @throws IOException if writing to the file fails.
+   */
+  public static void toBinary(Trajectory trajectory, Path path) throws IOException {
+    double[] elements = getElementsFromTrajectory(trajectory);
+    var buf = ByteBuffer.allocate(kBinaryHeaderSize + elements.length * Double.BYTES);
+    buf.putInt(kBinaryMagic).putInt(kBinaryVersion).putInt(elements.length);
+    buf.asDoubleBuffer().put(elements);
+    Files.write(path, buf.array());
+  }
+
   /**
    * Deserializes a Trajectory from PathWeaver-style JSON.
    *
@@ -0,0 +1,102 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.wpi.first.math.numbers.N2;
+import edu.wpi.first.math.numbers.N3;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class InterpolatingDoubleMatrixMapTest {
+  private static Matrix<N2, N3> matrix(double scale) {
+    return new MatBuilder<>(Nat.N2(), Nat.N3())
+        .fill(scale, 2.0 * scale, -scale, 0.5 * scale, 1.0, scale * scale);
+  }
+
+  private static void assertMatrixEquals(Matrix<N2, N3> expected, Matrix<N2, N3> actual) {
+    for (int row = 0; row < 2; ++row) {
+      for (int col = 0; col < 3; ++col) {
+        assertEquals(expected.get(row, col), actual.get(row, col));
+      }
+    }
+  }
+
+  @Test
+  void testInterpolation() {
+    var table = new InterpolatingDoubleMatrixMap<N2, N3>();
+    assertNull(table.get(1.0));
+
+    table.put(3.0, matrix(3.0));
+    table.put(1.0, matrix(1.0));
+    table.put(2.0, matrix(2.0));
+
+    assertMatrixEquals(matrix(1.0), table.get(0.0));
+    assertMatrixEquals(matrix(1.0), table.get(1.0));
+    assertMatrixEquals(matrix(2.0), table.get(2.0));
+    assertMatrixEquals(matrix(3.0), table.get(5.0));
+
+    var dest = new Matrix<>(Nat.N2(), Nat.N3());
+    assertSame(dest, table.getInto(1.5, dest));
+    assertEquals(1.5, dest.get(0, 0));
+    assertEquals(3.0, dest.get(0, 1));
+    assertEquals(2.5, dest.get(1, 2));
+
+    table.put(2.0, matrix(4.0));
+    assertEquals(3, table.size());
+    assertMatrixEquals(matrix(4.0), table.get(2.0));
+
+    table.clear();
+    table.getInto(1.5, dest);
+    assertEquals(Double.NaN, dest.get(0, 0));
+  }
+
+  @Test
+  void testMatchesTreeMap() {
+    var table = new InterpolatingDoubleMatrixMap<N2, N3>();
+    var expected = new InterpolatingMatrixTreeMap<Double, N2, N3>();
+
+    // Evenly spaced keys, accumulated in floating point like a gain schedule
+    for (double velocity = -2.0; velocity < 2.0; velocity += 0.01) {
+      var value = matrix(Math.sin(velocity));
+      table.put(velocity, value);
+      expected.put(velocity, value);
+    }
+
+    var rand = new Random(1234);
+    var dest = new Matrix<>(Nat.N2(), Nat.N3());
+    for (int i = 0; i < 1000; i++) {
+      double query = rand.nextDouble() * 5.0 - 2.5;
+      assertMatrixEquals(expected.get(query), table.getInto(query, dest));
+    }
+  }
+
+  @Test
+  void testDimensionMismatch() {
+    var table = new InterpolatingDoubleMatrixMap<N3, N3>();
+    table.put(1.0, Matrix.eye(Nat.N3()));
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    InterpolatingDoubleMatrixMap<N2, N2> raw = (InterpolatingDoubleMatrixMap) table;
+    assertThrows(IllegalArgumentException.class, () -> raw.put(2.0, Matrix.eye(Nat.N2())));
+    assertThrows(
+        IllegalArgumentException.class, () -> raw.getInto(1.0, new Matrix<>(Nat.N2(), Nat.N2())));
+  }
+
+  @Test
+  void testTreeMapInterpolateInto() {
+    var table = new InterpolatingMatrixTreeMap<Double, N2, N3>();
+    var dest = new Matrix<>(Nat.N2(), Nat.N3());
+    var val1 = matrix(1.0);
+    var val2 = matrix(3.0);
+    assertSame(dest, table.interpolateInto(val1, val2, 0.25, dest));
+    assertMatrixEquals(table.interpolate(val1, val2, 0.25), dest);
+    assertEquals(1.5, dest.get(0, 0));
+  }
+}
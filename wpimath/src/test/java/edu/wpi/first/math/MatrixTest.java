@@ -5,6 +5,7 @@
 package edu.wpi.first.math;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -116,6 +117,47 @@ class MatrixTest {
     assertEquals(Matrix.mat(Nat.N2(), Nat.N2()).fill(6.0, 8.0, 10.0, 12.0), mat1.plus(mat2));
   }
 
+  @Test
+  void testInPlaceArithmetic() {
+    var mat1 = Matrix.mat(Nat.N2(), Nat.N2()).fill(1.0, 2.0, 3.0, 4.0);
+    var mat2 = Matrix.mat(Nat.N2(), Nat.N2()).fill(5.0, 6.0, 7.0, 8.0);
+
+    var result = mat1.copy();
+    assertSame(result, result.plusEquals(mat2));
+    assertEquals(mat1.plus(mat2), result);
+
+    assertSame(result, result.minusEquals(mat2));
+    assertEquals(mat1, result);
+
+    assertSame(result, result.timesEquals(2.0));
+    assertEquals(mat1.times(2.0), result);
+
+    var dest = new Matrix<>(Nat.N2(), Nat.N2());
+    assertSame(dest, mat1.timesInto(mat2, dest));
+    assertEquals(mat1.times(mat2), dest);
+
+    var transpose = new Matrix<>(Nat.N2(), Nat.N2());
+    assertSame(transpose, mat1.transposeInto(transpose));
+    assertEquals(mat1.transpose(), transpose);
+
+    var solution = new Matrix<>(Nat.N2(), Nat.N1());
+    assertSame(solution, mat1.solveInto(VecBuilder.fill(1.0, 2.0), solution));
+    assertEquals(VecBuilder.fill(0.0, 0.5), solution);
+  }
+
+  @Test
+  void testInPlaceErrors() {
+    var mat = Matrix.mat(Nat.N2(), Nat.N2()).fill(1.0, 2.0, 3.0, 4.0);
+
+    assertThrows(IllegalArgumentException.class, () -> mat.timesInto(mat, mat));
+
+    var singularMatrix = Matrix.mat(Nat.N2(), Nat.N2()).fill(2.0, 1.0, 2.0, 1.0);
+    assertThrows(
+        SingularMatrixException.class,
+        () ->
+            singularMatrix.solveInto(VecBuilder.fill(1.0, 2.0), new Matrix<>(Nat.N2(), Nat.N1())));
+  }
+
   @Test
   void testMatrixExponential() {
     var matrix = Matrix.eye(Nat.N2());
@@ -0,0 +1,56 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.ejml.data.SingularMatrixException;
+import org.junit.jupiter.api.Test;
+
+class MatrixWorkspaceTest {
+  @Test
+  void testGetReusesMatricesAfterReset() {
+    var workspace = new MatrixWorkspace();
+
+    var first = workspace.get(Nat.N2(), Nat.N3());
+    var second = workspace.get(Nat.N2(), Nat.N3());
+    var other = workspace.get(Nat.N3(), Nat.N2());
+    assertNotSame(first, second);
+    assertEquals(2, first.getNumRows());
+    assertEquals(3, first.getNumCols());
+    assertEquals(3, other.getNumRows());
+    assertEquals(2, other.getNumCols());
+
+    workspace.reset();
+
+    // Matrices are handed out again in the same order after a reset
+    assertSame(first, workspace.get(Nat.N2(), Nat.N3()));
+    assertSame(second, workspace.get(Nat.N2(), Nat.N3()));
+    assertSame(other, workspace.get(3, 2));
+  }
+
+  @Test
+  void testSolveInto() {
+    var workspace = new MatrixWorkspace();
+
+    var A = Matrix.mat(Nat.N2(), Nat.N2()).fill(1.0, 2.0, 3.0, 4.0);
+    var dest = workspace.get(Nat.N2(), Nat.N1());
+    assertSame(dest, workspace.solveInto(A, VecBuilder.fill(1.0, 2.0), dest));
+    assertEquals(VecBuilder.fill(0.0, 0.5), dest);
+
+    // The cached solver is refactored when A changes
+    var B = Matrix.mat(Nat.N2(), Nat.N2()).fill(2.0, 0.0, 0.0, 4.0);
+    workspace.solveInto(B, VecBuilder.fill(1.0, 2.0), dest);
+    assertEquals(VecBuilder.fill(0.5, 0.5), dest);
+
+    var singularMatrix = Matrix.mat(Nat.N2(), Nat.N2()).fill(2.0, 1.0, 2.0, 1.0);
+    assertThrows(
+        SingularMatrixException.class,
+        () -> workspace.solveInto(singularMatrix, VecBuilder.fill(1.0, 2.0), dest));
+  }
+}
@@ -0,0 +1,119 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.junit.jupiter.api.Test;
+
+class SmallMatrixKernelsTest {
+  private final Random m_random = new Random(1234);
+
+  private DMatrixRMaj random(int rows, int cols) {
+    var mat = new DMatrixRMaj(rows, cols);
+    for (int i = 0; i < mat.data.length; ++i) {
+      mat.data[i] = m_random.nextDouble() * 2.0 - 1.0;
+    }
+    return mat;
+  }
+
+  @Test
+  void testMatrixTimesVector() {
+    for (int rows = 1; rows <= SmallMatrixKernels.kMaxDim; ++rows) {
+      for (int cols = 1; cols <= SmallMatrixKernels.kMaxDim; ++cols) {
+        var a = random(rows, cols);
+        var b = random(cols, 1);
+        var expected = new DMatrixRMaj(rows, 1);
+        CommonOps_DDRM.mult(a, b, expected);
+
+        var actual = new DMatrixRMaj(rows, 1);
+        assertTrue(SmallMatrixKernels.mult(a, b, actual));
+        assertArrayEquals(expected.data, actual.data, 1e-12);
+      }
+    }
+  }
+
+  @Test
+  void testSquareTimesSquare() {
+    for (int n = 1; n <= SmallMatrixKernels.kMaxDim; ++n) {
+      var a = random(n, n);
+      var b = random(n, n);
+      var expected = new DMatrixRMaj(n, n);
+      CommonOps_DDRM.mult(a, b, expected);
+
+      var actual = new DMatrixRMaj(n, n);
+      assertTrue(SmallMatrixKernels.mult(a, b, actual));
+      assertArrayEquals(expected.data, actual.data, 1e-12);
+    }
+  }
+
+  @Test
+  void testMultUnsupportedShapes() {
+    // Non-square times matrix
+    assertFalse(SmallMatrixKernels.mult(random(2, 3), random(3, 2), new DMatrixRMaj(2, 2)));
+
+    // Too large
+    var big = random(7, 7);
+    assertFalse(SmallMatrixKernels.mult(big, random(7, 1), new DMatrixRMaj(7, 1)));
+
+    // Aliased output
+    var a = random(3, 3);
+    assertFalse(SmallMatrixKernels.mult(a, random(3, 3), a));
+  }
+
+  @Test
+  void testTranspose() {
+    for (int n = 1; n <= SmallMatrixKernels.kMaxDim; ++n) {
+      for (var shape : new int[][] {{n, n}, {n, 1}, {1, n}}) {
+        var a = random(shape[0], shape[1]);
+        var expected = new DMatrixRMaj(shape[1], shape[0]);
+        CommonOps_DDRM.transpose(a, expected);
+
+        var actual = new DMatrixRMaj(shape[1], shape[0]);
+        assertTrue(SmallMatrixKernels.transpose(a, actual));
+        assertArrayEquals(expected.data, actual.data, 0.0);
+      }
+    }
+
+    assertFalse(SmallMatrixKernels.transpose(random(2, 3), new DMatrixRMaj(3, 2)));
+  }
+
+  @Test
+  void testCholesky() {
+    for (int n = 1; n <= SmallMatrixKernels.kMaxDim; ++n) {
+      // AAᵀ + I is symmetric positive definite
+      var a = random(n, n);
+      var spd = new DMatrixRMaj(n, n);
+      CommonOps_DDRM.multTransB(a, a, spd);
+      for (int i = 0; i < n; ++i) {
+        spd.add(i, i, 1.0);
+      }
+
+      for (boolean lower : new boolean[] {true, false}) {
+        var chol = DecompositionFactory_DDRM.chol(n, lower);
+        assertTrue(chol.decompose(spd.copy()));
+        var expected = chol.getT(null);
+
+        var actual = new DMatrixRMaj(n, n);
+        actual.fill(Double.NaN);
+        assertTrue(SmallMatrixKernels.cholesky(spd, actual, lower));
+        assertArrayEquals(expected.data, actual.data, 1e-12);
+      }
+    }
+  }
+
+  @Test
+  void testCholeskyNotPositiveDefinite() {
+    var mat = new DMatrixRMaj(new double[][] {{1.0, 2.0}, {2.0, 1.0}});
+    assertFalse(SmallMatrixKernels.cholesky(mat, new DMatrixRMaj(2, 2), true));
+    assertFalse(SmallMatrixKernels.cholesky(new DMatrixRMaj(3, 3), new DMatrixRMaj(3, 3), false));
+  }
+}
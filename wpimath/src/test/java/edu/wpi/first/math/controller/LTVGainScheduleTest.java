@@ -0,0 +1,184 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.wpi.first.math.MatBuilder;
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.Num;
+import edu.wpi.first.math.StateSpaceUtil;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.numbers.N2;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.math.numbers.N5;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.DoubleFunction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LTVGainScheduleTest {
+  private static final double kDt = 0.02;
+
+  private static final Matrix<N3, N2> kUnicycleB =
+      new MatBuilder<>(Nat.N3(), Nat.N2()).fill(1.0, 0.0, 0.0, 0.0, 0.0, 1.0);
+  private static final Matrix<N3, N3> kUnicycleQ =
+      StateSpaceUtil.makeCostMatrix(VecBuilder.fill(0.0625, 0.125, 2.0));
+  private static final Matrix<N2, N2> kUnicycleR =
+      StateSpaceUtil.makeCostMatrix(VecBuilder.fill(1.0, 2.0));
+
+  @SuppressWarnings("LocalVariableName")
+  private static Matrix<N2, N3> unicycleGain(double velocity) {
+    if (Math.abs(velocity) < 1e-4) {
+      return new Matrix<>(Nat.N2(), Nat.N3());
+    }
+    var A = new Matrix<>(Nat.N3(), Nat.N3());
+    A.set(1, 2, velocity);
+    return new LinearQuadraticRegulator<N3, N2, N3>(A, kUnicycleB, kUnicycleQ, kUnicycleR, kDt)
+        .getK();
+  }
+
+  @SuppressWarnings("LocalVariableName")
+  private static Matrix<N2, N5> differentialDriveGain(double velocity) {
+    final double trackwidth = 0.9;
+    var plant = LinearSystemId.identifyDrivetrainSystem(3.02, 0.642, 1.382, 0.08495);
+
+    var A = new Matrix<>(Nat.N5(), Nat.N5());
+    A.set(0, 3, 0.5);
+    A.set(0, 4, 0.5);
+    A.set(1, 2, Math.abs(velocity) < 1e-4 ? 1e-4 : velocity);
+    A.set(2, 3, -1.0 / trackwidth);
+    A.set(2, 4, 1.0 / trackwidth);
+    A.assignBlock(3, 3, plant.getA());
+    var B = new Matrix<>(Nat.N5(), Nat.N2());
+    B.assignBlock(3, 0, plant.getB());
+    var Q = StateSpaceUtil.makeCostMatrix(VecBuilder.fill(0.0625, 0.125, 2.5, 0.95, 0.95));
+    var R = StateSpaceUtil.makeCostMatrix(VecBuilder.fill(12.0, 12.0));
+    return new LinearQuadraticRegulator<N5, N2, N5>(A, B, Q, R, kDt).getK();
+  }
+
+  private static <R extends Num, C extends Num> void assertMatrixEquals(
+      Matrix<R, C> expected, Matrix<R, C> actual, double tolerance) {
+    for (int row = 0; row < expected.getNumRows(); ++row) {
+      for (int col = 0; col < expected.getNumCols(); ++col) {
+        assertEquals(expected.get(row, col), actual.get(row, col), tolerance);
+      }
+    }
+  }
+
+  private static <States extends Num, Inputs extends Num> void assertMirrored(
+      Nat<States> states,
+      Nat<Inputs> inputs,
+      double[] stateSigns,
+      double[] inputSigns,
+      DoubleFunction<Matrix<Inputs, States>> gain) {
+    var schedule = LTVGainSchedule.compute(states, inputs, 2.0, stateSigns, inputSigns, gain);
+    for (double velocity : new double[] {0.01, 0.5, 1.27, 2.0}) {
+      assertMatrixEquals(gain.apply(velocity), schedule.get(velocity), 1e-9);
+      assertMatrixEquals(gain.apply(-velocity), schedule.get(-velocity), 1e-6);
+    }
+    assertMatrixEquals(gain.apply(0.0), schedule.get(0.0), 0.0);
+  }
+
+  @Test
+  void testUnicycleSymmetry() {
+    assertMirrored(
+        Nat.N3(),
+        Nat.N2(),
+        new double[] {1.0, 1.0, -1.0},
+        new double[] {1.0, -1.0},
+        LTVGainScheduleTest::unicycleGain);
+  }
+
+  @Test
+  void testDifferentialDriveSymmetry() {
+    assertMirrored(
+        Nat.N5(),
+        Nat.N2(),
+        new double[] {-1.0, 1.0, -1.0, -1.0, -1.0},
+        new double[] {-1.0, -1.0},
+        LTVGainScheduleTest::differentialDriveGain);
+  }
+
+  @Test
+  void testInterpolation() {
+    var schedule =
+        LTVGainSchedule.compute(
+            Nat.N1(),
+            Nat.N1(),
+            1.0,
+            new double[] {1.0},
+            new double[] {-1.0},
+            velocity -> VecBuilder.fill(velocity));
+
+    // The gain is the velocity, and the mirrored gain is negated
+    assertEquals(0.505, schedule.get(0.505).get(0, 0), 1e-12);
+    assertEquals(-0.505, schedule.get(-0.505).get(0, 0), 1e-12);
+    assertEquals(0.005, schedule.get(0.005).get(0, 0), 1e-12);
+
+    // Velocities outside the grid use the gain at the end
+    assertEquals(1.0, schedule.get(5.0).get(0, 0), 1e-12);
+    assertEquals(-1.0, schedule.get(-5.0).get(0, 0), 1e-12);
+    assertEquals(-1.0, schedule.get(Double.NEGATIVE_INFINITY).get(0, 0), 1e-12);
+  }
+
+  @Test
+  void testBinaryRoundTrip(@TempDir Path dir) throws IOException {
+    var file = dir.resolve("gains.bin");
+    var key = LTVGainSchedule.getKey("Test", 1.0, kDt, kUnicycleB, kUnicycleQ, kUnicycleR);
+    var schedule =
+        LTVGainSchedule.compute(
+            Nat.N3(),
+            Nat.N2(),
+            1.0,
+            new double[] {1.0, 1.0, -1.0},
+            new double[] {1.0, -1.0},
+            LTVGainScheduleTest::unicycleGain);
+    schedule.toBinary(file, key);
+
+    var loaded = LTVGainSchedule.fromBinary(file, key, Nat.N3(), Nat.N2());
+    assertNotNull(loaded);
+    for (double velocity = -1.2; velocity < 1.2; velocity += 0.013) {
+      assertMatrixEquals(schedule.get(velocity), loaded.get(velocity), 0.0);
+    }
+
+    // Gains computed for a different system aren't loaded
+    var otherKey = LTVGainSchedule.getKey("Test", 1.0, 0.01, kUnicycleB, kUnicycleQ, kUnicycleR);
+    assertNull(LTVGainSchedule.fromBinary(file, otherKey, Nat.N3(), Nat.N2()));
+
+    Files.write(file, new byte[] {1, 2, 3});
+    assertThrows(
+        IOException.class, () -> LTVGainSchedule.fromBinary(file, key, Nat.N3(), Nat.N2()));
+  }
+
+  @Test
+  void testControllerCache(@TempDir Path dir) {
+    var file = dir.resolve("unicycle.bin");
+    var qelems = VecBuilder.fill(0.0625, 0.125, 2.0);
+    var relems = VecBuilder.fill(1.0, 2.0);
+
+    var computed = new LTVUnicycleController(qelems, relems, kDt, 3.0, file);
+    assertEquals(true, Files.isRegularFile(file));
+    var loaded = new LTVUnicycleController(qelems, relems, kDt, 3.0, file);
+
+    var currentPose = new Pose2d(1.0, 2.0, Rotation2d.fromDegrees(10.0));
+    var poseRef = new Pose2d(1.2, 1.9, Rotation2d.fromDegrees(15.0));
+    for (double velocity : new double[] {-2.5, -0.3, 0.0, 1.234, 2.9}) {
+      var expected = computed.calculate(currentPose, poseRef, velocity, 0.5);
+      var actual = loaded.calculate(currentPose, poseRef, velocity, 0.5);
+      assertEquals(expected.vxMetersPerSecond, actual.vxMetersPerSecond, 0.0);
+      assertEquals(expected.omegaRadiansPerSecond, actual.omegaRadiansPerSecond, 0.0);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.estimator;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.system.Discretization;
+import org.junit.jupiter.api.Test;
+
+class DiscreteProcessNoiseTest {
+  @Test
+  @SuppressWarnings("LocalVariableName")
+  void testCache() {
+    var contA = Matrix.mat(Nat.N2(), Nat.N2()).fill(0.0, 1.0, 0.0, -2.0);
+    var contQ = Matrix.mat(Nat.N2(), Nat.N2()).fill(0.01, 0.0, 0.0, 0.25);
+    var processNoise = new DiscreteProcessNoise<>(contQ);
+
+    processNoise.update(contA, 0.02);
+    var expected = Discretization.discretizeAQTaylor(contA, contQ, 0.02);
+    assertTrue(processNoise.getDiscA().isEqual(expected.getFirst(), 1e-12));
+    assertTrue(processNoise.getDiscQ().isEqual(expected.getSecond(), 1e-12));
+    assertTrue(
+        processNoise.getSquareRootDiscQ().isEqual(expected.getSecond().lltDecompose(true), 1e-12));
+
+    // Same dt (within tolerance) and A reuse the cached matrices
+    var discQ = processNoise.getDiscQ();
+    var squareRootDiscQ = processNoise.getSquareRootDiscQ();
+    processNoise.update(contA.copy(), 0.02 + DiscreteProcessNoise.kDtToleranceSeconds / 2);
+    assertSame(discQ, processNoise.getDiscQ());
+    assertSame(squareRootDiscQ, processNoise.getSquareRootDiscQ());
+
+    // A new dt recomputes them
+    processNoise.update(contA, 0.01);
+    assertNotSame(discQ, processNoise.getDiscQ());
+    assertTrue(
+        processNoise
+            .getDiscQ()
+            .isEqual(Discretization.discretizeAQTaylor(contA, contQ, 0.01).getSecond(), 1e-12));
+
+    // So does a new A
+    discQ = processNoise.getDiscQ();
+    var newA = Matrix.mat(Nat.N2(), Nat.N2()).fill(0.0, 1.0, 0.0, -3.0);
+    processNoise.update(newA, 0.01);
+    assertNotSame(discQ, processNoise.getDiscQ());
+    assertTrue(
+        processNoise
+            .getDiscA()
+            .isEqual(Discretization.discretizeAQTaylor(newA, contQ, 0.01).getFirst(), 1e-12));
+  }
+}
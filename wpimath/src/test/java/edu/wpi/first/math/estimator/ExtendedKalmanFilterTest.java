@@ -6,6 +6,7 @@ package edu.wpi.first.math.estimator;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 import edu.wpi.first.math.Matrix;
 import edu.wpi.first.math.Nat;
@@ -188,4 +189,35 @@ class ExtendedKalmanFilterTest {
     assertEquals(0.0, observer.getXhat(3), 1.0);
     assertEquals(0.0, observer.getXhat(4), 1.0);
   }
+
+  @Test
+  void testAccessorsDontAlias() {
+    double dtSeconds = 0.00505;
+    var observer =
+        new ExtendedKalmanFilter<>(
+            Nat.N5(),
+            Nat.N2(),
+            Nat.N3(),
+            ExtendedKalmanFilterTest::getDynamics,
+            ExtendedKalmanFilterTest::getLocalMeasurementModel,
+            VecBuilder.fill(0.5, 0.5, 10.0, 1.0, 1.0),
+            VecBuilder.fill(0.0001, 0.01, 0.01),
+            dtSeconds);
+
+    var xHat = VecBuilder.fill(1.0, 2.0, 0.5, 3.0, 4.0);
+    observer.setXhat(xHat);
+    var xHatBefore = observer.getXhat();
+    var PBefore = observer.getP();
+    var xHatInto = observer.getXhatInto(new Matrix<>(Nat.N5(), Nat.N1()));
+    assertEquals(xHatBefore, xHatInto);
+
+    observer.predict(VecBuilder.fill(12.0, 12.0), dtSeconds);
+
+    // Neither the matrix passed to setXhat() nor the ones returned by the getters change
+    assertEquals(VecBuilder.fill(1.0, 2.0, 0.5, 3.0, 4.0), xHat);
+    assertEquals(xHat, xHatBefore);
+    assertEquals(xHat, xHatInto);
+    assertNotEquals(PBefore, observer.getP());
+    assertEquals(observer.getP(), observer.getPInto(new Matrix<>(Nat.N5(), Nat.N5())));
+  }
 }
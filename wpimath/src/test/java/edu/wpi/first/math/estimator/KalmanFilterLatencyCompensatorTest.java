@@ -0,0 +1,135 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.estimator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.numbers.N1;
+import org.junit.jupiter.api.Test;
+
+class KalmanFilterLatencyCompensatorTest {
+  /** A one-state "filter" that integrates its input and ignores local measurements. */
+  @SuppressWarnings("ParameterName")
+  private static class IntegratorFilter implements KalmanTypeFilter<N1, N1, N1> {
+    private Matrix<N1, N1> m_errorCovariance = VecBuilder.fill(1.0);
+    private Matrix<N1, N1> m_xHat = VecBuilder.fill(0.0);
+
+    @Override
+    public Matrix<N1, N1> getP() {
+      return m_errorCovariance;
+    }
+
+    @Override
+    public double getP(int i, int j) {
+      return m_errorCovariance.get(i, j);
+    }
+
+    @Override
+    public void setP(Matrix<N1, N1> newP) {
+      m_errorCovariance = newP;
+    }
+
+    @Override
+    public Matrix<N1, N1> getXhat() {
+      return m_xHat;
+    }
+
+    @Override
+    public double getXhat(int i) {
+      return m_xHat.get(i, 0);
+    }
+
+    @Override
+    public void setXhat(Matrix<N1, N1> xHat) {
+      m_xHat = xHat;
+    }
+
+    @Override
+    public void setXhat(int i, double value) {
+      m_xHat.set(i, 0, value);
+    }
+
+    @Override
+    public void reset() {
+      m_xHat = VecBuilder.fill(0.0);
+    }
+
+    @Override
+    public void predict(Matrix<N1, N1> u, double dtSeconds) {
+      m_xHat = m_xHat.plus(u.times(dtSeconds));
+    }
+
+    @Override
+    public void correct(Matrix<N1, N1> u, Matrix<N1, N1> y) {}
+  }
+
+  private static KalmanFilterLatencyCompensator<N1, N1, N1> makeHistory(IntegratorFilter filter) {
+    var compensator = new KalmanFilterLatencyCompensator<N1, N1, N1>();
+    var u = VecBuilder.fill(1.0);
+    var y = VecBuilder.fill(0.0);
+
+    // After the snapshot at time t, the state is t + 1
+    for (int t = 0; t < 10; ++t) {
+      filter.predict(u, 1.0);
+      compensator.addObserverState(filter, u, y, t);
+    }
+    return compensator;
+  }
+
+  @Test
+  void testSingleMeasurement() {
+    var filter = new IntegratorFilter();
+    var compensator = makeHistory(filter);
+
+    compensator.applyPastGlobalMeasurement(
+        Nat.N1(), filter, 1.0, VecBuilder.fill(100.0), (u, y) -> filter.setXhat(y), 5.0);
+
+    // Snapshot 5 is rewound, integrated, then reset to 100 and integrated 4 more times
+    assertEquals(104.0, filter.getXhat(0), 1e-9);
+  }
+
+  @Test
+  void testBatchedMeasurements() {
+    var filter = new IntegratorFilter();
+    var compensator = makeHistory(filter);
+
+    // Add measurements out of order; the oldest one predates every snapshot and is discarded
+    compensator.addPastGlobalMeasurement(VecBuilder.fill(50.0), (u, y) -> filter.setXhat(y), 7.0);
+    compensator.addPastGlobalMeasurement(VecBuilder.fill(100.0), (u, y) -> filter.setXhat(y), 5.2);
+    compensator.addPastGlobalMeasurement(VecBuilder.fill(-1.0), (u, y) -> filter.setXhat(y), -5.0);
+    compensator.applyPastGlobalMeasurements(filter, 1.0);
+
+    assertEquals(52.0, filter.getXhat(0), 1e-9);
+
+    // The pending measurements were consumed
+    compensator.applyPastGlobalMeasurements(filter, 1.0);
+    assertEquals(52.0, filter.getXhat(0), 1e-9);
+  }
+
+  @Test
+  void testHistoryWraparound() {
+    var filter = new IntegratorFilter();
+    var compensator = new KalmanFilterLatencyCompensator<N1, N1, N1>();
+    var u = VecBuilder.fill(1.0);
+    var y = VecBuilder.fill(0.0);
+
+    for (int t = 0; t < 1000; ++t) {
+      filter.predict(u, 1.0);
+      compensator.addObserverState(filter, u, y, t);
+    }
+
+    // Measurements older than the retained history are discarded
+    compensator.applyPastGlobalMeasurement(
+        Nat.N1(), filter, 1.0, VecBuilder.fill(0.0), (u2, y2) -> filter.setXhat(y2), 10.0);
+    assertEquals(1000.0, filter.getXhat(0), 1e-9);
+
+    compensator.applyPastGlobalMeasurement(
+        Nat.N1(), filter, 1.0, VecBuilder.fill(0.0), (u2, y2) -> filter.setXhat(y2), 995.0);
+    assertEquals(4.0, filter.getXhat(0), 1e-9);
+  }
+}
@@ -27,6 +27,7 @@ import edu.wpi.first.math.trajectory.TrajectoryConfig;
 import edu.wpi.first.math.trajectory.TrajectoryGenerator;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.BiFunction;
 import org.junit.jupiter.api.Test;
 
 class UnscentedKalmanFilterTest {
@@ -274,4 +275,43 @@ class UnscentedKalmanFilterTest {
 
     assertTrue(observer.getP().isEqual(P, 1e-9));
   }
+
+  @Test
+  @SuppressWarnings({"LocalVariableName", "ParameterName"})
+  void testAnalyticJacobian() {
+    var plant = LinearSystemId.identifyPositionSystem(0.02, 0.006);
+    BiFunction<Matrix<N2, N1>, Matrix<N1, N1>, Matrix<N2, N1>> f =
+        (x, u) -> plant.getA().times(x).plus(plant.getB().times(u));
+
+    var numerical =
+        new UnscentedKalmanFilter<N2, N1, N1>(
+            Nat.N2(),
+            Nat.N1(),
+            f,
+            plant::calculateY,
+            VecBuilder.fill(0.1, 0.5),
+            VecBuilder.fill(1.0),
+            0.02);
+    var analytic =
+        new UnscentedKalmanFilter<N2, N1, N1>(
+            Nat.N2(),
+            Nat.N1(),
+            f,
+            plant::calculateY,
+            VecBuilder.fill(0.1, 0.5),
+            VecBuilder.fill(1.0),
+            0.02);
+    analytic.setJacobianX((x, u) -> plant.getA());
+
+    var u = VecBuilder.fill(2.0);
+    for (int i = 0; i < 50; ++i) {
+      // Alternate timesteps so the cached discretization is invalidated
+      double dt = i % 10 < 5 ? 0.02 : 0.01;
+      numerical.predict(u, dt);
+      analytic.predict(u, dt);
+    }
+
+    assertTrue(analytic.getXhat().isEqual(numerical.getXhat(), 1e-6));
+    assertTrue(analytic.getP().isEqual(numerical.getP(), 1e-9));
+  }
 }
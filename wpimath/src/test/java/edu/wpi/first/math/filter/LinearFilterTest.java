@@ -11,6 +11,7 @@ import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import java.util.Random;
 import java.util.function.DoubleFunction;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -109,6 +110,84 @@ class LinearFilterTest {
             0.0));
   }
 
+  /** Test that block processing matches per-sample processing exactly, even when mixed. */
+  @ParameterizedTest
+  @MethodSource("blockFilterProvider")
+  void blockTest(final Supplier<LinearFilter> factory) {
+    var scalarFilter = factory.get();
+    var blockFilter = factory.get();
+
+    final Random gen = new Random(1234);
+    var input = new double[1000];
+    for (int i = 0; i < input.length; i++) {
+      input[i] = getData(i * kFilterStep) + gen.nextGaussian();
+    }
+
+    var expected = new double[input.length];
+    for (int i = 0; i < input.length; i++) {
+      expected[i] = scalarFilter.calculate(input[i]);
+    }
+
+    // Blocks of varying sizes, including empty and single-sample blocks, with per-sample calls
+    // in between
+    var output = new double[input.length];
+    int offset = 0;
+    int len = 0;
+    while (offset < input.length) {
+      len = Math.min(len % 37, input.length - offset);
+      blockFilter.calculate(input, output, offset, len);
+      offset += len;
+      if (offset < input.length) {
+        output[offset] = blockFilter.calculate(input[offset]);
+        offset++;
+      }
+      len += 5;
+    }
+
+    for (int i = 0; i < input.length; i++) {
+      assertEquals(
+          Double.doubleToLongBits(expected[i]),
+          Double.doubleToLongBits(output[i]),
+          "Mismatch at sample " + i);
+    }
+  }
+
+  @Test
+  void blockInPlaceTest() {
+    var scalarFilter = LinearFilter.singlePoleIIR(kSinglePoleIIRTimeConstant, kFilterStep);
+    var blockFilter = LinearFilter.singlePoleIIR(kSinglePoleIIRTimeConstant, kFilterStep);
+
+    var data = new double[100];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = getData(i * kFilterStep);
+    }
+    var expected = new double[data.length];
+    for (int i = 0; i < data.length; i++) {
+      expected[i] = scalarFilter.calculate(data[i]);
+    }
+
+    blockFilter.calculate(data, data, 0, data.length);
+    for (int i = 0; i < data.length; i++) {
+      assertEquals(expected[i], data[i]);
+    }
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> blockFilter.calculate(data, new double[10], 0, data.length));
+    assertThrows(IllegalArgumentException.class, () -> blockFilter.calculate(data, data, -1, 10));
+  }
+
+  static Stream<Supplier<LinearFilter>> blockFilterProvider() {
+    return Stream.of(
+        () -> LinearFilter.singlePoleIIR(kSinglePoleIIRTimeConstant, kFilterStep),
+        () -> LinearFilter.highPass(kHighPassTimeConstant, kFilterStep),
+        () -> LinearFilter.movingAverage(kMovAvgTaps),
+        () -> LinearFilter.movingAverage(50),
+        () -> LinearFilter.backwardFiniteDifference(2, 5, kFilterStep),
+        () -> new LinearFilter(new double[] {0.2, -0.1, 0.3}, new double[] {-0.5, 0.25, 0.1}),
+        () -> new LinearFilter(new double[0], new double[] {0.5}));
+  }
+
   /** Test central finite difference. */
   @Test
   void centralFiniteDifferenceTest() {
@@ -4,8 +4,11 @@
 
 package edu.wpi.first.math.filter;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.Arrays;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 class MedianFilterTest {
@@ -58,4 +61,46 @@ class MedianFilterTest {
 
     assertEquals(5, filter.calculate(99));
   }
+
+  @Test
+  void medianFilterMatchesSortedWindow() {
+    final int size = 7;
+    MedianFilter filter = new MedianFilter(size);
+    var rand = new Random(1234);
+    var input = new double[200];
+    for (int i = 0; i < input.length; i++) {
+      // Round to get plenty of duplicate values in the window
+      input[i] = Math.round(rand.nextGaussian() * 3.0);
+    }
+
+    for (int i = 0; i < input.length; i++) {
+      var window = Arrays.copyOfRange(input, Math.max(0, i - size + 1), i + 1);
+      Arrays.sort(window);
+      int n = window.length;
+      double expected = n % 2 != 0 ? window[n / 2] : (window[n / 2 - 1] + window[n / 2]) / 2.0;
+      assertEquals(expected, filter.calculate(input[i]));
+    }
+  }
+
+  @Test
+  void medianFilterBatch() {
+    var input = new double[] {3, 0, 4, 1000, 7, -2, 5, 5, 1};
+
+    MedianFilter sequential = new MedianFilter(4);
+    var expected = new double[input.length];
+    for (int i = 0; i < input.length; i++) {
+      expected[i] = sequential.calculate(input[i]);
+    }
+
+    MedianFilter batch = new MedianFilter(4);
+    var output = new double[input.length];
+    batch.calculate(Arrays.copyOfRange(input, 0, 4), output);
+    var rest = Arrays.copyOfRange(input, 4, input.length);
+    batch.calculate(rest, rest);
+    System.arraycopy(rest, 0, output, 4, rest.length);
+    assertArrayEquals(expected, output);
+
+    batch.reset();
+    assertEquals(8.0, batch.calculate(8.0));
+  }
 }
@@ -5,6 +5,7 @@
 package edu.wpi.first.math.interpolation;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
@@ -40,4 +41,49 @@ class TimeInterpolatableBufferTest {
     assertEquals(1 / Math.sqrt(2), sample.getTranslation().getY(), 0.01);
     assertEquals(45, sample.getRotation().getDegrees(), 0.01);
   }
+
+  @Test
+  void testEmpty() {
+    TimeInterpolatableBuffer<Double> buffer = TimeInterpolatableBuffer.createDoubleBuffer(10);
+    assertTrue(buffer.getSample(0).isEmpty());
+
+    buffer.addSample(1, 1.0);
+    buffer.clear();
+    assertTrue(buffer.getSample(1).isEmpty());
+  }
+
+  @Test
+  void testOutOfOrderSamples() {
+    TimeInterpolatableBuffer<Double> buffer = TimeInterpolatableBuffer.createDoubleBuffer(10);
+
+    buffer.addSample(2, 2.0);
+    buffer.addSample(0, 0.0);
+    buffer.addSample(1, 10.0);
+    buffer.addSample(1, 1.0);
+
+    assertEquals(0.5, buffer.getSample(0.5).get(), 1e-9);
+    assertEquals(1.0, buffer.getSample(1).get(), 1e-9);
+    assertEquals(1.5, buffer.getSample(1.5).get(), 1e-9);
+
+    // Out of range samples return the nearest bound
+    assertEquals(0.0, buffer.getSample(-1).get(), 1e-9);
+    assertEquals(2.0, buffer.getSample(3).get(), 1e-9);
+  }
+
+  @Test
+  void testWraparound() {
+    TimeInterpolatableBuffer<Double> buffer = TimeInterpolatableBuffer.createDoubleBuffer(1.5);
+
+    // Add enough samples to wrap around and grow the underlying ring buffer several times
+    for (int i = 0; i <= 1000; ++i) {
+      buffer.addSample(i * 0.005, i * 0.005);
+    }
+
+    assertEquals(4.0025, buffer.getSample(4.0025).get(), 1e-9);
+    assertEquals(4.5, buffer.getSample(4.5).get(), 1e-9);
+    assertEquals(5.0, buffer.getSample(6.0).get(), 1e-9);
+
+    // Samples older than the history size were removed
+    assertEquals(3.505, buffer.getSample(0.0).get(), 1e-9);
+  }
 }
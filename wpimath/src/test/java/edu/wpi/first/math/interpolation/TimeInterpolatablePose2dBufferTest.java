@@ -0,0 +1,54 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.interpolation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class TimeInterpolatablePose2dBufferTest {
+  @Test
+  void testPose2d() {
+    var buffer = new TimeInterpolatablePose2dBuffer(10);
+    assertTrue(buffer.getSample(0.5).isEmpty());
+
+    // We expect to be at (1 - 1/Math.sqrt(2), 1/Math.sqrt(2), 45deg) at t=0.5
+    buffer.addSample(0, new Pose2d(0, 0, Rotation2d.fromDegrees(90)));
+    buffer.addSample(1, new Pose2d(1, 1, Rotation2d.fromDegrees(0)));
+    Pose2d sample = buffer.getSample(0.5).get();
+
+    assertEquals(1 - 1 / Math.sqrt(2), sample.getTranslation().getX(), 0.01);
+    assertEquals(1 / Math.sqrt(2), sample.getTranslation().getY(), 0.01);
+    assertEquals(45, sample.getRotation().getDegrees(), 0.01);
+  }
+
+  @Test
+  void testMatchesGenericBuffer() {
+    var buffer = new TimeInterpolatablePose2dBuffer(1.5);
+    TimeInterpolatableBuffer<Pose2d> reference = TimeInterpolatableBuffer.createBuffer(1.5);
+
+    var rand = new Random(4915);
+    for (int i = 0; i < 500; ++i) {
+      // Add some samples out of order
+      double time = i * 0.01 + (i % 7 == 0 ? -0.015 : 0.0);
+      var pose = new Pose2d(rand.nextGaussian(), rand.nextGaussian(), new Rotation2d(i * 0.05));
+      buffer.addSample(time, pose);
+      reference.addSample(time, pose);
+    }
+
+    for (double time = 3.0; time < 5.2; time += 0.0037) {
+      Pose2d expected = reference.getSample(time).get();
+      Pose2d actual = buffer.getSample(time).get();
+      assertEquals(expected.getX(), actual.getX(), 1e-9);
+      assertEquals(expected.getY(), actual.getY(), 1e-9);
+      assertEquals(expected.getRotation().getCos(), actual.getRotation().getCos(), 1e-9);
+      assertEquals(expected.getRotation().getSin(), actual.getRotation().getSin(), 1e-9);
+    }
+  }
+}
@@ -6,6 +6,7 @@ package edu.wpi.first.math.kinematics;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
@@ -265,4 +266,104 @@ class SwerveDriveKinematicsTest {
         () -> assertEquals(4.0 * factor, arr[2].speedMetersPerSecond, kEpsilon),
         () -> assertEquals(7.0 * factor, arr[3].speedMetersPerSecond, kEpsilon));
   }
+
+  @Test
+  void testInverseKinematicsInto() {
+    var speeds = new ChassisSpeeds(1, 3, 1.5);
+    var centerOfRotation = new Translation2d(24, 0);
+    var moduleStates = m_kinematics.toSwerveModuleStates(speeds, centerOfRotation);
+
+    double[] moduleSpeeds = new double[4];
+    double[] moduleAngles = new double[4];
+    m_kinematics.toSwerveModuleStatesInto(speeds, centerOfRotation, moduleSpeeds, moduleAngles);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(moduleStates[i].speedMetersPerSecond, moduleSpeeds[i], kEpsilon);
+      assertEquals(moduleStates[i].angle.getRadians(), moduleAngles[i], kEpsilon);
+    }
+
+    // Zero speeds keep the previous angles
+    m_kinematics.toSwerveModuleStatesInto(new ChassisSpeeds(), moduleSpeeds, moduleAngles);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(0.0, moduleSpeeds[i]);
+      assertEquals(moduleStates[i].angle.getRadians(), moduleAngles[i], kEpsilon);
+    }
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> m_kinematics.toSwerveModuleStatesInto(speeds, new double[3], new double[4]));
+  }
+
+  @Test
+  void testForwardKinematicsInto() {
+    var moduleStates =
+        new SwerveModuleState[] {
+          new SwerveModuleState(23.43, Rotation2d.fromDegrees(-140.19)),
+          new SwerveModuleState(23.43, Rotation2d.fromDegrees(-39.81)),
+          new SwerveModuleState(54.08, Rotation2d.fromDegrees(-109.44)),
+          new SwerveModuleState(54.08, Rotation2d.fromDegrees(-70.56))
+        };
+    var expected = m_kinematics.toChassisSpeeds(moduleStates);
+
+    var chassisSpeeds = new ChassisSpeeds();
+    m_kinematics.toChassisSpeedsInto(moduleStates, chassisSpeeds);
+    assertAll(
+        () -> assertEquals(expected.vxMetersPerSecond, chassisSpeeds.vxMetersPerSecond, kEpsilon),
+        () -> assertEquals(expected.vyMetersPerSecond, chassisSpeeds.vyMetersPerSecond, kEpsilon),
+        () ->
+            assertEquals(
+                expected.omegaRadiansPerSecond, chassisSpeeds.omegaRadiansPerSecond, kEpsilon));
+
+    double[] moduleSpeeds = new double[4];
+    double[] moduleAngles = new double[4];
+    for (int i = 0; i < 4; i++) {
+      moduleSpeeds[i] = moduleStates[i].speedMetersPerSecond;
+      moduleAngles[i] = moduleStates[i].angle.getRadians();
+    }
+    var primitiveSpeeds = new ChassisSpeeds();
+    m_kinematics.toChassisSpeedsInto(moduleSpeeds, moduleAngles, primitiveSpeeds);
+    assertAll(
+        () -> assertEquals(expected.vxMetersPerSecond, primitiveSpeeds.vxMetersPerSecond, kEpsilon),
+        () -> assertEquals(expected.vyMetersPerSecond, primitiveSpeeds.vyMetersPerSecond, kEpsilon),
+        () ->
+            assertEquals(
+                expected.omegaRadiansPerSecond, primitiveSpeeds.omegaRadiansPerSecond, kEpsilon));
+  }
+
+  @Test
+  void testForwardKinematicsConcurrentWithInverse() throws InterruptedException {
+    var moduleStates =
+        new SwerveModuleState[] {
+          new SwerveModuleState(1.0, Rotation2d.fromDegrees(10.0)),
+          new SwerveModuleState(2.0, Rotation2d.fromDegrees(20.0)),
+          new SwerveModuleState(3.0, Rotation2d.fromDegrees(30.0)),
+          new SwerveModuleState(4.0, Rotation2d.fromDegrees(40.0))
+        };
+    var expected = m_kinematics.toChassisSpeeds(moduleStates);
+
+    // Drive code running inverse kinematics on another thread doesn't affect odometry
+    var driveThread =
+        new Thread(
+            () -> {
+              var speeds = new ChassisSpeeds(-3.0, 7.0, 11.0);
+              var moduleSpeeds = new double[4];
+              var moduleAngles = new double[4];
+              while (!Thread.currentThread().isInterrupted()) {
+                m_kinematics.toSwerveModuleStates(speeds);
+                m_kinematics.toSwerveModuleStatesInto(speeds, moduleSpeeds, moduleAngles);
+              }
+            });
+    driveThread.start();
+    try {
+      var chassisSpeeds = new ChassisSpeeds();
+      for (int i = 0; i < 100000; i++) {
+        m_kinematics.toChassisSpeedsInto(moduleStates, chassisSpeeds);
+        assertEquals(expected.vxMetersPerSecond, chassisSpeeds.vxMetersPerSecond);
+        assertEquals(expected.vyMetersPerSecond, chassisSpeeds.vyMetersPerSecond);
+        assertEquals(expected.omegaRadiansPerSecond, chassisSpeeds.omegaRadiansPerSecond);
+      }
+    } finally {
+      driveThread.interrupt();
+      driveThread.join();
+    }
+  }
 }
@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.geometry.Twist2d;
 import org.junit.jupiter.api.Test;
 
 class SwerveDriveOdometryTest {
@@ -89,4 +90,52 @@ class SwerveDriveOdometryTest {
         () -> assertEquals(0.00, pose.getY(), 0.1),
         () -> assertEquals(0.00, pose.getRotation().getRadians(), 0.1));
   }
+
+  @Test
+  void testUpdateInto() {
+    var odometry = new SwerveDriveOdometry(m_kinematics, new Rotation2d(), new Pose2d());
+    var primitiveOdometry = new SwerveDriveOdometry(m_kinematics, new Rotation2d(), new Pose2d());
+
+    // Integrate the expected pose with Pose2d.exp() rather than the odometry's own integration
+    var expected = new Pose2d();
+    double previousGyroAngle = 0.0;
+
+    double[] moduleSpeeds = new double[4];
+    double[] moduleAngles = new double[4];
+    var moduleStates = new SwerveModuleState[4];
+    for (int step = 0; step <= 50; step++) {
+      double time = step * 0.02;
+      double gyroAngle = 0.3 * step;
+      for (int i = 0; i < 4; i++) {
+        moduleSpeeds[i] = 2.0 + i;
+        moduleAngles[i] = 0.1 * step - i;
+        moduleStates[i] = new SwerveModuleState(moduleSpeeds[i], new Rotation2d(moduleAngles[i]));
+      }
+      odometry.updateWithTime(time, new Rotation2d(gyroAngle), moduleStates);
+      primitiveOdometry.updateWithTimeInto(time, gyroAngle, moduleSpeeds, moduleAngles);
+
+      // The first update only records the time
+      double period = step > 0 ? 0.02 : 0.0;
+      var speeds = m_kinematics.toChassisSpeeds(moduleStates);
+      var twist =
+          new Twist2d(
+              speeds.vxMetersPerSecond * period,
+              speeds.vyMetersPerSecond * period,
+              gyroAngle - previousGyroAngle);
+      expected = new Pose2d(expected.exp(twist).getTranslation(), new Rotation2d(gyroAngle));
+      previousGyroAngle = gyroAngle;
+    }
+
+    var expectedPose = expected;
+    var pose = odometry.getPoseMeters();
+    assertAll(
+        () -> assertEquals(expectedPose.getX(), pose.getX(), 1e-9),
+        () -> assertEquals(expectedPose.getY(), pose.getY(), 1e-9),
+        () -> assertEquals(expectedPose.getRotation(), pose.getRotation()),
+        () -> assertEquals(expectedPose.getX(), primitiveOdometry.getXMeters(), 1e-9),
+        () -> assertEquals(expectedPose.getY(), primitiveOdometry.getYMeters(), 1e-9),
+        () ->
+            assertEquals(
+                expectedPose.getRotation(), new Rotation2d(primitiveOdometry.getAngleRadians())));
+  }
 }
@@ -0,0 +1,94 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CompactTrajectoryTest {
+  private static final double kEpsilon = 1E-9;
+
+  private static void assertSampleEquals(
+      Trajectory.State expected, CompactTrajectory.Sample actual) {
+    assertAll(
+        () -> assertEquals(expected.timeSeconds, actual.timeSeconds, kEpsilon),
+        () ->
+            assertEquals(
+                expected.velocityMetersPerSecond, actual.velocityMetersPerSecond, kEpsilon),
+        () ->
+            assertEquals(
+                expected.accelerationMetersPerSecondSq,
+                actual.accelerationMetersPerSecondSq,
+                kEpsilon),
+        () -> assertEquals(expected.poseMeters.getX(), actual.xMeters, kEpsilon),
+        () -> assertEquals(expected.poseMeters.getY(), actual.yMeters, kEpsilon),
+        () -> assertEquals(expected.poseMeters.getRotation().getCos(), actual.cos, kEpsilon),
+        () -> assertEquals(expected.poseMeters.getRotation().getSin(), actual.sin, kEpsilon),
+        () -> assertEquals(expected.curvatureRadPerMeter, actual.curvatureRadPerMeter, kEpsilon));
+  }
+
+  @Test
+  void testSampleMonotonic() {
+    var trajectory = TrajectoryGeneratorTest.getTrajectory(new ArrayList<>());
+    var compact = new CompactTrajectory(trajectory);
+    var sample = new CompactTrajectory.Sample();
+
+    assertEquals(trajectory.getTotalTimeSeconds(), compact.getTotalTimeSeconds());
+    for (double t = -0.1; t < trajectory.getTotalTimeSeconds() + 0.1; t += 0.005) {
+      compact.sampleInto(t, sample);
+      assertSampleEquals(trajectory.sample(t), sample);
+    }
+  }
+
+  @Test
+  void testSampleRandomOrder() {
+    var trajectory = TrajectoryGeneratorTest.getTrajectory(new ArrayList<>());
+    var compact = new CompactTrajectory(trajectory);
+    var sample = new CompactTrajectory.Sample();
+
+    var random = new Random(4915);
+    for (int i = 0; i < 1000; i++) {
+      double t = random.nextDouble() * trajectory.getTotalTimeSeconds();
+      compact.sampleInto(t, sample);
+      assertSampleEquals(trajectory.sample(t), sample);
+    }
+
+    // Sampling exactly on a state returns that state
+    var state = trajectory.getStates().get(10);
+    compact.sampleInto(state.timeSeconds, sample);
+    assertSampleEquals(state, sample);
+  }
+
+  @Test
+  void testRoundTrip() {
+    var trajectory = TrajectoryGeneratorTest.getTrajectory(new ArrayList<>());
+    var roundTrip = new CompactTrajectory(trajectory).toTrajectory();
+
+    assertEquals(trajectory.getStates().size(), roundTrip.getStates().size());
+    for (int i = 0; i < trajectory.getStates().size(); i++) {
+      var expected = trajectory.getStates().get(i);
+      var actual = roundTrip.getStates().get(i);
+      assertEquals(expected.timeSeconds, actual.timeSeconds);
+      assertEquals(expected.poseMeters, actual.poseMeters);
+      assertEquals(expected.curvatureRadPerMeter, actual.curvatureRadPerMeter);
+    }
+
+    assertThrows(IllegalArgumentException.class, () -> new CompactTrajectory(new Trajectory()));
+  }
+
+  @Test
+  void testSampleSet() {
+    var trajectory = TrajectoryGeneratorTest.getTrajectory(new ArrayList<>());
+    var sample = new CompactTrajectory.Sample();
+    var state = trajectory.getStates().get(10);
+    sample.set(state);
+    assertSampleEquals(state, sample);
+  }
+}
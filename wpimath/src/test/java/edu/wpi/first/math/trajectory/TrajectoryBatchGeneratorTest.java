@@ -0,0 +1,225 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.math.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.wpi.first.math.MatBuilder;
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N2;
+import edu.wpi.first.math.trajectory.constraint.CentripetalAccelerationConstraint;
+import edu.wpi.first.math.trajectory.constraint.SwerveDriveKinematicsConstraint;
+import edu.wpi.first.math.trajectory.constraint.TrajectoryConstraint;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TrajectoryBatchGeneratorTest {
+  private static final List<Pose2d> kWaypoints =
+      List.of(
+          new Pose2d(),
+          new Pose2d(3.0, 1.0, Rotation2d.fromDegrees(30.0)),
+          new Pose2d(6.0, 3.0, Rotation2d.fromDegrees(90.0)),
+          new Pose2d(5.0, 6.0, Rotation2d.fromDegrees(180.0)));
+
+  /** A user constraint with a mutable limit and a matrix of gains. */
+  private static class MutableConstraint implements TrajectoryConstraint {
+    double m_maxVelocity;
+    final Matrix<N2, N1> m_gains;
+
+    MutableConstraint(double maxVelocity, Matrix<N2, N1> gains) {
+      m_maxVelocity = maxVelocity;
+      m_gains = gains;
+    }
+
+    @Override
+    public double getMaxVelocityMetersPerSecond(
+        Pose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+      return m_maxVelocity;
+    }
+
+    @Override
+    public MinMax getMinMaxAccelerationMetersPerSecondSq(
+        Pose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+      return new MinMax();
+    }
+  }
+
+  /** A user constraint whose limit comes from a lambda, which can't be hashed. */
+  private static class SupplierConstraint implements TrajectoryConstraint {
+    private final DoubleSupplier m_maxVelocity;
+
+    SupplierConstraint(DoubleSupplier maxVelocity) {
+      m_maxVelocity = maxVelocity;
+    }
+
+    @Override
+    public double getMaxVelocityMetersPerSecond(
+        Pose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+      return m_maxVelocity.getAsDouble();
+    }
+
+    @Override
+    public MinMax getMinMaxAccelerationMetersPerSecondSq(
+        Pose2d poseMeters, double curvatureRadPerMeter, double velocityMetersPerSecond) {
+      return new MinMax();
+    }
+  }
+
+  private static long countCacheFiles(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.count();
+    }
+  }
+
+  @Test
+  void testMatchesSequentialGeneration() {
+    var quinticConfig = new TrajectoryConfig(3.0, 2.0).setReversed(true);
+    var cubicConfig =
+        new TrajectoryConfig(3.0, 2.0).addConstraint(new CentripetalAccelerationConstraint(1.0));
+    var interiorWaypoints = List.of(new Translation2d(2.0, 1.0), new Translation2d(4.0, -1.0));
+    var end = new Pose2d(6.0, 0.0, Rotation2d.fromDegrees(90.0));
+
+    var pool = new ForkJoinPool(4);
+    try {
+      var generator = new TrajectoryBatchGenerator(pool, null);
+      assertEquals(0, generator.add(kWaypoints, quinticConfig));
+      assertEquals(1, generator.add(new Pose2d(), interiorWaypoints, end, cubicConfig));
+
+      var trajectories = generator.generate();
+      assertEquals(
+          TrajectoryGenerator.generateTrajectory(kWaypoints, quinticConfig), trajectories.get(0));
+      assertEquals(
+          TrajectoryGenerator.generateTrajectory(new Pose2d(), interiorWaypoints, end, cubicConfig),
+          trajectories.get(1));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testCache(@TempDir Path dir) throws IOException {
+    var config = new TrajectoryConfig(3.0, 2.0);
+    var generator = new TrajectoryBatchGenerator(ForkJoinPool.commonPool(), dir);
+    generator.add(kWaypoints, config);
+    var generated = generator.generate().get(0);
+    assertEquals(TrajectoryGenerator.generateTrajectory(kWaypoints, config), generated);
+    assertEquals(1, countCacheFiles(dir));
+
+    // Replace the cached trajectory so we can tell whether it was loaded
+    Path cacheFile;
+    try (Stream<Path> files = Files.list(dir)) {
+      cacheFile = files.findFirst().orElseThrow();
+    }
+    var marker =
+        TrajectoryGenerator.generateTrajectory(
+            List.of(new Pose2d(), new Pose2d(1.0, 0.0, new Rotation2d())), config);
+    TrajectoryUtil.toBinary(marker, cacheFile);
+
+    var cachedGenerator = new TrajectoryBatchGenerator(ForkJoinPool.commonPool(), dir);
+    cachedGenerator.add(kWaypoints, new TrajectoryConfig(3.0, 2.0));
+    assertEquals(marker, cachedGenerator.generate().get(0));
+
+    // A corrupt cache file is regenerated and overwritten
+    Files.write(cacheFile, new byte[] {1, 2, 3});
+    assertEquals(generated, cachedGenerator.generate().get(0));
+    assertEquals(generated, TrajectoryUtil.fromBinary(cacheFile));
+  }
+
+  @Test
+  void testCacheKeyIncludesConfig(@TempDir Path dir) throws IOException {
+    var kinematics =
+        new SwerveDriveKinematics(
+            new Translation2d(0.3, 0.3),
+            new Translation2d(0.3, -0.3),
+            new Translation2d(-0.3, 0.3),
+            new Translation2d(-0.3, -0.3));
+
+    var generator = new TrajectoryBatchGenerator(ForkJoinPool.commonPool(), dir);
+    generator.add(
+        kWaypoints,
+        new TrajectoryConfig(3.0, 2.0)
+            .addConstraint(new SwerveDriveKinematicsConstraint(kinematics, 2.5)));
+    generator.add(
+        kWaypoints,
+        new TrajectoryConfig(3.0, 2.0)
+            .addConstraint(new SwerveDriveKinematicsConstraint(kinematics, 2.0)));
+    generator.add(kWaypoints, new TrajectoryConfig(3.0, 2.0).setEndVelocity(1.0));
+    generator.generate();
+    assertEquals(3, countCacheFiles(dir));
+
+    // Using the kinematics changes its internal state, but not the key
+    kinematics.toSwerveModuleStates(new ChassisSpeeds(1.0, 0.5, 0.2));
+    generator.generate();
+    assertEquals(3, countCacheFiles(dir));
+  }
+
+  @Test
+  void testCacheKeyIncludesMutableState(@TempDir Path dir) throws IOException {
+    var gains = new MatBuilder<>(Nat.N2(), Nat.N1()).fill(1.0, 2.0);
+    var constraint = new MutableConstraint(2.5, gains);
+    var config = new TrajectoryConfig(3.0, 2.0).addConstraint(constraint);
+    var generator = new TrajectoryBatchGenerator(ForkJoinPool.commonPool(), dir);
+    generator.add(kWaypoints, config);
+    generator.generate();
+    assertEquals(1, countCacheFiles(dir));
+
+    // Changing a non-final field regenerates instead of loading the stale trajectory
+    constraint.m_maxVelocity = 2.0;
+    assertEquals(
+        TrajectoryGenerator.generateTrajectory(kWaypoints, config), generator.generate().get(0));
+    assertEquals(2, countCacheFiles(dir));
+
+    // So does changing the contents of a matrix
+    gains.set(1, 0, 3.0);
+    generator.generate();
+    assertEquals(3, countCacheFiles(dir));
+  }
+
+  @Test
+  void testUnhashableConstraintNotCached(@TempDir Path dir) throws IOException {
+    double[] maxVelocity = {2.5};
+    var config =
+        new TrajectoryConfig(3.0, 2.0).addConstraint(new SupplierConstraint(() -> maxVelocity[0]));
+    var generator = new TrajectoryBatchGenerator(ForkJoinPool.commonPool(), dir);
+    generator.add(kWaypoints, config);
+    generator.generate();
+    assertEquals(0, countCacheFiles(dir));
+
+    maxVelocity[0] = 2.0;
+    assertEquals(
+        TrajectoryGenerator.generateTrajectory(kWaypoints, config), generator.generate().get(0));
+  }
+
+  @Test
+  void testBinaryRoundTrip(@TempDir Path dir) throws IOException {
+    var trajectory =
+        TrajectoryGenerator.generateTrajectory(
+            kWaypoints, new TrajectoryConfig(3.0, 2.0).setReversed(true));
+    var path = dir.resolve("trajectory.wtraj");
+    TrajectoryUtil.toBinary(trajectory, path);
+    assertEquals(trajectory, TrajectoryUtil.fromBinary(path));
+    assertEquals(12 + trajectory.getStates().size() * 7 * Double.BYTES, Files.size(path));
+
+    var truncated = Files.readAllBytes(path);
+    Files.write(path, Arrays.copyOf(truncated, truncated.length - 1));
+    assertThrows(IOException.class, () -> TrajectoryUtil.fromBinary(path));
+  }
+}
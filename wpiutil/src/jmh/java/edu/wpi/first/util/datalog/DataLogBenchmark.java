@@ -0,0 +1,191 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DataLogBenchmark {
+  private static final int kNumRecords = 100000;
+  private static final int kNumSignals = 300;
+
+  private Path m_logDir;
+  private DataLog m_log;
+  private DoubleLogEntry m_doubleEntry;
+  private DoubleArrayLogEntry m_doubleArrayEntry;
+  private final double[] m_doubleArray = new double[12];
+  private long m_timestamp;
+
+  private DataLogBatch m_batch;
+  private final int[] m_signalEntries = new int[kNumSignals];
+
+  private ByteBuffer m_logBuffer;
+  private DataLogReader m_indexedReader;
+
+  /**
+   * Opens a data log in a temporary directory, and builds an in-memory log with a single double
+   * entry for the reader benchmark.
+   *
+   * @throws IOException if the temporary directory couldn't be created
+   */
+  @Setup
+  public void setup() throws IOException {
+    m_logDir = Files.createTempDirectory("datalogbenchmark");
+    m_log = new DataLog(m_logDir.toString(), "benchmark.wpilog");
+    m_doubleEntry = new DoubleLogEntry(m_log, "double");
+    m_doubleArrayEntry = new DoubleArrayLogEntry(m_log, "doubleArray");
+
+    m_batch = new DataLogBatch(m_log);
+    for (int i = 0; i < kNumSignals; ++i) {
+      m_signalEntries[i] = m_log.start("signal" + i, DoubleLogEntry.kDataType);
+    }
+
+    m_logBuffer = buildDoubleLog(kNumRecords);
+    m_indexedReader = new DataLogReader(m_logBuffer.duplicate());
+    m_indexedReader.getIndex();
+  }
+
+  /**
+   * Closes the data log and deletes the temporary directory.
+   *
+   * @throws IOException if the temporary directory couldn't be deleted
+   */
+  @TearDown
+  public void teardown() throws IOException {
+    m_log.close();
+    try (var paths = Files.walk(m_logDir)) {
+      for (Path path : paths.sorted((a, b) -> b.compareTo(a)).toArray(Path[]::new)) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  /**
+   * Builds a log containing a start record for entry 1 followed by the given number of double
+   * records.
+   */
+  private static ByteBuffer buildDoubleLog(int numRecords) {
+    byte[] name = "double".getBytes(StandardCharsets.UTF_8);
+    byte[] type = DoubleLogEntry.kDataType.getBytes(StandardCharsets.UTF_8);
+    int startSize = 1 + 4 + 4 + name.length + 4 + type.length + 4;
+
+    // Records use a 1-byte entry ID, 1-byte payload size, and 4-byte timestamp
+    ByteBuffer buf =
+        ByteBuffer.allocate(12 + 7 + startSize + numRecords * (7 + 8))
+            .order(ByteOrder.LITTLE_ENDIAN);
+    buf.put("WPILOG".getBytes(StandardCharsets.UTF_8));
+    buf.putShort((short) 0x0100);
+    buf.putInt(0);
+
+    buf.put((byte) 0x30).put((byte) 0).put((byte) startSize).putInt(0);
+    buf.put((byte) 0).putInt(1);
+    buf.putInt(name.length).put(name);
+    buf.putInt(type.length).put(type);
+    buf.putInt(0);
+
+    for (int i = 0; i < numRecords; ++i) {
+      buf.put((byte) 0x30).put((byte) 1).put((byte) 8).putInt(i * 1000);
+      buf.putDouble(i * 0.5);
+    }
+
+    buf.flip();
+    return buf;
+  }
+
+  @Benchmark
+  public void appendDouble() {
+    m_doubleEntry.append(1.0, ++m_timestamp);
+  }
+
+  @Benchmark
+  public void appendDoubleArray() {
+    m_doubleArrayEntry.append(m_doubleArray, ++m_timestamp);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(kNumSignals)
+  public void appendSignals() {
+    long timestamp = ++m_timestamp;
+    for (int i = 0; i < kNumSignals; ++i) {
+      m_log.appendDouble(m_signalEntries[i], i, timestamp);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(kNumSignals)
+  public void appendSignalsBatched() {
+    long timestamp = ++m_timestamp;
+    for (int i = 0; i < kNumSignals; ++i) {
+      m_batch.appendDouble(m_signalEntries[i], i, timestamp);
+    }
+    m_batch.flush();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(kNumRecords)
+  public double readerIteration() {
+    double sum = 0.0;
+    for (DataLogRecord record : new DataLogReader(m_logBuffer.duplicate())) {
+      if (!record.isControl()) {
+        sum += record.getDouble();
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(kNumRecords)
+  public double cursorIteration() {
+    double sum = 0.0;
+    DataLogCursor cursor = new DataLogReader(m_logBuffer.duplicate()).cursor();
+    while (cursor.next()) {
+      DataLogRecord record = cursor.getRecord();
+      if (!record.isControl()) {
+        sum += record.getDouble();
+      }
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(kNumRecords)
+  public DataLogIndex buildIndex() {
+    return DataLogIndex.build(new DataLogReader(m_logBuffer.duplicate()));
+  }
+
+  @Benchmark
+  public double indexedRangeIteration() {
+    // The last 1% of the log
+    double sum = 0.0;
+    for (DataLogRecord record :
+        m_indexedReader.iterate(1, (kNumRecords - kNumRecords / 100) * 1000L, Long.MAX_VALUE)) {
+      sum += record.getDouble();
+    }
+    return sum;
+  }
+}
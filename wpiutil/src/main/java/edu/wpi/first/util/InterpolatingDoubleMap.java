@@ -0,0 +1,89 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util;
+
+import java.util.Arrays;
+
+/**
+ * A primitive double version of {@link InterpolatingTreeMap}, for lookup tables that are queried
+ * every loop, such as shooter speed tables. Values at keys that aren't in the map are linearly
+ * interpolated from the keys before and after them, and keys outside the map give the value of the
+ * nearest key.
+ *
+ * <p>Keys and values are kept in sorted arrays, so {@link #get(double)} does a single binary search
+ * and doesn't box or allocate. If the keys are evenly spaced, the search is replaced by computing
+ * the index directly from the key.
+ */
+public class InterpolatingDoubleMap {
+  private final SortedDoubleKeys m_keys = new SortedDoubleKeys();
+  private double[] m_values = new double[m_keys.capacity()];
+
+  /**
+   * Inserts a key-value pair, replacing the value if the key is already in the map.
+   *
+   * @param key The key.
+   * @param value The value.
+   */
+  public void put(double key, double value) {
+    int index = m_keys.add(key);
+    if (index >= 0) {
+      m_values[index] = value;
+      return;
+    }
+
+    index = -index - 1;
+    int size = m_keys.size();
+    if (m_values.length < size) {
+      m_values = Arrays.copyOf(m_values, m_keys.capacity());
+    }
+    System.arraycopy(m_values, index, m_values, index + 1, size - 1 - index);
+    m_values[index] = value;
+  }
+
+  /**
+   * Returns the value associated with a given key.
+   *
+   * <p>If there's no matching key, the value returned will be a linear interpolation between the
+   * keys before and after the provided one.
+   *
+   * @param key The key.
+   * @return The value associated with the given key, or NaN if the map is empty.
+   */
+  public double get(double key) {
+    int size = m_keys.size();
+    if (size == 0) {
+      return Double.NaN;
+    }
+    if (key <= m_keys.get(0)) {
+      return m_values[0];
+    }
+    if (!(key < m_keys.get(size - 1))) {
+      return m_values[size - 1];
+    }
+
+    int index = m_keys.floorIndex(key);
+    double floorKey = m_keys.get(index);
+    double floor = m_values[index];
+    if (floorKey == key) {
+      return floor;
+    }
+    double t = (key - floorKey) / (m_keys.get(index + 1) - floorKey);
+    return (m_values[index + 1] - floor) * t + floor;
+  }
+
+  /**
+   * Returns the number of keys in the map.
+   *
+   * @return The number of keys.
+   */
+  public int size() {
+    return m_keys.size();
+  }
+
+  /** Clears the contents. */
+  public void clear() {
+    m_keys.clear();
+  }
+}
@@ -0,0 +1,155 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of non-negative integer values, such as latencies in microseconds, with a fixed
+ * number of buckets so recording a value never allocates.
+ *
+ * <p>Like an HDR histogram, the buckets are log-linear: values below 64 have a bucket each, and
+ * every power of two above that is split into 32 buckets. So a value's bucket is within about 3% of
+ * the value, whatever its magnitude. Values above {@link #kMaxValue} are counted in the last
+ * bucket. The minimum, maximum, and mean are tracked exactly.
+ *
+ * <p>This class isn't thread-safe.
+ */
+public class LatencyHistogram {
+  // Each power of two above kSubBucketCount is split into kSubBucketCount / 2 buckets
+  private static final int kSubBucketBits = 6;
+  private static final int kSubBucketCount = 1 << kSubBucketBits;
+  private static final int kSubBucketHalfCount = kSubBucketCount / 2;
+
+  /** The largest value with its own bucket. Larger values are counted in the last bucket. */
+  public static final long kMaxValue = (1L << 40) - 1;
+
+  private static final int kBucketCount = getBucketIndex(kMaxValue) + 1;
+
+  private final long[] m_counts = new long[kBucketCount];
+  private long m_count;
+  private long m_min = Long.MAX_VALUE;
+  private long m_max = Long.MIN_VALUE;
+  private double m_sum;
+
+  /**
+   * Returns the index of the bucket a value is counted in.
+   *
+   * @param value The value, between 0 and kMaxValue.
+   * @return The bucket index.
+   */
+  private static int getBucketIndex(long value) {
+    if (value < kSubBucketCount) {
+      return (int) value;
+    }
+    int shift = 64 - Long.numberOfLeadingZeros(value) - kSubBucketBits;
+    return shift * kSubBucketHalfCount + (int) (value >>> shift);
+  }
+
+  /**
+   * Returns the smallest value counted in a bucket.
+   *
+   * @param index The bucket index.
+   * @return The smallest value in the bucket.
+   */
+  private static long getBucketLowerBound(int index) {
+    if (index < kSubBucketCount) {
+      return index;
+    }
+    int shift = index / kSubBucketHalfCount - 1;
+    return (long) (index % kSubBucketHalfCount + kSubBucketHalfCount) << shift;
+  }
+
+  /**
+   * Records a value. Negative values are counted as 0.
+   *
+   * @param value The value.
+   */
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+    m_counts[getBucketIndex(Math.min(value, kMaxValue))]++;
+    m_count++;
+    m_sum += value;
+    if (value < m_min) {
+      m_min = value;
+    }
+    if (value > m_max) {
+      m_max = value;
+    }
+  }
+
+  /** Clears all recorded values. */
+  public void reset() {
+    Arrays.fill(m_counts, 0);
+    m_count = 0;
+    m_min = Long.MAX_VALUE;
+    m_max = Long.MIN_VALUE;
+    m_sum = 0.0;
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return The number of recorded values.
+   */
+  public long getCount() {
+    return m_count;
+  }
+
+  /**
+   * Returns the smallest recorded value.
+   *
+   * @return The smallest value, or 0 if there are none.
+   */
+  public long getMin() {
+    return m_count == 0 ? 0 : m_min;
+  }
+
+  /**
+   * Returns the largest recorded value.
+   *
+   * @return The largest value, or 0 if there are none.
+   */
+  public long getMax() {
+    return m_count == 0 ? 0 : m_max;
+  }
+
+  /**
+   * Returns the mean of the recorded values.
+   *
+   * @return The mean, or 0 if there are none.
+   */
+  public double getMean() {
+    return m_count == 0 ? 0.0 : m_sum / m_count;
+  }
+
+  /**
+   * Returns the value that the given percentage of the recorded values are less than or equal to.
+   * The result is the largest value in that value's bucket, limited to the largest recorded value,
+   * so it's never less than the exact percentile.
+   *
+   * @param percentile The percentile, between 0 and 100.
+   * @return The value at the percentile, or 0 if there are none.
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (m_count == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(Math.max(0.0, Math.min(percentile, 100.0)) / 100.0 * m_count);
+    rank = Math.max(rank, 1);
+
+    long seen = 0;
+    for (int i = 0; i < kBucketCount; i++) {
+      seen += m_counts[i];
+      if (seen >= rank) {
+        long upperBound = i + 1 < kBucketCount ? getBucketLowerBound(i + 1) - 1 : Long.MAX_VALUE;
+        return Math.max(Math.min(upperBound, m_max), m_min);
+      }
+    }
+    return m_max;
+  }
+}
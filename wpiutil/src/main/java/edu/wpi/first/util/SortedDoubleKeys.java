@@ -0,0 +1,152 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util;
+
+import java.util.Arrays;
+
+/**
+ * A sorted set of primitive double keys, for maps that keep their values in parallel arrays, such
+ * as {@link InterpolatingDoubleMap}. The owner stores the value of the key at index i at position i
+ * of its own arrays, and moves its values whenever {@link #add(double)} inserts a key.
+ *
+ * <p>Finding the key before a given one does a single binary search. If the keys are evenly spaced,
+ * the search is replaced by computing the index directly from the key.
+ *
+ * <p>This class isn't thread-safe, but {@link #floorIndex(double)} and the other getters don't
+ * modify it, so any number of threads may read it at once as long as none of them adds keys.
+ */
+public class SortedDoubleKeys {
+  // Keys may deviate from an even spacing by this fraction of the spacing and still be treated as
+  // evenly spaced. The index computed from the spacing is corrected afterwards, so this only
+  // bounds how far the correction has to search.
+  private static final double kSpacingTolerance = 1e-6;
+
+  private double[] m_keys = new double[8];
+  private int m_size;
+
+  // Whether the keys are evenly spaced, with the spacing between the first two keys. This is
+  // updated by add() and clear(), so floorIndex() only reads it.
+  private boolean m_evenlySpaced;
+  private double m_spacing;
+  private double m_inverseSpacing;
+
+  /**
+   * Adds a key if it isn't already in the set.
+   *
+   * @param key The key.
+   * @return The key's index if it was already in the set; otherwise, (-(index) - 1), where index is
+   *     where the key was inserted. The keys after it have moved up by one.
+   */
+  public int add(double key) {
+    int index = Arrays.binarySearch(m_keys, 0, m_size, key);
+    if (index >= 0) {
+      return index;
+    }
+
+    index = -index - 1;
+    if (m_size == m_keys.length) {
+      m_keys = Arrays.copyOf(m_keys, m_size * 2);
+    }
+    System.arraycopy(m_keys, index, m_keys, index + 1, m_size - index);
+    m_keys[index] = key;
+    m_size++;
+    updateSpacing(index);
+    return -index - 1;
+  }
+
+  /**
+   * Returns the key at an index.
+   *
+   * @param index The index, between 0 and size() - 1.
+   * @return The key.
+   */
+  public double get(int index) {
+    return m_keys[index];
+  }
+
+  /**
+   * Returns the number of keys.
+   *
+   * @return The number of keys.
+   */
+  public int size() {
+    return m_size;
+  }
+
+  /**
+   * Returns the number of keys the set can hold before it has to grow. Owners can size their value
+   * arrays to match.
+   *
+   * @return The capacity.
+   */
+  public int capacity() {
+    return m_keys.length;
+  }
+
+  /** Removes all keys. */
+  public void clear() {
+    m_size = 0;
+    m_evenlySpaced = false;
+  }
+
+  /**
+   * Returns the index of the greatest key less than or equal to the given key, which must be
+   * strictly between the first and last keys.
+   *
+   * @param key The key.
+   * @return The index of the floor key.
+   */
+  public int floorIndex(double key) {
+    if (m_evenlySpaced) {
+      int index = (int) ((key - m_keys[0]) * m_inverseSpacing);
+      index = Math.max(0, Math.min(index, m_size - 2));
+
+      // Correct for rounding and the tolerance in the spacing
+      while (m_keys[index] > key) {
+        index--;
+      }
+      while (m_keys[index + 1] <= key) {
+        index++;
+      }
+      return index;
+    }
+
+    int index = Arrays.binarySearch(m_keys, 0, m_size, key);
+    return index >= 0 ? index : -index - 2;
+  }
+
+  /**
+   * Updates whether the keys are evenly spaced after a key was inserted.
+   *
+   * @param index The index of the inserted key.
+   */
+  private void updateSpacing(int index) {
+    // Appending to evenly spaced keys, the common case for keys added in order, only has to check
+    // the new key. Keys added before are still on the spacing, since it's set by the first two.
+    if (index == m_size - 1 && m_size > 3) {
+      m_evenlySpaced = m_evenlySpaced && isOnSpacing(index);
+      return;
+    }
+
+    m_evenlySpaced = false;
+    if (m_size < 3) {
+      return;
+    }
+
+    m_spacing = m_keys[1] - m_keys[0];
+    for (int i = 2; i < m_size; i++) {
+      if (!isOnSpacing(i)) {
+        return;
+      }
+    }
+    m_inverseSpacing = 1.0 / m_spacing;
+    m_evenlySpaced = true;
+  }
+
+  private boolean isOnSpacing(int index) {
+    return Math.abs(m_keys[index] - (m_keys[0] + index * m_spacing))
+        <= m_spacing * kSpacingTolerance;
+  }
+}
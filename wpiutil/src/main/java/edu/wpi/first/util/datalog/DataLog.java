@@ -4,6 +4,8 @@
 
 package edu.wpi.first.util.datalog;
 
+import java.nio.ByteBuffer;
+
 /**
  * A data log. The log file is created immediately upon construction with a temporary filename. The
  * file may be renamed at any time using the setFilename() function.
@@ -199,6 +201,29 @@ public final class DataLog implements AutoCloseable {
     DataLogJNI.appendRaw(m_impl, entry, data, timestamp);
   }
 
+  /**
+   * Appends a batch of records to the log with a single native call. {@link DataLogBatch} provides
+   * a convenient way to build batches.
+   *
+   * <p>Each record in the batch is a 4-byte little-endian entry index, a 4-byte little-endian
+   * payload size, an 8-byte little-endian time stamp (0 to indicate now), and the payload. The
+   * payload is encoded the same way as the corresponding append function would encode it. Records
+   * with an invalid entry index are skipped. Parsing stops at a record that is truncated.
+   *
+   * @param buffer Direct buffer containing the records, starting at index 0
+   * @param length Number of bytes of the buffer to read
+   * @throws IllegalArgumentException if buffer isn't direct or length exceeds its capacity
+   */
+  public void appendBatch(ByteBuffer buffer, int length) {
+    if (!buffer.isDirect()) {
+      throw new IllegalArgumentException("buffer must be a direct ByteBuffer");
+    }
+    if (length > buffer.capacity()) {
+      throw new IllegalArgumentException("length exceeds buffer capacity");
+    }
+    DataLogJNI.appendBatch(m_impl, buffer, length);
+  }
+
   @Override
   public void close() {
     DataLogJNI.close(m_impl);
@@ -0,0 +1,387 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A reusable staging buffer for data log records. Records appended to the batch are written into a
+ * direct buffer and committed to the log with a single native call, either explicitly by {@link
+ * #flush()} or automatically when the buffer fills up. None of the append functions allocate.
+ *
+ * <p>This is useful when logging many values per loop iteration, as each {@link DataLog} append
+ * function is a separate native call.
+ *
+ * <p>Records are committed in the order they were appended, but other threads may write records
+ * between batches, as with {@link DataLog}. This class is not thread safe; use one batch per
+ * thread.
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class DataLogBatch {
+  // 4-byte entry, 4-byte payload size, 8-byte timestamp
+  private static final int kHeaderSize = 16;
+
+  // Commits the first n bytes of the staging buffer, i.e. DataLog.appendBatch()
+  private final ObjIntConsumer<ByteBuffer> m_commit;
+  private final ByteBuffer m_buf;
+
+  /**
+   * Constructs a batch for a data log.
+   *
+   * @param log data log to commit records to
+   * @param capacity size of the staging buffer in bytes; this limits the size of a single record
+   */
+  public DataLogBatch(DataLog log, int capacity) {
+    this(log::appendBatch, capacity);
+  }
+
+  /**
+   * Constructs a batch that commits records to a custom function, for testing.
+   *
+   * @param commit commits the first n bytes of the staging buffer
+   * @param capacity size of the staging buffer in bytes
+   */
+  DataLogBatch(ObjIntConsumer<ByteBuffer> commit, int capacity) {
+    if (capacity < kHeaderSize) {
+      throw new IllegalArgumentException("capacity must be at least " + kHeaderSize + " bytes");
+    }
+    m_commit = commit;
+    m_buf = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * Constructs a batch for a data log with a 64 KiB staging buffer.
+   *
+   * @param log data log to commit records to
+   */
+  public DataLogBatch(DataLog log) {
+    this(log, 64 * 1024);
+  }
+
+  /** Commits all staged records to the log and empties the batch. */
+  public void flush() {
+    if (m_buf.position() > 0) {
+      m_commit.accept(m_buf, m_buf.position());
+      m_buf.clear();
+    }
+  }
+
+  /**
+   * Gets the number of staged bytes that haven't been committed yet.
+   *
+   * @return number of staged bytes
+   */
+  public int size() {
+    return m_buf.position();
+  }
+
+  /**
+   * Appends a raw record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param data Data to record
+   * @param start Index of the first byte of data to record
+   * @param len Number of bytes to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendRaw(int entry, byte[] data, int start, int len, long timestamp) {
+    checkRange(data.length, start, len);
+    startRecord(entry, len, timestamp);
+    m_buf.put(data, start, len);
+  }
+
+  /**
+   * Appends a raw record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param data Data to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendRaw(int entry, byte[] data, long timestamp) {
+    appendRaw(entry, data, 0, data.length, timestamp);
+  }
+
+  /**
+   * Appends a raw record containing the remaining bytes of a buffer. The buffer's position is
+   * advanced to its limit.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param data Data to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendRaw(int entry, ByteBuffer data, long timestamp) {
+    startRecord(entry, data.remaining(), timestamp);
+    m_buf.put(data);
+  }
+
+  /**
+   * Appends a boolean record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param value Value to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendBoolean(int entry, boolean value, long timestamp) {
+    startRecord(entry, 1, timestamp);
+    m_buf.put(value ? (byte) 1 : (byte) 0);
+  }
+
+  /**
+   * Appends an integer record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param value Value to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendInteger(int entry, long value, long timestamp) {
+    startRecord(entry, 8, timestamp);
+    m_buf.putLong(value);
+  }
+
+  /**
+   * Appends a float record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param value Value to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendFloat(int entry, float value, long timestamp) {
+    startRecord(entry, 4, timestamp);
+    m_buf.putFloat(value);
+  }
+
+  /**
+   * Appends a double record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param value Value to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendDouble(int entry, double value, long timestamp) {
+    startRecord(entry, 8, timestamp);
+    m_buf.putDouble(value);
+  }
+
+  /**
+   * Appends a string record. The string is encoded as UTF-8 directly into the staging buffer.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param value Value to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendString(int entry, String value, long timestamp) {
+    startRecord(entry, utf8Length(value), timestamp);
+    putUtf8(value);
+  }
+
+  /**
+   * Appends a boolean array record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param arr Values to record
+   * @param start Index of the first value to record
+   * @param len Number of values to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendBooleanArray(int entry, boolean[] arr, int start, int len, long timestamp) {
+    checkRange(arr.length, start, len);
+    startRecord(entry, len, timestamp);
+    for (int i = start; i < start + len; ++i) {
+      m_buf.put(arr[i] ? (byte) 1 : (byte) 0);
+    }
+  }
+
+  /**
+   * Appends a boolean array record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param arr Values to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendBooleanArray(int entry, boolean[] arr, long timestamp) {
+    appendBooleanArray(entry, arr, 0, arr.length, timestamp);
+  }
+
+  /**
+   * Appends an integer array record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param arr Values to record
+   * @param start Index of the first value to record
+   * @param len Number of values to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendIntegerArray(int entry, long[] arr, int start, int len, long timestamp) {
+    checkRange(arr.length, start, len);
+    startRecord(entry, len * 8, timestamp);
+    for (int i = start; i < start + len; ++i) {
+      m_buf.putLong(arr[i]);
+    }
+  }
+
+  /**
+   * Appends an integer array record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param arr Values to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendIntegerArray(int entry, long[] arr, long timestamp) {
+    appendIntegerArray(entry, arr, 0, arr.length, timestamp);
+  }
+
+  /**
+   * Appends a float array record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param arr Values to record
+   * @param start Index of the first value to record
+   * @param len Number of values to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendFloatArray(int entry, float[] arr, int start, int len, long timestamp) {
+    checkRange(arr.length, start, len);
+    startRecord(entry, len * 4, timestamp);
+    for (int i = start; i < start + len; ++i) {
+      m_buf.putFloat(arr[i]);
+    }
+  }
+
+  /**
+   * Appends a float array record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param arr Values to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendFloatArray(int entry, float[] arr, long timestamp) {
+    appendFloatArray(entry, arr, 0, arr.length, timestamp);
+  }
+
+  /**
+   * Appends a double array record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param arr Values to record
+   * @param start Index of the first value to record
+   * @param len Number of values to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendDoubleArray(int entry, double[] arr, int start, int len, long timestamp) {
+    checkRange(arr.length, start, len);
+    startRecord(entry, len * 8, timestamp);
+    for (int i = start; i < start + len; ++i) {
+      m_buf.putDouble(arr[i]);
+    }
+  }
+
+  /**
+   * Appends a double array record.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param arr Values to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendDoubleArray(int entry, double[] arr, long timestamp) {
+    appendDoubleArray(entry, arr, 0, arr.length, timestamp);
+  }
+
+  /**
+   * Appends a string array record. The strings are encoded as UTF-8 directly into the staging
+   * buffer.
+   *
+   * @param entry Entry index, as returned by {@link DataLog#start(String, String)}
+   * @param arr Values to record
+   * @param timestamp Time stamp (may be 0 to indicate now)
+   */
+  public void appendStringArray(int entry, String[] arr, long timestamp) {
+    // storage: 4-byte array length, each string prefixed by 4-byte length
+    int size = 4;
+    for (String str : arr) {
+      size += 4 + utf8Length(str);
+    }
+    startRecord(entry, size, timestamp);
+    m_buf.putInt(arr.length);
+    for (String str : arr) {
+      m_buf.putInt(utf8Length(str));
+      putUtf8(str);
+    }
+  }
+
+  /**
+   * Writes a record header, committing staged records first if the record doesn't fit.
+   *
+   * @param entry entry index
+   * @param size payload size in bytes
+   * @param timestamp time stamp
+   */
+  private void startRecord(int entry, int size, long timestamp) {
+    // A negative size means the caller's array length overflowed when converted to bytes
+    if (size < 0 || size > m_buf.capacity() - kHeaderSize) {
+      throw new IllegalArgumentException(
+          "record of " + size + " bytes doesn't fit in a batch of " + m_buf.capacity() + " bytes");
+    }
+    if (kHeaderSize + size > m_buf.remaining()) {
+      flush();
+    }
+    m_buf.putInt(entry).putInt(size).putLong(timestamp);
+  }
+
+  private static void checkRange(int length, int start, int len) {
+    if (start < 0 || len < 0 || start > length - len) {
+      throw new IndexOutOfBoundsException(
+          "range [" + start + ", " + start + " + " + len + ") out of bounds for length " + length);
+    }
+  }
+
+  private static int utf8Length(String str) {
+    int len = 0;
+    for (int i = 0; i < str.length(); ++i) {
+      char ch = str.charAt(i);
+      if (ch < 0x80) {
+        len += 1;
+      } else if (ch < 0x800) {
+        len += 2;
+      } else if (Character.isHighSurrogate(ch)
+          && i + 1 < str.length()
+          && Character.isLowSurrogate(str.charAt(i + 1))) {
+        len += 4;
+        ++i;
+      } else {
+        len += 3;
+      }
+    }
+    return len;
+  }
+
+  private void putUtf8(String str) {
+    for (int i = 0; i < str.length(); ++i) {
+      char ch = str.charAt(i);
+      if (ch < 0x80) {
+        m_buf.put((byte) ch);
+      } else if (ch < 0x800) {
+        m_buf.put((byte) (0xc0 | (ch >> 6)));
+        m_buf.put((byte) (0x80 | (ch & 0x3f)));
+      } else if (Character.isHighSurrogate(ch)
+          && i + 1 < str.length()
+          && Character.isLowSurrogate(str.charAt(i + 1))) {
+        int cp = Character.toCodePoint(ch, str.charAt(++i));
+        m_buf.put((byte) (0xf0 | (cp >> 18)));
+        m_buf.put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+        m_buf.put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+        m_buf.put((byte) (0x80 | (cp & 0x3f)));
+      } else if (Character.isSurrogate(ch)) {
+        // Unpaired surrogates can't be encoded, so write U+FFFD REPLACEMENT CHARACTER instead
+        m_buf.put((byte) 0xef).put((byte) 0xbf).put((byte) 0xbd);
+      } else {
+        m_buf.put((byte) (0xe0 | (ch >> 12)));
+        m_buf.put((byte) (0x80 | ((ch >> 6) & 0x3f)));
+        m_buf.put((byte) (0x80 | (ch & 0x3f)));
+      }
+    }
+  }
+}
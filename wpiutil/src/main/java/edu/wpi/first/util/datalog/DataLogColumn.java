@@ -0,0 +1,191 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+/**
+ * All the values of one entry of a data log, decoded into columns by {@link DataLogExporter}.
+ *
+ * <p>Values are stored in a primitive array for the scalar types: "double" and "float" in {@link
+ * #getDoubles()}, "int64" in {@link #getIntegers()}, and "boolean" in {@link #getBooleans()}. All
+ * other types are stored in {@link #getValues()}: "string" and "json" as String, the array types as
+ * primitive arrays or String[], and unknown types as the raw byte[]. The getters for the other
+ * storage kinds return null.
+ */
+public final class DataLogColumn {
+  private final DataLogRecord.StartRecordData m_start;
+  private final long[] m_timestamps;
+  private final double[] m_doubles;
+  private final long[] m_integers;
+  private final boolean[] m_booleans;
+  private final Object[] m_values;
+
+  DataLogColumn(DataLogRecord.StartRecordData start, int size) {
+    m_start = start;
+    m_timestamps = new long[size];
+    switch (start.type) {
+      case "double":
+      case "float":
+        m_doubles = new double[size];
+        m_integers = null;
+        m_booleans = null;
+        m_values = null;
+        break;
+      case "int64":
+        m_doubles = null;
+        m_integers = new long[size];
+        m_booleans = null;
+        m_values = null;
+        break;
+      case "boolean":
+        m_doubles = null;
+        m_integers = null;
+        m_booleans = new boolean[size];
+        m_values = null;
+        break;
+      default:
+        m_doubles = null;
+        m_integers = null;
+        m_booleans = null;
+        m_values = new Object[size];
+        break;
+    }
+  }
+
+  /**
+   * Decodes a record into the column.
+   *
+   * @param index index in the column to store the record at
+   * @param record record to decode
+   */
+  void set(int index, DataLogRecord record) {
+    m_timestamps[index] = record.getTimestamp();
+    switch (m_start.type) {
+      case "double":
+        m_doubles[index] = record.getDouble();
+        break;
+      case "float":
+        m_doubles[index] = record.getFloat();
+        break;
+      case "int64":
+        m_integers[index] = record.getInteger();
+        break;
+      case "boolean":
+        m_booleans[index] = record.getBoolean();
+        break;
+      case "string":
+      case "json":
+        m_values[index] = record.getString();
+        break;
+      case "double[]":
+        m_values[index] = record.getDoubleArray();
+        break;
+      case "float[]":
+        m_values[index] = record.getFloatArray();
+        break;
+      case "int64[]":
+        m_values[index] = record.getIntegerArray();
+        break;
+      case "boolean[]":
+        m_values[index] = record.getBooleanArray();
+        break;
+      case "string[]":
+        m_values[index] = record.getStringArray();
+        break;
+      default:
+        m_values[index] = record.getRaw();
+        break;
+    }
+  }
+
+  /**
+   * Gets the entry ID.
+   *
+   * @return entry ID
+   */
+  public int getEntry() {
+    return m_start.entry;
+  }
+
+  /**
+   * Gets the entry name.
+   *
+   * @return entry name
+   */
+  public String getName() {
+    return m_start.name;
+  }
+
+  /**
+   * Gets the type of the entry's data, e.g. "double".
+   *
+   * @return type
+   */
+  public String getType() {
+    return m_start.type;
+  }
+
+  /**
+   * Gets the entry's metadata from its start record.
+   *
+   * @return metadata
+   */
+  public String getMetadata() {
+    return m_start.metadata;
+  }
+
+  /**
+   * Gets the number of values.
+   *
+   * @return number of values
+   */
+  public int size() {
+    return m_timestamps.length;
+  }
+
+  /**
+   * Gets the timestamps of the values, in integer microseconds, in log order.
+   *
+   * @return timestamps
+   */
+  public long[] getTimestamps() {
+    return m_timestamps;
+  }
+
+  /**
+   * Gets the values of a "double" or "float" entry.
+   *
+   * @return values, or null for other types
+   */
+  public double[] getDoubles() {
+    return m_doubles;
+  }
+
+  /**
+   * Gets the values of an "int64" entry.
+   *
+   * @return values, or null for other types
+   */
+  public long[] getIntegers() {
+    return m_integers;
+  }
+
+  /**
+   * Gets the values of a "boolean" entry.
+   *
+   * @return values, or null for other types
+   */
+  public boolean[] getBooleans() {
+    return m_booleans;
+  }
+
+  /**
+   * Gets the values of an entry that isn't a scalar number or boolean.
+   *
+   * @return values, or null for scalar types
+   */
+  public Object[] getValues() {
+    return m_values;
+  }
+}
@@ -0,0 +1,86 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+/**
+ * Cursor over the records of a data log. The cursor reuses a single {@link DataLogRecord}, which is
+ * updated in place by each call to {@link #next()}, so iterating over a log doesn't allocate.
+ * Combined with the decode-into functions such as {@link DataLogRecord#getDoubleArray(double[])},
+ * logs can be processed without creating garbage.
+ *
+ * <p>The record returned by {@link #getRecord()} is only valid until the next call to {@link
+ * #next()}; callers that need to keep a record should copy the values out of it.
+ *
+ * <pre>{@code
+ * DataLogCursor cursor = reader.cursor();
+ * while (cursor.next()) {
+ *   DataLogRecord record = cursor.getRecord();
+ *   ...
+ * }
+ * }</pre>
+ */
+public final class DataLogCursor {
+  private final DataLogReader m_reader;
+  private final DataLogRecord m_record;
+  private int m_pos;
+  private int m_recordPos = -1;
+
+  DataLogCursor(DataLogReader reader, int pos) {
+    m_reader = reader;
+    m_record = reader.getEmptyRecord();
+    m_pos = pos;
+  }
+
+  /**
+   * Advances to the next record.
+   *
+   * @return True if the cursor is on a record, false if the end of the log (or a truncated record)
+   *     was reached
+   */
+  public boolean next() {
+    if (m_pos < 0) {
+      return false;
+    }
+    int next = m_reader.readRecord(m_pos, m_record);
+    m_recordPos = next < 0 ? -1 : m_pos;
+    m_pos = next;
+    return next >= 0;
+  }
+
+  /**
+   * Gets the current record. This is the same object for every record, and is updated by {@link
+   * #next()}.
+   *
+   * @return current record
+   * @throws IllegalStateException if the cursor isn't on a record
+   */
+  public DataLogRecord getRecord() {
+    if (m_recordPos < 0) {
+      throw new IllegalStateException("cursor is not on a record");
+    }
+    return m_record;
+  }
+
+  /**
+   * Gets the position of the current record in the log, e.g. to revisit it later with {@link
+   * #seek(int)}.
+   *
+   * @return position of the current record, or -1 if the cursor isn't on a record
+   */
+  public int getPosition() {
+    return m_recordPos;
+  }
+
+  /**
+   * Moves the cursor so that the next call to {@link #next()} reads the record at a position
+   * previously returned by {@link #getPosition()}.
+   *
+   * @param pos position of a record
+   */
+  public void seek(int pos) {
+    m_pos = pos;
+    m_recordPos = -1;
+  }
+}
@@ -0,0 +1,340 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Converts data logs into per-entry columns of values, processing many logs in parallel.
+ *
+ * <p>Each log is indexed with a single pass (see {@link DataLogIndex}), which finds the start
+ * record and the record positions of every entry. The records of each entry are then split into
+ * chunks on record boundaries and decoded in parallel on a fork-join pool, directly into the
+ * entry's {@link DataLogColumn}.
+ *
+ * <p>Records that fail to decode (e.g. because their size doesn't match the entry's type) are left
+ * as 0, false, or null in the column.
+ */
+public final class DataLogExporter {
+  /** Callback for reporting export progress. */
+  @FunctionalInterface
+  public interface ProgressCallback {
+    /**
+     * Called after each log file has been processed. This may be called concurrently from multiple
+     * threads.
+     *
+     * @param bytesProcessed total size of the log files processed so far
+     * @param bytesTotal total size of all the log files being exported
+     */
+    void accept(long bytesProcessed, long bytesTotal);
+  }
+
+  private static final int kDefaultChunkSize = 16384;
+
+  private final ForkJoinPool m_pool;
+  private final int m_chunkSize;
+  private ProgressCallback m_progress = (processed, total) -> {};
+
+  /** Constructs an exporter that runs on the common fork-join pool. */
+  public DataLogExporter() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs an exporter.
+   *
+   * @param pool pool to run on
+   */
+  public DataLogExporter(ForkJoinPool pool) {
+    this(pool, kDefaultChunkSize);
+  }
+
+  DataLogExporter(ForkJoinPool pool, int chunkSize) {
+    m_pool = pool;
+    m_chunkSize = chunkSize;
+  }
+
+  /**
+   * Sets the callback for reporting progress.
+   *
+   * @param callback progress callback
+   */
+  public void setProgressCallback(ProgressCallback callback) {
+    m_progress = callback;
+  }
+
+  /**
+   * Decodes a data log into columns.
+   *
+   * @param reader data log reader
+   * @return columns, one per entry, in order of entry ID
+   */
+  public List<DataLogColumn> export(DataLogReader reader) {
+    var export = new LogExport(null, reader);
+    m_pool.submit(export::run).join();
+    return export.m_columns;
+  }
+
+  /**
+   * Decodes data log files into columns, processing the files in parallel.
+   *
+   * @param files data log files
+   * @return columns of each file, in the order of files
+   * @throws IOException if a file couldn't be opened
+   */
+  public Map<Path, List<DataLogColumn>> export(List<Path> files) throws IOException {
+    var exports = createExports(files);
+    var progress = new Progress(exports);
+    runAll(exports, progress::add);
+
+    var results = new LinkedHashMap<Path, List<DataLogColumn>>();
+    for (var export : exports) {
+      results.put(export.m_path, export.m_columns);
+    }
+    return results;
+  }
+
+  /**
+   * Converts data log files into CSV files, processing the files in parallel. Each file is written
+   * to outputDir with the same name as the log and a ".csv" extension. See {@link #writeCsv(List,
+   * Writer)} for the format.
+   *
+   * @param files data log files
+   * @param outputDir directory to write the CSV files to
+   * @throws IOException if a file couldn't be read or written
+   */
+  public void exportCsv(List<Path> files, Path outputDir) throws IOException {
+    Files.createDirectories(outputDir);
+    var exports = createExports(files);
+    var progress = new Progress(exports);
+    runAll(
+        exports,
+        export -> {
+          String name = export.m_path.getFileName().toString();
+          if (name.endsWith(".wpilog")) {
+            name = name.substring(0, name.length() - ".wpilog".length());
+          }
+          try (var writer =
+              Files.newBufferedWriter(outputDir.resolve(name + ".csv"), StandardCharsets.UTF_8)) {
+            writeCsv(export.m_columns, writer);
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+          // Drop the columns as soon as they're written so they can be garbage collected
+          export.m_columns = null;
+          progress.add(export);
+        });
+  }
+
+  /**
+   * Writes columns as CSV in the same format as the data log tool: a "Timestamp,Name,Value" header
+   * followed by one row per value, ordered by timestamp. Timestamps are in seconds. Array values
+   * are written as a quoted, semicolon-separated list.
+   *
+   * @param columns columns to write
+   * @param writer writer to write to
+   * @throws IOException if the writer fails
+   */
+  public static void writeCsv(List<DataLogColumn> columns, Writer writer) throws IOException {
+    var out = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+    out.write("Timestamp,Name,Value\n");
+
+    // Merge the columns by timestamp; each queue element is {column index, value index}
+    var queue =
+        new PriorityQueue<int[]>(
+            Math.max(1, columns.size()),
+            (a, b) ->
+                Long.compare(
+                    columns.get(a[0]).getTimestamps()[a[1]],
+                    columns.get(b[0]).getTimestamps()[b[1]]));
+    for (int i = 0; i < columns.size(); ++i) {
+      if (columns.get(i).size() > 0) {
+        queue.add(new int[] {i, 0});
+      }
+    }
+
+    var sb = new StringBuilder();
+    while (!queue.isEmpty()) {
+      int[] head = queue.poll();
+      var column = columns.get(head[0]);
+      int index = head[1];
+
+      sb.setLength(0);
+      sb.append(column.getTimestamps()[index] / 1000000.0).append(',');
+      appendQuoted(sb, column.getName());
+      sb.append(',');
+      appendValue(sb, column, index);
+      sb.append('\n');
+      out.append(sb);
+
+      if (index + 1 < column.size()) {
+        head[1] = index + 1;
+        queue.add(head);
+      }
+    }
+    out.flush();
+  }
+
+  private static void appendValue(StringBuilder sb, DataLogColumn column, int index) {
+    if (column.getDoubles() != null) {
+      sb.append(column.getDoubles()[index]);
+    } else if (column.getIntegers() != null) {
+      sb.append(column.getIntegers()[index]);
+    } else if (column.getBooleans() != null) {
+      sb.append(column.getBooleans()[index]);
+    } else {
+      Object value = column.getValues()[index];
+      if (value instanceof String) {
+        appendQuoted(sb, (String) value);
+      } else if (value instanceof double[]) {
+        appendQuoted(sb, join(Arrays.toString((double[]) value)));
+      } else if (value instanceof float[]) {
+        appendQuoted(sb, join(Arrays.toString((float[]) value)));
+      } else if (value instanceof long[]) {
+        appendQuoted(sb, join(Arrays.toString((long[]) value)));
+      } else if (value instanceof boolean[]) {
+        appendQuoted(sb, join(Arrays.toString((boolean[]) value)));
+      } else if (value instanceof String[]) {
+        appendQuoted(sb, String.join(";", (String[]) value));
+      } else if (value instanceof byte[]) {
+        appendQuoted(sb, join(Arrays.toString((byte[]) value)));
+      }
+    }
+  }
+
+  /** Converts the output of Arrays.toString() to a semicolon-separated list. */
+  private static String join(String arr) {
+    return arr.substring(1, arr.length() - 1).replace(", ", ";");
+  }
+
+  private static void appendQuoted(StringBuilder sb, String str) {
+    sb.append('"');
+    for (int i = 0; i < str.length(); ++i) {
+      char ch = str.charAt(i);
+      if (ch == '"') {
+        sb.append('"');
+      }
+      sb.append(ch);
+    }
+    sb.append('"');
+  }
+
+  private List<LogExport> createExports(List<Path> files) throws IOException {
+    var exports = new ArrayList<LogExport>(files.size());
+    for (Path path : files) {
+      var reader = new DataLogReader(path.toString());
+      if (!reader.isValid()) {
+        throw new IOException("not a data log: " + path);
+      }
+      exports.add(new LogExport(path, reader));
+    }
+    return exports;
+  }
+
+  /** Runs the exports in parallel, calling the callback on the pool as each one finishes. */
+  private void runAll(List<LogExport> exports, Consumer<LogExport> callback) throws IOException {
+    var futures = new ArrayList<ForkJoinTask<?>>(exports.size());
+    for (var export : exports) {
+      futures.add(
+          m_pool.submit(
+              () -> {
+                export.run();
+                callback.accept(export);
+              }));
+    }
+    try {
+      for (var future : futures) {
+        future.join();
+      }
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  /** Tracks progress across files. */
+  private final class Progress {
+    private final AtomicLong m_processed = new AtomicLong();
+    private final long m_total;
+
+    Progress(List<LogExport> exports) {
+      long total = 0;
+      for (var export : exports) {
+        total += export.m_reader.size();
+      }
+      m_total = total;
+    }
+
+    void add(LogExport export) {
+      m_progress.accept(m_processed.addAndGet(export.m_reader.size()), m_total);
+    }
+  }
+
+  /** Indexes one log and decodes its entries in parallel. Must be run on the pool. */
+  private final class LogExport {
+    final Path m_path;
+    final DataLogReader m_reader;
+    List<DataLogColumn> m_columns;
+
+    LogExport(Path path, DataLogReader reader) {
+      m_path = path;
+      m_reader = reader;
+    }
+
+    void run() {
+      var index = DataLogIndex.build(m_reader);
+      var columns = new ArrayList<DataLogColumn>();
+      var chunks = new ArrayList<ForkJoinTask<?>>();
+      for (var start : index.entries()) {
+        var records = index.getEntryRecords(start.entry);
+        var column = new DataLogColumn(start, records.m_count);
+        columns.add(column);
+        // Records positions are record boundaries, so chunks can be decoded independently
+        for (int begin = 0; begin < records.m_count; begin += m_chunkSize) {
+          int chunkBegin = begin;
+          int chunkEnd = Math.min(begin + m_chunkSize, records.m_count);
+          chunks.add(
+              ForkJoinTask.adapt(
+                  () -> decode(m_reader, records.m_positions, column, chunkBegin, chunkEnd)));
+        }
+      }
+      ForkJoinTask.invokeAll(chunks);
+      m_columns = columns;
+    }
+  }
+
+  /** Decodes a range of the records of one entry into its column. */
+  private static void decode(
+      DataLogReader reader, int[] positions, DataLogColumn column, int begin, int end) {
+    // One record is reused for the whole chunk, as with DataLogCursor
+    var record = reader.getEmptyRecord();
+    for (int i = begin; i < end; ++i) {
+      if (reader.readRecord(positions[i], record) < 0) {
+        continue;
+      }
+      try {
+        column.set(i, record);
+      } catch (InputMismatchException ex) {
+        // Leave the default value
+      }
+    }
+  }
+}
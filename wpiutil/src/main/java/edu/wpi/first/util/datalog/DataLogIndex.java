@@ -0,0 +1,401 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Index of the records in a data log, built with a single pass over the log. The index stores the
+ * position and timestamp of every data record, grouped by entry, so the records of one entry can be
+ * read without scanning the rest of the log.
+ *
+ * <p>It also stores a checkpoint every {@value #kCheckpointInterval} records and at the end of the
+ * log, which records the largest timestamp seen before that point. Records in a log aren't
+ * guaranteed to be sorted by timestamp, so the checkpoints are used to find a position after which
+ * all records with a given timestamp or later are guaranteed to be.
+ *
+ * <p>An index can be saved to a sidecar file with {@link #save(Path)} so later reads of the same
+ * log can skip the indexing pass.
+ */
+public final class DataLogIndex {
+  /** Number of records between timestamp checkpoints. */
+  public static final int kCheckpointInterval = 1024;
+
+  private static final int kSidecarMagic = 0x57504958; // "WPIX"
+  private static final int kSidecarVersion = 1;
+
+  /** Positions and timestamps of the records of one entry. */
+  static final class EntryRecords {
+    DataLogRecord.StartRecordData m_start;
+    int[] m_positions = new int[16];
+    long[] m_timestamps = new long[16];
+    int m_count;
+    boolean m_sorted = true;
+
+    EntryRecords(DataLogRecord.StartRecordData start) {
+      m_start = start;
+    }
+
+    void add(int pos, long timestamp) {
+      if (m_count == m_positions.length) {
+        m_positions = Arrays.copyOf(m_positions, m_count * 2);
+        m_timestamps = Arrays.copyOf(m_timestamps, m_count * 2);
+      }
+      if (m_count > 0 && timestamp < m_timestamps[m_count - 1]) {
+        m_sorted = false;
+      }
+      m_positions[m_count] = pos;
+      m_timestamps[m_count] = timestamp;
+      ++m_count;
+    }
+
+    /** Returns the index of the first record with a timestamp of at least the given one. */
+    int lowerBound(long timestamp) {
+      int lo = 0;
+      int hi = m_count;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (m_timestamps[mid] < timestamp) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      return lo;
+    }
+  }
+
+  private final int m_logSize;
+  private final Map<Integer, EntryRecords> m_entries;
+  private final int[] m_checkpointPositions;
+  private final long[] m_checkpointTimestamps;
+
+  private DataLogIndex(
+      int logSize,
+      Map<Integer, EntryRecords> entries,
+      int[] checkpointPositions,
+      long[] checkpointTimestamps) {
+    m_logSize = logSize;
+    m_entries = entries;
+    m_checkpointPositions = checkpointPositions;
+    m_checkpointTimestamps = checkpointTimestamps;
+  }
+
+  /**
+   * Builds an index by reading every record of a data log.
+   *
+   * @param reader data log reader
+   * @return index of the data log
+   */
+  public static DataLogIndex build(DataLogReader reader) {
+    var entries = new HashMap<Integer, EntryRecords>();
+    int[] checkpointPositions = new int[16];
+    long[] checkpointTimestamps = new long[16];
+    int numCheckpoints = 0;
+    long maxTimestamp = Long.MIN_VALUE;
+    int numRecords = 0;
+
+    int size = reader.size();
+    int pos = reader.getFirstRecord();
+    for (; pos < size; pos = reader.getNextRecord(pos)) {
+      if (numRecords % kCheckpointInterval == 0) {
+        if (numCheckpoints == checkpointPositions.length) {
+          checkpointPositions = Arrays.copyOf(checkpointPositions, numCheckpoints * 2);
+          checkpointTimestamps = Arrays.copyOf(checkpointTimestamps, numCheckpoints * 2);
+        }
+        checkpointPositions[numCheckpoints] = pos;
+        checkpointTimestamps[numCheckpoints] = maxTimestamp;
+        ++numCheckpoints;
+      }
+      ++numRecords;
+
+      int entry;
+      long timestamp;
+      try {
+        if (reader.getNextRecord(pos) > size) {
+          // Truncated record
+          break;
+        }
+        entry = reader.getRecordEntry(pos);
+        timestamp = reader.getRecordTimestamp(pos);
+      } catch (IndexOutOfBoundsException ex) {
+        break;
+      }
+      maxTimestamp = Math.max(maxTimestamp, timestamp);
+
+      if (entry != 0) {
+        var records = entries.get(entry);
+        if (records != null) {
+          records.add(pos, timestamp);
+        }
+        continue;
+      }
+
+      DataLogRecord record;
+      try {
+        record = reader.getRecord(pos);
+      } catch (NoSuchElementException ex) {
+        break;
+      }
+      if (record.isStart()) {
+        var start = record.getStartData();
+        var records = entries.get(start.entry);
+        if (records == null) {
+          entries.put(start.entry, new EntryRecords(start));
+        } else {
+          // Entry IDs may be reused after a finish; the records of both are indexed together
+          records.m_start = start;
+        }
+      }
+    }
+
+    // A final checkpoint at the end of the log lets seeks past every record skip the whole log
+    if (numCheckpoints == checkpointPositions.length) {
+      checkpointPositions = Arrays.copyOf(checkpointPositions, numCheckpoints + 1);
+      checkpointTimestamps = Arrays.copyOf(checkpointTimestamps, numCheckpoints + 1);
+    }
+    checkpointPositions[numCheckpoints] = Math.min(pos, size);
+    checkpointTimestamps[numCheckpoints] = maxTimestamp;
+    ++numCheckpoints;
+
+    return new DataLogIndex(
+        size,
+        entries,
+        Arrays.copyOf(checkpointPositions, numCheckpoints),
+        Arrays.copyOf(checkpointTimestamps, numCheckpoints));
+  }
+
+  /**
+   * Gets the start record data of every entry in the log, in order of entry ID. If an entry ID was
+   * reused, the most recent start record is returned.
+   *
+   * @return start record data of each entry
+   */
+  public List<DataLogRecord.StartRecordData> entries() {
+    var ids = new ArrayList<>(m_entries.keySet());
+    Collections.sort(ids);
+    var starts = new ArrayList<DataLogRecord.StartRecordData>(ids.size());
+    for (int id : ids) {
+      starts.add(m_entries.get(id).m_start);
+    }
+    return starts;
+  }
+
+  /**
+   * Gets the positions and timestamps of the records of an entry.
+   *
+   * @param entry entry ID
+   * @return records of the entry, or null if the entry isn't in the log
+   */
+  EntryRecords getEntryRecords(int entry) {
+    return m_entries.get(entry);
+  }
+
+  /**
+   * Gets the number of data records of an entry.
+   *
+   * @param entry entry ID
+   * @return number of data records, or 0 if the entry isn't in the log
+   */
+  public int getRecordCount(int entry) {
+    var records = m_entries.get(entry);
+    return records == null ? 0 : records.m_count;
+  }
+
+  /**
+   * Gets the size of the data log this index was built from.
+   *
+   * @return size of the data log in bytes
+   */
+  public int getLogSize() {
+    return m_logSize;
+  }
+
+  /**
+   * Iterates over the data records of an entry with timestamps in [startTimestamp, endTimestamp),
+   * in log order.
+   *
+   * @param reader reader for the data log this index was built from
+   * @param entry entry ID
+   * @param startTimestamp earliest timestamp to include, in integer microseconds
+   * @param endTimestamp timestamp to stop at (exclusive), in integer microseconds
+   * @return iterable over the matching records
+   */
+  Iterable<DataLogRecord> iterate(
+      DataLogReader reader, int entry, long startTimestamp, long endTimestamp) {
+    var records = m_entries.get(entry);
+    if (records == null) {
+      return Collections.emptyList();
+    }
+
+    // Sorted entries can skip straight to the range; otherwise every record is checked
+    final int begin = records.m_sorted ? records.lowerBound(startTimestamp) : 0;
+    final int end = records.m_sorted ? records.lowerBound(endTimestamp) : records.m_count;
+    return () ->
+        new Iterator<>() {
+          private int m_index = advance(begin);
+
+          private int advance(int index) {
+            while (index < end
+                && (records.m_timestamps[index] < startTimestamp
+                    || records.m_timestamps[index] >= endTimestamp)) {
+              ++index;
+            }
+            return index;
+          }
+
+          @Override
+          public boolean hasNext() {
+            return m_index < end;
+          }
+
+          @Override
+          public DataLogRecord next() {
+            if (m_index >= end) {
+              throw new NoSuchElementException();
+            }
+            var record = reader.getRecord(records.m_positions[m_index]);
+            m_index = advance(m_index + 1);
+            return record;
+          }
+        };
+  }
+
+  /**
+   * Finds the position of the latest checkpoint before which every record has a timestamp less than
+   * the given one. All records with the given timestamp or later are at or after the returned
+   * position.
+   *
+   * @param timestamp timestamp, in integer microseconds
+   * @return position in the data log
+   */
+  int seek(long timestamp) {
+    // Checkpoint timestamps are running maximums, so they're sorted
+    int lo = 0;
+    int hi = m_checkpointTimestamps.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (m_checkpointTimestamps[mid] < timestamp) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    if (lo > 0) {
+      return m_checkpointPositions[lo - 1];
+    } else if (m_checkpointPositions.length > 0) {
+      return m_checkpointPositions[0];
+    } else {
+      return m_logSize;
+    }
+  }
+
+  /**
+   * Saves the index to a sidecar file.
+   *
+   * @param path path of the sidecar file
+   * @throws IOException if the file could not be written
+   */
+  public void save(Path path) throws IOException {
+    try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+      out.writeInt(kSidecarMagic);
+      out.writeInt(kSidecarVersion);
+      out.writeInt(m_logSize);
+
+      out.writeInt(m_checkpointPositions.length);
+      for (int i = 0; i < m_checkpointPositions.length; ++i) {
+        out.writeInt(m_checkpointPositions[i]);
+        out.writeLong(m_checkpointTimestamps[i]);
+      }
+
+      out.writeInt(m_entries.size());
+      for (var records : m_entries.values()) {
+        out.writeInt(records.m_start.entry);
+        writeString(out, records.m_start.name);
+        writeString(out, records.m_start.type);
+        writeString(out, records.m_start.metadata);
+        out.writeBoolean(records.m_sorted);
+        out.writeInt(records.m_count);
+        for (int i = 0; i < records.m_count; ++i) {
+          out.writeInt(records.m_positions[i]);
+          out.writeLong(records.m_timestamps[i]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Loads an index from a sidecar file written by {@link #save(Path)}.
+   *
+   * @param path path of the sidecar file
+   * @return index
+   * @throws IOException if the file could not be read or isn't an index
+   */
+  public static DataLogIndex load(Path path) throws IOException {
+    try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+      if (in.readInt() != kSidecarMagic || in.readInt() != kSidecarVersion) {
+        throw new IOException("not a data log index: " + path);
+      }
+      int logSize = in.readInt();
+
+      int numCheckpoints = in.readInt();
+      int[] checkpointPositions = new int[numCheckpoints];
+      long[] checkpointTimestamps = new long[numCheckpoints];
+      for (int i = 0; i < numCheckpoints; ++i) {
+        checkpointPositions[i] = in.readInt();
+        checkpointTimestamps[i] = in.readLong();
+      }
+
+      int numEntries = in.readInt();
+      var entries = new HashMap<Integer, EntryRecords>();
+      for (int i = 0; i < numEntries; ++i) {
+        int entry = in.readInt();
+        String name = readString(in);
+        String type = readString(in);
+        String metadata = readString(in);
+        var records =
+            new EntryRecords(new DataLogRecord.StartRecordData(entry, name, type, metadata));
+        records.m_sorted = in.readBoolean();
+        records.m_count = in.readInt();
+        records.m_positions = new int[records.m_count];
+        records.m_timestamps = new long[records.m_count];
+        for (int j = 0; j < records.m_count; ++j) {
+          records.m_positions[j] = in.readInt();
+          records.m_timestamps[j] = in.readLong();
+        }
+        entries.put(entry, records);
+      }
+
+      return new DataLogIndex(logSize, entries, checkpointPositions, checkpointTimestamps);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String str) throws IOException {
+    byte[] arr = str.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(arr.length);
+    out.write(arr);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] arr = new byte[in.readInt()];
+    in.readFully(arr);
+    return new String(arr, StandardCharsets.UTF_8);
+  }
+}
@@ -5,6 +5,7 @@
 package edu.wpi.first.util.datalog;
 
 import edu.wpi.first.util.WPIUtilJNI;
+import java.nio.ByteBuffer;
 
 public class DataLogJNI extends WPIUtilJNI {
   static native long create(String dir, String filename, double period, String extraHeader);
@@ -27,6 +28,8 @@ public class DataLogJNI extends WPIUtilJNI {
 
   static native void appendRaw(long impl, int entry, byte[] data, long timestamp);
 
+  static native void appendBatch(long impl, ByteBuffer buffer, int length);
+
   static native void appendBoolean(long impl, int entry, boolean value, long timestamp);
 
   static native void appendInteger(long impl, int entry, long value, long timestamp);
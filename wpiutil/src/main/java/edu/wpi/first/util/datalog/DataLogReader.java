@@ -6,12 +6,12 @@ package edu.wpi.first.util.datalog;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
-import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.function.Consumer;
 
@@ -106,6 +106,83 @@ public class DataLogReader implements Iterable<DataLogRecord> {
     return new DataLogIterator(this, 12 + m_buf.getInt(8));
   }
 
+  /**
+   * Returns a cursor over the records of the log. Unlike {@link #iterator()}, the cursor reuses a
+   * single record object, so iterating over the log doesn't allocate.
+   *
+   * @return cursor positioned before the first record
+   */
+  public DataLogCursor cursor() {
+    return new DataLogCursor(this, 12 + m_buf.getInt(8));
+  }
+
+  /**
+   * Gets the index of the data log, building it on first use. Building the index reads every record
+   * of the log once.
+   *
+   * @return index
+   */
+  public synchronized DataLogIndex getIndex() {
+    if (m_index == null) {
+      m_index = DataLogIndex.build(this);
+    }
+    return m_index;
+  }
+
+  /**
+   * Sets the index of the data log, e.g. one loaded from a sidecar file with {@link
+   * DataLogIndex#load(java.nio.file.Path)}.
+   *
+   * @param index index
+   * @throws IllegalArgumentException if the index was built from a log of a different size
+   */
+  public synchronized void setIndex(DataLogIndex index) {
+    if (index.getLogSize() != size()) {
+      throw new IllegalArgumentException(
+          "index is for a "
+              + index.getLogSize()
+              + " byte log, but this log is "
+              + size()
+              + " bytes");
+    }
+    m_index = index;
+  }
+
+  /**
+   * Gets the start record data of every entry in the log, in order of entry ID. This uses the
+   * index.
+   *
+   * @return start record data of each entry
+   */
+  public List<DataLogRecord.StartRecordData> entries() {
+    return getIndex().entries();
+  }
+
+  /**
+   * Iterates over the data records of an entry with timestamps in [startTimestamp, endTimestamp),
+   * in log order. This uses the index to skip the records of other entries.
+   *
+   * @param entry entry ID
+   * @param startTimestamp earliest timestamp to include, in integer microseconds
+   * @param endTimestamp timestamp to stop at (exclusive), in integer microseconds
+   * @return iterable over the matching records
+   */
+  public Iterable<DataLogRecord> iterate(int entry, long startTimestamp, long endTimestamp) {
+    return getIndex().iterate(this, entry, startTimestamp, endTimestamp);
+  }
+
+  /**
+   * Returns an iterator positioned so that every record with the given timestamp or later is
+   * returned. Records in a log aren't guaranteed to be sorted by timestamp, so some earlier records
+   * may be returned too. This uses the index.
+   *
+   * @param timestamp timestamp, in integer microseconds
+   * @return iterator
+   */
+  public DataLogIterator seek(long timestamp) {
+    return new DataLogIterator(this, getIndex().seek(timestamp));
+  }
+
   private long readVarInt(int pos, int len) {
     long val = 0;
     for (int i = 0; i < len; i++) {
@@ -114,25 +191,63 @@ public class DataLogReader implements Iterable<DataLogRecord> {
     return val;
   }
 
-  @SuppressWarnings("PMD.PreserveStackTrace")
+  DataLogRecord getEmptyRecord() {
+    return new DataLogRecord(0, 0, m_buf, 0, 0);
+  }
+
   DataLogRecord getRecord(int pos) {
-    try {
-      int lenbyte = m_buf.get(pos) & 0xff;
-      int entryLen = (lenbyte & 0x3) + 1;
-      int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
-      int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
-      int headerLen = 1 + entryLen + sizeLen + timestampLen;
-      int entry = (int) readVarInt(pos + 1, entryLen);
-      int size = (int) readVarInt(pos + 1 + entryLen, sizeLen);
-      long timestamp = readVarInt(pos + 1 + entryLen + sizeLen, timestampLen);
-      // build a slice of the data contents
-      ByteBuffer data = m_buf.duplicate();
-      data.position(pos + headerLen);
-      data.limit(pos + headerLen + size);
-      return new DataLogRecord(entry, timestamp, data.slice());
-    } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+    DataLogRecord record = getEmptyRecord();
+    if (readRecord(pos, record) < 0) {
       throw new NoSuchElementException();
     }
+    return record;
+  }
+
+  /**
+   * Points a record at the record at a position, without allocating.
+   *
+   * @param pos position of the record
+   * @param record record to update
+   * @return position of the next record, or -1 if the record is truncated
+   */
+  int readRecord(int pos, DataLogRecord record) {
+    int size = m_buf.remaining();
+    if (pos >= size) {
+      return -1;
+    }
+    int lenbyte = m_buf.get(pos) & 0xff;
+    int entryLen = (lenbyte & 0x3) + 1;
+    int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
+    int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
+    int headerLen = 1 + entryLen + sizeLen + timestampLen;
+    if (pos + headerLen > size) {
+      return -1;
+    }
+    int entry = (int) readVarInt(pos + 1, entryLen);
+    long dataSize = readVarInt(pos + 1 + entryLen, sizeLen);
+    long timestamp = readVarInt(pos + 1 + entryLen + sizeLen, timestampLen);
+    if (pos + headerLen + dataSize > size) {
+      return -1;
+    }
+    record.set(entry, timestamp, m_buf, pos + headerLen, (int) dataSize);
+    return pos + headerLen + (int) dataSize;
+  }
+
+  int getFirstRecord() {
+    return 12 + m_buf.getInt(8);
+  }
+
+  int getRecordEntry(int pos) {
+    int lenbyte = m_buf.get(pos) & 0xff;
+    return (int) readVarInt(pos + 1, (lenbyte & 0x3) + 1);
+  }
+
+  long getRecordTimestamp(int pos) {
+    int lenbyte = m_buf.get(pos) & 0xff;
+    int entryLen = (lenbyte & 0x3) + 1;
+    int sizeLen = ((lenbyte >> 2) & 0x3) + 1;
+    int timestampLen = ((lenbyte >> 4) & 0x7) + 1;
+    return readVarInt(pos + 1 + entryLen + sizeLen, timestampLen);
   }
 
   int getNextRecord(int pos) {
@@ -154,4 +269,5 @@ public class DataLogReader implements Iterable<DataLogRecord> {
   }
 
   private final ByteBuffer m_buf;
+  private DataLogIndex m_index;
 }
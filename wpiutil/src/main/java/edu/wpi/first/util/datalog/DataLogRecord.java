@@ -24,10 +24,30 @@ public class DataLogRecord {
   private static final int kControlSetMetadata = 2;
 
   DataLogRecord(int entry, long timestamp, ByteBuffer data) {
+    data.order(ByteOrder.LITTLE_ENDIAN);
+    set(entry, timestamp, data, data.position(), data.remaining());
+  }
+
+  DataLogRecord(int entry, long timestamp, ByteBuffer buf, int offset, int size) {
+    set(entry, timestamp, buf, offset, size);
+  }
+
+  /**
+   * Points this record at another record. This is used by {@link DataLogCursor} to reuse a single
+   * record object.
+   *
+   * @param entry entry ID
+   * @param timestamp timestamp
+   * @param buf little-endian buffer containing the record data
+   * @param offset index of the record data in buf
+   * @param size size of the record data
+   */
+  final void set(int entry, long timestamp, ByteBuffer buf, int offset, int size) {
     m_entry = entry;
     m_timestamp = timestamp;
-    m_data = data;
-    m_data.order(ByteOrder.LITTLE_ENDIAN);
+    m_buf = buf;
+    m_offset = offset;
+    m_size = size;
   }
 
   /**
@@ -54,7 +74,7 @@ public class DataLogRecord {
    * @return size
    */
   public int getSize() {
-    return m_data.remaining();
+    return m_size;
   }
 
   /**
@@ -77,7 +97,10 @@ public class DataLogRecord {
    * @return byte buffer
    */
   public ByteBuffer getRawBuffer() {
-    ByteBuffer buf = m_data.duplicate();
+    ByteBuffer buf = m_buf.duplicate();
+    buf.limit(m_offset + m_size);
+    buf.position(m_offset);
+    buf = buf.slice();
     buf.order(ByteOrder.LITTLE_ENDIAN);
     return buf;
   }
@@ -98,7 +121,7 @@ public class DataLogRecord {
    * @return True if start control record, false otherwise.
    */
   public boolean isStart() {
-    return m_entry == 0 && m_data.remaining() >= 17 && m_data.get(0) == kControlStart;
+    return m_entry == 0 && m_size >= 17 && m_buf.get(m_offset) == kControlStart;
   }
 
   /**
@@ -108,7 +131,7 @@ public class DataLogRecord {
    * @return True if finish control record, false otherwise.
    */
   public boolean isFinish() {
-    return m_entry == 0 && m_data.remaining() == 5 && m_data.get(0) == kControlFinish;
+    return m_entry == 0 && m_size == 5 && m_buf.get(m_offset) == kControlFinish;
   }
 
   /**
@@ -118,7 +141,7 @@ public class DataLogRecord {
    * @return True if set metadata control record, false otherwise.
    */
   public boolean isSetMetadata() {
-    return m_entry == 0 && m_data.remaining() >= 9 && m_data.get(0) == kControlSetMetadata;
+    return m_entry == 0 && m_size >= 9 && m_buf.get(m_offset) == kControlSetMetadata;
   }
 
   /**
@@ -198,7 +221,7 @@ public class DataLogRecord {
     if (!isFinish()) {
       throw new InputMismatchException("not a finish record");
     }
-    return m_data.getInt(1);
+    return m_buf.getInt(m_offset + 1);
   }
 
   /**
@@ -226,11 +249,8 @@ public class DataLogRecord {
    * @throws InputMismatchException on error
    */
   public boolean getBoolean() {
-    try {
-      return m_data.get(0) != 0;
-    } catch (IndexOutOfBoundsException ex) {
-      throw new InputMismatchException();
-    }
+    checkSize(1);
+    return m_buf.get(m_offset) != 0;
   }
 
   /**
@@ -241,11 +261,8 @@ public class DataLogRecord {
    * @throws InputMismatchException on error
    */
   public long getInteger() {
-    try {
-      return m_data.getLong(0);
-    } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
-      throw new InputMismatchException();
-    }
+    checkSize(8);
+    return m_buf.getLong(m_offset);
   }
 
   /**
@@ -256,11 +273,8 @@ public class DataLogRecord {
    * @throws InputMismatchException on error
    */
   public float getFloat() {
-    try {
-      return m_data.getFloat(0);
-    } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
-      throw new InputMismatchException();
-    }
+    checkSize(4);
+    return m_buf.getFloat(m_offset);
   }
 
   /**
@@ -271,11 +285,8 @@ public class DataLogRecord {
    * @throws InputMismatchException on error
    */
   public double getDouble() {
-    try {
-      return m_data.getDouble(0);
-    } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
-      throw new InputMismatchException();
-    }
+    checkSize(8);
+    return m_buf.getDouble(m_offset);
   }
 
   /**
@@ -296,13 +307,28 @@ public class DataLogRecord {
    * @return boolean array
    */
   public boolean[] getBooleanArray() {
-    boolean[] arr = new boolean[m_data.remaining()];
-    for (int i = 0; i < m_data.remaining(); i++) {
-      arr[i] = m_data.get(i) != 0;
-    }
+    boolean[] arr = new boolean[m_size];
+    getBooleanArray(arr);
     return arr;
   }
 
+  /**
+   * Decodes a data record as a boolean array into an existing array, without allocating. Note if
+   * the data type (as indicated in the corresponding start control record for this entry) is not
+   * "boolean[]", invalid results may be returned.
+   *
+   * @param dest array to store the values in; if it's too small, only the first dest.length values
+   *     are decoded
+   * @return number of values in the record, which may be more than dest.length
+   */
+  public int getBooleanArray(boolean[] dest) {
+    int len = Math.min(m_size, dest.length);
+    for (int i = 0; i < len; i++) {
+      dest[i] = m_buf.get(m_offset + i) != 0;
+    }
+    return m_size;
+  }
+
   /**
    * Decodes a data record as an integer array. Note if the data type (as indicated in the
    * corresponding start control record for this entry) is not "int64[]", invalid results may be
@@ -327,10 +353,27 @@ public class DataLogRecord {
    * @throws InputMismatchException on error
    */
   public LongBuffer getIntegerBuffer() {
-    if ((m_data.limit() % 8) != 0) {
-      throw new InputMismatchException("data size is not a multiple of 8");
+    checkMultiple(8);
+    return getRawBuffer().asLongBuffer();
+  }
+
+  /**
+   * Decodes a data record as an integer array into an existing array, without allocating. Note if
+   * the data type (as indicated in the corresponding start control record for this entry) is not
+   * "int64[]", invalid results may be returned.
+   *
+   * @param dest array to store the values in; if it's too small, only the first dest.length values
+   *     are decoded
+   * @return number of values in the record, which may be more than dest.length
+   * @throws InputMismatchException on error
+   */
+  public int getIntegerArray(long[] dest) {
+    checkMultiple(8);
+    int len = Math.min(m_size / 8, dest.length);
+    for (int i = 0; i < len; i++) {
+      dest[i] = m_buf.getLong(m_offset + i * 8);
     }
-    return m_data.asLongBuffer();
+    return m_size / 8;
   }
 
   /**
@@ -357,10 +400,27 @@ public class DataLogRecord {
    * @throws InputMismatchException on error
    */
   public FloatBuffer getFloatBuffer() {
-    if ((m_data.limit() % 4) != 0) {
-      throw new InputMismatchException("data size is not a multiple of 4");
+    checkMultiple(4);
+    return getRawBuffer().asFloatBuffer();
+  }
+
+  /**
+   * Decodes a data record as a float array into an existing array, without allocating. Note if the
+   * data type (as indicated in the corresponding start control record for this entry) is not
+   * "float[]", invalid results may be returned.
+   *
+   * @param dest array to store the values in; if it's too small, only the first dest.length values
+   *     are decoded
+   * @return number of values in the record, which may be more than dest.length
+   * @throws InputMismatchException on error
+   */
+  public int getFloatArray(float[] dest) {
+    checkMultiple(4);
+    int len = Math.min(m_size / 4, dest.length);
+    for (int i = 0; i < len; i++) {
+      dest[i] = m_buf.getFloat(m_offset + i * 4);
     }
-    return m_data.asFloatBuffer();
+    return m_size / 4;
   }
 
   /**
@@ -387,10 +447,27 @@ public class DataLogRecord {
    * @throws InputMismatchException on error
    */
   public DoubleBuffer getDoubleBuffer() {
-    if ((m_data.limit() % 8) != 0) {
-      throw new InputMismatchException("data size is not a multiple of 8");
+    checkMultiple(8);
+    return getRawBuffer().asDoubleBuffer();
+  }
+
+  /**
+   * Decodes a data record as a double array into an existing array, without allocating. Note if the
+   * data type (as indicated in the corresponding start control record for this entry) is not
+   * "double[]", invalid results may be returned.
+   *
+   * @param dest array to store the values in; if it's too small, only the first dest.length values
+   *     are decoded
+   * @return number of values in the record, which may be more than dest.length
+   * @throws InputMismatchException on error
+   */
+  public int getDoubleArray(double[] dest) {
+    checkMultiple(8);
+    int len = Math.min(m_size / 8, dest.length);
+    for (int i = 0; i < len; i++) {
+      dest[i] = m_buf.getDouble(m_offset + i * 8);
     }
-    return m_data.asDoubleBuffer();
+    return m_size / 8;
   }
 
   /**
@@ -429,7 +506,21 @@ public class DataLogRecord {
     return new String(arr, StandardCharsets.UTF_8);
   }
 
-  private final int m_entry;
-  private final long m_timestamp;
-  private final ByteBuffer m_data;
+  private void checkSize(int size) {
+    if (m_size < size) {
+      throw new InputMismatchException();
+    }
+  }
+
+  private void checkMultiple(int size) {
+    if ((m_size % size) != 0) {
+      throw new InputMismatchException("data size is not a multiple of " + size);
+    }
+  }
+
+  private int m_entry;
+  private long m_timestamp;
+  private ByteBuffer m_buf;
+  private int m_offset;
+  private int m_size;
 }
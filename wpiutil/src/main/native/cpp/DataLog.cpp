@@ -558,6 +558,28 @@ void DataLog::AppendRaw2(int entry,
   }
 }
 
+void DataLog::AppendBatch(wpi::span<const uint8_t> data) {
+  std::scoped_lock lock{m_mutex};
+  if (m_paused) {
+    return;
+  }
+  // 4-byte entry, 4-byte payload size, 8-byte timestamp
+  while (data.size() >= 16) {
+    int entry = static_cast<int32_t>(wpi::support::endian::read32le(&data[0]));
+    uint32_t size = wpi::support::endian::read32le(&data[4]);
+    int64_t timestamp = wpi::support::endian::read64le(&data[8]);
+    data = data.subspan(16);
+    if (size > data.size()) {
+      return;
+    }
+    if (entry > 0) {
+      StartRecord(entry, timestamp, size, 0);
+      AppendImpl(data.subspan(0, size));
+    }
+    data = data.subspan(size);
+  }
+}
+
 void DataLog::AppendBoolean(int entry, bool value, int64_t timestamp) {
   if (entry <= 0) {
     return;
@@ -170,6 +170,26 @@ Java_edu_wpi_first_util_datalog_DataLogJNI_appendRaw
       timestamp);
 }
 
+/*
+ * Class:     edu_wpi_first_util_datalog_DataLogJNI
+ * Method:    appendBatch
+ * Signature: (JLjava/lang/Object;I)V
+ */
+JNIEXPORT void JNICALL
+Java_edu_wpi_first_util_datalog_DataLogJNI_appendBatch
+  (JNIEnv* env, jclass, jlong impl, jobject buffer, jint length)
+{
+  if (impl == 0 || length <= 0) {
+    return;
+  }
+  auto data = static_cast<const uint8_t*>(env->GetDirectBufferAddress(buffer));
+  if (!data || env->GetDirectBufferCapacity(buffer) < length) {
+    return;
+  }
+  reinterpret_cast<DataLog*>(impl)->AppendBatch(
+      {data, static_cast<size_t>(length)});
+}
+
 /*
  * Class:     edu_wpi_first_util_datalog_DataLogJNI
  * Method:    appendBoolean
@@ -208,6 +208,20 @@ class DataLog final {
   void AppendRaw2(int entry, wpi::span<const wpi::span<const uint8_t>> data,
                   int64_t timestamp);
 
+  /**
+   * Appends a batch of records to the log, holding the log lock once for the
+   * whole batch rather than once per record.
+   *
+   * Each record in the batch is a 4-byte little-endian entry index, a 4-byte
+   * little-endian payload size, an 8-byte little-endian time stamp (0 to
+   * indicate now), and the payload. The payload is encoded the same way as the
+   * corresponding Append function would encode it. Records with an invalid
+   * entry index are skipped. Parsing stops at a record that is truncated.
+   *
+   * @param data Batch of records
+   */
+  void AppendBatch(wpi::span<const uint8_t> data);
+
   void AppendBoolean(int entry, bool value, int64_t timestamp);
   void AppendInteger(int entry, int64_t value, int64_t timestamp);
   void AppendFloat(int entry, float value, int64_t timestamp);
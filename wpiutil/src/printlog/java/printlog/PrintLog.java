@@ -4,9 +4,14 @@
 
 package printlog;
 
+import edu.wpi.first.util.datalog.DataLogCursor;
 import edu.wpi.first.util.datalog.DataLogReader;
 import edu.wpi.first.util.datalog.DataLogRecord;
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
@@ -40,12 +45,24 @@ public final class PrintLog {
       return;
     }
 
+    // Printing is the bottleneck, so buffer the output instead of flushing every line
+    PrintStream out =
+        new PrintStream(
+            new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16), false);
+    print(reader, out);
+    out.flush();
+  }
+
+  private static void print(DataLogReader reader, PrintStream out) {
     Map<Integer, DataLogRecord.StartRecordData> entries = new HashMap<>();
-    for (DataLogRecord record : reader) {
+    // The cursor reuses one record object, so iterating doesn't allocate
+    DataLogCursor cursor = reader.cursor();
+    while (cursor.next()) {
+      DataLogRecord record = cursor.getRecord();
       if (record.isStart()) {
         try {
           DataLogRecord.StartRecordData data = record.getStartData();
-          System.out.println(
+          out.println(
               "Start("
                   + data.entry
                   + ", name='"
@@ -58,28 +75,28 @@ public final class PrintLog {
                   + (record.getTimestamp() / 1000000.0)
                   + "]");
           if (entries.containsKey(data.entry)) {
-            System.out.println("...DUPLICATE entry ID, overriding");
+            out.println("...DUPLICATE entry ID, overriding");
           }
           entries.put(data.entry, data);
         } catch (InputMismatchException ex) {
-          System.out.println("Start(INVALID)");
+          out.println("Start(INVALID)");
         }
       } else if (record.isFinish()) {
         try {
           int entry = record.getFinishEntry();
-          System.out.println("Finish(" + entry + ") [" + (record.getTimestamp() / 1000000.0) + "]");
+          out.println("Finish(" + entry + ") [" + (record.getTimestamp() / 1000000.0) + "]");
           if (!entries.containsKey(entry)) {
-            System.out.println("...ID not found");
+            out.println("...ID not found");
           } else {
             entries.remove(entry);
           }
         } catch (InputMismatchException ex) {
-          System.out.println("Finish(INVALID)");
+          out.println("Finish(INVALID)");
         }
       } else if (record.isSetMetadata()) {
         try {
           DataLogRecord.MetadataRecordData data = record.getSetMetadataData();
-          System.out.println(
+          out.println(
               "SetMetadata("
                   + data.entry
                   + ", '"
@@ -88,21 +105,21 @@ public final class PrintLog {
                   + (record.getTimestamp() / 1000000.0)
                   + "]");
           if (!entries.containsKey(data.entry)) {
-            System.out.println("...ID not found");
+            out.println("...ID not found");
           }
         } catch (InputMismatchException ex) {
-          System.out.println("SetMetadata(INVALID)");
+          out.println("SetMetadata(INVALID)");
         }
       } else if (record.isControl()) {
-        System.out.println("Unrecognized control record");
+        out.println("Unrecognized control record");
       } else {
-        System.out.print("Data(" + record.getEntry() + ", size=" + record.getSize() + ") ");
+        out.print("Data(" + record.getEntry() + ", size=" + record.getSize() + ") ");
         DataLogRecord.StartRecordData entry = entries.get(record.getEntry());
         if (entry == null) {
-          System.out.println("<ID not found>");
+          out.println("<ID not found>");
           continue;
         }
-        System.out.println(
+        out.println(
             "<name='"
                 + entry.name
                 + "', type='"
@@ -115,7 +132,7 @@ public final class PrintLog {
           // handle systemTime specially
           if ("systemTime".equals(entry.name) && "int64".equals(entry.type)) {
             long val = record.getInteger();
-            System.out.println(
+            out.println(
                 "  "
                     + m_timeFormatter.format(
                         LocalDateTime.ofEpochSecond(val / 1000000, 0, ZoneOffset.UTC))
@@ -125,22 +142,22 @@ public final class PrintLog {
           }
 
           if ("double".equals(entry.type)) {
-            System.out.println("  " + record.getDouble());
+            out.println("  " + record.getDouble());
           } else if ("int64".equals(entry.type)) {
-            System.out.println("  " + record.getInteger());
+            out.println("  " + record.getInteger());
           } else if ("string".equals(entry.type) || "json".equals(entry.type)) {
-            System.out.println("  '" + record.getString() + "'");
+            out.println("  '" + record.getString() + "'");
           } else if ("boolean".equals(entry.type)) {
-            System.out.println("  " + record.getBoolean());
+            out.println("  " + record.getBoolean());
           } else if ("double[]".equals(entry.type)) {
-            System.out.println("  " + Arrays.asList(record.getDoubleArray()));
+            out.println("  " + Arrays.toString(record.getDoubleArray()));
           } else if ("int64[]".equals(entry.type)) {
-            System.out.println("  " + Arrays.asList(record.getIntegerArray()));
+            out.println("  " + Arrays.toString(record.getIntegerArray()));
           } else if ("string[]".equals(entry.type)) {
-            System.out.println("  " + Arrays.asList(record.getStringArray()));
+            out.println("  " + Arrays.asList(record.getStringArray()));
           }
         } catch (InputMismatchException ex) {
-          System.out.println("  invalid");
+          out.println("  invalid");
         }
       }
     }
@@ -0,0 +1,108 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class InterpolatingDoubleMapTest {
+  @Test
+  void testInterpolation() {
+    var table = new InterpolatingDoubleMap();
+
+    // Put out of order to exercise sorted insertion
+    table.put(268.0, 525.0);
+    table.put(125.0, 450.0);
+    table.put(326.0, 650.0);
+    table.put(200.0, 510.0);
+    table.put(312.0, 550.0);
+    assertEquals(5, table.size());
+
+    // Key below minimum gives smallest value
+    assertEquals(450.0, table.get(100.0));
+
+    // Minimum key gives exact value
+    assertEquals(450.0, table.get(125.0));
+
+    // Key gives interpolated value
+    assertEquals(480.0, table.get(162.5));
+
+    // Key at right of interpolation range gives exact value
+    assertEquals(510.0, table.get(200.0));
+
+    // Maximum key gives exact value
+    assertEquals(650.0, table.get(326.0));
+
+    // Key above maximum gives largest value
+    assertEquals(650.0, table.get(400.0));
+
+    // Putting an existing key replaces its value
+    table.put(200.0, 500.0);
+    assertEquals(5, table.size());
+    assertEquals(500.0, table.get(200.0));
+  }
+
+  @Test
+  void testClear() {
+    var table = new InterpolatingDoubleMap();
+    assertEquals(Double.NaN, table.get(1.0));
+
+    table.put(125.0, 450.0);
+    table.put(200.0, 510.0);
+    table.clear();
+    assertEquals(0, table.size());
+    assertEquals(Double.NaN, table.get(150.0));
+
+    table.put(100.0, 250.0);
+    table.put(200.0, 500.0);
+    assertEquals(375.0, table.get(150.0));
+  }
+
+  @Test
+  void testEvenlySpacedKeys() {
+    var table = new InterpolatingDoubleMap();
+    var expected = new InterpolatingTreeMap<Double, Double>();
+
+    // Keys accumulated in floating point aren't exactly evenly spaced
+    double key = -3.0;
+    for (int i = 0; i < 601; i++) {
+      table.put(key, Math.sin(key));
+      expected.put(key, Math.sin(key));
+      key += 0.01;
+    }
+
+    var rand = new Random(1234);
+    for (int i = 0; i < 10000; i++) {
+      double query = rand.nextDouble() * 7.0 - 3.5;
+      assertEquals(expected.get(query), table.get(query));
+    }
+    key = -3.0;
+    for (int i = 0; i < 601; i++) {
+      assertEquals(expected.get(key), table.get(key));
+      key += 0.01;
+    }
+  }
+
+  @Test
+  void testUnevenlySpacedKeys() {
+    var table = new InterpolatingDoubleMap();
+    var expected = new InterpolatingTreeMap<Double, Double>();
+
+    var rand = new Random(5678);
+    for (int i = 0; i < 200; i++) {
+      double key = rand.nextDouble() * 100.0;
+      double value = rand.nextGaussian();
+      table.put(key, value);
+      expected.put(key, value);
+    }
+
+    for (int i = 0; i < 10000; i++) {
+      double query = rand.nextDouble() * 110.0 - 5.0;
+      assertEquals(expected.get(query), table.get(query));
+    }
+  }
+}
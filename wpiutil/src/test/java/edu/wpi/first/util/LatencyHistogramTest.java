@@ -0,0 +1,76 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+  @Test
+  void testEmpty() {
+    var histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMin());
+    assertEquals(0, histogram.getMax());
+    assertEquals(0.0, histogram.getMean());
+    assertEquals(0, histogram.getValueAtPercentile(50.0));
+  }
+
+  @Test
+  void testSmallValuesExact() {
+    var histogram = new LatencyHistogram();
+    for (int i = 1; i <= 50; i++) {
+      histogram.record(i);
+    }
+    assertEquals(50, histogram.getCount());
+    assertEquals(1, histogram.getMin());
+    assertEquals(50, histogram.getMax());
+    assertEquals(25.5, histogram.getMean(), 1e-12);
+    assertEquals(25, histogram.getValueAtPercentile(50.0));
+    assertEquals(50, histogram.getValueAtPercentile(100.0));
+    assertEquals(1, histogram.getValueAtPercentile(0.0));
+  }
+
+  @Test
+  void testPercentilePrecision() {
+    var histogram = new LatencyHistogram();
+    var random = new Random(1234);
+    var values = new long[10000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (long) Math.exp(random.nextDouble() * 20.0);
+      histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+
+    for (double percentile : new double[] {1.0, 50.0, 90.0, 99.0, 99.9}) {
+      long exact = values[(int) Math.ceil(percentile / 100.0 * values.length) - 1];
+      long value = histogram.getValueAtPercentile(percentile);
+      assertTrue(value >= exact, percentile + "th percentile " + value + " < " + exact);
+      assertTrue(value <= exact * 1.04 + 1, percentile + "th percentile " + value + " >> " + exact);
+    }
+    assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100.0));
+  }
+
+  @Test
+  void testOutOfRange() {
+    var histogram = new LatencyHistogram();
+    histogram.record(-5);
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(0, histogram.getMin());
+    assertEquals(Long.MAX_VALUE, histogram.getMax());
+    assertEquals(0, histogram.getValueAtPercentile(50.0));
+    assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100.0));
+
+    histogram.reset();
+    assertEquals(0, histogram.getCount());
+    histogram.record(7);
+    assertEquals(7, histogram.getMin());
+    assertEquals(7, histogram.getValueAtPercentile(99.0));
+  }
+}
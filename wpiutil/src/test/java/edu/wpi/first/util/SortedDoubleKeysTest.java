@@ -0,0 +1,56 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class SortedDoubleKeysTest {
+  @Test
+  void testAdd() {
+    var keys = new SortedDoubleKeys();
+    assertEquals(-1, keys.add(2.0));
+    assertEquals(-1, keys.add(1.0));
+    assertEquals(-3, keys.add(3.0));
+    assertEquals(1, keys.add(2.0));
+    assertEquals(3, keys.size());
+    assertEquals(1.0, keys.get(0));
+    assertEquals(2.0, keys.get(1));
+    assertEquals(3.0, keys.get(2));
+
+    for (int i = 0; i < 20; i++) {
+      keys.add(10.0 + i);
+    }
+    assertEquals(23, keys.size());
+    assertTrue(keys.capacity() >= 23);
+
+    keys.clear();
+    assertEquals(0, keys.size());
+  }
+
+  @Test
+  void testFloorIndex() {
+    // Evenly spaced keys, accumulated in floating point, then uneven ones with a key inserted in
+    // the
+    // middle or appended at the end
+    for (double extra : new double[] {Double.NaN, 0.35, 1.25}) {
+      var keys = new SortedDoubleKeys();
+      for (double key = 0.0; key < 1.0; key += 0.1) {
+        keys.add(key);
+      }
+      if (!Double.isNaN(extra)) {
+        keys.add(extra);
+      }
+      for (double query = 0.001; query < keys.get(keys.size() - 1); query += 0.007) {
+        int index = keys.floorIndex(query);
+        assertTrue(keys.get(index) <= query, "query " + query);
+        assertTrue(keys.get(index + 1) > query, "query " + query);
+      }
+      assertEquals(1, keys.floorIndex(keys.get(1)));
+    }
+  }
+}
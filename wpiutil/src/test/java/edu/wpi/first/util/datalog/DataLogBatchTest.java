@@ -0,0 +1,217 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DataLogBatchTest {
+  /** Collects committed batches and decodes them as a log. */
+  private static final class Sink {
+    final List<Integer> m_commitSizes = new ArrayList<>();
+    final LogBuilder m_log = new LogBuilder();
+
+    void commit(ByteBuffer buffer, int length) {
+      m_commitSizes.add(length);
+      var batch = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+      batch.position(0).limit(length);
+      while (batch.hasRemaining()) {
+        int entry = batch.getInt();
+        byte[] data = new byte[batch.getInt()];
+        long timestamp = batch.getLong();
+        batch.get(data);
+        m_log.appendRaw(entry, data, timestamp);
+      }
+    }
+
+    List<DataLogRecord> records() {
+      var reader = new DataLogReader(m_log.build());
+      assertTrue(reader.isValid());
+      var records = new ArrayList<DataLogRecord>();
+      reader.forEach(records::add);
+      return records;
+    }
+  }
+
+  private static void assertRecord(DataLogRecord record, int entry, long timestamp) {
+    assertEquals(entry, record.getEntry());
+    assertEquals(timestamp, record.getTimestamp());
+  }
+
+  @Test
+  void testRoundTripAllTypes() {
+    var sink = new Sink();
+    var batch = new DataLogBatch(sink::commit, 1024);
+    batch.appendRaw(1, new byte[] {1, 2, 3, 4, 5}, 1, 3, 10);
+    batch.appendBoolean(2, true, 11);
+    batch.appendInteger(3, -1234567890123L, 12);
+    batch.appendFloat(4, 1.25f, 13);
+    batch.appendDouble(5, -3.5, 14);
+    batch.appendString(6, "hello", 15);
+    batch.appendBooleanArray(7, new boolean[] {true, false, true}, 16);
+    batch.appendIntegerArray(8, new long[] {0, 1, 2, 3}, 1, 2, 17);
+    batch.appendFloatArray(9, new float[] {0.5f, -1.5f}, 18);
+    batch.appendDoubleArray(10, new double[] {1.0, 2.0, 3.0}, 0, 2, 19);
+    batch.appendStringArray(11, new String[] {"", "a", "bc"}, 20);
+    assertTrue(sink.m_commitSizes.isEmpty());
+    batch.flush();
+    assertEquals(0, batch.size());
+    assertEquals(1, sink.m_commitSizes.size());
+
+    var records = sink.records();
+    assertEquals(11, records.size());
+    assertRecord(records.get(0), 1, 10);
+    assertArrayEquals(new byte[] {2, 3, 4}, records.get(0).getRaw());
+    assertRecord(records.get(1), 2, 11);
+    assertTrue(records.get(1).getBoolean());
+    assertRecord(records.get(2), 3, 12);
+    assertEquals(-1234567890123L, records.get(2).getInteger());
+    assertRecord(records.get(3), 4, 13);
+    assertEquals(1.25f, records.get(3).getFloat());
+    assertRecord(records.get(4), 5, 14);
+    assertEquals(-3.5, records.get(4).getDouble());
+    assertRecord(records.get(5), 6, 15);
+    assertEquals("hello", records.get(5).getString());
+    assertRecord(records.get(6), 7, 16);
+    assertArrayEquals(new boolean[] {true, false, true}, records.get(6).getBooleanArray());
+    assertRecord(records.get(7), 8, 17);
+    assertArrayEquals(new long[] {1, 2}, records.get(7).getIntegerArray());
+    assertRecord(records.get(8), 9, 18);
+    assertArrayEquals(new float[] {0.5f, -1.5f}, records.get(8).getFloatArray());
+    assertRecord(records.get(9), 10, 19);
+    assertArrayEquals(new double[] {1.0, 2.0}, records.get(9).getDoubleArray());
+    assertRecord(records.get(10), 11, 20);
+    assertArrayEquals(new String[] {"", "a", "bc"}, records.get(10).getStringArray());
+  }
+
+  @Test
+  void testUtf8Strings() {
+    // 2-, 3-, and 4-byte sequences, and an unpaired surrogate
+    String str = "aé€😀";
+    var sink = new Sink();
+    var batch = new DataLogBatch(sink::commit, 256);
+    batch.appendString(1, str, 1);
+    batch.appendString(1, "x\ud800y", 2); // unpaired high surrogate
+    batch.appendStringArray(2, new String[] {str, "é"}, 3);
+    batch.flush();
+
+    var records = sink.records();
+    assertEquals(3, records.size());
+    assertEquals(1 + 2 + 3 + 4, records.get(0).getSize());
+    assertEquals(str, records.get(0).getString());
+    assertEquals("x�y", records.get(1).getString());
+    assertArrayEquals(new String[] {str, "é"}, records.get(2).getStringArray());
+  }
+
+  @Test
+  void testFlushWhenFull() {
+    var sink = new Sink();
+    // Room for two 24-byte double records, but not three
+    var batch = new DataLogBatch(sink::commit, 64);
+    batch.appendDouble(1, 1.0, 1);
+    batch.appendDouble(1, 2.0, 2);
+    assertEquals(48, batch.size());
+    assertTrue(sink.m_commitSizes.isEmpty());
+
+    batch.appendDouble(1, 3.0, 3);
+    assertEquals(List.of(48), sink.m_commitSizes);
+    assertEquals(24, batch.size());
+
+    batch.flush();
+    assertEquals(List.of(48, 24), sink.m_commitSizes);
+    var records = sink.records();
+    assertEquals(3, records.size());
+    for (int i = 0; i < 3; i++) {
+      assertRecord(records.get(i), 1, i + 1);
+      assertEquals(i + 1.0, records.get(i).getDouble());
+    }
+  }
+
+  @Test
+  void testOversizedRecord() {
+    var sink = new Sink();
+    var batch = new DataLogBatch(sink::commit, 64);
+    batch.appendInteger(1, 5, 1);
+    assertThrows(IllegalArgumentException.class, () -> batch.appendRaw(2, new byte[49], 2));
+    assertThrows(
+        IllegalArgumentException.class, () -> batch.appendDoubleArray(2, new double[7], 2));
+
+    // The staged record is neither dropped nor committed early
+    assertEquals(24, batch.size());
+    assertTrue(sink.m_commitSizes.isEmpty());
+
+    // A record that exactly fills an empty batch is accepted
+    batch.appendRaw(2, new byte[48], 3);
+    batch.flush();
+    var records = sink.records();
+    assertEquals(2, records.size());
+    assertEquals(5, records.get(0).getInteger());
+    assertRecord(records.get(1), 2, 3);
+    assertEquals(48, records.get(1).getSize());
+  }
+
+  @Test
+  void testInvalidCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new DataLogBatch((buf, len) -> {}, 15));
+  }
+
+  @Test
+  void testDataLogRoundTrip(@TempDir Path dir) throws IOException {
+    int doubleEntry;
+    int stringEntry;
+    int arrayEntry;
+    try (var log = new DataLog(dir.toString(), "batch.wpilog")) {
+      doubleEntry = log.start("d", "double");
+      stringEntry = log.start("s", "string");
+      arrayEntry = log.start("a", "string[]");
+      var batch = new DataLogBatch(log, 64);
+      for (int i = 0; i < 10; i++) {
+        batch.appendDouble(doubleEntry, i, 100 + i);
+      }
+      batch.appendString(stringEntry, "€", 200);
+      batch.appendStringArray(arrayEntry, new String[] {"x", "yz"}, 201);
+      batch.flush();
+    }
+
+    var reader = new DataLogReader(dir.resolve("batch.wpilog").toString());
+    assertTrue(reader.isValid());
+    int doubles = 0;
+    boolean foundString = false;
+    boolean foundArray = false;
+    for (DataLogRecord record : reader) {
+      if (record.isControl()) {
+        continue;
+      }
+      if (record.getEntry() == doubleEntry) {
+        assertEquals(100 + doubles, record.getTimestamp());
+        assertEquals(doubles, record.getDouble());
+        doubles++;
+      } else if (record.getEntry() == stringEntry) {
+        assertFalse(foundString);
+        assertEquals("€", record.getString());
+        foundString = true;
+      } else if (record.getEntry() == arrayEntry) {
+        assertFalse(foundArray);
+        assertArrayEquals(new String[] {"x", "yz"}, record.getStringArray());
+        foundArray = true;
+      }
+    }
+    assertEquals(10, doubles);
+    assertTrue(foundString);
+    assertTrue(foundArray);
+  }
+}
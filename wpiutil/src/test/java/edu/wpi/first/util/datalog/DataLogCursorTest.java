@@ -0,0 +1,110 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.InputMismatchException;
+import org.junit.jupiter.api.Test;
+
+class DataLogCursorTest {
+  @Test
+  void testMatchesIterator() {
+    var log =
+        new LogBuilder()
+            .start(1, "a", "double", 1)
+            .appendDouble(1, 1.5, 2)
+            .appendString(1, "hello", 3)
+            .finish(1, 4)
+            .appendInteger(2, 7, 5)
+            .build();
+    var reader = new DataLogReader(log);
+
+    var cursor = reader.cursor();
+    DataLogRecord first = null;
+    for (DataLogRecord expected : reader) {
+      assertTrue(cursor.next());
+      var record = cursor.getRecord();
+      if (first == null) {
+        first = record;
+      }
+      assertSame(first, record);
+      assertEquals(expected.getEntry(), record.getEntry());
+      assertEquals(expected.getTimestamp(), record.getTimestamp());
+      assertArrayEquals(expected.getRaw(), record.getRaw());
+    }
+    assertFalse(cursor.next());
+    assertFalse(cursor.next());
+    assertThrows(IllegalStateException.class, cursor::getRecord);
+  }
+
+  @Test
+  void testSeek() {
+    var reader =
+        new DataLogReader(new LogBuilder().appendDouble(1, 1.0, 1).appendDouble(1, 2.0, 2).build());
+    var cursor = reader.cursor();
+    assertTrue(cursor.next());
+    int pos = cursor.getPosition();
+    assertTrue(cursor.next());
+    assertEquals(2.0, cursor.getRecord().getDouble());
+
+    cursor.seek(pos);
+    assertEquals(-1, cursor.getPosition());
+    assertTrue(cursor.next());
+    assertEquals(1.0, cursor.getRecord().getDouble());
+  }
+
+  @Test
+  void testTruncated() {
+    var log = new LogBuilder().appendDouble(1, 1.0, 1).appendDouble(1, 2.0, 2).build();
+    var reader = new DataLogReader(log.limit(log.limit() - 1).slice());
+    var cursor = reader.cursor();
+    assertTrue(cursor.next());
+    assertFalse(cursor.next());
+  }
+
+  @Test
+  void testDecodeInto() {
+    var reader =
+        new DataLogReader(
+            new LogBuilder()
+                .appendDoubleArray(1, new double[] {1.0, 2.0, 3.0}, 1)
+                .appendIntegerArray(2, new long[] {4, 5}, 2)
+                .appendFloatArray(3, new float[] {6.0f, 7.0f}, 3)
+                .appendBooleanArray(4, new boolean[] {true, false, true}, 4)
+                .build());
+    var cursor = reader.cursor();
+
+    assertTrue(cursor.next());
+    double[] doubles = new double[4];
+    assertEquals(3, cursor.getRecord().getDoubleArray(doubles));
+    assertArrayEquals(new double[] {1.0, 2.0, 3.0, 0.0}, doubles);
+    double[] small = new double[2];
+    assertEquals(3, cursor.getRecord().getDoubleArray(small));
+    assertArrayEquals(new double[] {1.0, 2.0}, small);
+
+    assertTrue(cursor.next());
+    long[] longs = new long[2];
+    assertEquals(2, cursor.getRecord().getIntegerArray(longs));
+    assertArrayEquals(new long[] {4, 5}, longs);
+
+    assertTrue(cursor.next());
+    float[] floats = new float[2];
+    assertEquals(2, cursor.getRecord().getFloatArray(floats));
+    assertArrayEquals(new float[] {6.0f, 7.0f}, floats);
+
+    assertTrue(cursor.next());
+    boolean[] bools = new boolean[3];
+    assertEquals(3, cursor.getRecord().getBooleanArray(bools));
+    assertArrayEquals(new boolean[] {true, false, true}, bools);
+    assertThrows(InputMismatchException.class, () -> cursor.getRecord().getDoubleArray(doubles));
+    assertThrows(InputMismatchException.class, () -> cursor.getRecord().getDouble());
+  }
+}
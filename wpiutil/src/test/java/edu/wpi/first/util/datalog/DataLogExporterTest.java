@@ -0,0 +1,139 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DataLogExporterTest {
+  private static LogBuilder mixedLog(int numRecords) {
+    var builder =
+        new LogBuilder()
+            .start(1, "double", "double", 0)
+            .start(2, "int", "int64", 0)
+            .start(3, "string", "string", 0)
+            .start(4, "doubles", "double[]", 0)
+            .start(5, "bool", "boolean", 0);
+    for (int i = 0; i < numRecords; ++i) {
+      builder
+          .appendDouble(1, i * 0.5, 10 * i)
+          .appendInteger(2, -i, 10 * i + 1)
+          .appendString(3, "s" + i, 10 * i + 2)
+          .appendDoubleArray(4, new double[] {i, i + 1}, 10 * i + 3)
+          .appendBoolean(5, i % 2 == 0, 10 * i + 4);
+    }
+    return builder;
+  }
+
+  private static Path write(Path dir, String name, LogBuilder builder) throws IOException {
+    var buf = builder.build();
+    var arr = new byte[buf.remaining()];
+    buf.get(arr);
+    return Files.write(dir.resolve(name), arr);
+  }
+
+  @Test
+  void testExportColumns() {
+    var pool = new ForkJoinPool(4);
+    try {
+      // Use small chunks so each entry is split across several tasks
+      var exporter = new DataLogExporter(pool, 7);
+      var columns = exporter.export(new DataLogReader(mixedLog(100).build()));
+      assertEquals(5, columns.size());
+
+      var doubles = columns.get(0);
+      assertEquals("double", doubles.getName());
+      assertEquals(100, doubles.size());
+      assertNull(doubles.getValues());
+      for (int i = 0; i < 100; ++i) {
+        assertEquals(i * 0.5, doubles.getDoubles()[i]);
+        assertEquals(10 * i, doubles.getTimestamps()[i]);
+      }
+
+      assertEquals(-99, columns.get(1).getIntegers()[99]);
+      assertEquals("s42", columns.get(2).getValues()[42]);
+      assertArrayEquals(new double[] {3.0, 4.0}, (double[]) columns.get(3).getValues()[3]);
+      assertEquals(false, columns.get(4).getBooleans()[3]);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void testExportFiles(@TempDir Path dir) throws IOException {
+    var first = write(dir, "a.wpilog", mixedLog(50));
+    var second = write(dir, "b.wpilog", mixedLog(20));
+
+    var exporter = new DataLogExporter();
+    var processed = new AtomicLong();
+    var total = new AtomicLong();
+    exporter.setProgressCallback(
+        (bytesProcessed, bytesTotal) -> {
+          processed.accumulateAndGet(bytesProcessed, Math::max);
+          total.set(bytesTotal);
+        });
+
+    var results = exporter.export(List.of(first, second));
+    assertEquals(List.of(first, second), List.copyOf(results.keySet()));
+    assertEquals(50, results.get(first).get(0).size());
+    assertEquals(20, results.get(second).get(0).size());
+    assertEquals(Files.size(first) + Files.size(second), total.get());
+    assertEquals(total.get(), processed.get());
+  }
+
+  @Test
+  void testExportCsv(@TempDir Path dir) throws IOException {
+    var log =
+        write(
+            dir,
+            "match.wpilog",
+            new LogBuilder()
+                .start(1, "x", "double", 0)
+                .start(2, "name", "string", 0)
+                .appendDouble(1, 1.5, 2000000)
+                .appendString(2, "say \"hi\"", 1000000));
+
+    new DataLogExporter().exportCsv(List.of(log), dir.resolve("csv"));
+    var lines = Files.readAllLines(dir.resolve("csv").resolve("match.csv"), StandardCharsets.UTF_8);
+    assertEquals(
+        List.of("Timestamp,Name,Value", "1.0,\"name\",\"say \"\"hi\"\"\"", "2.0,\"x\",1.5"), lines);
+  }
+
+  @Test
+  void testWriteCsvArrays() throws IOException {
+    var columns =
+        new DataLogExporter()
+            .export(
+                new DataLogReader(
+                    new LogBuilder()
+                        .start(1, "arr", "int64[]", 0)
+                        .appendIntegerArray(1, new long[] {1, 2, 3}, 5)
+                        .appendIntegerArray(1, new long[0], 6)
+                        .build()));
+    var writer = new StringWriter();
+    DataLogExporter.writeCsv(columns, writer);
+    assertEquals(
+        "Timestamp,Name,Value\n5.0E-6,\"arr\",\"1;2;3\"\n6.0E-6,\"arr\",\"\"\n", writer.toString());
+  }
+
+  @Test
+  void testInvalidFile(@TempDir Path dir) throws IOException {
+    var path = Files.write(dir.resolve("bad.wpilog"), new byte[] {1, 2, 3});
+    assertThrows(IOException.class, () -> new DataLogExporter().export(List.of(path)));
+  }
+}
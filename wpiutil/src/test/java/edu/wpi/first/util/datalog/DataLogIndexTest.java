@@ -0,0 +1,127 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DataLogIndexTest {
+  private static List<Long> timestamps(Iterable<DataLogRecord> records) {
+    var timestamps = new ArrayList<Long>();
+    for (var record : records) {
+      timestamps.add(record.getTimestamp());
+    }
+    return timestamps;
+  }
+
+  private static DataLogReader interleavedLog() {
+    var builder = new LogBuilder().start(1, "a", "double", 0).start(2, "b", "double", 0);
+    for (int i = 0; i < 3000; ++i) {
+      builder.appendDouble(1, i, 100 * i);
+      builder.appendDouble(2, -i, 100 * i + 50);
+    }
+    return new DataLogReader(builder.build());
+  }
+
+  @Test
+  void testEntries() {
+    var reader = interleavedLog();
+    var entries = reader.entries();
+    assertEquals(2, entries.size());
+    assertEquals(1, entries.get(0).entry);
+    assertEquals("a", entries.get(0).name);
+    assertEquals("double", entries.get(0).type);
+    assertEquals(2, entries.get(1).entry);
+    assertEquals("b", entries.get(1).name);
+    assertEquals(3000, reader.getIndex().getRecordCount(1));
+    assertEquals(0, reader.getIndex().getRecordCount(3));
+  }
+
+  @Test
+  void testIterateSorted() {
+    var reader = interleavedLog();
+    var records = new ArrayList<DataLogRecord>();
+    reader.iterate(2, 1000, 1300).forEach(records::add);
+    assertEquals(3, records.size());
+    assertEquals(1050, records.get(0).getTimestamp());
+    assertEquals(-10.0, records.get(0).getDouble());
+    assertEquals(1250, records.get(2).getTimestamp());
+
+    assertFalse(reader.iterate(2, 1000, 1000).iterator().hasNext());
+    assertFalse(reader.iterate(5, 0, Long.MAX_VALUE).iterator().hasNext());
+  }
+
+  @Test
+  void testIterateUnsorted() {
+    var reader =
+        new DataLogReader(
+            new LogBuilder()
+                .start(1, "a", "double", 0)
+                .appendDouble(1, 1.0, 300)
+                .appendDouble(1, 2.0, 100)
+                .appendDouble(1, 3.0, 200)
+                .appendDouble(1, 4.0, 400)
+                .build());
+    assertEquals(List.of(300L, 200L), timestamps(reader.iterate(1, 150, 350)));
+  }
+
+  @Test
+  void testSeek() {
+    var reader = interleavedLog();
+
+    // Everything at or after the timestamp must be returned, possibly after some earlier records
+    var it = reader.seek(200000);
+    int count = 0;
+    boolean sawTarget = false;
+    while (it.hasNext()) {
+      var record = it.next();
+      sawTarget |= record.getTimestamp() == 200000;
+      ++count;
+    }
+    assertTrue(sawTarget);
+    assertTrue(count >= 2000);
+    assertTrue(count < 6000, "seek should skip earlier records");
+
+    // Past the end
+    assertFalse(reader.seek(Long.MAX_VALUE).hasNext());
+
+    // Before the start returns the whole log, including the start records
+    it = reader.seek(0);
+    assertTrue(it.next().isStart());
+  }
+
+  @Test
+  void testSidecar(@TempDir Path dir) throws IOException {
+    var reader = interleavedLog();
+    var path = dir.resolve("log.wpilog.idx");
+    reader.getIndex().save(path);
+
+    var loaded = interleavedLog();
+    loaded.setIndex(DataLogIndex.load(path));
+    assertEquals(reader.entries().size(), loaded.entries().size());
+    assertEquals("b", loaded.entries().get(1).name);
+    assertEquals(
+        timestamps(reader.iterate(1, 5000, 9000)), timestamps(loaded.iterate(1, 5000, 9000)));
+    assertEquals(
+        reader.seek(123456).next().getTimestamp(), loaded.seek(123456).next().getTimestamp());
+
+    // Index of a different log
+    var other = new DataLogReader(new LogBuilder().start(1, "a", "double", 0).build());
+    assertThrows(IllegalArgumentException.class, () -> other.setIndex(loaded.getIndex()));
+
+    Files.write(path, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    assertThrows(IOException.class, () -> DataLogIndex.load(path));
+  }
+}
@@ -0,0 +1,116 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package edu.wpi.first.util.datalog;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/** Writes data logs in memory, with 4-byte entry IDs and sizes and 8-byte timestamps. */
+class LogBuilder {
+  private final ByteBuffer m_buf =
+      ByteBuffer.allocate(1 << 20).order(ByteOrder.LITTLE_ENDIAN).put(new byte[12]);
+
+  LogBuilder() {
+    m_buf.put(0, (byte) 'W').put(1, (byte) 'P').put(2, (byte) 'I');
+    m_buf.put(3, (byte) 'L').put(4, (byte) 'O').put(5, (byte) 'G');
+    m_buf.putShort(6, (short) 0x0100);
+  }
+
+  private void header(int entry, int size, long timestamp) {
+    m_buf.put((byte) 0x7f).putInt(entry).putInt(size).putLong(timestamp);
+  }
+
+  private void string(byte[] str) {
+    m_buf.putInt(str.length).put(str);
+  }
+
+  LogBuilder start(int entry, String name, String type, long timestamp) {
+    byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+    header(0, 1 + 4 + 4 + nameBytes.length + 4 + typeBytes.length + 4, timestamp);
+    m_buf.put((byte) 0).putInt(entry);
+    string(nameBytes);
+    string(typeBytes);
+    string(new byte[0]);
+    return this;
+  }
+
+  LogBuilder finish(int entry, long timestamp) {
+    header(0, 5, timestamp);
+    m_buf.put((byte) 1).putInt(entry);
+    return this;
+  }
+
+  LogBuilder appendRaw(int entry, byte[] data, long timestamp) {
+    header(entry, data.length, timestamp);
+    m_buf.put(data);
+    return this;
+  }
+
+  LogBuilder appendBoolean(int entry, boolean value, long timestamp) {
+    header(entry, 1, timestamp);
+    m_buf.put(value ? (byte) 1 : (byte) 0);
+    return this;
+  }
+
+  LogBuilder appendInteger(int entry, long value, long timestamp) {
+    header(entry, 8, timestamp);
+    m_buf.putLong(value);
+    return this;
+  }
+
+  LogBuilder appendDouble(int entry, double value, long timestamp) {
+    header(entry, 8, timestamp);
+    m_buf.putDouble(value);
+    return this;
+  }
+
+  LogBuilder appendString(int entry, String value, long timestamp) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    header(entry, bytes.length, timestamp);
+    m_buf.put(bytes);
+    return this;
+  }
+
+  LogBuilder appendBooleanArray(int entry, boolean[] arr, long timestamp) {
+    header(entry, arr.length, timestamp);
+    for (boolean value : arr) {
+      m_buf.put(value ? (byte) 1 : (byte) 0);
+    }
+    return this;
+  }
+
+  LogBuilder appendIntegerArray(int entry, long[] arr, long timestamp) {
+    header(entry, arr.length * 8, timestamp);
+    for (long value : arr) {
+      m_buf.putLong(value);
+    }
+    return this;
+  }
+
+  LogBuilder appendFloatArray(int entry, float[] arr, long timestamp) {
+    header(entry, arr.length * 4, timestamp);
+    for (float value : arr) {
+      m_buf.putFloat(value);
+    }
+    return this;
+  }
+
+  LogBuilder appendDoubleArray(int entry, double[] arr, long timestamp) {
+    header(entry, arr.length * 8, timestamp);
+    for (double value : arr) {
+      m_buf.putDouble(value);
+    }
+    return this;
+  }
+
+  /** Returns the log. Further writes to the builder aren't visible in the returned buffer. */
+  ByteBuffer build() {
+    var buf = m_buf.duplicate();
+    buf.flip();
+    return ByteBuffer.allocate(buf.remaining()).put(buf).flip();
+  }
+}